@@ -0,0 +1,128 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding and decoding of int and double arrays in the binary formats.
+ *
+ * Compare with TextEncoderBenchmark and TextDecoderBenchmark for the text
+ * format. The ints are small counters, which is where varints pay off. The
+ * timestamps tick once a second with some jitter and the readings repeat
+ * often, which is what the time series encodings are made for.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryCodecBenchmark {
+
+	@Param({"1000", "10000", "100000"})
+	public int size;
+
+	private int [] ints;
+	private double [] doubles;
+	private long [] timestamps;
+	private double [] readings;
+
+	private String packed_ints;
+	private String varint_ints;
+	private String packed_doubles;
+	private String delta_of_delta_timestamps;
+	private String xor_readings;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+
+		ints = new int [size];
+		doubles = new double [size];
+		timestamps = new long [size];
+		readings = new double [size];
+		long timestamp = 1600000000000L;
+		for (int i = 0; i < size; i++) {
+			ints[i] = random.nextInt(1000) - 500;
+			doubles[i] = random.nextDouble() * 1000;
+			timestamp += 1000 + (random.nextInt(10)==0 ? random.nextInt(5) : 0);
+			timestamps[i] = timestamp;
+			readings[i] = (i / 60) % 16 * 0.5;
+		}
+
+		packed_ints = BinaryCodec.encode(ints, false);
+		varint_ints = BinaryCodec.encode(ints, true);
+		packed_doubles = BinaryCodec.encode(doubles);
+		delta_of_delta_timestamps = BinaryCodec.encodeDeltaOfDelta(timestamps, size);
+		xor_readings = BinaryCodec.encodeXor(readings, size);
+	}
+
+	@Benchmark
+	public String encodePackedIntegers() {
+		return BinaryCodec.encode(ints, false);
+	}
+	@Benchmark
+	public String encodeVarintIntegers() {
+		return BinaryCodec.encode(ints, true);
+	}
+	@Benchmark
+	public String encodePackedDoubles() {
+		return BinaryCodec.encode(doubles);
+	}
+	@Benchmark
+	public String encodeDeltaOfDeltaTimestamps() {
+		return BinaryCodec.encodeDeltaOfDelta(timestamps, size);
+	}
+	@Benchmark
+	public String encodeXorReadings() {
+		return BinaryCodec.encodeXor(readings, size);
+	}
+
+	@Benchmark
+	public int [] decodePackedIntegers() {
+		return BinaryCodec.decodeIntegers(packed_ints);
+	}
+	@Benchmark
+	public int [] decodeVarintIntegers() {
+		return BinaryCodec.decodeIntegers(varint_ints);
+	}
+	@Benchmark
+	public double [] decodePackedDoubles() {
+		return BinaryCodec.decodeDoubles(packed_doubles);
+	}
+	@Benchmark
+	public long [] decodeDeltaOfDeltaTimestamps() {
+		return BinaryCodec.decodeLongs(delta_of_delta_timestamps);
+	}
+	@Benchmark
+	public double [] decodeXorReadings() {
+		return BinaryCodec.decodeDoubles(xor_readings);
+	}
+}
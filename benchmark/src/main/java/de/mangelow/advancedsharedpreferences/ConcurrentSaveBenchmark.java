@@ -0,0 +1,92 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Saving chunked int arrays from several threads through one shared
+ * AdvancedSharedPreferences over a MemoryPreferenceStore. Every thread
+ * saves and appends to a key of its own, so only the store commit is
+ * serialized. Compare with -t 1 for the single threaded throughput.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class ConcurrentSaveBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Shared {
+
+		@Param({"1000", "10000"})
+		public int size;
+
+		private final AtomicInteger threads = new AtomicInteger();
+
+		private AdvancedSharedPreferences preferences;
+
+		@Setup
+		public void setup() {
+			preferences = new AdvancedSharedPreferences(new MemoryPreferenceStore(), null, 1024, false);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Local {
+
+		private String key;
+		private int [] ints;
+
+		@Setup
+		public void setup(Shared shared) {
+			Random random = new Random(42);
+
+			key = "ints" + shared.threads.getAndIncrement();
+			ints = new int [shared.size];
+			for (int i = 0; i < ints.length; i++) {
+				ints[i] = random.nextInt(1000) - 500;
+			}
+		}
+	}
+
+	@Benchmark
+	public boolean saveIntegers(Shared shared, Local local) {
+		return shared.preferences.saveIntegerArrayPref(local.key, local.ints);
+	}
+	@Benchmark
+	public boolean saveAndAppendInteger(Shared shared, Local local) {
+		return shared.preferences.saveIntegerArrayPref(local.key, local.ints)
+				&& shared.preferences.appendIntegerArrayPref(local.key, 42);
+	}
+}
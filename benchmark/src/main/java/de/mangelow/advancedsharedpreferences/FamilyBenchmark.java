@@ -0,0 +1,347 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Saving, loading and deleting arrays and arraylists of every type family
+ * through AdvancedSharedPreferences over a MemoryPreferenceStore.
+ *
+ * With the default value_maxsize of 8192 characters 1 and 100 elements fit
+ * into one chunk, 10000 elements and more are split into chunks. The size 0
+ * stands for the fewest elements of the family, that need a second chunk.
+ * Location is left out, because android.location.Location is only a stub on
+ * a plain JVM.
+ *
+ * The allocation rate is reported by the gc profiler: -prof gc
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FamilyBenchmark {
+
+	private static final String KEY = "values";
+	private static final String CHUNKS = "_c";
+
+	@Param({"boolean", "byte", "short", "integer", "long", "biginteger", "float", "double",
+		"bigdecimal", "char", "string", "date", "gregoriancalendar"})
+	public String family;
+
+	/** Number of elements, 0 for the fewest elements, that do not fit into one chunk */
+	@Param({"1", "100", "0", "10000", "1000000"})
+	public int size;
+
+	private Family values;
+	private AdvancedSharedPreferences preferences;
+
+	@Setup
+	public void setup() {
+		if(size==0)size = getTwoChunkSize(family);
+		values = Family.create(family, size, new Random(42));
+		preferences = new AdvancedSharedPreferences(new MemoryPreferenceStore());
+		values.saveArray(preferences, KEY);
+		values.saveList(preferences, KEY);
+	}
+
+	/**
+	 * @return Returns the fewest elements of the family, that are saved into two chunks.
+	 */
+	private static int getTwoChunkSize(String family) {
+		int low = 1;
+		int high = 2;
+		while (getChunkCount(family, high)<2) {
+			low = high;
+			high *= 2;
+		}
+		while (low + 1<high) {
+			int middle = (low + high) >>> 1;
+			if(getChunkCount(family, middle)<2)low = middle;
+			else high = middle;
+		}
+		return high;
+	}
+	private static int getChunkCount(String family, int size) {
+		MemoryPreferenceStore store = new MemoryPreferenceStore();
+		Family.create(family, size, new Random(42)).saveArray(new AdvancedSharedPreferences(store), KEY);
+
+		for (Map.Entry<String, ?> entry : store.getAll().entrySet()) {
+			if(entry.getKey().endsWith(CHUNKS)&&entry.getValue() instanceof Integer)return (Integer) entry.getValue();
+		}
+		return 0;
+	}
+
+	/**
+	 * Preferences, that are saved again before every deletion
+	 */
+	@State(Scope.Thread)
+	public static class Saved {
+		AdvancedSharedPreferences preferences;
+
+		@Setup(Level.Invocation)
+		public void save(FamilyBenchmark benchmark) {
+			if(preferences==null)preferences = new AdvancedSharedPreferences(new MemoryPreferenceStore());
+			benchmark.values.saveArray(preferences, KEY);
+			benchmark.values.saveList(preferences, KEY);
+		}
+	}
+
+	@Benchmark
+	public boolean saveArray() {
+		return values.saveArray(preferences, KEY);
+	}
+	@Benchmark
+	public Object loadArray() {
+		return values.loadArray(preferences, KEY);
+	}
+	@Benchmark
+	public boolean delArray(Saved saved) {
+		return values.delArray(saved.preferences, KEY);
+	}
+	@Benchmark
+	public boolean saveArrayList() {
+		return values.saveList(preferences, KEY);
+	}
+	@Benchmark
+	public Object loadArrayList() {
+		return values.loadList(preferences, KEY);
+	}
+	@Benchmark
+	public boolean delArrayList(Saved saved) {
+		return values.delList(saved.preferences, KEY);
+	}
+
+	/**
+	 * Test values of one type family and the matching preference methods
+	 */
+	static abstract class Family {
+
+		abstract boolean saveArray(AdvancedSharedPreferences preferences, String key);
+		abstract Object loadArray(AdvancedSharedPreferences preferences, String key);
+		abstract boolean delArray(AdvancedSharedPreferences preferences, String key);
+		abstract boolean saveList(AdvancedSharedPreferences preferences, String key);
+		abstract Object loadList(AdvancedSharedPreferences preferences, String key);
+		abstract boolean delList(AdvancedSharedPreferences preferences, String key);
+
+		static Family create(String family, final int size, Random random) {
+			if(family.equals("boolean")) {
+				final boolean [] array = new boolean [size];
+				for (int i = 0; i < size; i++)array[i] = random.nextBoolean();
+				final ArrayList<Boolean> list = new ArrayList<Boolean>(size);
+				for (boolean value : array)list.add(value);
+				return new Family() {
+					boolean saveArray(AdvancedSharedPreferences p, String key) { return p.saveBooleanArrayPref(key, array); }
+					Object loadArray(AdvancedSharedPreferences p, String key) { return p.loadBooleanArrayPref(key, null); }
+					boolean delArray(AdvancedSharedPreferences p, String key) { return p.delBooleanArrayPref(key); }
+					boolean saveList(AdvancedSharedPreferences p, String key) { return p.saveBooleanArrayListPref(key, list); }
+					Object loadList(AdvancedSharedPreferences p, String key) { return p.loadBooleanArrayListPref(key, null); }
+					boolean delList(AdvancedSharedPreferences p, String key) { return p.delBooleanArrayListPref(key); }
+				};
+			}
+			if(family.equals("byte")) {
+				final byte [] array = new byte [size];
+				random.nextBytes(array);
+				final ArrayList<Byte> list = new ArrayList<Byte>(size);
+				for (byte value : array)list.add(value);
+				return new Family() {
+					boolean saveArray(AdvancedSharedPreferences p, String key) { return p.saveByteArrayPref(key, array); }
+					Object loadArray(AdvancedSharedPreferences p, String key) { return p.loadByteArrayPref(key, null); }
+					boolean delArray(AdvancedSharedPreferences p, String key) { return p.delByteArrayPref(key); }
+					boolean saveList(AdvancedSharedPreferences p, String key) { return p.saveByteArrayListPref(key, list); }
+					Object loadList(AdvancedSharedPreferences p, String key) { return p.loadByteArrayListPref(key, null); }
+					boolean delList(AdvancedSharedPreferences p, String key) { return p.delByteArrayListPref(key); }
+				};
+			}
+			if(family.equals("short")) {
+				final short [] array = new short [size];
+				for (int i = 0; i < size; i++)array[i] = (short) random.nextInt();
+				final ArrayList<Short> list = new ArrayList<Short>(size);
+				for (short value : array)list.add(value);
+				return new Family() {
+					boolean saveArray(AdvancedSharedPreferences p, String key) { return p.saveShortArrayPref(key, array); }
+					Object loadArray(AdvancedSharedPreferences p, String key) { return p.loadShortArrayPref(key, null); }
+					boolean delArray(AdvancedSharedPreferences p, String key) { return p.delShortArrayPref(key); }
+					boolean saveList(AdvancedSharedPreferences p, String key) { return p.saveShortArrayListPref(key, list); }
+					Object loadList(AdvancedSharedPreferences p, String key) { return p.loadShortArrayListPref(key, null); }
+					boolean delList(AdvancedSharedPreferences p, String key) { return p.delShortArrayListPref(key); }
+				};
+			}
+			if(family.equals("integer")) {
+				final int [] array = new int [size];
+				for (int i = 0; i < size; i++)array[i] = random.nextInt();
+				final ArrayList<Integer> list = new ArrayList<Integer>(size);
+				for (int value : array)list.add(value);
+				return new Family() {
+					boolean saveArray(AdvancedSharedPreferences p, String key) { return p.saveIntegerArrayPref(key, array); }
+					Object loadArray(AdvancedSharedPreferences p, String key) { return p.loadIntegerArrayPref(key, null); }
+					boolean delArray(AdvancedSharedPreferences p, String key) { return p.delIntegerArrayPref(key); }
+					boolean saveList(AdvancedSharedPreferences p, String key) { return p.saveIntegerArrayListPref(key, list); }
+					Object loadList(AdvancedSharedPreferences p, String key) { return p.loadIntegerArrayListPref(key, null); }
+					boolean delList(AdvancedSharedPreferences p, String key) { return p.delIntegerArrayListPref(key); }
+				};
+			}
+			if(family.equals("long")) {
+				final long [] array = new long [size];
+				for (int i = 0; i < size; i++)array[i] = random.nextLong();
+				final ArrayList<Long> list = new ArrayList<Long>(size);
+				for (long value : array)list.add(value);
+				return new Family() {
+					boolean saveArray(AdvancedSharedPreferences p, String key) { return p.saveLongArrayPref(key, array); }
+					Object loadArray(AdvancedSharedPreferences p, String key) { return p.loadLongArrayPref(key, null); }
+					boolean delArray(AdvancedSharedPreferences p, String key) { return p.delLongArrayPref(key); }
+					boolean saveList(AdvancedSharedPreferences p, String key) { return p.saveLongArrayListPref(key, list); }
+					Object loadList(AdvancedSharedPreferences p, String key) { return p.loadLongArrayListPref(key, null); }
+					boolean delList(AdvancedSharedPreferences p, String key) { return p.delLongArrayListPref(key); }
+				};
+			}
+			if(family.equals("biginteger")) {
+				final BigInteger [] array = new BigInteger [size];
+				for (int i = 0; i < size; i++)array[i] = new BigInteger(96, random);
+				final ArrayList<BigInteger> list = new ArrayList<BigInteger>(Arrays.asList(array));
+				return new Family() {
+					boolean saveArray(AdvancedSharedPreferences p, String key) { return p.saveBigIntegerArrayPref(key, array); }
+					Object loadArray(AdvancedSharedPreferences p, String key) { return p.loadBigIntegerArrayPref(key, null); }
+					boolean delArray(AdvancedSharedPreferences p, String key) { return p.delBigIntegerArrayPref(key); }
+					boolean saveList(AdvancedSharedPreferences p, String key) { return p.saveBigIntegerArrayListPref(key, list); }
+					Object loadList(AdvancedSharedPreferences p, String key) { return p.loadBigIntegerArrayListPref(key, null); }
+					boolean delList(AdvancedSharedPreferences p, String key) { return p.delBigIntegerArrayListPref(key); }
+				};
+			}
+			if(family.equals("float")) {
+				final float [] array = new float [size];
+				for (int i = 0; i < size; i++)array[i] = random.nextFloat() * 1000;
+				final ArrayList<Float> list = new ArrayList<Float>(size);
+				for (float value : array)list.add(value);
+				return new Family() {
+					boolean saveArray(AdvancedSharedPreferences p, String key) { return p.saveFloatArrayPref(key, array); }
+					Object loadArray(AdvancedSharedPreferences p, String key) { return p.loadFloatArrayPref(key, null); }
+					boolean delArray(AdvancedSharedPreferences p, String key) { return p.delFloatArrayPref(key); }
+					boolean saveList(AdvancedSharedPreferences p, String key) { return p.saveFloatArrayListPref(key, list); }
+					Object loadList(AdvancedSharedPreferences p, String key) { return p.loadFloatArrayListPref(key, null); }
+					boolean delList(AdvancedSharedPreferences p, String key) { return p.delFloatArrayListPref(key); }
+				};
+			}
+			if(family.equals("double")) {
+				final double [] array = new double [size];
+				for (int i = 0; i < size; i++)array[i] = random.nextDouble() * 1000;
+				final ArrayList<Double> list = new ArrayList<Double>(size);
+				for (double value : array)list.add(value);
+				return new Family() {
+					boolean saveArray(AdvancedSharedPreferences p, String key) { return p.saveDoubleArrayPref(key, array); }
+					Object loadArray(AdvancedSharedPreferences p, String key) { return p.loadDoubleArrayPref(key, null); }
+					boolean delArray(AdvancedSharedPreferences p, String key) { return p.delDoubleArrayPref(key); }
+					boolean saveList(AdvancedSharedPreferences p, String key) { return p.saveDoubleArrayListPref(key, list); }
+					Object loadList(AdvancedSharedPreferences p, String key) { return p.loadDoubleArrayListPref(key, null); }
+					boolean delList(AdvancedSharedPreferences p, String key) { return p.delDoubleArrayListPref(key); }
+				};
+			}
+			if(family.equals("bigdecimal")) {
+				final BigDecimal [] array = new BigDecimal [size];
+				for (int i = 0; i < size; i++)array[i] = new BigDecimal(new BigInteger(64, random), 6);
+				final ArrayList<BigDecimal> list = new ArrayList<BigDecimal>(Arrays.asList(array));
+				return new Family() {
+					boolean saveArray(AdvancedSharedPreferences p, String key) { return p.saveBigDecimalArrayPref(key, array); }
+					Object loadArray(AdvancedSharedPreferences p, String key) { return p.loadBigDecimalArrayPref(key, null); }
+					boolean delArray(AdvancedSharedPreferences p, String key) { return p.delBigDecimalArrayPref(key); }
+					boolean saveList(AdvancedSharedPreferences p, String key) { return p.saveBigDecimalArrayListPref(key, list); }
+					Object loadList(AdvancedSharedPreferences p, String key) { return p.loadBigDecimalArrayListPref(key, null); }
+					boolean delList(AdvancedSharedPreferences p, String key) { return p.delBigDecimalArrayListPref(key); }
+				};
+			}
+			if(family.equals("char")) {
+				final char [] array = new char [size];
+				for (int i = 0; i < size; i++)array[i] = (char) ('a' + random.nextInt(26));
+				final ArrayList<Character> list = new ArrayList<Character>(size);
+				for (char value : array)list.add(value);
+				return new Family() {
+					boolean saveArray(AdvancedSharedPreferences p, String key) { return p.saveCharArrayPref(key, array); }
+					Object loadArray(AdvancedSharedPreferences p, String key) { return p.loadCharArrayPref(key, null); }
+					boolean delArray(AdvancedSharedPreferences p, String key) { return p.delCharArrayPref(key); }
+					boolean saveList(AdvancedSharedPreferences p, String key) { return p.saveCharArrayListPref(key, list); }
+					Object loadList(AdvancedSharedPreferences p, String key) { return p.loadCharArrayListPref(key, null); }
+					boolean delList(AdvancedSharedPreferences p, String key) { return p.delCharArrayListPref(key); }
+				};
+			}
+			if(family.equals("string")) {
+				final String [] array = new String [size];
+				for (int i = 0; i < size; i++)array[i] = "value_" + random.nextInt(1000000);
+				final ArrayList<String> list = new ArrayList<String>(Arrays.asList(array));
+				return new Family() {
+					boolean saveArray(AdvancedSharedPreferences p, String key) { return p.saveStringArrayPref(key, array); }
+					Object loadArray(AdvancedSharedPreferences p, String key) { return p.loadStringArrayPref(key, null); }
+					boolean delArray(AdvancedSharedPreferences p, String key) { return p.delStringArrayPref(key); }
+					boolean saveList(AdvancedSharedPreferences p, String key) { return p.saveStringArrayListPref(key, list); }
+					Object loadList(AdvancedSharedPreferences p, String key) { return p.loadStringArrayListPref(key, null); }
+					boolean delList(AdvancedSharedPreferences p, String key) { return p.delStringArrayListPref(key); }
+				};
+			}
+			if(family.equals("date")) {
+				final Date [] array = new Date [size];
+				for (int i = 0; i < size; i++)array[i] = new Date(1300000000000L + random.nextInt(Integer.MAX_VALUE) * 1000L);
+				final ArrayList<Date> list = new ArrayList<Date>(Arrays.asList(array));
+				return new Family() {
+					boolean saveArray(AdvancedSharedPreferences p, String key) { return p.saveDateArrayPref(key, array); }
+					Object loadArray(AdvancedSharedPreferences p, String key) { return p.loadDateArrayPref(key, null); }
+					boolean delArray(AdvancedSharedPreferences p, String key) { return p.delDateArrayPref(key); }
+					boolean saveList(AdvancedSharedPreferences p, String key) { return p.saveDateArrayListPref(key, list); }
+					Object loadList(AdvancedSharedPreferences p, String key) { return p.loadDateArrayListPref(key, null); }
+					boolean delList(AdvancedSharedPreferences p, String key) { return p.delDateArrayListPref(key); }
+				};
+			}
+			if(family.equals("gregoriancalendar")) {
+				final GregorianCalendar [] array = new GregorianCalendar [size];
+				for (int i = 0; i < size; i++) {
+					array[i] = new GregorianCalendar();
+					array[i].setTimeInMillis(1300000000000L + random.nextInt(Integer.MAX_VALUE) * 1000L);
+				}
+				final ArrayList<GregorianCalendar> list = new ArrayList<GregorianCalendar>(Arrays.asList(array));
+				return new Family() {
+					boolean saveArray(AdvancedSharedPreferences p, String key) { return p.saveGregorianCalendarArrayPref(key, array); }
+					Object loadArray(AdvancedSharedPreferences p, String key) { return p.loadGregorianCalendarArrayPref(key, null); }
+					boolean delArray(AdvancedSharedPreferences p, String key) { return p.delGregorianCalendarArrayPref(key); }
+					boolean saveList(AdvancedSharedPreferences p, String key) { return p.saveGregorianCalendarArrayListPref(key, list); }
+					Object loadList(AdvancedSharedPreferences p, String key) { return p.loadGregorianCalendarArrayListPref(key, null); }
+					boolean delList(AdvancedSharedPreferences p, String key) { return p.delGregorianCalendarArrayListPref(key); }
+				};
+			}
+			throw new IllegalArgumentException("Unknown family " + family);
+		}
+	}
+}
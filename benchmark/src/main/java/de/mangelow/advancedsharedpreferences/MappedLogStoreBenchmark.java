@@ -0,0 +1,89 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Committing one small change to a MappedLogStore, that already holds
+ * a number of other preferences, and opening the log again.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappedLogStoreBenchmark {
+
+	@Param({"100", "10000"})
+	public int size;
+
+	@Param({"false", "true"})
+	public boolean sync;
+
+	private File file;
+	private MappedLogStore store;
+	private final HashMap<String, Object> change = new HashMap<String, Object>();
+	private int counter = 0;
+
+	@Setup
+	public void setup() throws IOException {
+		file = File.createTempFile("preferences", ".log");
+		file.delete();
+
+		store = new MappedLogStore(file, sync);
+		HashMap<String, Object> values = new HashMap<String, Object>();
+		for (int i = 0; i < size; i++) {
+			values.put("key_" + i, "value_" + i);
+		}
+		store.commit(values);
+		store.compact();
+	}
+	@TearDown
+	public void tearDown() {
+		store.delete();
+	}
+
+	@Benchmark
+	public boolean commit() {
+		change.put("counter", counter++);
+		return store.commit(change);
+	}
+	@Benchmark
+	public int open() throws IOException {
+		MappedLogStore reopened = new MappedLogStore(file, false);
+		int count = reopened.getAll().size();
+		reopened.close();
+		return count;
+	}
+}
@@ -0,0 +1,151 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Saving and loading int arrays through AdvancedSharedPreferences over a
+ * MemoryPreferenceStore, including chunking and the cache, and loading the
+ * same values as ArrayList<Integer>, as IntList, through an iterator and from
+ * a snapshot.
+ * Appending grows an array of the same size by one value.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreferenceStoreBenchmark {
+
+	@Param({"1000", "100000"})
+	public int size;
+
+	@Param({"0", "1", "2"})
+	public int encoding;
+
+	private int [] ints;
+	private int [] dst;
+	private IntBuffer buffer;
+
+	private AdvancedSharedPreferences preferences;
+	private AdvancedSharedPreferences cached;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+
+		ints = new int [size];
+		dst = new int [size];
+		buffer = ByteBuffer.allocateDirect(size * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+		for (int i = 0; i < size; i++) {
+			ints[i] = random.nextInt(1000) - 500;
+		}
+
+		preferences = new AdvancedSharedPreferences(new MemoryPreferenceStore());
+		preferences.setArrayEncoding(encoding);
+		preferences.saveIntegerArrayPref("ints", ints);
+		preferences.saveIntegerListPref("ints", new IntList(ints));
+
+		cached = new AdvancedSharedPreferences(new MemoryPreferenceStore());
+		cached.setArrayEncoding(encoding);
+		cached.setCacheSize(16, 0);
+		cached.saveIntegerArrayPref("ints", ints);
+		cached.loadIntegerArrayPref("ints", null);
+	}
+	@Setup(Level.Iteration)
+	public void setupIteration() {
+		preferences.saveIntegerArrayPref("appended", ints);
+	}
+
+	@Benchmark
+	public boolean saveIntegers() {
+		return preferences.saveIntegerArrayPref("ints", ints);
+	}
+	@Benchmark
+	public boolean appendInteger() {
+		return preferences.appendIntegerArrayPref("appended", 42);
+	}
+	@Benchmark
+	public int [] loadIntegers() {
+		return preferences.loadIntegerArrayPref("ints", null);
+	}
+	@Benchmark
+	public int loadIntegersInto() {
+		return preferences.loadIntegerArrayPref("ints", dst, 0);
+	}
+	@Benchmark
+	public int loadIntegersIntoBuffer() {
+		buffer.clear();
+		return preferences.loadIntegerBufferPref("ints", buffer);
+	}
+	@Benchmark
+	public long iterateIntegers() {
+		IntIterator iterator = preferences.iterateIntegerArrayPref("ints");
+		long sum = 0;
+		while (iterator.hasNext()) {
+			sum += iterator.nextInt();
+		}
+		return sum;
+	}
+	@Benchmark
+	public int [] loadIntegersFromSnapshot() {
+		return preferences.snapshot().loadIntegerArrayPref("ints", null);
+	}
+	@Benchmark
+	public int loadIntegerElement() {
+		return preferences.loadIntegerArrayElementPref("ints", size - 1, 0);
+	}
+	@Benchmark
+	public int [] loadIntegerRange() {
+		return preferences.loadIntegerArrayRangePref("ints", size - 100, size, null);
+	}
+	@Benchmark
+	public ArrayList<Integer> loadIntegerArrayList() {
+		return preferences.loadIntegerArrayListPref("ints", null);
+	}
+	@Benchmark
+	public IntList loadIntegerList() {
+		return preferences.loadIntegerListPref("ints", null);
+	}
+	@Benchmark
+	public int [] loadCachedIntegers() {
+		return cached.loadIntegerArrayPref("ints", null);
+	}
+	@Benchmark
+	public int loadCachedIntegersInto() {
+		return cached.loadIntegerArrayPref("ints", dst, 0);
+	}
+}
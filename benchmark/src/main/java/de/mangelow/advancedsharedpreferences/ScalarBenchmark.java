@@ -0,0 +1,139 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Saving, loading and deleting single values of every type family through
+ * AdvancedSharedPreferences over a MemoryPreferenceStore. Location is left
+ * out, because android.location.Location is only a stub on a plain JVM.
+ *
+ * The allocation rate is reported by the gc profiler: -prof gc
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScalarBenchmark {
+
+	private static final String KEY = "value";
+
+	private static final BigInteger BIGINTEGER = new BigInteger("123456789012345678901234567890");
+	private static final BigDecimal BIGDECIMAL = new BigDecimal("12345.678901");
+	private static final String STRING = "The quick brown fox jumps over the lazy dog";
+	private static final Date DATE = new Date(1300000000000L);
+	private static final GregorianCalendar CALENDAR = new GregorianCalendar(2011, 2, 13, 7, 6, 40);
+
+	@Param({"boolean", "byte", "short", "integer", "long", "biginteger", "float", "double",
+		"bigdecimal", "char", "string", "date", "gregoriancalendar"})
+	public String family;
+
+	private AdvancedSharedPreferences preferences;
+
+	@Setup
+	public void setup() {
+		preferences = new AdvancedSharedPreferences(new MemoryPreferenceStore());
+		save(preferences);
+	}
+
+	/**
+	 * Preferences, that are saved again before every deletion
+	 */
+	@State(Scope.Thread)
+	public static class Saved {
+		AdvancedSharedPreferences preferences;
+
+		@Setup(Level.Invocation)
+		public void save(ScalarBenchmark benchmark) {
+			if(preferences==null)preferences = new AdvancedSharedPreferences(new MemoryPreferenceStore());
+			benchmark.save(preferences);
+		}
+	}
+
+	@Benchmark
+	public boolean save() {
+		return save(preferences);
+	}
+	@Benchmark
+	public Object load() {
+		if(family.equals("boolean"))return preferences.loadBooleanPref(KEY, false);
+		if(family.equals("byte"))return preferences.loadBytePref(KEY, (byte) 0);
+		if(family.equals("short"))return preferences.loadShortPref(KEY, (short) 0);
+		if(family.equals("integer"))return preferences.loadIntegerPref(KEY, 0);
+		if(family.equals("long"))return preferences.loadLongPref(KEY, 0);
+		if(family.equals("biginteger"))return preferences.loadBigIntegerPref(KEY, null);
+		if(family.equals("float"))return preferences.loadFloatPref(KEY, 0);
+		if(family.equals("double"))return preferences.loadDoublePref(KEY, 0);
+		if(family.equals("bigdecimal"))return preferences.loadBigDecimalPref(KEY, null);
+		if(family.equals("char"))return preferences.loadCharPref(KEY, ' ');
+		if(family.equals("string"))return preferences.loadStringPref(KEY, null);
+		if(family.equals("date"))return preferences.loadDatePref(KEY, null);
+		return preferences.loadGregorianCalendarPref(KEY, null);
+	}
+	@Benchmark
+	public boolean del(Saved saved) {
+		AdvancedSharedPreferences p = saved.preferences;
+		if(family.equals("boolean"))return p.delBooleanPref(KEY);
+		if(family.equals("byte"))return p.delBytePref(KEY);
+		if(family.equals("short"))return p.delShortPref(KEY);
+		if(family.equals("integer"))return p.delIntegerPref(KEY);
+		if(family.equals("long"))return p.delLongPref(KEY);
+		if(family.equals("biginteger"))return p.delBigIntegerPref(KEY);
+		if(family.equals("float"))return p.delFloatPref(KEY);
+		if(family.equals("double"))return p.delDoublePref(KEY);
+		if(family.equals("bigdecimal"))return p.delBigDecimalPref(KEY);
+		if(family.equals("char"))return p.delCharPref(KEY);
+		if(family.equals("string"))return p.delStringPref(KEY);
+		if(family.equals("date"))return p.delDatePref(KEY);
+		return p.delGregorianCalendarPref(KEY);
+	}
+
+	boolean save(AdvancedSharedPreferences p) {
+		if(family.equals("boolean"))return p.saveBooleanPref(KEY, true);
+		if(family.equals("byte"))return p.saveBytePref(KEY, (byte) 42);
+		if(family.equals("short"))return p.saveShortPref(KEY, (short) 4242);
+		if(family.equals("integer"))return p.saveIntegerPref(KEY, 424242);
+		if(family.equals("long"))return p.saveLongPref(KEY, 4242424242L);
+		if(family.equals("biginteger"))return p.saveBigIntegerPref(KEY, BIGINTEGER);
+		if(family.equals("float"))return p.saveFloatPref(KEY, 42.42f);
+		if(family.equals("double"))return p.saveDoublePref(KEY, 42.4242);
+		if(family.equals("bigdecimal"))return p.saveBigDecimalPref(KEY, BIGDECIMAL);
+		if(family.equals("char"))return p.saveCharPref(KEY, 'x');
+		if(family.equals("string"))return p.saveStringPref(KEY, STRING);
+		if(family.equals("date"))return p.saveDatePref(KEY, DATE);
+		return p.saveGregorianCalendarPref(KEY, CALENDAR);
+	}
+}
@@ -0,0 +1,135 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decoding of int and double arrays from the delimited text format.
+ *
+ * The split variants reproduce the decoding before TextDecoder. Coordinates
+ * are doubles with six decimals, which take the exact fast path, random
+ * doubles print 16-17 significant digits and fall back to Double.parseDouble.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextDecoderBenchmark {
+
+	private static final String DELIMITER = "µ";
+
+	@Param({"1000", "10000", "100000"})
+	public int size;
+
+	private String ints;
+	private String coordinates;
+	private String doubles;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+
+		int [] int_array = new int [size];
+		double [] coordinate_array = new double [size];
+		double [] double_array = new double [size];
+		for (int i = 0; i < size; i++) {
+			int_array[i] = random.nextInt();
+			coordinate_array[i] = Math.round((random.nextDouble() * 360 - 180) * 1e6) / 1e6;
+			double_array[i] = random.nextDouble() * 1000;
+		}
+
+		TextEncoder encoder = new TextEncoder(DELIMITER);
+		ints = encoder.encode(int_array);
+		coordinates = encoder.encode(coordinate_array);
+		doubles = encoder.encode(double_array);
+	}
+
+	@Benchmark
+	public int [] decodeIntegers() {
+		TextDecoder decoder = new TextDecoder(ints, DELIMITER);
+		int length = decoder.count();
+
+		int [] value = new int [length];
+		for (int i = 0; i < length; i++) {
+			value[i] = decoder.nextInt();
+		}
+		return value;
+	}
+	@Benchmark
+	public double [] decodeCoordinates() {
+		return decodeDoubles(coordinates);
+	}
+	@Benchmark
+	public double [] decodeDoubles() {
+		return decodeDoubles(doubles);
+	}
+	private static double [] decodeDoubles(String stringvalue) {
+		TextDecoder decoder = new TextDecoder(stringvalue, DELIMITER);
+		int length = decoder.count();
+
+		double [] value = new double [length];
+		for (int i = 0; i < length; i++) {
+			value[i] = decoder.nextDouble();
+		}
+		return value;
+	}
+
+	@Benchmark
+	public int [] splitIntegers() {
+		String string_array [] = ints.split(DELIMITER, -1);
+		int length = string_array.length;
+
+		int [] value = new int [length];
+		for (int i = 0; i < length; i++) {
+			value[i] = Integer.parseInt(string_array[i]);
+		}
+		return value;
+	}
+	@Benchmark
+	public double [] splitCoordinates() {
+		return splitDoubles(coordinates);
+	}
+	@Benchmark
+	public double [] splitDoubles() {
+		return splitDoubles(doubles);
+	}
+	private static double [] splitDoubles(String stringvalue) {
+		String string_array [] = stringvalue.split(DELIMITER, -1);
+		int length = string_array.length;
+
+		double [] value = new double [length];
+		for (int i = 0; i < length; i++) {
+			value[i] = Double.parseDouble(string_array[i]);
+		}
+		return value;
+	}
+}
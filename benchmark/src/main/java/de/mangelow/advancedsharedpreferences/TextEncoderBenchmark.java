@@ -0,0 +1,127 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding of int and double arrays into the delimited text format.
+ *
+ * The concatenating variants in Concat reproduce the encoding before
+ * TextEncoder and have their own sizes, only up to 10k elements, because
+ * they are quadratic.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextEncoderBenchmark {
+
+	private static final String DELIMITER = "µ";
+
+	@Param({"1000", "10000", "100000"})
+	public int size;
+
+	private int [] ints;
+	private double [] doubles;
+
+	private TextEncoder encoder;
+
+	@Setup
+	public void setup() {
+		ints = new int [size];
+		doubles = new double [size];
+		fill(ints, doubles);
+		encoder = new TextEncoder(DELIMITER);
+	}
+	private static void fill(int [] ints, double [] doubles) {
+		Random random = new Random(42);
+		for (int i = 0; i < ints.length; i++) {
+			ints[i] = random.nextInt();
+			doubles[i] = random.nextDouble() * 1000;
+		}
+	}
+
+	@Benchmark
+	public String encodeIntegers() {
+		return encoder.encode(ints);
+	}
+	@Benchmark
+	public String encodeDoubles() {
+		return encoder.encode(doubles);
+	}
+
+	/**
+	 * The concatenating encoding before TextEncoder, only up to 10k elements, because it is quadratic
+	 */
+	@State(Scope.Thread)
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@Warmup(iterations = 3, time = 1)
+	@Measurement(iterations = 5, time = 1)
+	@Fork(1)
+	public static class Concat {
+
+		@Param({"1000", "10000"})
+		public int size;
+
+		private int [] ints;
+		private double [] doubles;
+
+		@Setup
+		public void setup() {
+			ints = new int [size];
+			doubles = new double [size];
+			fill(ints, doubles);
+		}
+
+		@Benchmark
+		public String concatIntegers() {
+			int length = ints.length;
+			String stringvalue = "";
+			for (int i = 0; i < length; i++) {
+				stringvalue += ints[i];
+				if(i<length-1)stringvalue += DELIMITER;
+			}
+			return stringvalue;
+		}
+		@Benchmark
+		public String concatDoubles() {
+			int length = doubles.length;
+			String stringvalue = "";
+			for (int i = 0; i < length; i++) {
+				stringvalue += doubles[i];
+				if(i<length-1)stringvalue += DELIMITER;
+			}
+			return stringvalue;
+		}
+	}
+}
@@ -13,15 +13,40 @@
  */
 package de.mangelow.advancedsharedpreferences;
 
-import java.io.File;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 import android.location.Location;
 import android.util.Log;
 
@@ -40,10 +65,14 @@ public class AdvancedSharedPreferences {
 
 	// SHARED PREFERENCES
 
-	private Context context;
+	private PreferenceStore store;
 
-	private SharedPreferences.Editor sp_save;
-	private SharedPreferences sp_load;
+	// Every thread collects the changes of its current operation, so a commit never writes half of another thread's value
+	private final ThreadLocal<HashMap<String, Object>> edits = new ThreadLocal<HashMap<String, Object>>() {
+		protected HashMap<String, Object> initialValue() {
+			return new HashMap<String, Object>();
+		}
+	};
 
 	private final int MODE = Context.MODE_PRIVATE;
 
@@ -53,10 +82,17 @@ public class AdvancedSharedPreferences {
 	private final String VALUE_DELIMITER = "µ";
 	private String value_delimiter = VALUE_DELIMITER;
 
+	private final ThreadLocal<TextEncoder> encoder = new ThreadLocal<TextEncoder>() {
+		protected TextEncoder initialValue() {
+			return new TextEncoder(value_delimiter);
+		}
+	};
+
 	private final int VALUE_MAXSIZE = 8192;
 	private int value_maxsize = VALUE_MAXSIZE;
 
-	private final String KEY_DELIMITER = "_";
+	private final String KEY_DELIMITER = PreferenceKeys.DELIMITER;
+	private final String KEY_CHUNKS = PreferenceKeys.CHUNKS;
 
 	private final String KEY_ARRAY = "a";
 	private final String KEY_ARRAYLIST = "al";
@@ -78,15 +114,200 @@ public class AdvancedSharedPreferences {
 	private final String KEY_DATE = "date";
 	private final String KEY_GREGORIANCALENDAR = "gregoriancalendar";
 
-	private final String KEY_LOCATION_PROVIDER = "location_provider";
-	private final String KEY_LOCATION_LATITUDE = "location_latitude";
-	private final String KEY_LOCATION_LONGITUDE = "location_longitude";
-	private final String KEY_LOCATION_TIMESTAMP = "location_timestamp";
-	private final String KEY_LOCATION_ACCURACY = "location_accuracy";
-	private final String KEY_LOCATION_ALTITUDE = "location_altitude";
-	private final String KEY_LOCATION_BEARING = "location_bearing";
-	private final String KEY_LOCATION_SPEED = "location_speed";
+	private final String KEY_LOCATION = PreferenceKeys.LOCATION;
+	private final String KEY_LOCATION_PROVIDER = KEY_LOCATION + KEY_DELIMITER + PreferenceKeys.PROVIDER;
+	private final String KEY_LOCATION_LATITUDE = KEY_LOCATION + KEY_DELIMITER + PreferenceKeys.LATITUDE;
+	private final String KEY_LOCATION_LONGITUDE = KEY_LOCATION + KEY_DELIMITER + PreferenceKeys.LONGITUDE;
+	private final String KEY_LOCATION_TIMESTAMP = KEY_LOCATION + KEY_DELIMITER + PreferenceKeys.TIMESTAMP;
+	private final String KEY_LOCATION_ACCURACY = KEY_LOCATION + KEY_DELIMITER + PreferenceKeys.ACCURACY;
+	private final String KEY_LOCATION_ALTITUDE = KEY_LOCATION + KEY_DELIMITER + PreferenceKeys.ALTITUDE;
+	private final String KEY_LOCATION_BEARING = KEY_LOCATION + KEY_DELIMITER + PreferenceKeys.BEARING;
+	private final String KEY_LOCATION_SPEED = KEY_LOCATION + KEY_DELIMITER + PreferenceKeys.SPEED;
+
+	private final String [] FAMILIES = {
+		KEY_BOOLEAN, KEY_BYTE, KEY_SHORT, KEY_INTEGER, KEY_LONG, KEY_BIGINTEGER, KEY_FLOAT, KEY_DOUBLE, KEY_BIGDECIMAL, KEY_CHARACTER, KEY_STRING,
+		KEY_DATE, KEY_GREGORIANCALENDAR,
+		KEY_LOCATION_PROVIDER, KEY_LOCATION_LATITUDE, KEY_LOCATION_LONGITUDE, KEY_LOCATION_TIMESTAMP,
+		KEY_LOCATION_ACCURACY, KEY_LOCATION_ALTITUDE, KEY_LOCATION_BEARING, KEY_LOCATION_SPEED,
+		KEY_LOCATION
+	};
+	private final String [] LOCATION_FAMILIES = {
+		KEY_LOCATION_LATITUDE, KEY_LOCATION_LONGITUDE, KEY_LOCATION_TIMESTAMP,
+		KEY_LOCATION_ACCURACY, KEY_LOCATION_ALTITUDE, KEY_LOCATION_BEARING, KEY_LOCATION_SPEED
+	};
+
+	// ARRAY ENCODING
+
+	/** Save arrays as delimited text. (default) */
+	public static final int ENCODING_TEXT = 0;
+	/** Save boolean, byte, short, int, long, float and double arrays as Base64 of packed little-endian bytes. */
+	public static final int ENCODING_PACKED = 1;
+	/** Like ENCODING_PACKED, but save short, int and long arrays as zigzag varints. */
+	public static final int ENCODING_VARINT = 2;
+	/** Like ENCODING_VARINT, but save long, Date and GregorianCalendar arrays as delta-of-delta timestamps and double arrays XOR-compressed. */
+	public static final int ENCODING_TIMESERIES = 3;
+
+	private volatile int array_encoding = ENCODING_TEXT;
+
+	// APPEND
+
+	private final char APPEND_TEXT = 't';
+	private final char APPEND_MISSING = 'm';
+	private final char APPEND_REWRITE = 'r';
+
+	// WRITE BEHIND
+
+	private final long FLUSH_INTERVAL = 1000;
+	private long flush_interval = FLUSH_INTERVAL;
+
+	private volatile boolean write_behind = false;
+
+	private final Object REMOVED = new Object();
+	private final ConcurrentHashMap<String, Object> pending = new ConcurrentHashMap<String, Object>();
+
+	private final Object flush_lock = new Object();
+	private final Object pending_lock = new Object();
+	private final Object writer_lock = new Object();
+
+	private ScheduledExecutorService writer;
+	private ScheduledFuture<Boolean> scheduled_flush;
+
+	private final ThreadFactory writer_factory = new ThreadFactory() {
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, TAG + "-" + filename);
+			thread.setDaemon(true);
+			return thread;
+		}
+	};
+
+	private final Callable<Boolean> flush_task = new Callable<Boolean>() {
+		public Boolean call() throws Exception {
+			synchronized (writer_lock) {
+				scheduled_flush = null;
+			}
+			return flush();
+		}
+	};
+
+	// BATCH
+
+	// Only the writes of the thread, that applies a change of a batch, are recorded into it
+	private final ThreadLocal<HashMap<String, Object>> staging = new ThreadLocal<HashMap<String, Object>>();
+
+	// LOCKING
+
+	private final int LOCK_STRIPES = 64;
+	private final ReentrantLock [] locks = new ReentrantLock [LOCK_STRIPES];
+
+	private final ThreadLocal<ReentrantLock> held = new ThreadLocal<ReentrantLock>();
+
+	// ITERATORS
+
+	// A new stamp for every save, append and delete of a value, so that iterators notice a newer value
+	private final AtomicLong stamp_sequence = new AtomicLong();
+	private final ConcurrentHashMap<String, Long> stamps = new ConcurrentHashMap<String, Long>();
+
+	private boolean stamp_listening = false;
+
+	private final PreferenceStore.Listener stamp_listener = new PreferenceStore.Listener() {
+		public void onPreferenceChanged(PreferenceStore store, String key) {
+			if(key==null) {
+				stamps.clear();
+				return;
+			}
+			String value = getCacheKey(key);
+			// A deleted value has no chunk count and no chunks left
+			if(store.contains(key)||store.contains(value + KEY_DELIMITER + KEY_CHUNKS))stamp(value);
+			else stamps.remove(value);
+		}
+	};
+
+	// CACHE
+
+	private volatile ValueCache cache;
+
+	private final ConcurrentLinkedQueue<String> uncommitted = new ConcurrentLinkedQueue<String>();
+
+	private final PreferenceStore.Listener cache_listener = new PreferenceStore.Listener() {
+		public void onPreferenceChanged(PreferenceStore store, String key) {
+			ValueCache cache = AdvancedSharedPreferences.this.cache;
+			if(cache==null)return;
+			if(key==null)cache.clear();
+			else cache.invalidate(getCacheKey(key));
+		}
+	};
+
+	// SNAPSHOT
+
+	private volatile AdvancedSharedPreferences snapshot;
+
+	private boolean read_only = false;
+	private boolean snapshot_listening = false;
+
+	// Advanced by every change of the file, so that a snapshot copied meanwhile is not published
+	private long snapshot_generation = 0;
+
+	private final PreferenceStore.Listener snapshot_listener = new PreferenceStore.Listener() {
+		public void onPreferenceChanged(PreferenceStore store, String key) {
+			synchronized (this) {
+				snapshot_generation++;
+				snapshot = null;
+			}
+		}
+	};
+
+	// OBSERVERS
+
+	private final long OBSERVER_WINDOW = 100;
+	private long observer_window = OBSERVER_WINDOW;
+
+	private Executor observer_executor;
+
+	private final HashMap<String, ArrayList<Observation<?>>> observers = new HashMap<String, ArrayList<Observation<?>>>();
+	private final LinkedHashSet<String> changed = new LinkedHashSet<String>();
 
+	private ScheduledExecutorService notifier;
+	private ScheduledFuture<?> scheduled_notification;
+
+	private final PreferenceStore.Listener observer_listener = new PreferenceStore.Listener() {
+		public void onPreferenceChanged(PreferenceStore store, String key) {
+			changed(key);
+		}
+	};
+
+	private final Runnable notify_task = new Runnable() {
+		public void run() {
+			ArrayList<Observation<?>> notified = new ArrayList<Observation<?>>();
+			Executor executor;
+			synchronized (observers) {
+				scheduled_notification = null;
+				for (String key : changed) {
+					ArrayList<Observation<?>> observations = observers.get(key);
+					if(observations!=null)notified.addAll(observations);
+				}
+				changed.clear();
+				executor = observer_executor;
+			}
+
+			for (Observation<?> observation : notified) {
+				if(executor==null) {
+					observation.run();
+					continue;
+				}
+				try {
+					executor.execute(observation);
+				}
+				catch (RejectedExecutionException e) {
+					if(debug)Log.e(TAG, "Error notifying observer of " + observation.key);
+					if(PRINT_E)Log.e(TAG, "Exception", e);
+				}
+			}
+		}
+	};
+
+	// METRICS
+
+	private volatile PreferenceMetrics metrics;
 
 	/**
 	 * AdvancedSharedPreferences - Library for Android to extend SharedPreferences 
@@ -95,8 +316,6 @@ public class AdvancedSharedPreferences {
 	 */
 	public AdvancedSharedPreferences(Context context) {
 
-		this.context = context;
-
 		setEditors(context);
 	}
 	/**
@@ -107,7 +326,6 @@ public class AdvancedSharedPreferences {
 	 */
 	public AdvancedSharedPreferences(Context context, String filename) {
 
-		this.context = context;
 		if(filename!=null)this.filename = filename;
 
 		setEditors(context);
@@ -121,7 +339,6 @@ public class AdvancedSharedPreferences {
 	 */
 	public AdvancedSharedPreferences(Context context, String filename, String value_delimiter) {
 
-		this.context = context;
 		if(filename!=null)this.filename = filename;
 		if(value_delimiter!=null)this.value_delimiter = value_delimiter;
 
@@ -137,13 +354,37 @@ public class AdvancedSharedPreferences {
 	 */
 	public AdvancedSharedPreferences(Context context, String filename, String value_delimiter, int value_maxsize) {
 
-		this.context = context;
 		if(filename!=null)this.filename = filename;
 		if(value_delimiter!=null)this.value_delimiter = value_delimiter;
 		if(value_maxsize>0)this.value_maxsize = value_maxsize;
 
 		setEditors(context);
 	}	
+	/**
+	 * AdvancedSharedPreferences - Library for Android to extend SharedPreferences 
+	 *  
+	 * @param store  - The store to save preferences in. 
+	 */
+	public AdvancedSharedPreferences(PreferenceStore store) {
+
+		setStore(store);
+	}
+	/**
+	 * AdvancedSharedPreferences - Library for Android to extend SharedPreferences 
+	 *  
+	 * @param store  - The store to save preferences in. 
+	 * @param value_delimiter  - The delimiter, that is used for splitting values. (default: µ) 
+	 * @param value_maxsize  - The maximal preference value length. (default: 8192)
+	 * @param debug  - Print errors to console (default: false)
+	 */
+	public AdvancedSharedPreferences(PreferenceStore store, String value_delimiter, int value_maxsize, boolean debug) {
+
+		if(value_delimiter!=null)this.value_delimiter = value_delimiter;
+		if(value_maxsize>0)this.value_maxsize = value_maxsize;
+		this.debug = debug;
+
+		setStore(store);
+	}
 	/**
 	 * AdvancedSharedPreferences - Library for Android to extend SharedPreferences 
 	 *  
@@ -155,7 +396,6 @@ public class AdvancedSharedPreferences {
 	 */
 	public AdvancedSharedPreferences(Context context, String filename, String value_delimiter, int value_maxsize, boolean debug) {
 
-		this.context = context;
 		if(filename!=null)this.filename = filename;
 		if(value_delimiter!=null)this.value_delimiter = value_delimiter;
 		if(value_maxsize>0)this.value_maxsize = value_maxsize;
@@ -168,119 +408,4027 @@ public class AdvancedSharedPreferences {
 
 	private void setEditors(Context context) {
 
-		this.sp_save = context.getSharedPreferences(filename, MODE).edit();
-		this.sp_load = context.getSharedPreferences(filename, MODE);
+		setStore(new SharedPreferencesStore(context, filename, MODE));
+
+	}
+	private void setStore(PreferenceStore store) {
+
+		for (int i = 0; i < locks.length; i++) {
+			locks[i] = new ReentrantLock();
+		}
+
+		this.store = store;
+		this.filename = store.getName();
+
+	}
+
+	private boolean stage(String key, Object value) {
+		HashMap<String, Object> staging = this.staging.get();
+		if(staging==null)return false;
+		staging.put(key, value);
+		return true;
+	}
+	private void write(String key, Object value) {
+		if(read_only)throw new UnsupportedOperationException("Snapshot of " + filename + " is read-only");
+		if(stage(key, value))return;
+		edits.get().put(key, value);
+	}
+	private void putString(String key, String value) {
+		write(key, value!=null ? value : REMOVED);
+	}
+	private void putInt(String key, int value) {
+		write(key, value);
+	}
+	private void putLong(String key, long value) {
+		write(key, value);
+	}
+	private void putFloat(String key, float value) {
+		write(key, value);
+	}
+	private void putBoolean(String key, boolean value) {
+		write(key, value);
+	}
+	private void remove(String key) {
+		write(key, REMOVED);
+	}
+	private void commit() {
+		if(staging.get()!=null)return;
+
+		HashMap<String, Object> edits = this.edits.get();
+		try {
+			if(write_behind) {
+				// The flush takes all chunks of a value or none of them
+				synchronized (pending_lock) {
+					pending.putAll(edits);
+					snapshot = null;
+				}
+				scheduleFlush();
+			}
+			else commit(edits);
+		}
+		finally {
+			edits.clear();
+		}
+		invalidateCommitted();
+	}
+	private boolean commit(Map<String, Object> values) {
+		if(values.isEmpty())return true;
+
+		// Values are encoded and split in parallel, only the store is written one commit at a time
+		synchronized (flush_lock) {
+			HashMap<String, Object> changes = new HashMap<String, Object>(values);
+
+			for (Map.Entry<String, Object> entry : changes.entrySet()) {
+				if(entry.getValue()==REMOVED)entry.setValue(null);
+			}
+
+			long start = startTimer();
+			boolean committed;
+			try {
+				committed = store.commit(changes);
+			}
+			finally {
+				snapshot = null;
+				scheduleNotification();
+			}
+			committed(start, changes.size(), committed);
+			return committed;
+		}
+	}
+
+	private Object getStaged(String key) {
+		HashMap<String, Object> staging = this.staging.get();
+		if(staging!=null&&staging.containsKey(key))return staging.get(key);
+		if(pending.isEmpty())return null;
+		return pending.get(key);
+	}
+	private String getString(String key, String defValue) {
+		Object value = getStaged(key);
+		if(value==null)return store.getString(key, defValue);
+		if(value==REMOVED)return defValue;
+		return (String) value;
+	}
+	private int getInt(String key, int defValue) {
+		Object value = getStaged(key);
+		if(value==null)return store.getInt(key, defValue);
+		if(value==REMOVED)return defValue;
+		return (Integer) value;
+	}
+	private long getLong(String key, long defValue) {
+		Object value = getStaged(key);
+		if(value==null)return store.getLong(key, defValue);
+		if(value==REMOVED)return defValue;
+		return (Long) value;
+	}
+	private float getFloat(String key, float defValue) {
+		Object value = getStaged(key);
+		if(value==null)return store.getFloat(key, defValue);
+		if(value==REMOVED)return defValue;
+		return (Float) value;
+	}
+	private boolean getBoolean(String key, boolean defValue) {
+		Object value = getStaged(key);
+		if(value==null)return store.getBoolean(key, defValue);
+		if(value==REMOVED)return defValue;
+		return (Boolean) value;
+	}
+	private boolean contains(String key) {
+		Object value = getStaged(key);
+		if(value==null)return store.contains(key);
+		return value!=REMOVED;
+	}
+
+	private void scheduleFlush() {
+		synchronized (writer_lock) {
+			if(scheduled_flush!=null||writer==null)return;
+			try {
+				scheduled_flush = writer.schedule(flush_task, flush_interval, TimeUnit.MILLISECONDS);
+			}
+			catch (RejectedExecutionException e) {
+				if(debug)Log.e(TAG, "Error scheduling flush of " + filename + ".xml");
+				if(PRINT_E)Log.e(TAG, "Exception", e);
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T getCached(String key, Class<?> type) {
+		ValueCache cache = this.cache;
+		if(cache==null||staging.get()!=null)return null;
+
+		// Arraylists and primitive lists share their key
+		Object value = cache.get(key);
+		if(!type.isInstance(value))return null;
+		return (T) value;
+	}
+	@SuppressWarnings("unchecked")
+	private <T> T peekCached(String key, Class<?> type) {
+		ValueCache cache = this.cache;
+		if(cache==null||staging.get()!=null)return null;
+
+		Object value = cache.peek(key);
+		if(!type.isInstance(value))return null;
+		return (T) value;
+	}
+	private long getCacheStamp() {
+		ValueCache cache = this.cache;
+		if(cache==null)return 0;
+		return cache.stamp();
+	}
+	private void putCached(String key, Object value, long stamp) {
+		ValueCache cache = this.cache;
+		if(cache==null||staging.get()!=null)return;
+		cache.put(key, value, stamp);
+	}
+	private void invalidate(String key) {
+		stamp(key);
+		if(cache!=null)uncommitted.add(key);
+	}
+	private void stamp(String key) {
+		stamps.put(key, stamp_sequence.incrementAndGet());
+	}
+	private long getStamp(String key) {
+		Long stamp = stamps.get(key);
+		return stamp!=null ? stamp : 0;
+	}
+	private void invalidateCommitted() {
+		ValueCache cache = this.cache;
+		String key;
+		while ((key = uncommitted.poll())!=null) {
+			if(cache!=null)cache.invalidate(key);
+		}
+	}
+	private void clearCache() {
+		stamps.clear();
+
+		ValueCache cache = this.cache;
+		uncommitted.clear();
+		if(cache!=null)cache.clear();
+	}
+	private String getCacheKey(String key) {
+		// Chunk or chunk count -> value
+		if(getChunkIndex(key)>=0||key.endsWith(KEY_DELIMITER + KEY_CHUNKS))key = key.substring(0, key.lastIndexOf(KEY_DELIMITER));
+
+		// All parts of a location array are cached as its provider
+		for (String family : LOCATION_FAMILIES) {
+			if(key.startsWith(family + KEY_DELIMITER))return KEY_LOCATION_PROVIDER + key.substring(family.length());
+		}
+		return key;
+	}
+
+	private long startTimer() {
+		if(metrics==null)return 0;
+		return System.nanoTime();
+	}
+	private void operated(String family, int operation, long start) {
+		PreferenceMetrics metrics = this.metrics;
+		if(metrics==null||start==0)return;
+		metrics.onOperation(family, operation, System.nanoTime() - start);
+	}
+	private void failed(String family, int operation, Exception e) {
+		PreferenceMetrics metrics = this.metrics;
+		if(metrics!=null)metrics.onFailure(family, operation, e);
+	}
+	private void encoded(String family, long start, int length) {
+		PreferenceMetrics metrics = this.metrics;
+		if(metrics==null||start==0)return;
+		metrics.onEncode(family, System.nanoTime() - start, length);
+	}
+	private void decoded(String family, long start, int length) {
+		PreferenceMetrics metrics = this.metrics;
+		if(metrics==null||start==0)return;
+		metrics.onDecode(family, System.nanoTime() - start, length);
+	}
+	private void chunked(String key, int operation, int length, int chunks) {
+		PreferenceMetrics metrics = this.metrics;
+		if(metrics!=null)metrics.onChunks(getFamily(key), operation, length, chunks);
+	}
+	private void committed(long start, int changes, boolean success) {
+		PreferenceMetrics metrics = this.metrics;
+		if(metrics==null||start==0)return;
+		metrics.onCommit(System.nanoTime() - start, changes, success);
+	}
+	private String getFamily(String key) {
+		for (String family : FAMILIES) {
+			if(!key.startsWith(family + KEY_DELIMITER))continue;
+
+			String type = key.substring(family.length() + KEY_DELIMITER.length());
+			if(family.startsWith(KEY_LOCATION + KEY_DELIMITER))family = KEY_LOCATION;
+
+			if(type.startsWith(KEY_ARRAYLIST + KEY_DELIMITER))return family + KEY_DELIMITER + KEY_ARRAYLIST;
+			if(type.startsWith(KEY_ARRAY + KEY_DELIMITER))return family + KEY_DELIMITER + KEY_ARRAY;
+			return family;
+		}
+		return key;
+	}
+
+	/**
+	 * Lock the stripe of a value until the end of the current operation. All keys of one
+	 * value, and of the locations fields saved with it, map to the same stripe, so an
+	 * operation holds a single lock.
+	 */
+	private void lock(String key) {
+		if(read_only)return;
+
+		ReentrantLock lock = locks[getStripe(key)];
+		ReentrantLock current = held.get();
+		if(current==lock)return;
+		if(current!=null)throw new IllegalStateException("Operation on " + key + " already holds another lock");
+
+		lock.lock();
+		held.set(lock);
+	}
+	/**
+	 * End the current operation: drop the changes of a failed operation and release its lock
+	 */
+	private void finish() {
+		HashMap<String, Object> edits = this.edits.get();
+		if(!edits.isEmpty())edits.clear();
 
+		ReentrantLock lock = held.get();
+		if(lock==null)return;
+		held.remove();
+		lock.unlock();
+	}
+	private int getStripe(String key) {
+		for (String family : FAMILIES) {
+			if(key.startsWith(family + KEY_DELIMITER)) {
+				key = key.substring(family.length() + KEY_DELIMITER.length());
+				break;
+			}
+		}
+		int hash = key.hashCode();
+		hash ^= hash >>> 16;
+		return hash & (LOCK_STRIPES - 1);
 	}
 
 	private void savePref(String key, String value) throws Exception {
-		int length = 0;
-		if(value!=null)length = value.length();
+		lock(key);
+		if(value==null) {
+			delPref(key);
+			return;
+		}
+		invalidate(key);
+
+		String chunks = key + KEY_DELIMITER + KEY_CHUNKS;
+		int previous = getInt(chunks, -1);
+
+		int length = value.length();
 
 		int count = 0;
 
-		if(value==null||length<=value_maxsize) {
-			sp_save.putString(key + KEY_DELIMITER + count, value);
+		if(length<=value_maxsize) {
+			putString(key + KEY_DELIMITER + count, value);
+			count++;
 		}
 		else {
 			for (int i = 0; i < length; i += value_maxsize) {
 				int end = i + value_maxsize;
 				if (end > length)end = length;
-				sp_save.putString(key + KEY_DELIMITER + count, value.substring(i, end));
+				putString(key + KEY_DELIMITER + count, value.substring(i, end));
 				count++;
 			}
 		}
-		sp_save.commit();		
+		putInt(chunks, count);
+		chunked(key, PreferenceMetrics.SAVE, length, count);
+
+		// Remove the tail of a previous, longer value
+		if(previous>=0) {
+			for (int i = count; i < previous; i++) {
+				remove(key + KEY_DELIMITER + i);
+			}
+		}
+		else {
+			for (int i = count; contains(key + KEY_DELIMITER + i); i++) {
+				remove(key + KEY_DELIMITER + i);
+			}
+		}
 	}
 	private String loadPref(String key, String defValue) throws Exception {
-		String value = "";
+		lock(key);
+		int count = getInt(key + KEY_DELIMITER + KEY_CHUNKS, -1);
+		if(count<0)return loadChunks(key, defValue);
+
+		String first = getString(key + KEY_DELIMITER + 0, null);
+		if(first==null)return defValue;
+		if(count==1) {
+			chunked(key, PreferenceMetrics.LOAD, first.length(), 1);
+			return first;
+		}
+
+		// All chunks but the last one are as long as the first one
+		StringBuilder value = new StringBuilder(count * first.length());
+		value.append(first);
+		for (int i = 1; i < count; i++) {
+			String temp = getString(key + KEY_DELIMITER + i, null);
+			if(temp==null)return defValue;
+			value.append(temp);
+		}
+		chunked(key, PreferenceMetrics.LOAD, value.length(), count);
+		return value.toString();
+	}
+	private String loadChunks(String key, String defValue) throws Exception {
+		StringBuilder value = null;
 		String temp;
 		int count = 0;
-		while (true) {
-			temp = sp_load.getString(key + KEY_DELIMITER + count, defValue);
-			if(temp==defValue) {
-				if(count==0) {
-					return defValue;
-				}
-				else {
-					break;
-				}
-			}
-			else {
-				value += temp;
-			}
-			count++;				
+		while ((temp = getString(key + KEY_DELIMITER + count, null))!=null) {
+			if(value==null)value = new StringBuilder(temp.length());
+			value.append(temp);
+			count++;
+		}
+		if(value==null)return defValue;
+		chunked(key, PreferenceMetrics.LOAD, value.length(), count);
+		return value.toString();
+	}
+	/**
+	 * Like loadPref, but the chunks are not copied into one String
+	 *
+	 * @return Returns the value, or null if it does not exist.
+	 */
+	private CharSequence loadValue(String key) throws Exception {
+		lock(key);
+		int count = getInt(key + KEY_DELIMITER + KEY_CHUNKS, -1);
+		if(count<0)return loadChunks(key, null);
+
+		String first = getString(key + KEY_DELIMITER + 0, null);
+		if(first==null)return null;
+		if(count==1) {
+			chunked(key, PreferenceMetrics.LOAD, first.length(), 1);
+			return first;
+		}
+
+		String [] chunks = new String [count];
+		chunks[0] = first;
+		for (int i = 1; i < count; i++) {
+			chunks[i] = getString(key + KEY_DELIMITER + i, null);
+			if(chunks[i]==null)return null;
 		}
+		ChunkedValue value = new ChunkedValue(chunks);
+		chunked(key, PreferenceMetrics.LOAD, value.length(), count);
 		return value;
 	}
+	/**
+	 * Like loadValue, but the chunks are loaded, when they are read, and only one is kept.
+	 * The lock is held until the end of the operation, so element and range reads see a single value.
+	 * Reading a chunk throws a ConcurrentModificationException, after the value has been saved,
+	 * appended to or deleted.
+	 *
+	 * @return Returns the value, or null if it does not exist.
+	 */
+	private CharSequence streamValue(final String key) throws Exception {
+		lock(key);
+		synchronized (stamp_listener) {
+			// Other writers of the preference file advance the stamps as well
+			if(!stamp_listening) {
+				store.registerListener(stamp_listener);
+				stamp_listening = true;
+			}
+		}
+		final long stamp = getStamp(key);
+		final String header = key + KEY_DELIMITER + KEY_CHUNKS;
+		final int saved = getInt(header, -1);
+
+		int count = saved>=0 ? saved : getChunkCount(key);
+		if(count==0)return null;
+
+		String first = getString(key + KEY_DELIMITER + 0, null);
+		if(first==null)return null;
+		if(count==1)return first;
+
+		String last = getString(key + KEY_DELIMITER + (count - 1), null);
+		if(last==null)return null;
+
+		ChunkedValue.Chunks chunks = new ChunkedValue.Chunks() {
+			public String get(int index) {
+				String chunk = getString(key + KEY_DELIMITER + index, null);
+				if(chunk==null||getStamp(key)!=stamp||getInt(header, -1)!=saved)throw new ConcurrentModificationException(key + " has been modified");
+				return chunk;
+			}
+		};
+		int length = (count - 1) * first.length() + last.length();
+		chunked(key, PreferenceMetrics.LOAD, length, count);
+		return new ChunkedValue(chunks, count, first.length(), length);
+	}
+	/**
+	 * @return Returns a decoder, that has skipped the first values, or null if the value does not exist or is shorter.
+	 */
+	private ValueDecoder getDecoder(String key, char type, int skip) throws Exception {
+		CharSequence stringvalue = streamValue(key);
+		if(stringvalue==null||stringvalue.length()==0)return null;
+
+		ValueDecoder decoder = getDecoder(stringvalue, type);
+		if(decoder.skip(skip)<skip)return null;
+		return decoder;
+	}
 	private boolean delPref(String key) throws Exception {
+		lock(key);
+		invalidate(key);
 
 		int foundandremoved = 0;
 
-		if(sp_load.contains(key)) {
-			sp_save.remove(key);
+		if(contains(key)) {
+			remove(key);
 			foundandremoved++;
 		}
 
-		int count = 0;
-		while (true) {
-			if(sp_load.contains(key + KEY_DELIMITER + count)) {
-				sp_save.remove(key + KEY_DELIMITER + count);
-				count++;
-				foundandremoved++;
+		// Scalars are saved under the key itself. Another scalar under key_c or key_0 is no chunk count or chunk.
+		if(!isChunk(key + KEY_DELIMITER + 0)) {
+			stamps.remove(key);
+			return foundandremoved>0;
+		}
+
+		String chunks = key + KEY_DELIMITER + KEY_CHUNKS;
+		int count = getInt(chunks, -1);
+		if(count>=0) {
+			remove(chunks);
+			for (int i = 0; i < count; i++) {
+				remove(key + KEY_DELIMITER + i);
+			}
+			foundandremoved += count + 1;
+		}
+		else {
+			count = 0;
+			while (true) {
+				if(isChunk(key + KEY_DELIMITER + count)) {
+					remove(key + KEY_DELIMITER + count);
+					count++;
+					foundandremoved++;
+				}
+				else {
+					break;
+				}				
 			}
-			else {
-				break;
-			}				
 		}
 
-		sp_save.commit();	
+		// Iterators of the value notice the deletion by its missing chunk count
+		stamps.remove(key);
 
 		if(foundandremoved>0)return true;
 		return false;
 	}
-	
-	//
-	
 	/**
-	 * Clear all preferences in preference file
-	 * 
-	 * @return Returns true, if all preferences are cleared 
-	 * 
+	 * @return Returns true, if the key holds a String, which chunks always are.
 	 */
-	public boolean clearAllPref() {
-
+	private boolean isChunk(String key) {
+		Object value = getStaged(key);
+		if(value==REMOVED)return false;
+		if(value!=null)return value instanceof String;
 		try {
-			sp_save.clear();
-			sp_save.commit();
-			return true;
-		} 
-		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error clearing " + filename + ".xml");
-			if(PRINT_E)Log.e(TAG, "Exception", e);
+			return store.getString(key, null)!=null;
 		}
-		return false;
+		catch (ClassCastException e) {
+			return false;
+		}
+	}
+	private int getChunkCount(String key) {
+		int count = getInt(key + KEY_DELIMITER + KEY_CHUNKS, -1);
+		if(count>=0)return count;
+
+		// Earlier versions did not save the chunk count
+		count = 0;
+		while (contains(key + KEY_DELIMITER + count))count++;
+		return count;
 	}
 	/**
-	 * Delete preference file
-	 * 
-	 * @return Returns true, if preference file deleted.
+	 * @return Returns the last length characters of the value, or all of them if it is shorter.
+	 */
+	private String loadTail(String key, int length) throws Exception {
+		String tail = "";
+		for (int i = getChunkCount(key) - 1; i >= 0 && tail.length()<length; i--) {
+			String chunk = getString(key + KEY_DELIMITER + i, null);
+			if(chunk==null)throw new IllegalStateException("Chunk " + i + " of " + key + " is missing");
+			tail = chunk + tail;
+		}
+		if(tail.length()<=length)return tail;
+		return tail.substring(tail.length() - length);
+	}
+	/**
+	 * Replace the last drop characters of a value with suffix. Only the chunks, that change, are saved.
+	 */
+	private void appendChunks(String key, int drop, String suffix) throws Exception {
+		lock(key);
+		invalidate(key);
+
+		int count = getChunkCount(key);
+		int index = count;
+
+		// The chunks, that lose characters, and the last one, which is filled up
+		String tail = "";
+		while (index>0&&(index==count||tail.length()<drop)) {
+			String chunk = getString(key + KEY_DELIMITER + --index, null);
+			if(chunk==null)throw new IllegalStateException("Chunk " + index + " of " + key + " is missing");
+			tail = chunk + tail;
+		}
+		if(tail.length()<drop)throw new IllegalStateException("Value of " + key + " is shorter than " + drop);
+
+		// Keep the chunks as long as the first one, which may have been saved with another value_maxsize
+		int size = value_maxsize;
+		if(index>0)size = getString(key + KEY_DELIMITER + 0, "").length();
+		if(drop==0&&tail.length()>=size) {
+			tail = "";
+			index++;
+		}
+
+		String value = tail.substring(0, tail.length() - drop) + suffix;
+		int length = value.length();
+		int written = 0;
+		for (int i = 0; i < length || index==0; i += size) {
+			int end = i + size;
+			if (end > length)end = length;
+			putString(key + KEY_DELIMITER + index, value.substring(i, end));
+			index++;
+			written++;
+		}
+		putInt(key + KEY_DELIMITER + KEY_CHUNKS, index);
+		chunked(key, PreferenceMetrics.SAVE, length, written);
+
+		for (int i = index; i < count; i++) {
+			remove(key + KEY_DELIMITER + i);
+		}
+	}
+	/**
+	 * @return Returns APPEND_TEXT, the binary encoding of the saved array, if values can be appended to it,
+	 * APPEND_REWRITE, if it has to be saved again, or APPEND_MISSING.
+	 */
+	private char getAppendEncoding(String key, char type) throws Exception {
+		lock(key);
+		String first = getString(key + KEY_DELIMITER + 0, null);
+		if(first==null)return APPEND_MISSING;
+
+		if(!BinaryCodec.isEncoded(first)) {
+			// The header of a binary value could be split into several chunks
+			if(first.length()<BinaryCodec.HEADER_LENGTH&&contains(key + KEY_DELIMITER + 1))return APPEND_REWRITE;
+			return APPEND_TEXT;
+		}
+		// Packed booleans start with the number of unused bits, time series with the number of values
+		char encoding = first.charAt(3);
+		if(first.charAt(2)!=type||type==BinaryCodec.TYPE_BOOLEAN)return APPEND_REWRITE;
+		if(encoding==BinaryCodec.PACKED||encoding==BinaryCodec.VARINT)return encoding;
+		return APPEND_REWRITE;
+	}
+	/**
+	 * @param values	The values to append, encoded like the saved array
+	 * @param encoding	The result of getAppendEncoding
+	 */
+	private void appendPref(String key, String values, char encoding) throws Exception {
+		if(encoding==APPEND_TEXT) {
+			// An empty array has no delimiter to append to
+			boolean empty = getString(key + KEY_DELIMITER + 0, "").length()==0&&!contains(key + KEY_DELIMITER + 1);
+			appendChunks(key, 0, empty ? values : value_delimiter + values);
+			return;
+		}
+
+		String tail = loadTail(key, 2 * BinaryCodec.HEADER_LENGTH);
+		if(tail.length()<BinaryCodec.HEADER_LENGTH)throw BinaryCodec.malformed(tail);
+		String quantum = tail.length()==BinaryCodec.HEADER_LENGTH ? "" : tail.substring(tail.length() - 4);
+		appendChunks(key, quantum.length(), BinaryCodec.append(quantum, values));
+	}
+
+	private String encode(boolean [] value) {
+		return encode(value, value.length);
+	}
+	private String encode(boolean [] value, int length) {
+		if(array_encoding==ENCODING_TEXT)return encoder.get().encode(value, length);
+		return BinaryCodec.encode(value, length);
+	}
+	private String encode(byte [] value) {
+		return encode(value, value.length);
+	}
+	private String encode(byte [] value, int length) {
+		if(array_encoding==ENCODING_TEXT)return encoder.get().encode(value, length);
+		return BinaryCodec.encode(value, length);
+	}
+	private String encode(short [] value) {
+		return encode(value, value.length);
+	}
+	private String encode(short [] value, int length) {
+		if(array_encoding==ENCODING_TEXT)return encoder.get().encode(value, length);
+		return BinaryCodec.encode(value, length, array_encoding!=ENCODING_PACKED);
+	}
+	private String encode(int [] value) {
+		return encode(value, value.length);
+	}
+	private String encode(int [] value, int length) {
+		if(array_encoding==ENCODING_TEXT)return encoder.get().encode(value, length);
+		return BinaryCodec.encode(value, length, array_encoding!=ENCODING_PACKED);
+	}
+	private String encode(long [] value) {
+		return encode(value, value.length);
+	}
+	private String encode(long [] value, int length) {
+		if(array_encoding==ENCODING_TEXT)return encoder.get().encode(value, length);
+		if(array_encoding==ENCODING_TIMESERIES)return BinaryCodec.encodeDeltaOfDelta(value, length);
+		return BinaryCodec.encode(value, length, array_encoding==ENCODING_VARINT);
+	}
+	/**
+	 * Timestamps of Date and GregorianCalendar arrays stay text unless ENCODING_TIMESERIES is set
+	 */
+	private String encodeTimes(long [] value) {
+		return encodeTimes(value, value.length);
+	}
+	private String encodeTimes(long [] value, int length) {
+		if(array_encoding==ENCODING_TIMESERIES)return BinaryCodec.encodeDeltaOfDelta(value, length);
+		return encoder.get().encode(value, length);
+	}
+	private String encode(float [] value) {
+		return encode(value, value.length);
+	}
+	private String encode(float [] value, int length) {
+		if(array_encoding==ENCODING_TEXT)return encoder.get().encode(value, length);
+		return BinaryCodec.encode(value, length);
+	}
+	private String encode(double [] value) {
+		return encode(value, value.length);
+	}
+	private String encode(double [] value, int length) {
+		if(array_encoding==ENCODING_TEXT)return encoder.get().encode(value, length);
+		if(array_encoding==ENCODING_TIMESERIES)return BinaryCodec.encodeXor(value, length);
+		return BinaryCodec.encode(value, length);
+	}
+	private boolean [] decodeBooleans(String stringvalue) {
+		if(BinaryCodec.isEncoded(stringvalue))return BinaryCodec.decodeBooleans(stringvalue);
+
+		TextDecoder decoder = new TextDecoder(stringvalue, value_delimiter);
+		int length = decoder.count();
+
+		boolean [] value = new boolean [length];
+		for (int i = 0; i < length; i++) {
+			value[i] = decoder.nextBoolean();
+		}
+		return value;
+	}
+	private byte [] decodeBytes(String stringvalue) {
+		if(BinaryCodec.isEncoded(stringvalue))return BinaryCodec.decodeBytes(stringvalue);
+
+		TextDecoder decoder = new TextDecoder(stringvalue, value_delimiter);
+		int length = decoder.count();
+
+		byte [] value = new byte [length];
+		for (int i = 0; i < length; i++) {
+			value[i] = decoder.nextByte();
+		}
+		return value;
+	}
+	private short [] decodeShorts(String stringvalue) {
+		if(BinaryCodec.isEncoded(stringvalue))return BinaryCodec.decodeShorts(stringvalue);
+
+		TextDecoder decoder = new TextDecoder(stringvalue, value_delimiter);
+		int length = decoder.count();
+
+		short [] value = new short [length];
+		for (int i = 0; i < length; i++) {
+			value[i] = decoder.nextShort();
+		}
+		return value;
+	}
+	private int [] decodeIntegers(String stringvalue) {
+		if(BinaryCodec.isEncoded(stringvalue))return BinaryCodec.decodeIntegers(stringvalue);
+
+		TextDecoder decoder = new TextDecoder(stringvalue, value_delimiter);
+		int length = decoder.count();
+
+		int [] value = new int [length];
+		for (int i = 0; i < length; i++) {
+			value[i] = decoder.nextInt();
+		}
+		return value;
+	}
+	private long [] decodeLongs(String stringvalue) {
+		if(BinaryCodec.isEncoded(stringvalue))return BinaryCodec.decodeLongs(stringvalue);
+
+		TextDecoder decoder = new TextDecoder(stringvalue, value_delimiter);
+		int length = decoder.count();
+
+		long [] value = new long [length];
+		for (int i = 0; i < length; i++) {
+			value[i] = decoder.nextLong();
+		}
+		return value;
+	}
+	private float [] decodeFloats(String stringvalue) {
+		if(BinaryCodec.isEncoded(stringvalue))return BinaryCodec.decodeFloats(stringvalue);
+
+		TextDecoder decoder = new TextDecoder(stringvalue, value_delimiter);
+		int length = decoder.count();
+
+		float [] value = new float [length];
+		for (int i = 0; i < length; i++) {
+			value[i] = decoder.nextFloat();
+		}
+		return value;
+	}
+	private double [] decodeDoubles(String stringvalue) {
+		if(BinaryCodec.isEncoded(stringvalue))return BinaryCodec.decodeDoubles(stringvalue);
+
+		TextDecoder decoder = new TextDecoder(stringvalue, value_delimiter);
+		int length = decoder.count();
+
+		double [] value = new double [length];
+		for (int i = 0; i < length; i++) {
+			value[i] = decoder.nextDouble();
+		}
+		return value;
+	}
+	private ValueDecoder getDecoder(CharSequence stringvalue, char type) {
+		if(BinaryCodec.isEncoded(stringvalue))return new BinaryDecoder(stringvalue, type);
+		return new TextDecoder(stringvalue, value_delimiter);
+	}
+	private BigInteger [] decodeBigIntegers(String stringvalue) {
+		if(BinaryCodec.isEncoded(stringvalue))return BinaryCodec.decodeBigIntegers(stringvalue);
+
+		// Earlier versions saved decimal text
+		TextDecoder decoder = new TextDecoder(stringvalue, value_delimiter);
+		int length = decoder.count();
+
+		BigInteger [] value = new BigInteger [length];
+		for (int i = 0; i < length; i++) {
+			value[i] = new BigInteger(decoder.nextString());
+		}
+		return value;
+	}
+	
+	//
+	
+	/**
+	 * Clear all preferences in preference file
+	 * 
+	 * @return Returns true, if all preferences are cleared 
+	 * 
+	 */
+	public boolean clearAllPref() {
+
+		try {
+			boolean cleared;
+			synchronized (flush_lock) {
+				pending.clear();
+				cleared = store.clear();
+				snapshot = null;
+				scheduleNotification();
+			}
+			clearCache();
+			return cleared;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error clearing " + filename + ".xml");
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+		}
+		return false;
+	}
+	/**
+	 * Delete preference file
+	 * 
+	 * @return Returns true, if preference file deleted.
+	 * 
+	 */
+	public boolean deletePrefFile() {
+		try {
+			boolean deleted;
+			synchronized (flush_lock) {
+				pending.clear();
+				deleted = store.delete();
+				snapshot = null;
+				scheduleNotification();
+			}
+			clearCache();
+			return deleted;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error deleting " + filename + ".xml");
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+		}
+		return false;
+	}
+
+	/**
+	 * Remove orphaned chunks of chunked values from preference file
+	 * 
+	 * Chunks beyond the chunk count of a value and chunks that can not be reached
+	 * by loading are removed with a single commit.
+	 * Pending changes of write-behind mode are written first.
+	 * 
+	 * @return Returns the number of removed preferences, or -1 if the preference file could not be compacted.
+	 * 
+	 */
+	public int compact() {
+		try {
+			synchronized (flush_lock) {
+				if(!flush())return -1;
+
+				Map<String, ?> all = store.getAll();
+
+				HashMap<String, Integer> counts = new HashMap<String, Integer>();
+				for (Map.Entry<String, ?> entry : all.entrySet()) {
+					String key = entry.getKey();
+					if(entry.getValue() instanceof Integer&&key.endsWith(KEY_DELIMITER + KEY_CHUNKS)&&isFamilyKey(key)) {
+						counts.put(key.substring(0, key.length() - KEY_CHUNKS.length() - KEY_DELIMITER.length()), (Integer) entry.getValue());
+					}
+				}
+
+				HashMap<String, Object> orphans = new HashMap<String, Object>();
+				for (Map.Entry<String, ?> entry : all.entrySet()) {
+					String key = entry.getKey();
+					if(!(entry.getValue() instanceof String)||!isFamilyKey(key))continue;
+
+					int index = getChunkIndex(key);
+					if(index<0)continue;
+
+					String base = key.substring(0, key.lastIndexOf(KEY_DELIMITER));
+					Integer count = counts.get(base);
+					if(count!=null) {
+						if(index>=count)orphans.put(key, REMOVED);
+					}
+					else {
+						for (int i = 0; i < index; i++) {
+							if(!(all.get(base + KEY_DELIMITER + i) instanceof String)) {
+								orphans.put(key, REMOVED);
+								break;
+							}
+						}
+					}
+				}
+
+				if(orphans.isEmpty())return 0;
+				if(!commit(orphans))return -1;
+				return orphans.size();
+			}
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error compacting " + filename + ".xml");
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+		}
+		return -1;
+	}
+	/**
+	 * Set where and when observers are notified
+	 * 
+	 * All changes of a value within the window after its first change, e.g. of its chunks 
+	 * or of the fields of a location, are reported with a single notification.
+	 * 
+	 * @param executor	Executor, that loads the new values and notifies the observers, or null for a background thread of this instance. (default: null)
+	 * @param window	Time in milliseconds changes are collected before observers are notified. (default: 100)
+	 */
+	public void setObserverDispatch(Executor executor, long window) {
+		synchronized (observers) {
+			observer_executor = executor;
+			if(window>=0)observer_window = window;
+		}
+	}
+	/**
+	 * Stop notifying an observer of all preferences, it observes
+	 * 
+	 * @param observer	The observer to remove.
+	 * @return Returns true, if the observer was registered.
+	 */
+	public boolean unobserve(PreferenceObserver<?> observer) {
+		ScheduledExecutorService stopped = null;
+		boolean removed = false;
+
+		synchronized (observers) {
+			Iterator<ArrayList<Observation<?>>> lists = observers.values().iterator();
+			while (lists.hasNext()) {
+				Iterator<Observation<?>> observations = lists.next().iterator();
+				while (observations.hasNext()) {
+					if(observations.next().observer!=observer)continue;
+					observations.remove();
+					removed = true;
+				}
+			}
+			Iterator<ArrayList<Observation<?>>> empty = observers.values().iterator();
+			while (empty.hasNext()) {
+				if(empty.next().isEmpty())empty.remove();
+			}
+
+			if(removed&&observers.isEmpty()) {
+				store.unregisterListener(observer_listener);
+				stopped = notifier;
+				notifier = null;
+				scheduled_notification = null;
+				changed.clear();
+			}
+		}
+
+		if(stopped!=null)stopped.shutdown();
+		return removed;
+	}
+
+	private <T> void observe(String internal, String key, PreferenceObserver<T> observer, Callable<T> loader) {
+		if(observer==null)return;
+
+		synchronized (observers) {
+			if(observers.isEmpty())store.registerListener(observer_listener);
+
+			ArrayList<Observation<?>> observations = observers.get(internal);
+			if(observations==null) {
+				observations = new ArrayList<Observation<?>>();
+				observers.put(internal, observations);
+			}
+			observations.add(new Observation<T>(key, observer, loader));
+		}
+	}
+	private void changed(String key) {
+		synchronized (observers) {
+			if(key==null) {
+				changed.addAll(observers.keySet());
+			}
+			else {
+				// Scalars are saved under their own key, values with chunks and locations with fields under several
+				if(observers.containsKey(key))changed.add(key);
+
+				String observed = getObservedKey(key);
+				if(observers.containsKey(observed))changed.add(observed);
+			}
+
+			// Our own commits notify once after all of their keys are collected
+			if(!Thread.holdsLock(flush_lock))scheduleNotification();
+		}
+	}
+	private void scheduleNotification() {
+		synchronized (observers) {
+			if(changed.isEmpty()||scheduled_notification!=null)return;
+
+			try {
+				if(notifier==null)notifier = Executors.newSingleThreadScheduledExecutor(writer_factory);
+				scheduled_notification = notifier.schedule(notify_task, observer_window, TimeUnit.MILLISECONDS);
+			}
+			catch (RejectedExecutionException e) {
+				if(debug)Log.e(TAG, "Error scheduling notification of observers of " + filename + ".xml");
+				if(PRINT_E)Log.e(TAG, "Exception", e);
+			}
+		}
+	}
+	private String getObservedKey(String key) {
+		key = getCacheKey(key);
+
+		// Location arrays saved by earlier versions change their columns
+		String columns = KEY_LOCATION_PROVIDER + KEY_DELIMITER;
+		if(key.startsWith(columns + KEY_ARRAY + KEY_DELIMITER)||key.startsWith(columns + KEY_ARRAYLIST + KEY_DELIMITER)) {
+			return KEY_LOCATION + KEY_DELIMITER + key.substring(columns.length());
+		}
+		return key;
+	}
+
+	private final class Observation<T> implements Runnable {
+
+		private final String key;
+		private final PreferenceObserver<T> observer;
+		private final Callable<T> loader;
+
+		Observation(String key, PreferenceObserver<T> observer, Callable<T> loader) {
+			this.key = key;
+			this.observer = observer;
+			this.loader = loader;
+		}
+
+		public void run() {
+			try {
+				observer.onPreferenceChanged(key, loader.call());
+			}
+			catch (Exception e) {
+				if(debug)Log.e(TAG, "Error notifying observer of " + key);
+				if(PRINT_E)Log.e(TAG, "Exception", e);
+			}
+		}
+	}
+
+	private boolean isFamilyKey(String key) {
+		for (String family : FAMILIES) {
+			if(key.startsWith(family + KEY_DELIMITER))return true;
+		}
+		return false;
+	}
+	private int getChunkIndex(String key) {
+		int start = key.lastIndexOf(KEY_DELIMITER) + KEY_DELIMITER.length();
+		int length = key.length() - start;
+		if(start<KEY_DELIMITER.length()||length==0||length>9)return -1;
+
+		int index = 0;
+		for (int i = start; i < key.length(); i++) {
+			char c = key.charAt(i);
+			if(c<'0'||c>'9')return -1;
+			index = index * 10 + (c - '0');
+		}
+		return index;
+	}
+
+	/**
+	 * Enable/disable the cache of loaded arrays and arraylists
+	 * 
+	 * Loaded values are kept in memory until they are saved or deleted, or until
+	 * another writer changes them in the preference file. The least recently used
+	 * values are dropped first.
+	 * 
+	 * @param max_entries	Maximal number of cached values. (default: 0)
+	 * @param max_bytes	Maximal estimated memory of cached values in bytes. (default: 0)
+	 * If both are 0, the cache is disabled. If one is 0, only the other one limits the cache.
+	 */
+	public void setCacheSize(int max_entries, long max_bytes) {
+		synchronized (cache_listener) {
+			if(cache!=null) {
+				store.unregisterListener(cache_listener);
+				cache = null;
+			}
+			if(max_entries>0||max_bytes>0) {
+				cache = new ValueCache(Math.max(max_entries, 0), Math.max(max_bytes, 0));
+				store.registerListener(cache_listener);
+			}
+			uncommitted.clear();
+		}
+	}
+
+	/**
+	 * Set/remove the receiver of measurements
+	 * 
+	 * Every save, load and delete reports its family and duration, failures are
+	 * reported with their exception, even if debug is false. Arrays and arraylists
+	 * also report the time to encode/decode them and the length and number of chunks
+	 * of the saved text. Without metrics nothing is measured.
+	 * 
+	 * @param metrics	Receiver of measurements, e.g. HistogramMetrics, or null. (default: null)
+	 */
+	public void setMetrics(PreferenceMetrics metrics) {
+		this.metrics = metrics;
+	}
+	/**
+	 * Set the encoding of boolean, byte, short, int, long, float and double arrays
+	 * 
+	 * Only affects saving. Arrays are loaded in whatever encoding they were saved with.
+	 * 
+	 * @param array_encoding	One of ENCODING_TEXT, ENCODING_PACKED, ENCODING_VARINT or ENCODING_TIMESERIES. (default: ENCODING_TEXT)
+	 */
+	public void setArrayEncoding(int array_encoding) {
+		if(array_encoding>=ENCODING_TEXT&&array_encoding<=ENCODING_TIMESERIES)this.array_encoding = array_encoding;
+	}
+
+	/**
+	 * Enable/disable write-behind mode
+	 * 
+	 * @param write_behind	If true, saves and deletes are kept in memory and written by a background thread with a single commit. (default: false)
+	 */
+	public void setWriteBehind(boolean write_behind) {
+		setWriteBehind(write_behind, flush_interval);
+	}
+	/**
+	 * Enable/disable write-behind mode
+	 * 
+	 * @param write_behind	If true, saves and deletes are kept in memory and written by a background thread with a single commit. (default: false)
+	 * @param flush_interval	Maximum time in milliseconds between the first pending change and the commit, that writes it. Later changes are written with it and do not delay it. (default: 1000)
+	 */
+	public void setWriteBehind(boolean write_behind, long flush_interval) {
+		ScheduledExecutorService stopped = null;
+
+		synchronized (writer_lock) {
+			if(flush_interval>=0)this.flush_interval = flush_interval;
+			if(write_behind&&writer==null)writer = Executors.newSingleThreadScheduledExecutor(writer_factory);
+			if(!write_behind) {
+				stopped = writer;
+				writer = null;
+				scheduled_flush = null;
+			}
+			this.write_behind = write_behind;
+		}
+
+		if(stopped!=null) {
+			stopped.shutdown();
+			flush();
+		}
+	}
+	/**
+	 * Write all pending changes to the preference file
+	 * 
+	 * @return Returns true, if there are no pending changes left.
+	 * 
+	 */
+	public boolean flush() {
+		try {
+			synchronized (flush_lock) {
+				if(pending.isEmpty())return true;
+
+				HashMap<String, Object> values;
+				synchronized (pending_lock) {
+					values = new HashMap<String, Object>(pending);
+				}
+				if(!commit(values))return false;
+
+				for (Map.Entry<String, Object> entry : values.entrySet()) {
+					pending.remove(entry.getKey(), entry.getValue());
+				}
+				return true;
+			}
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error flushing " + filename + ".xml");
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+		}
+		return false;
+	}
+	/**
+	 * Write all pending changes to the preference file in the background
+	 * 
+	 * @return Returns a future, that returns true, if there are no pending changes left.
+	 * 
+	 */
+	public Future<Boolean> flushAsync() {
+		synchronized (writer_lock) {
+			if(writer!=null) {
+				try {
+					return writer.submit(flush_task);
+				}
+				catch (RejectedExecutionException e) {}
+			}
+		}
+		FutureTask<Boolean> task = new FutureTask<Boolean>(flush_task);
+		task.run();
+		return task;
+	}
+	/**
+	 * Release the resources of this instance
+	 *
+	 * Pending changes of write-behind mode are written, the background threads are stopped,
+	 * the cache and all observers are removed and no listener stays registered at the
+	 * preference file. The instance can still be used afterwards, like a new one.
+	 *
+	 */
+	public void close() {
+		setWriteBehind(false);
+		setCacheSize(0, 0);
+
+		ScheduledExecutorService stopped;
+		synchronized (observers) {
+			if(!observers.isEmpty())store.unregisterListener(observer_listener);
+			observers.clear();
+			stopped = notifier;
+			notifier = null;
+			scheduled_notification = null;
+			changed.clear();
+		}
+		if(stopped!=null)stopped.shutdown();
+
+		synchronized (stamp_listener) {
+			if(stamp_listening) {
+				store.unregisterListener(stamp_listener);
+				stamp_listening = false;
+			}
+			stamps.clear();
+		}
+		synchronized (snapshot_listener) {
+			if(snapshot_listening) {
+				store.unregisterListener(snapshot_listener);
+				snapshot_listening = false;
+			}
+			snapshot_generation++;
+			snapshot = null;
+		}
+	}
+	/**
+	 * Take a snapshot of all preferences
+	 * 
+	 * The snapshot is an immutable view of the preference file after the last commit, 
+	 * including pending changes of write-behind mode. All load methods can be used on it 
+	 * from any thread without locking, and every value and location is read as it was 
+	 * committed. Its save and delete methods fail. The same snapshot is returned until 
+	 * the next commit.
+	 * 
+	 * @return Returns a read-only AdvancedSharedPreferences, or null if the snapshot could not be taken.
+	 * 
+	 */
+	public AdvancedSharedPreferences snapshot() {
+		if(read_only)return this;
+
+		AdvancedSharedPreferences snapshot = this.snapshot;
+		if(snapshot!=null)return snapshot;
+
+		try {
+			long generation;
+			synchronized (snapshot_listener) {
+				// Other writers of the preference file replace the snapshot as well
+				if(!snapshot_listening) {
+					store.registerListener(snapshot_listener);
+					snapshot_listening = true;
+				}
+				generation = snapshot_generation;
+			}
+			synchronized (flush_lock) {
+				synchronized (pending_lock) {
+					HashMap<String, Object> values = new HashMap<String, Object>(store.getAll());
+					for (Map.Entry<String, Object> entry : pending.entrySet()) {
+						if(entry.getValue()==REMOVED)values.remove(entry.getKey());
+						else values.put(entry.getKey(), entry.getValue());
+					}
+
+					snapshot = new AdvancedSharedPreferences(new SnapshotStore(filename, values), value_delimiter, value_maxsize, debug);
+					snapshot.read_only = true;
+					snapshot.array_encoding = array_encoding;
+					synchronized (snapshot_listener) {
+						// Another writer may have changed the file, while it was copied
+						if(snapshot_generation==generation)this.snapshot = snapshot;
+					}
+					return snapshot;
+				}
+			}
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error taking snapshot of " + filename + ".xml");
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+		}
+		return null;
+	}
+	/**
+	 * Start a batch of changes
+	 * 
+	 * @return Returns a new batch. Its saves and deletes are written with a single commit by {@link PreferenceBatch#commit()}.
+	 * 
+	 */
+	public PreferenceBatch edit() {
+		return new PreferenceBatch(this);
+	}
+
+	HashMap<String, Object> beginBatch(HashMap<String, Object> values) {
+		HashMap<String, Object> previous = staging.get();
+		staging.set(values);
+		return previous;
+	}
+	void endBatch(HashMap<String, Object> previous) {
+		staging.set(previous);
+	}
+	boolean commitBatch(HashMap<String, Object> values) {
+		try {
+			if(values.isEmpty())return true;
+
+			HashMap<String, Object> staging = this.staging.get();
+			if(staging!=null) {
+				staging.putAll(values);
+				return true;
+			}
+			if(write_behind) {
+				synchronized (pending_lock) {
+					pending.putAll(values);
+					snapshot = null;
+				}
+				invalidateCommitted();
+				scheduleFlush();
+				return true;
+			}
+			boolean committed = commit(values);
+			invalidateCommitted();
+			return committed;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error committing batch to " + filename + ".xml");
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+		}
+		return false;
+	}
+
+	// BOOLEAN
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean saveBooleanPref(String key, boolean value) {
+		long start = startTimer();
+		try {
+			putBoolean(KEY_BOOLEAN + KEY_DELIMITER + key, value);
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BOOLEAN, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BOOLEAN, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean saveBooleanArrayPref(String key, boolean [] value) {		
+		long start = startTimer();
+		try {
+			long encoding = startTimer();
+			String stringvalue = encode(value);
+			encoded(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY, encoding, stringvalue.length());
+			savePref(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean saveBooleanArrayListPref(String key, ArrayList<Boolean> value) {		
+		long start = startTimer();
+		try {
+			int length = value.size();
+			boolean [] array = new boolean [length];
+			for (int i = 0; i < length; i++) {
+				array[i] = value.get(i);
+			}
+			long encoding = startTimer();
+			String stringvalue = encode(array);
+			encoded(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST, encoding, stringvalue.length());
+			savePref(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * Saved like saveBooleanArrayListPref, without boxing.
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean saveBooleanListPref(String key, BooleanList value) {
+		long start = startTimer();
+		try {
+			long encoding = startTimer();
+			String stringvalue = encode(value.elements, value.size);
+			encoded(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST, encoding, stringvalue.length());
+			savePref(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
+	
+	/**
+	 * Append values to a saved array. Only the last chunk is saved again, so the cost
+	 * depends on the number of appended values, not on the length of the array,
+	 * unless it was saved with ENCODING_PACKED or ENCODING_VARINT.
+	 * The array is saved, if it does not exist yet.
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendBooleanArrayPref(String key, boolean... value) {
+		if(value==null)return false;
+		return appendBooleans(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY, key, value, value.length);
+	}
+	/**
+	 * Append values to a saved arraylist, see appendBooleanArrayPref
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendBooleanArrayListPref(String key, ArrayList<Boolean> value) {
+		int length = value.size();
+		boolean [] array = new boolean [length];
+		for (int i = 0; i < length; i++) {
+			if(value.get(i)==null)return false;
+			array[i] = value.get(i);
+		}
+		return appendBooleans(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST, key, array, length);
+	}
+	/**
+	 * Append values to a saved arraylist, see appendBooleanArrayPref
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendBooleanListPref(String key, BooleanList value) {
+		return appendBooleans(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST, key, value.elements, value.size);
+	}
+	private boolean appendBooleans(String family, String key, boolean [] value, int length) {
+		long start = startTimer();
+		try {
+			String internal = family + KEY_DELIMITER + key;
+			char saved = getAppendEncoding(internal, BinaryCodec.TYPE_BOOLEAN);
+			if(length==0&&saved!=APPEND_MISSING)return true;
+
+			long encoding = startTimer();
+			String stringvalue;
+			if(saved==APPEND_TEXT)stringvalue = encoder.get().encode(value, length);
+			else if(saved==BinaryCodec.PACKED||saved==BinaryCodec.VARINT)stringvalue = BinaryCodec.encode(value, length);
+			else {
+				if(saved==APPEND_REWRITE) {
+					boolean [] existing = decodeBooleans(loadPref(internal, ""));
+					boolean [] array = new boolean [existing.length + length];
+					System.arraycopy(existing, 0, array, 0, existing.length);
+					System.arraycopy(value, 0, array, existing.length, length);
+					value = array;
+					length = array.length;
+				}
+				stringvalue = encode(value, length);
+			}
+			encoded(family, encoding, stringvalue.length());
+
+			if(saved==APPEND_MISSING||saved==APPEND_REWRITE)savePref(internal, stringvalue);
+			else appendPref(internal, stringvalue, saved);
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(family, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(family, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
+	/**
+	 * Load preference
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param defValue	Value to return if this preference does not exist.
+	 * @return 		Returns the preference value if it exists, or defValue.
+	 */
+	public boolean loadBooleanPref(String key, boolean defValue) {
+		long start = startTimer();
+		try {
+			return getBoolean(KEY_BOOLEAN + KEY_DELIMITER + key, defValue);
+		} catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BOOLEAN, PreferenceMetrics.LOAD, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BOOLEAN, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Load preference
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param defValue	Value to return if this preference does not exist.
+	 * @return 		Returns the preference value if it exists, or defValue.
+	 */
+	public boolean [] loadBooleanArrayPref(String key, boolean [] defValue) {
+		long start = startTimer();
+		try {
+			String internal = KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			boolean [] cached = getCached(internal, boolean[].class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
+			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
+
+			boolean [] value = decodeBooleans(stringvalue);
+			decoded(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
+			return value;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Load preference
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param defValue	Value to return if this preference does not exist.
+	 * @return 		Returns the preference value if it exists, or defValue.
+	 */
+	public ArrayList<Boolean> loadBooleanArrayListPref(String key, ArrayList<Boolean> defValue) {
+		long start = startTimer();
+		try {
+			String internal = KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key;
+			ArrayList<Boolean> cached = getCached(internal, ArrayList.class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
+			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
+
+			boolean [] array = decodeBooleans(stringvalue);
+			int length = array.length;
+
+			ArrayList<Boolean> value = new ArrayList<Boolean>(length);
+			for (int i = 0; i < length; i++) {
+				value.add(array[i]);
+			}
+			decoded(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
+			return value;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Load preference
+	 * 
+	 * Loads values saved with saveBooleanArrayListPref or saveBooleanListPref, without boxing.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param defValue	Value to return if this preference does not exist.
+	 * @return 		Returns the preference value if it exists, or defValue.
+	 */
+	public BooleanList loadBooleanListPref(String key, BooleanList defValue) {
+		long start = startTimer();
+		try {
+			String internal = KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key;
+			BooleanList cached = getCached(internal, BooleanList.class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
+			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
+
+			boolean [] array = decodeBooleans(stringvalue);
+			BooleanList value = new BooleanList(array, array.length);
+
+			decoded(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
+			return value;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Load preference into an array, without allocating one
+	 * 
+	 * Values, that do not fit into dst, are skipped.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param dst	Array to load the values into.
+	 * @param offset	Index in dst of the first value.
+	 * @return 		Returns the number of saved values, or -1 if this preference does not exist.
+	 */
+	public int loadBooleanArrayPref(String key, boolean [] dst, int offset) {
+		long start = startTimer();
+		try {
+			String internal = KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			boolean [] cached = peekCached(internal, boolean[].class);
+			if(cached!=null) {
+				System.arraycopy(cached, 0, dst, offset, Math.min(cached.length, dst.length - offset));
+				return cached.length;
+			}
+
+			CharSequence stringvalue = loadValue(internal);
+			if(stringvalue==null||stringvalue.length()==0)return -1;
+			long decoding = startTimer();
+
+			ValueDecoder decoder = getDecoder(stringvalue, BinaryCodec.TYPE_BOOLEAN);
+			int length = dst.length - offset;
+			int count = 0;
+			while (count<length&&decoder.hasNext()) {
+				dst[offset + count++] = decoder.nextBoolean();
+			}
+			count += decoder.remaining();
+			decoded(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			return count;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return -1;
+	}
+	
+	/**
+	 * Delete preference
+	 * 
+	 * @return Returns true, if preference deleted.
+	 * 
+	 */
+	public boolean delBooleanPref(String key) {
+		boolean value = false;
+
+		long start = startTimer();
+		try {
+			value = delPref(KEY_BOOLEAN + KEY_DELIMITER + key);
+			commit();
+		}
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error deleting " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BOOLEAN, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BOOLEAN, PreferenceMetrics.DELETE, start);
+		}
+		return value;
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @return Returns true, if preference deleted.
+	 * 
+	 */
+	public boolean delBooleanArrayPref(String key) {
+		boolean value = false;
+
+		long start = startTimer();
+		try {
+			value = delPref(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			commit();
+		}
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error deleting " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, start);
+		}
+		return value;
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @return Returns true, if preference deleted.
+	 * 
+	 */
+	public boolean delBooleanArrayListPref(String key) {
+		boolean value = false;
+
+		long start = startTimer();
+		try {
+			value = delPref(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			commit();
+		}
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error deleting " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, start);
+		}
+		return value;
+	}
+	/**
+	 * Iterate over the values of a saved array
+	 * 
+	 * The values are decoded, while the iterator is read, and only one chunk of the saved
+	 * value is kept in memory, e.g. to read the first values of a long array or to read
+	 * it once without loading all of it.
+	 * The iterator fails fast with a ConcurrentModificationException, once the preference
+	 * is saved, appended to or deleted.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @return 		Returns an iterator over the values, or null if this preference does not exist.
+	 */
+	public BooleanIterator iterateBooleanArrayPref(String key) {
+		long start = startTimer();
+		try {
+			CharSequence stringvalue = streamValue(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			if(stringvalue==null||stringvalue.length()==0)return null;
+			return new BooleanIterator(getDecoder(stringvalue, BinaryCodec.TYPE_BOOLEAN));
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return null;
+	}
+	/**
+	 * Iterate over the values of a saved arraylist
+	 * 
+	 * The values are decoded, while the iterator is read, and only one chunk of the saved
+	 * value is kept in memory, e.g. to read the first values of a long arraylist or to read
+	 * it once without loading all of it.
+	 * The iterator fails fast with a ConcurrentModificationException, once the preference
+	 * is saved, appended to or deleted.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @return 		Returns an iterator over the values, or null if this preference does not exist.
+	 */
+	public BooleanIterator iterateBooleanArrayListPref(String key) {
+		long start = startTimer();
+		try {
+			CharSequence stringvalue = streamValue(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			if(stringvalue==null||stringvalue.length()==0)return null;
+			return new BooleanIterator(getDecoder(stringvalue, BinaryCodec.TYPE_BOOLEAN));
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
+		return null;
+	}
+	/**
+	 * Load one value of a saved array
+	 * 
+	 * Arrays saved with ENCODING_PACKED are read directly from the chunk, that holds the
+	 * value. Other arrays are decoded up to the value, one chunk at a time.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param index	Index of the value in the array.
+	 * @param defValue	Value to return if this preference or index does not exist.
+	 * @return 		Returns the preference value if it exists, or defValue.
+	 */
+	public boolean loadBooleanArrayElementPref(String key, int index, boolean defValue) {
+		long start = startTimer();
+		try {
+			String internal = KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			boolean [] cached = peekCached(internal, boolean[].class);
+			if(cached!=null)return index>=0&&index<cached.length ? cached[index] : defValue;
+			if(index<0)return defValue;
+
+			ValueDecoder decoder = getDecoder(internal, BinaryCodec.TYPE_BOOLEAN, index);
+			if(decoder==null||!decoder.hasNext())return defValue;
+			return decoder.nextBoolean();
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Load the values from index from, inclusive, to index to, exclusive, of a saved array
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param from	Index of the first value.
+	 * @param to	Index after the last value.
+	 * @param defValue	Value to return if this preference or range does not exist.
+	 * @return 		Returns the values if they exist, or defValue.
+	 */
+	public boolean [] loadBooleanArrayRangePref(String key, int from, int to, boolean [] defValue) {
+		long start = startTimer();
+		try {
+			String internal = KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			if(from<0||from>to)return defValue;
+			boolean [] cached = peekCached(internal, boolean[].class);
+			if(cached!=null)return to<=cached.length ? Arrays.copyOfRange(cached, from, to) : defValue;
+
+			ValueDecoder decoder = getDecoder(internal, BinaryCodec.TYPE_BOOLEAN, from);
+			if(decoder==null)return defValue;
+
+			boolean [] value = new boolean [to - from];
+			for (int i = 0; i < value.length; i++) {
+				if(!decoder.hasNext())return defValue;
+				value[i] = decoder.nextBoolean();
+			}
+			return value;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Observe preference
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param defValue	Value to pass to the observer, if this preference is deleted.
+	 * @param observer	Receives the new value after every change.
+	 */
+	public void observeBooleanPref(final String key, final boolean defValue, PreferenceObserver<Boolean> observer) {
+		observe(KEY_BOOLEAN + KEY_DELIMITER + key, key, observer, new Callable<Boolean>() {
+			public Boolean call() {
+				return loadBooleanPref(key, defValue);
+			}
+		});
+	}
+	/**
+	 * Observe preference
+	 * 
+	 * The observer is notified once per change of the array, not once per saved chunk.
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeBooleanArrayPref(final String key, PreferenceObserver<boolean []> observer) {
+		observe(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, key, observer, new Callable<boolean []>() {
+			public boolean [] call() {
+				return loadBooleanArrayPref(key, null);
+			}
+		});
+	}
+	/**
+	 * Observe preference, see observeBooleanArrayPref
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeBooleanArrayListPref(final String key, PreferenceObserver<ArrayList<Boolean>> observer) {
+		observe(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, key, observer, new Callable<ArrayList<Boolean>>() {
+			public ArrayList<Boolean> call() {
+				return loadBooleanArrayListPref(key, null);
+			}
+		});
+	}
+
+	// BYTE
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean saveBytePref(String key, byte value) {
+		long start = startTimer();
+		try {
+			savePref(KEY_BYTE + KEY_DELIMITER + key, String.valueOf(value));
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BYTE, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BYTE, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean saveByteArrayPref(String key, byte [] value) {		
+		long start = startTimer();
+		try {
+			long encoding = startTimer();
+			String stringvalue = encode(value);
+			encoded(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY, encoding, stringvalue.length());
+			savePref(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean saveByteArrayListPref(String key, ArrayList<Byte> value) {		
+		long start = startTimer();
+		try {
+			int length = value.size();
+			byte [] array = new byte [length];
+			for (int i = 0; i < length; i++) {
+				array[i] = value.get(i);
+			}
+			long encoding = startTimer();
+			String stringvalue = encode(array);
+			encoded(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST, encoding, stringvalue.length());
+			savePref(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * Saved like saveByteArrayListPref, without boxing.
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean saveByteListPref(String key, ByteList value) {
+		long start = startTimer();
+		try {
+			long encoding = startTimer();
+			String stringvalue = encode(value.elements, value.size);
+			encoded(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST, encoding, stringvalue.length());
+			savePref(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
+	
+	/**
+	 * Append values to a saved array. Only the last chunk is saved again, so the cost
+	 * depends on the number of appended values, not on the length of the array.
+	 * The array is saved, if it does not exist yet.
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendByteArrayPref(String key, byte... value) {
+		if(value==null)return false;
+		return appendBytes(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY, key, value, value.length);
+	}
+	/**
+	 * Append values to a saved arraylist, see appendByteArrayPref
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendByteArrayListPref(String key, ArrayList<Byte> value) {
+		int length = value.size();
+		byte [] array = new byte [length];
+		for (int i = 0; i < length; i++) {
+			if(value.get(i)==null)return false;
+			array[i] = value.get(i);
+		}
+		return appendBytes(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST, key, array, length);
+	}
+	/**
+	 * Append values to a saved arraylist, see appendByteArrayPref
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendByteListPref(String key, ByteList value) {
+		return appendBytes(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST, key, value.elements, value.size);
+	}
+	private boolean appendBytes(String family, String key, byte [] value, int length) {
+		long start = startTimer();
+		try {
+			String internal = family + KEY_DELIMITER + key;
+			char saved = getAppendEncoding(internal, BinaryCodec.TYPE_BYTE);
+			if(length==0&&saved!=APPEND_MISSING)return true;
+
+			long encoding = startTimer();
+			String stringvalue;
+			if(saved==APPEND_TEXT)stringvalue = encoder.get().encode(value, length);
+			else if(saved==BinaryCodec.PACKED||saved==BinaryCodec.VARINT)stringvalue = BinaryCodec.encode(value, length);
+			else {
+				if(saved==APPEND_REWRITE) {
+					byte [] existing = decodeBytes(loadPref(internal, ""));
+					byte [] array = new byte [existing.length + length];
+					System.arraycopy(existing, 0, array, 0, existing.length);
+					System.arraycopy(value, 0, array, existing.length, length);
+					value = array;
+					length = array.length;
+				}
+				stringvalue = encode(value, length);
+			}
+			encoded(family, encoding, stringvalue.length());
+
+			if(saved==APPEND_MISSING||saved==APPEND_REWRITE)savePref(internal, stringvalue);
+			else appendPref(internal, stringvalue, saved);
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(family, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(family, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
+	/**
+	 * Load preference
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param defValue	Value to return if this preference does not exist.
+	 * @return 		Returns the preference value if it exists, or defValue.
+	 */
+	public byte loadBytePref(String key, byte defValue) {
+		long start = startTimer();
+		try {
+			return Byte.parseByte(loadPref(KEY_BYTE + KEY_DELIMITER + key, String.valueOf(defValue)));
+		} catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BYTE, PreferenceMetrics.LOAD, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BYTE, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Load preference
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param defValue	Value to return if this preference does not exist.
+	 * @return 		Returns the preference value if it exists, or defValue.
+	 */
+	public byte [] loadByteArrayPref(String key, byte [] defValue) {
+		long start = startTimer();
+		try {
+			String internal = KEY_BYTE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			byte [] cached = getCached(internal, byte[].class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
+			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
+
+			byte [] value = decodeBytes(stringvalue);
+			decoded(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
+			return value;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Load preference
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param defValue	Value to return if this preference does not exist.
+	 * @return 		Returns the preference value if it exists, or defValue.
+	 */
+	public ArrayList<Byte> loadByteArrayListPref(String key, ArrayList<Byte> defValue) {
+		long start = startTimer();
+		try {
+			String internal = KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key;
+			ArrayList<Byte> cached = getCached(internal, ArrayList.class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
+			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
+
+			byte [] array = decodeBytes(stringvalue);
+			int length = array.length;
+
+			ArrayList<Byte> value = new ArrayList<Byte>(length);
+			for (int i = 0; i < length; i++) {
+				value.add(array[i]);
+			}
+			decoded(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
+			return value;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Load preference
+	 * 
+	 * Loads values saved with saveByteArrayListPref or saveByteListPref, without boxing.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param defValue	Value to return if this preference does not exist.
+	 * @return 		Returns the preference value if it exists, or defValue.
+	 */
+	public ByteList loadByteListPref(String key, ByteList defValue) {
+		long start = startTimer();
+		try {
+			String internal = KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key;
+			ByteList cached = getCached(internal, ByteList.class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
+			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
+
+			byte [] array = decodeBytes(stringvalue);
+			ByteList value = new ByteList(array, array.length);
+
+			decoded(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
+			return value;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Load preference into an array, without allocating one
+	 * 
+	 * Values, that do not fit into dst, are skipped.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param dst	Array to load the values into.
+	 * @param offset	Index in dst of the first value.
+	 * @return 		Returns the number of saved values, or -1 if this preference does not exist.
+	 */
+	public int loadByteArrayPref(String key, byte [] dst, int offset) {
+		long start = startTimer();
+		try {
+			String internal = KEY_BYTE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			byte [] cached = peekCached(internal, byte[].class);
+			if(cached!=null) {
+				System.arraycopy(cached, 0, dst, offset, Math.min(cached.length, dst.length - offset));
+				return cached.length;
+			}
+
+			CharSequence stringvalue = loadValue(internal);
+			if(stringvalue==null||stringvalue.length()==0)return -1;
+			long decoding = startTimer();
+
+			ValueDecoder decoder = getDecoder(stringvalue, BinaryCodec.TYPE_BYTE);
+			int length = dst.length - offset;
+			int count = 0;
+			while (count<length&&decoder.hasNext()) {
+				dst[offset + count++] = decoder.nextByte();
+			}
+			count += decoder.remaining();
+			decoded(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			return count;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return -1;
+	}
+	/**
+	 * Load preference into a buffer, without allocating an array
+	 * 
+	 * Values are put at the position of dst, values, that do not fit, are skipped.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param dst	Buffer to load the values into.
+	 * @return 		Returns the number of saved values, or -1 if this preference does not exist.
+	 */
+	public int loadByteBufferPref(String key, ByteBuffer dst) {
+		long start = startTimer();
+		try {
+			String internal = KEY_BYTE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			byte [] cached = peekCached(internal, byte[].class);
+			if(cached!=null) {
+				dst.put(cached, 0, Math.min(cached.length, dst.remaining()));
+				return cached.length;
+			}
+
+			CharSequence stringvalue = loadValue(internal);
+			if(stringvalue==null||stringvalue.length()==0)return -1;
+			long decoding = startTimer();
+
+			ValueDecoder decoder = getDecoder(stringvalue, BinaryCodec.TYPE_BYTE);
+			int count = 0;
+			while (dst.hasRemaining()&&decoder.hasNext()) {
+				dst.put(decoder.nextByte());
+				count++;
+			}
+			count += decoder.remaining();
+			decoded(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			return count;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return -1;
+	}
+	
+	/**
+	 * Delete preference
+	 * 
+	 * @return Returns true, if preference deleted.
+	 * 
+	 */
+	public boolean delBytePref(String key) {
+		boolean value = false;
+
+		long start = startTimer();
+		try {
+			value = delPref(KEY_BYTE + KEY_DELIMITER + key);
+			commit();
+		}
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error deleting " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BYTE, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BYTE, PreferenceMetrics.DELETE, start);
+		}
+		return value;
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @return Returns true, if preference deleted.
+	 * 
+	 */
+	public boolean delByteArrayPref(String key) {
+		boolean value = false;
+
+		long start = startTimer();
+		try {
+			value = delPref(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			commit();
+		}
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error deleting " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, start);
+		}
+		return value;
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @return Returns true, if preference deleted.
+	 * 
+	 */
+	public boolean delByteArrayListPref(String key) {
+		boolean value = false;
+
+		long start = startTimer();
+		try {
+			value = delPref(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			commit();
+		}
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error deleting " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, start);
+		}
+		return value;
+	}
+	/**
+	 * Iterate over the values of a saved array
+	 * 
+	 * The values are decoded, while the iterator is read, and only one chunk of the saved
+	 * value is kept in memory, e.g. to read the first values of a long array or to read
+	 * it once without loading all of it.
+	 * The iterator fails fast with a ConcurrentModificationException, once the preference
+	 * is saved, appended to or deleted.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @return 		Returns an iterator over the values, or null if this preference does not exist.
+	 */
+	public ByteIterator iterateByteArrayPref(String key) {
+		long start = startTimer();
+		try {
+			CharSequence stringvalue = streamValue(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			if(stringvalue==null||stringvalue.length()==0)return null;
+			return new ByteIterator(getDecoder(stringvalue, BinaryCodec.TYPE_BYTE));
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return null;
+	}
+	/**
+	 * Iterate over the values of a saved arraylist
+	 * 
+	 * The values are decoded, while the iterator is read, and only one chunk of the saved
+	 * value is kept in memory, e.g. to read the first values of a long arraylist or to read
+	 * it once without loading all of it.
+	 * The iterator fails fast with a ConcurrentModificationException, once the preference
+	 * is saved, appended to or deleted.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @return 		Returns an iterator over the values, or null if this preference does not exist.
+	 */
+	public ByteIterator iterateByteArrayListPref(String key) {
+		long start = startTimer();
+		try {
+			CharSequence stringvalue = streamValue(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			if(stringvalue==null||stringvalue.length()==0)return null;
+			return new ByteIterator(getDecoder(stringvalue, BinaryCodec.TYPE_BYTE));
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
+		return null;
+	}
+	/**
+	 * Load one value of a saved array
+	 * 
+	 * Arrays saved with ENCODING_PACKED are read directly from the chunk, that holds the
+	 * value. Other arrays are decoded up to the value, one chunk at a time.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param index	Index of the value in the array.
+	 * @param defValue	Value to return if this preference or index does not exist.
+	 * @return 		Returns the preference value if it exists, or defValue.
+	 */
+	public byte loadByteArrayElementPref(String key, int index, byte defValue) {
+		long start = startTimer();
+		try {
+			String internal = KEY_BYTE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			byte [] cached = peekCached(internal, byte[].class);
+			if(cached!=null)return index>=0&&index<cached.length ? cached[index] : defValue;
+			if(index<0)return defValue;
+
+			ValueDecoder decoder = getDecoder(internal, BinaryCodec.TYPE_BYTE, index);
+			if(decoder==null||!decoder.hasNext())return defValue;
+			return decoder.nextByte();
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Load the values from index from, inclusive, to index to, exclusive, of a saved array
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param from	Index of the first value.
+	 * @param to	Index after the last value.
+	 * @param defValue	Value to return if this preference or range does not exist.
+	 * @return 		Returns the values if they exist, or defValue.
+	 */
+	public byte [] loadByteArrayRangePref(String key, int from, int to, byte [] defValue) {
+		long start = startTimer();
+		try {
+			String internal = KEY_BYTE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			if(from<0||from>to)return defValue;
+			byte [] cached = peekCached(internal, byte[].class);
+			if(cached!=null)return to<=cached.length ? Arrays.copyOfRange(cached, from, to) : defValue;
+
+			ValueDecoder decoder = getDecoder(internal, BinaryCodec.TYPE_BYTE, from);
+			if(decoder==null)return defValue;
+
+			byte [] value = new byte [to - from];
+			for (int i = 0; i < value.length; i++) {
+				if(!decoder.hasNext())return defValue;
+				value[i] = decoder.nextByte();
+			}
+			return value;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Observe preference
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param defValue	Value to pass to the observer, if this preference is deleted.
+	 * @param observer	Receives the new value after every change.
+	 */
+	public void observeBytePref(final String key, final byte defValue, PreferenceObserver<Byte> observer) {
+		observe(KEY_BYTE + KEY_DELIMITER + key, key, observer, new Callable<Byte>() {
+			public Byte call() {
+				return loadBytePref(key, defValue);
+			}
+		});
+	}
+	/**
+	 * Observe preference
+	 * 
+	 * The observer is notified once per change of the array, not once per saved chunk.
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeByteArrayPref(final String key, PreferenceObserver<byte []> observer) {
+		observe(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, key, observer, new Callable<byte []>() {
+			public byte [] call() {
+				return loadByteArrayPref(key, null);
+			}
+		});
+	}
+	/**
+	 * Observe preference, see observeByteArrayPref
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeByteArrayListPref(final String key, PreferenceObserver<ArrayList<Byte>> observer) {
+		observe(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, key, observer, new Callable<ArrayList<Byte>>() {
+			public ArrayList<Byte> call() {
+				return loadByteArrayListPref(key, null);
+			}
+		});
+	}
+
+	// SHORT
+	
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean saveShortPref(String key, short value) {
+		long start = startTimer();
+		try {
+			savePref(KEY_SHORT + KEY_DELIMITER + key, String.valueOf(value));
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_SHORT, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_SHORT, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean saveShortArrayPref(String key, short [] value) {		
+		long start = startTimer();
+		try {
+			long encoding = startTimer();
+			String stringvalue = encode(value);
+			encoded(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY, encoding, stringvalue.length());
+			savePref(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean saveShortArrayListPref(String key, ArrayList<Short> value) {		
+		long start = startTimer();
+		try {
+			int length = value.size();
+			short [] array = new short [length];
+			for (int i = 0; i < length; i++) {
+				array[i] = value.get(i);
+			}
+			long encoding = startTimer();
+			String stringvalue = encode(array);
+			encoded(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST, encoding, stringvalue.length());
+			savePref(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * Saved like saveShortArrayListPref, without boxing.
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean saveShortListPref(String key, ShortList value) {
+		long start = startTimer();
+		try {
+			long encoding = startTimer();
+			String stringvalue = encode(value.elements, value.size);
+			encoded(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST, encoding, stringvalue.length());
+			savePref(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
+	
+	/**
+	 * Append values to a saved array. Only the last chunk is saved again, so the cost
+	 * depends on the number of appended values, not on the length of the array.
+	 * The array is saved, if it does not exist yet.
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendShortArrayPref(String key, short... value) {
+		if(value==null)return false;
+		return appendShorts(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY, key, value, value.length);
+	}
+	/**
+	 * Append values to a saved arraylist, see appendShortArrayPref
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendShortArrayListPref(String key, ArrayList<Short> value) {
+		int length = value.size();
+		short [] array = new short [length];
+		for (int i = 0; i < length; i++) {
+			if(value.get(i)==null)return false;
+			array[i] = value.get(i);
+		}
+		return appendShorts(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST, key, array, length);
+	}
+	/**
+	 * Append values to a saved arraylist, see appendShortArrayPref
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendShortListPref(String key, ShortList value) {
+		return appendShorts(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST, key, value.elements, value.size);
+	}
+	private boolean appendShorts(String family, String key, short [] value, int length) {
+		long start = startTimer();
+		try {
+			String internal = family + KEY_DELIMITER + key;
+			char saved = getAppendEncoding(internal, BinaryCodec.TYPE_SHORT);
+			if(length==0&&saved!=APPEND_MISSING)return true;
+
+			long encoding = startTimer();
+			String stringvalue;
+			if(saved==APPEND_TEXT)stringvalue = encoder.get().encode(value, length);
+			else if(saved==BinaryCodec.PACKED||saved==BinaryCodec.VARINT)stringvalue = BinaryCodec.encode(value, length, saved==BinaryCodec.VARINT);
+			else {
+				if(saved==APPEND_REWRITE) {
+					short [] existing = decodeShorts(loadPref(internal, ""));
+					short [] array = new short [existing.length + length];
+					System.arraycopy(existing, 0, array, 0, existing.length);
+					System.arraycopy(value, 0, array, existing.length, length);
+					value = array;
+					length = array.length;
+				}
+				stringvalue = encode(value, length);
+			}
+			encoded(family, encoding, stringvalue.length());
+
+			if(saved==APPEND_MISSING||saved==APPEND_REWRITE)savePref(internal, stringvalue);
+			else appendPref(internal, stringvalue, saved);
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(family, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(family, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
+	/**
+	 * Load preference
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param defValue	Value to return if this preference does not exist.
+	 * @return 		Returns the preference value if it exists, or defValue.
+	 */
+	public short loadShortPref(String key, short defValue) {
+		long start = startTimer();
+		try {
+			return Short.parseShort(loadPref(KEY_SHORT + KEY_DELIMITER + key, String.valueOf(defValue)));
+		} catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_SHORT, PreferenceMetrics.LOAD, e);
+		}
+		finally {
+			finish();
+			operated(KEY_SHORT, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Load preference
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param defValue	Value to return if this preference does not exist.
+	 * @return 		Returns the preference value if it exists, or defValue.
+	 */
+	public short [] loadShortArrayPref(String key, short [] defValue) {
+		long start = startTimer();
+		try {
+			String internal = KEY_SHORT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			short [] cached = getCached(internal, short[].class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
+			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
+
+			short [] value = decodeShorts(stringvalue);
+			decoded(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
+			return value;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Load preference
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param defValue	Value to return if this preference does not exist.
+	 * @return 		Returns the preference value if it exists, or defValue.
+	 */
+	public ArrayList<Short> loadShortArrayListPref(String key, ArrayList<Short> defValue) {
+		long start = startTimer();
+		try {
+			String internal = KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key;
+			ArrayList<Short> cached = getCached(internal, ArrayList.class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
+			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
+
+			short [] array = decodeShorts(stringvalue);
+			int length = array.length;
+
+			ArrayList<Short> value = new ArrayList<Short>(length);
+			for (int i = 0; i < length; i++) {
+				value.add(array[i]);
+			}
+			decoded(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
+			return value;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Load preference
+	 * 
+	 * Loads values saved with saveShortArrayListPref or saveShortListPref, without boxing.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param defValue	Value to return if this preference does not exist.
+	 * @return 		Returns the preference value if it exists, or defValue.
+	 */
+	public ShortList loadShortListPref(String key, ShortList defValue) {
+		long start = startTimer();
+		try {
+			String internal = KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key;
+			ShortList cached = getCached(internal, ShortList.class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
+			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
+
+			short [] array = decodeShorts(stringvalue);
+			ShortList value = new ShortList(array, array.length);
+
+			decoded(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
+			return value;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Load preference into an array, without allocating one
+	 * 
+	 * Values, that do not fit into dst, are skipped.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param dst	Array to load the values into.
+	 * @param offset	Index in dst of the first value.
+	 * @return 		Returns the number of saved values, or -1 if this preference does not exist.
+	 */
+	public int loadShortArrayPref(String key, short [] dst, int offset) {
+		long start = startTimer();
+		try {
+			String internal = KEY_SHORT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			short [] cached = peekCached(internal, short[].class);
+			if(cached!=null) {
+				System.arraycopy(cached, 0, dst, offset, Math.min(cached.length, dst.length - offset));
+				return cached.length;
+			}
+
+			CharSequence stringvalue = loadValue(internal);
+			if(stringvalue==null||stringvalue.length()==0)return -1;
+			long decoding = startTimer();
+
+			ValueDecoder decoder = getDecoder(stringvalue, BinaryCodec.TYPE_SHORT);
+			int length = dst.length - offset;
+			int count = 0;
+			while (count<length&&decoder.hasNext()) {
+				dst[offset + count++] = decoder.nextShort();
+			}
+			count += decoder.remaining();
+			decoded(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			return count;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return -1;
+	}
+	/**
+	 * Load preference into a buffer, without allocating an array
+	 * 
+	 * Values are put at the position of dst, values, that do not fit, are skipped.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param dst	Buffer to load the values into.
+	 * @return 		Returns the number of saved values, or -1 if this preference does not exist.
+	 */
+	public int loadShortBufferPref(String key, ShortBuffer dst) {
+		long start = startTimer();
+		try {
+			String internal = KEY_SHORT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			short [] cached = peekCached(internal, short[].class);
+			if(cached!=null) {
+				dst.put(cached, 0, Math.min(cached.length, dst.remaining()));
+				return cached.length;
+			}
+
+			CharSequence stringvalue = loadValue(internal);
+			if(stringvalue==null||stringvalue.length()==0)return -1;
+			long decoding = startTimer();
+
+			ValueDecoder decoder = getDecoder(stringvalue, BinaryCodec.TYPE_SHORT);
+			int count = 0;
+			while (dst.hasRemaining()&&decoder.hasNext()) {
+				dst.put(decoder.nextShort());
+				count++;
+			}
+			count += decoder.remaining();
+			decoded(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			return count;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return -1;
+	}
+	
+	/**
+	 * Delete preference
+	 * 
+	 * @return Returns true, if preference deleted.
+	 * 
+	 */
+	public boolean delShortPref(String key) {
+		boolean value = false;
+
+		long start = startTimer();
+		try {
+			value = delPref(KEY_SHORT + KEY_DELIMITER + key);
+			commit();
+		}
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error deleting " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_SHORT, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_SHORT, PreferenceMetrics.DELETE, start);
+		}
+		return value;
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @return Returns true, if preference deleted.
+	 * 
+	 */
+	public boolean delShortArrayPref(String key) {
+		boolean value = false;
+
+		long start = startTimer();
+		try {
+			value = delPref(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			commit();
+		}
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error deleting " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, start);
+		}
+		return value;
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @return Returns true, if preference deleted.
+	 * 
+	 */
+	public boolean delShortArrayListPref(String key) {
+		boolean value = false;
+
+		long start = startTimer();
+		try {
+			value = delPref(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			commit();
+		}
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error deleting " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, start);
+		}
+		return value;
+	}
+	/**
+	 * Iterate over the values of a saved array
+	 * 
+	 * The values are decoded, while the iterator is read, and only one chunk of the saved
+	 * value is kept in memory, e.g. to read the first values of a long array or to read
+	 * it once without loading all of it.
+	 * The iterator fails fast with a ConcurrentModificationException, once the preference
+	 * is saved, appended to or deleted.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @return 		Returns an iterator over the values, or null if this preference does not exist.
+	 */
+	public ShortIterator iterateShortArrayPref(String key) {
+		long start = startTimer();
+		try {
+			CharSequence stringvalue = streamValue(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			if(stringvalue==null||stringvalue.length()==0)return null;
+			return new ShortIterator(getDecoder(stringvalue, BinaryCodec.TYPE_SHORT));
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return null;
+	}
+	/**
+	 * Iterate over the values of a saved arraylist
+	 * 
+	 * The values are decoded, while the iterator is read, and only one chunk of the saved
+	 * value is kept in memory, e.g. to read the first values of a long arraylist or to read
+	 * it once without loading all of it.
+	 * The iterator fails fast with a ConcurrentModificationException, once the preference
+	 * is saved, appended to or deleted.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @return 		Returns an iterator over the values, or null if this preference does not exist.
+	 */
+	public ShortIterator iterateShortArrayListPref(String key) {
+		long start = startTimer();
+		try {
+			CharSequence stringvalue = streamValue(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			if(stringvalue==null||stringvalue.length()==0)return null;
+			return new ShortIterator(getDecoder(stringvalue, BinaryCodec.TYPE_SHORT));
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
+		return null;
+	}
+	/**
+	 * Load one value of a saved array
+	 * 
+	 * Arrays saved with ENCODING_PACKED are read directly from the chunk, that holds the
+	 * value. Other arrays are decoded up to the value, one chunk at a time.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param index	Index of the value in the array.
+	 * @param defValue	Value to return if this preference or index does not exist.
+	 * @return 		Returns the preference value if it exists, or defValue.
+	 */
+	public short loadShortArrayElementPref(String key, int index, short defValue) {
+		long start = startTimer();
+		try {
+			String internal = KEY_SHORT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			short [] cached = peekCached(internal, short[].class);
+			if(cached!=null)return index>=0&&index<cached.length ? cached[index] : defValue;
+			if(index<0)return defValue;
+
+			ValueDecoder decoder = getDecoder(internal, BinaryCodec.TYPE_SHORT, index);
+			if(decoder==null||!decoder.hasNext())return defValue;
+			return decoder.nextShort();
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Load the values from index from, inclusive, to index to, exclusive, of a saved array
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param from	Index of the first value.
+	 * @param to	Index after the last value.
+	 * @param defValue	Value to return if this preference or range does not exist.
+	 * @return 		Returns the values if they exist, or defValue.
+	 */
+	public short [] loadShortArrayRangePref(String key, int from, int to, short [] defValue) {
+		long start = startTimer();
+		try {
+			String internal = KEY_SHORT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			if(from<0||from>to)return defValue;
+			short [] cached = peekCached(internal, short[].class);
+			if(cached!=null)return to<=cached.length ? Arrays.copyOfRange(cached, from, to) : defValue;
+
+			ValueDecoder decoder = getDecoder(internal, BinaryCodec.TYPE_SHORT, from);
+			if(decoder==null)return defValue;
+
+			short [] value = new short [to - from];
+			for (int i = 0; i < value.length; i++) {
+				if(!decoder.hasNext())return defValue;
+				value[i] = decoder.nextShort();
+			}
+			return value;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Observe preference
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param defValue	Value to pass to the observer, if this preference is deleted.
+	 * @param observer	Receives the new value after every change.
+	 */
+	public void observeShortPref(final String key, final short defValue, PreferenceObserver<Short> observer) {
+		observe(KEY_SHORT + KEY_DELIMITER + key, key, observer, new Callable<Short>() {
+			public Short call() {
+				return loadShortPref(key, defValue);
+			}
+		});
+	}
+	/**
+	 * Observe preference
+	 * 
+	 * The observer is notified once per change of the array, not once per saved chunk.
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeShortArrayPref(final String key, PreferenceObserver<short []> observer) {
+		observe(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, key, observer, new Callable<short []>() {
+			public short [] call() {
+				return loadShortArrayPref(key, null);
+			}
+		});
+	}
+	/**
+	 * Observe preference, see observeShortArrayPref
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeShortArrayListPref(final String key, PreferenceObserver<ArrayList<Short>> observer) {
+		observe(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, key, observer, new Callable<ArrayList<Short>>() {
+			public ArrayList<Short> call() {
+				return loadShortArrayListPref(key, null);
+			}
+		});
+	}
+
+	// INTEGER
+	
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean saveIntegerPref(String key, int value) {		
+		long start = startTimer();
+		try {
+			putInt(KEY_INTEGER + KEY_DELIMITER + key, value);
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_INTEGER, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_INTEGER, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean saveIntegerArrayPref(String key, int [] value) {		
+		long start = startTimer();
+		try {
+			long encoding = startTimer();
+			String stringvalue = encode(value);
+			encoded(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY, encoding, stringvalue.length());
+			savePref(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean saveIntegerArrayListPref(String key, ArrayList<Integer> value) {		
+		long start = startTimer();
+		try {
+			int length = value.size();
+			int [] array = new int [length];
+			for (int i = 0; i < length; i++) {
+				array[i] = value.get(i);
+			}
+			long encoding = startTimer();
+			String stringvalue = encode(array);
+			encoded(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST, encoding, stringvalue.length());
+			savePref(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * Saved like saveIntegerArrayListPref, without boxing.
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean saveIntegerListPref(String key, IntList value) {
+		long start = startTimer();
+		try {
+			long encoding = startTimer();
+			String stringvalue = encode(value.elements, value.size);
+			encoded(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST, encoding, stringvalue.length());
+			savePref(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
+	
+	/**
+	 * Append values to a saved array. Only the last chunk is saved again, so the cost
+	 * depends on the number of appended values, not on the length of the array.
+	 * The array is saved, if it does not exist yet.
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendIntegerArrayPref(String key, int... value) {
+		if(value==null)return false;
+		return appendIntegers(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY, key, value, value.length);
+	}
+	/**
+	 * Append values to a saved arraylist, see appendIntegerArrayPref
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendIntegerArrayListPref(String key, ArrayList<Integer> value) {
+		int length = value.size();
+		int [] array = new int [length];
+		for (int i = 0; i < length; i++) {
+			if(value.get(i)==null)return false;
+			array[i] = value.get(i);
+		}
+		return appendIntegers(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST, key, array, length);
+	}
+	/**
+	 * Append values to a saved arraylist, see appendIntegerArrayPref
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendIntegerListPref(String key, IntList value) {
+		return appendIntegers(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST, key, value.elements, value.size);
+	}
+	private boolean appendIntegers(String family, String key, int [] value, int length) {
+		long start = startTimer();
+		try {
+			String internal = family + KEY_DELIMITER + key;
+			char saved = getAppendEncoding(internal, BinaryCodec.TYPE_INTEGER);
+			if(length==0&&saved!=APPEND_MISSING)return true;
+
+			long encoding = startTimer();
+			String stringvalue;
+			if(saved==APPEND_TEXT)stringvalue = encoder.get().encode(value, length);
+			else if(saved==BinaryCodec.PACKED||saved==BinaryCodec.VARINT)stringvalue = BinaryCodec.encode(value, length, saved==BinaryCodec.VARINT);
+			else {
+				if(saved==APPEND_REWRITE) {
+					int [] existing = decodeIntegers(loadPref(internal, ""));
+					int [] array = new int [existing.length + length];
+					System.arraycopy(existing, 0, array, 0, existing.length);
+					System.arraycopy(value, 0, array, existing.length, length);
+					value = array;
+					length = array.length;
+				}
+				stringvalue = encode(value, length);
+			}
+			encoded(family, encoding, stringvalue.length());
+
+			if(saved==APPEND_MISSING||saved==APPEND_REWRITE)savePref(internal, stringvalue);
+			else appendPref(internal, stringvalue, saved);
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(family, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(family, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
+	/**
+	 * Load preference
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param defValue	Value to return if this preference does not exist.
+	 * @return 		Returns the preference value if it exists, or defValue.
+	 */
+	public int loadIntegerPref(String key, int defValue) {
+		long start = startTimer();
+		try {
+			return getInt(KEY_INTEGER + KEY_DELIMITER + key, defValue);
+		} catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_INTEGER, PreferenceMetrics.LOAD, e);
+		}
+		finally {
+			finish();
+			operated(KEY_INTEGER, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Load preference
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param defValue	Value to return if this preference does not exist.
+	 * @return 		Returns the preference value if it exists, or defValue.
+	 */
+	public int [] loadIntegerArrayPref(String key, int [] defValue) {
+		long start = startTimer();
+		try {
+			String internal = KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			int [] cached = getCached(internal, int[].class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
+			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
+
+			int [] value = decodeIntegers(stringvalue);
+			decoded(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
+			return value;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Load preference
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param defValue	Value to return if this preference does not exist.
+	 * @return 		Returns the preference value if it exists, or defValue.
+	 */
+	public ArrayList<Integer> loadIntegerArrayListPref(String key, ArrayList<Integer> defValue) {
+		long start = startTimer();
+		try {
+			String internal = KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key;
+			ArrayList<Integer> cached = getCached(internal, ArrayList.class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
+			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
+
+			int [] array = decodeIntegers(stringvalue);
+			int length = array.length;
+
+			ArrayList<Integer> value = new ArrayList<Integer>(length);
+			for (int i = 0; i < length; i++) {
+				value.add(array[i]);
+			}
+			decoded(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
+			return value;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Load preference
+	 * 
+	 * Loads values saved with saveIntegerArrayListPref or saveIntegerListPref, without boxing.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param defValue	Value to return if this preference does not exist.
+	 * @return 		Returns the preference value if it exists, or defValue.
+	 */
+	public IntList loadIntegerListPref(String key, IntList defValue) {
+		long start = startTimer();
+		try {
+			String internal = KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key;
+			IntList cached = getCached(internal, IntList.class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
+			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
+
+			int [] array = decodeIntegers(stringvalue);
+			IntList value = new IntList(array, array.length);
+
+			decoded(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
+			return value;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Load preference into an array, without allocating one
+	 * 
+	 * Values, that do not fit into dst, are skipped.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param dst	Array to load the values into.
+	 * @param offset	Index in dst of the first value.
+	 * @return 		Returns the number of saved values, or -1 if this preference does not exist.
+	 */
+	public int loadIntegerArrayPref(String key, int [] dst, int offset) {
+		long start = startTimer();
+		try {
+			String internal = KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			int [] cached = peekCached(internal, int[].class);
+			if(cached!=null) {
+				System.arraycopy(cached, 0, dst, offset, Math.min(cached.length, dst.length - offset));
+				return cached.length;
+			}
+
+			CharSequence stringvalue = loadValue(internal);
+			if(stringvalue==null||stringvalue.length()==0)return -1;
+			long decoding = startTimer();
+
+			ValueDecoder decoder = getDecoder(stringvalue, BinaryCodec.TYPE_INTEGER);
+			int length = dst.length - offset;
+			int count = 0;
+			while (count<length&&decoder.hasNext()) {
+				dst[offset + count++] = decoder.nextInt();
+			}
+			count += decoder.remaining();
+			decoded(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			return count;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return -1;
+	}
+	/**
+	 * Load preference into a buffer, without allocating an array
+	 * 
+	 * Values are put at the position of dst, values, that do not fit, are skipped.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param dst	Buffer to load the values into.
+	 * @return 		Returns the number of saved values, or -1 if this preference does not exist.
+	 */
+	public int loadIntegerBufferPref(String key, IntBuffer dst) {
+		long start = startTimer();
+		try {
+			String internal = KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			int [] cached = peekCached(internal, int[].class);
+			if(cached!=null) {
+				dst.put(cached, 0, Math.min(cached.length, dst.remaining()));
+				return cached.length;
+			}
+
+			CharSequence stringvalue = loadValue(internal);
+			if(stringvalue==null||stringvalue.length()==0)return -1;
+			long decoding = startTimer();
+
+			ValueDecoder decoder = getDecoder(stringvalue, BinaryCodec.TYPE_INTEGER);
+			int count = 0;
+			while (dst.hasRemaining()&&decoder.hasNext()) {
+				dst.put(decoder.nextInt());
+				count++;
+			}
+			count += decoder.remaining();
+			decoded(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			return count;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return -1;
+	}
+	
+	/**
+	 * Delete preference
+	 * 
+	 * @return Returns true, if preference deleted.
+	 * 
+	 */
+	public boolean delIntegerPref(String key) {
+		boolean value = false;
+
+		long start = startTimer();
+		try {
+			value = delPref(KEY_INTEGER + KEY_DELIMITER + key);
+			commit();
+		}
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error deleting " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_INTEGER, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_INTEGER, PreferenceMetrics.DELETE, start);
+		}
+		return value;
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @return Returns true, if preference deleted.
+	 * 
+	 */
+	public boolean delIntegerArrayPref(String key) {
+		boolean value = false;
+
+		long start = startTimer();
+		try {
+			value = delPref(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			commit();
+		}
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error deleting " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, start);
+		}
+		return value;
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @return Returns true, if preference deleted.
+	 * 
+	 */
+	public boolean delIntegerArrayListPref(String key) {
+		boolean value = false;
+
+		long start = startTimer();
+		try {
+			value = delPref(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			commit();
+		}
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error deleting " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, start);
+		}
+		return value;
+	}
+	/**
+	 * Iterate over the values of a saved array
+	 * 
+	 * The values are decoded, while the iterator is read, and only one chunk of the saved
+	 * value is kept in memory, e.g. to read the first values of a long array or to read
+	 * it once without loading all of it.
+	 * The iterator fails fast with a ConcurrentModificationException, once the preference
+	 * is saved, appended to or deleted.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @return 		Returns an iterator over the values, or null if this preference does not exist.
+	 */
+	public IntIterator iterateIntegerArrayPref(String key) {
+		long start = startTimer();
+		try {
+			CharSequence stringvalue = streamValue(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			if(stringvalue==null||stringvalue.length()==0)return null;
+			return new IntIterator(getDecoder(stringvalue, BinaryCodec.TYPE_INTEGER));
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return null;
+	}
+	/**
+	 * Iterate over the values of a saved arraylist
+	 * 
+	 * The values are decoded, while the iterator is read, and only one chunk of the saved
+	 * value is kept in memory, e.g. to read the first values of a long arraylist or to read
+	 * it once without loading all of it.
+	 * The iterator fails fast with a ConcurrentModificationException, once the preference
+	 * is saved, appended to or deleted.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @return 		Returns an iterator over the values, or null if this preference does not exist.
+	 */
+	public IntIterator iterateIntegerArrayListPref(String key) {
+		long start = startTimer();
+		try {
+			CharSequence stringvalue = streamValue(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			if(stringvalue==null||stringvalue.length()==0)return null;
+			return new IntIterator(getDecoder(stringvalue, BinaryCodec.TYPE_INTEGER));
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
+		return null;
+	}
+	/**
+	 * Load one value of a saved array
+	 * 
+	 * Arrays saved with ENCODING_PACKED are read directly from the chunk, that holds the
+	 * value. Other arrays are decoded up to the value, one chunk at a time.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param index	Index of the value in the array.
+	 * @param defValue	Value to return if this preference or index does not exist.
+	 * @return 		Returns the preference value if it exists, or defValue.
+	 */
+	public int loadIntegerArrayElementPref(String key, int index, int defValue) {
+		long start = startTimer();
+		try {
+			String internal = KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			int [] cached = peekCached(internal, int[].class);
+			if(cached!=null)return index>=0&&index<cached.length ? cached[index] : defValue;
+			if(index<0)return defValue;
+
+			ValueDecoder decoder = getDecoder(internal, BinaryCodec.TYPE_INTEGER, index);
+			if(decoder==null||!decoder.hasNext())return defValue;
+			return decoder.nextInt();
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Load the values from index from, inclusive, to index to, exclusive, of a saved array
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param from	Index of the first value.
+	 * @param to	Index after the last value.
+	 * @param defValue	Value to return if this preference or range does not exist.
+	 * @return 		Returns the values if they exist, or defValue.
+	 */
+	public int [] loadIntegerArrayRangePref(String key, int from, int to, int [] defValue) {
+		long start = startTimer();
+		try {
+			String internal = KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			if(from<0||from>to)return defValue;
+			int [] cached = peekCached(internal, int[].class);
+			if(cached!=null)return to<=cached.length ? Arrays.copyOfRange(cached, from, to) : defValue;
+
+			ValueDecoder decoder = getDecoder(internal, BinaryCodec.TYPE_INTEGER, from);
+			if(decoder==null)return defValue;
+
+			int [] value = new int [to - from];
+			for (int i = 0; i < value.length; i++) {
+				if(!decoder.hasNext())return defValue;
+				value[i] = decoder.nextInt();
+			}
+			return value;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Observe preference
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param defValue	Value to pass to the observer, if this preference is deleted.
+	 * @param observer	Receives the new value after every change.
+	 */
+	public void observeIntegerPref(final String key, final int defValue, PreferenceObserver<Integer> observer) {
+		observe(KEY_INTEGER + KEY_DELIMITER + key, key, observer, new Callable<Integer>() {
+			public Integer call() {
+				return loadIntegerPref(key, defValue);
+			}
+		});
+	}
+	/**
+	 * Observe preference
+	 * 
+	 * The observer is notified once per change of the array, not once per saved chunk.
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeIntegerArrayPref(final String key, PreferenceObserver<int []> observer) {
+		observe(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, key, observer, new Callable<int []>() {
+			public int [] call() {
+				return loadIntegerArrayPref(key, null);
+			}
+		});
+	}
+	/**
+	 * Observe preference, see observeIntegerArrayPref
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeIntegerArrayListPref(final String key, PreferenceObserver<ArrayList<Integer>> observer) {
+		observe(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, key, observer, new Callable<ArrayList<Integer>>() {
+			public ArrayList<Integer> call() {
+				return loadIntegerArrayListPref(key, null);
+			}
+		});
+	}
+
+	// LONG
+	
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean saveLongPref(String key, long value) {
+		long start = startTimer();
+		try {
+			putLong(KEY_LONG + KEY_DELIMITER + key, value);
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LONG, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_LONG, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
+	/**
+	 * Save/modify preference
 	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns true if preference is saved.
 	 */
-	public boolean deletePrefFile() {
+	public boolean saveLongArrayPref(String key, long [] value) {		
+		long start = startTimer();
 		try {
-			File file= new File(context.getApplicationInfo().dataDir + "/shared_prefs/" + filename + ".xml");
-			file.delete();
+			long encoding = startTimer();
+			String stringvalue = encode(value);
+			encoded(KEY_LONG + KEY_DELIMITER + KEY_ARRAY, encoding, stringvalue.length());
+			savePref(KEY_LONG + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error deleting " + filename + ".xml");
+			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LONG + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_LONG + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
-
-	// BOOLEAN
 	/**
 	 * Save/modify preference
 	 * 
@@ -288,67 +4436,149 @@ public class AdvancedSharedPreferences {
 	 * @param value	The new value for the preference.
 	 * @return 		Returns true if preference is saved.
 	 */
-	public boolean saveBooleanPref(String key, boolean value) {
+	public boolean saveLongArrayListPref(String key, ArrayList<Long> value) {		
+		long start = startTimer();
 		try {
-			sp_save.putBoolean(KEY_BOOLEAN + KEY_DELIMITER + key, value);
-			sp_save.commit();
+			int length = value.size();
+			long [] array = new long [length];
+			for (int i = 0; i < length; i++) {
+				array[i] = value.get(i);
+			}
+			long encoding = startTimer();
+			String stringvalue = encode(array);
+			encoded(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST, encoding, stringvalue.length());
+			savePref(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
 	/**
 	 * Save/modify preference
 	 * 
+	 * Saved like saveLongArrayListPref, without boxing.
+	 * 
 	 * @param key 	The name of the preference to modify.
 	 * @param value	The new value for the preference.
 	 * @return 		Returns true if preference is saved.
 	 */
-	public boolean saveBooleanArrayPref(String key, boolean [] value) {		
-		int length = value.length;				
+	public boolean saveLongListPref(String key, LongList value) {
+		long start = startTimer();
 		try {
-			String stringvalue = "";
-			for (int i = 0; i < length; i++) {
-				stringvalue += value[i];
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
+			long encoding = startTimer();
+			String stringvalue = encode(value.elements, value.size);
+			encoded(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST, encoding, stringvalue.length());
+			savePref(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, start);
 		}
 		return false;
-	}	
+	}
+	
 	/**
-	 * Save/modify preference
+	 * Append values to a saved array. Only the last chunk is saved again, so the cost
+	 * depends on the number of appended values, not on the length of the array,
+	 * unless it was saved with ENCODING_TIMESERIES.
+	 * The array is saved, if it does not exist yet.
 	 * 
 	 * @param key 	The name of the preference to modify.
-	 * @param value	The new value for the preference.
+	 * @param value	The values to append.
 	 * @return 		Returns true if preference is saved.
 	 */
-	public boolean saveBooleanArrayListPref(String key, ArrayList<Boolean> value) {		
-		int length = value.size();				
+	public boolean appendLongArrayPref(String key, long... value) {
+		if(value==null)return false;
+		return appendLongs(KEY_LONG + KEY_DELIMITER + KEY_ARRAY, key, value, value.length);
+	}
+	/**
+	 * Append values to a saved arraylist, see appendLongArrayPref
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendLongArrayListPref(String key, ArrayList<Long> value) {
+		int length = value.size();
+		long [] array = new long [length];
+		for (int i = 0; i < length; i++) {
+			if(value.get(i)==null)return false;
+			array[i] = value.get(i);
+		}
+		return appendLongs(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST, key, array, length);
+	}
+	/**
+	 * Append values to a saved arraylist, see appendLongArrayPref
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendLongListPref(String key, LongList value) {
+		return appendLongs(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST, key, value.elements, value.size);
+	}
+	private boolean appendLongs(String family, String key, long [] value, int length) {
+		return appendLongs(family, key, value, length, false);
+	}
+	/**
+	 * @param times	Date or GregorianCalendar timestamps, which are saved as text or time series
+	 */
+	private boolean appendLongs(String family, String key, long [] value, int length, boolean times) {
+		long start = startTimer();
 		try {
-			String stringvalue = "";
-			for (int i = 0; i < length; i++) {
-				stringvalue += value.get(i);
-				if(i<length-1)stringvalue += value_delimiter;
+			String internal = family + KEY_DELIMITER + key;
+			char saved = getAppendEncoding(internal, BinaryCodec.TYPE_LONG);
+			if(length==0&&saved!=APPEND_MISSING)return true;
+
+			long encoding = startTimer();
+			String stringvalue;
+			if(saved==APPEND_TEXT)stringvalue = encoder.get().encode(value, length);
+			else if(saved==BinaryCodec.PACKED||saved==BinaryCodec.VARINT)stringvalue = BinaryCodec.encode(value, length, saved==BinaryCodec.VARINT);
+			else {
+				if(saved==APPEND_REWRITE) {
+					long [] existing = decodeLongs(loadPref(internal, ""));
+					long [] array = new long [existing.length + length];
+					System.arraycopy(existing, 0, array, 0, existing.length);
+					System.arraycopy(value, 0, array, existing.length, length);
+					value = array;
+					length = array.length;
+				}
+				stringvalue = times ? encodeTimes(value, length) : encode(value, length);
 			}
-			savePref(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			encoded(family, encoding, stringvalue.length());
+
+			if(saved==APPEND_MISSING||saved==APPEND_REWRITE)savePref(internal, stringvalue);
+			else appendPref(internal, stringvalue, saved);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(family, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(family, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
-	
 	/**
 	 * Load preference
 	 * 
@@ -356,12 +4586,18 @@ public class AdvancedSharedPreferences {
 	 * @param defValue	Value to return if this preference does not exist.
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
-	public boolean loadBooleanPref(String key, boolean defValue) {
+	public long loadLongPref(String key, long defValue) {
+		long start = startTimer();
 		try {
-			return sp_load.getBoolean(KEY_BOOLEAN + KEY_DELIMITER + key, defValue);
+			return getLong(KEY_LONG + KEY_DELIMITER + key, defValue);
 		} catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LONG, PreferenceMetrics.LOAD, e);
+		}
+		finally {
+			finish();
+			operated(KEY_LONG, PreferenceMetrics.LOAD, start);
 		}
 		return defValue;
 	}
@@ -372,88 +4608,226 @@ public class AdvancedSharedPreferences {
 	 * @param defValue	Value to return if this preference does not exist.
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
-	public boolean [] loadBooleanArrayPref(String key, boolean [] defValue) {
+	public long [] loadLongArrayPref(String key, long [] defValue) {
+		long start = startTimer();
+		try {
+			String internal = KEY_LONG + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			long [] cached = getCached(internal, long[].class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
+			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
+
+			long [] value = decodeLongs(stringvalue);
+			decoded(KEY_LONG + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
+			return value;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LONG + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_LONG + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Load preference
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param defValue	Value to return if this preference does not exist.
+	 * @return 		Returns the preference value if it exists, or defValue.
+	 */
+	public ArrayList<Long> loadLongArrayListPref(String key, ArrayList<Long> defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, "");
+			String internal = KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key;
+			ArrayList<Long> cached = getCached(internal, ArrayList.class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
 			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
 
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
+			long [] array = decodeLongs(stringvalue);
+			int length = array.length;
 
-			boolean [] value = new boolean [length];
+			ArrayList<Long> value = new ArrayList<Long>(length);
 			for (int i = 0; i < length; i++) {
-				value[i] = Boolean.parseBoolean(string_array[i]); 
+				value.add(array[i]);
 			}
-
+			decoded(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
 			return value;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
 	/**
 	 * Load preference
 	 * 
+	 * Loads values saved with saveLongArrayListPref or saveLongListPref, without boxing.
+	 * 
 	 * @param key 	The name of the preference to retrieve.
 	 * @param defValue	Value to return if this preference does not exist.
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
-	public ArrayList<Boolean> loadBooleanArrayListPref(String key, ArrayList<Boolean> defValue) {
+	public LongList loadLongListPref(String key, LongList defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, "");
+			String internal = KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key;
+			LongList cached = getCached(internal, LongList.class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
 			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
 
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
+			long [] array = decodeLongs(stringvalue);
+			LongList value = new LongList(array, array.length);
 
-			ArrayList<Boolean> value = new ArrayList<Boolean>();
-			for (int i = 0; i < length; i++) {
-				value.add(Boolean.parseBoolean(string_array[i]));
-			}			
+			decoded(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
 			return value;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
-	
 	/**
-	 * Delete preference
+	 * Load preference into an array, without allocating one
 	 * 
-	 * @return Returns true, if preference deleted.
+	 * Values, that do not fit into dst, are skipped.
 	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param dst	Array to load the values into.
+	 * @param offset	Index in dst of the first value.
+	 * @return 		Returns the number of saved values, or -1 if this preference does not exist.
 	 */
-	public boolean delBooleanPref(String key) {
-		boolean value = false;
-
+	public int loadLongArrayPref(String key, long [] dst, int offset) {
+		long start = startTimer();
 		try {
-			value = delPref(KEY_BOOLEAN + KEY_DELIMITER + key);
+			String internal = KEY_LONG + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			long [] cached = peekCached(internal, long[].class);
+			if(cached!=null) {
+				System.arraycopy(cached, 0, dst, offset, Math.min(cached.length, dst.length - offset));
+				return cached.length;
+			}
+
+			CharSequence stringvalue = loadValue(internal);
+			if(stringvalue==null||stringvalue.length()==0)return -1;
+			long decoding = startTimer();
+
+			ValueDecoder decoder = getDecoder(stringvalue, BinaryCodec.TYPE_LONG);
+			int length = dst.length - offset;
+			int count = 0;
+			while (count<length&&decoder.hasNext()) {
+				dst[offset + count++] = decoder.nextLong();
+			}
+			count += decoder.remaining();
+			decoded(KEY_LONG + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			return count;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LONG + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_LONG + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
 		}
+		return -1;
+	}
+	/**
+	 * Load preference into a buffer, without allocating an array
+	 * 
+	 * Values are put at the position of dst, values, that do not fit, are skipped.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param dst	Buffer to load the values into.
+	 * @return 		Returns the number of saved values, or -1 if this preference does not exist.
+	 */
+	public int loadLongBufferPref(String key, LongBuffer dst) {
+		long start = startTimer();
+		try {
+			String internal = KEY_LONG + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			long [] cached = peekCached(internal, long[].class);
+			if(cached!=null) {
+				dst.put(cached, 0, Math.min(cached.length, dst.remaining()));
+				return cached.length;
+			}
+
+			CharSequence stringvalue = loadValue(internal);
+			if(stringvalue==null||stringvalue.length()==0)return -1;
+			long decoding = startTimer();
+
+			ValueDecoder decoder = getDecoder(stringvalue, BinaryCodec.TYPE_LONG);
+			int count = 0;
+			while (dst.hasRemaining()&&decoder.hasNext()) {
+				dst.put(decoder.nextLong());
+				count++;
+			}
+			count += decoder.remaining();
+			decoded(KEY_LONG + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			return count;
+		} 
 		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error deleting " + key);
+			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LONG + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_LONG + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
 		}
-		return value;
+		return -1;
 	}
+	
 	/**
 	 * Delete preference
 	 * 
 	 * @return Returns true, if preference deleted.
 	 * 
 	 */
-	public boolean delBooleanArrayPref(String key) {
+	public boolean delLongPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
-			value = delPref(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			value = delPref(KEY_LONG + KEY_DELIMITER + key);			
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LONG, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_LONG, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
@@ -463,216 +4837,257 @@ public class AdvancedSharedPreferences {
 	 * @return Returns true, if preference deleted.
 	 * 
 	 */
-	public boolean delBooleanArrayListPref(String key) {
+	public boolean delLongArrayPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
-			value = delPref(KEY_BOOLEAN + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			value = delPref(KEY_LONG + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LONG + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_LONG + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
-
-	// BYTE
 	/**
-	 * Save/modify preference
+	 * Delete preference
+	 * 
+	 * @return Returns true, if preference deleted.
 	 * 
-	 * @param key 	The name of the preference to modify.
-	 * @param value	The new value for the preference.
-	 * @return 		Returns true if preference is saved.
 	 */
-	public boolean saveBytePref(String key, byte value) {
+	public boolean delLongArrayListPref(String key) {
+		boolean value = false;
+
+		long start = startTimer();
 		try {
-			savePref(KEY_BYTE + KEY_DELIMITER + key, String.valueOf(value));
-			return true;
-		} 
+			value = delPref(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			commit();
+		}
 		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error saving " + key);
+			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, e);
 		}
-		return false;
+		finally {
+			finish();
+			operated(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, start);
+		}
+		return value;
 	}
 	/**
-	 * Save/modify preference
+	 * Iterate over the values of a saved array
 	 * 
-	 * @param key 	The name of the preference to modify.
-	 * @param value	The new value for the preference.
-	 * @return 		Returns true if preference is saved.
-	 */
-	public boolean saveByteArrayPref(String key, byte [] value) {		
-		int length = value.length;				
-		try {
-			String stringvalue = "";
-			for (int i = 0; i < length; i++) {
-				stringvalue += value[i];
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
-			return true;
-		} 
-		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error saving " + key);
-			if(PRINT_E)Log.e(TAG, "Exception", e);
-		}
-		return false;
-	}	
-	/**
-	 * Save/modify preference
+	 * The values are decoded, while the iterator is read, and only one chunk of the saved
+	 * value is kept in memory, e.g. to read the first values of a long array or to read
+	 * it once without loading all of it.
+	 * The iterator fails fast with a ConcurrentModificationException, once the preference
+	 * is saved, appended to or deleted.
 	 * 
-	 * @param key 	The name of the preference to modify.
-	 * @param value	The new value for the preference.
-	 * @return 		Returns true if preference is saved.
+	 * @param key 	The name of the preference to retrieve.
+	 * @return 		Returns an iterator over the values, or null if this preference does not exist.
 	 */
-	public boolean saveByteArrayListPref(String key, ArrayList<Byte> value) {		
-		int length = value.size();				
+	public LongIterator iterateLongArrayPref(String key) {
+		long start = startTimer();
 		try {
-			String stringvalue = "";
-			for (int i = 0; i < length; i++) {
-				stringvalue += value.get(i);
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
-			return true;
+			CharSequence stringvalue = streamValue(KEY_LONG + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			if(stringvalue==null||stringvalue.length()==0)return null;
+			return new LongIterator(getDecoder(stringvalue, BinaryCodec.TYPE_LONG));
 		} 
 		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error saving " + key);
+			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LONG + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_LONG + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
 		}
-		return false;
+		return null;
 	}
-	
 	/**
-	 * Load preference
+	 * Iterate over the values of a saved arraylist
+	 * 
+	 * The values are decoded, while the iterator is read, and only one chunk of the saved
+	 * value is kept in memory, e.g. to read the first values of a long arraylist or to read
+	 * it once without loading all of it.
+	 * The iterator fails fast with a ConcurrentModificationException, once the preference
+	 * is saved, appended to or deleted.
 	 * 
 	 * @param key 	The name of the preference to retrieve.
-	 * @param defValue	Value to return if this preference does not exist.
-	 * @return 		Returns the preference value if it exists, or defValue.
+	 * @return 		Returns an iterator over the values, or null if this preference does not exist.
 	 */
-	public byte loadBytePref(String key, byte defValue) {
+	public LongIterator iterateLongArrayListPref(String key) {
+		long start = startTimer();
 		try {
-			return Byte.parseByte(loadPref(KEY_BYTE + KEY_DELIMITER + key, String.valueOf(defValue)));
-		} catch (Exception e) {
+			CharSequence stringvalue = streamValue(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			if(stringvalue==null||stringvalue.length()==0)return null;
+			return new LongIterator(getDecoder(stringvalue, BinaryCodec.TYPE_LONG));
+		} 
+		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
 		}
-		return defValue;
+		return null;
 	}
 	/**
-	 * Load preference
+	 * Load one value of a saved array
+	 * 
+	 * Arrays saved with ENCODING_PACKED are read directly from the chunk, that holds the
+	 * value. Other arrays are decoded up to the value, one chunk at a time.
 	 * 
 	 * @param key 	The name of the preference to retrieve.
-	 * @param defValue	Value to return if this preference does not exist.
+	 * @param index	Index of the value in the array.
+	 * @param defValue	Value to return if this preference or index does not exist.
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
-	public byte [] loadByteArrayPref(String key, byte [] defValue) {
+	public long loadLongArrayElementPref(String key, int index, long defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, "");
-			if(stringvalue.length()==0)return defValue;
-
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
-
-			byte [] value = new byte [length];
-			for (int i = 0; i < length; i++) {
-				value[i] = Byte.parseByte(string_array[i]); 
-			}
-
-			return value;
+			String internal = KEY_LONG + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			long [] cached = peekCached(internal, long[].class);
+			if(cached!=null)return index>=0&&index<cached.length ? cached[index] : defValue;
+			if(index<0)return defValue;
+
+			ValueDecoder decoder = getDecoder(internal, BinaryCodec.TYPE_LONG, index);
+			if(decoder==null||!decoder.hasNext())return defValue;
+			return decoder.nextLong();
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LONG + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_LONG + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
 	/**
-	 * Load preference
+	 * Load the values from index from, inclusive, to index to, exclusive, of a saved array
 	 * 
 	 * @param key 	The name of the preference to retrieve.
-	 * @param defValue	Value to return if this preference does not exist.
-	 * @return 		Returns the preference value if it exists, or defValue.
+	 * @param from	Index of the first value.
+	 * @param to	Index after the last value.
+	 * @param defValue	Value to return if this preference or range does not exist.
+	 * @return 		Returns the values if they exist, or defValue.
 	 */
-	public ArrayList<Byte> loadByteArrayListPref(String key, ArrayList<Byte> defValue) {
+	public long [] loadLongArrayRangePref(String key, int from, int to, long [] defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, "");
-			if(stringvalue.length()==0)return defValue;
-
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
-
-			ArrayList<Byte> value = new ArrayList<Byte>();
-			for (int i = 0; i < length; i++) {
-				value.add(Byte.parseByte(string_array[i]));
-			}			
+			String internal = KEY_LONG + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			if(from<0||from>to)return defValue;
+			long [] cached = peekCached(internal, long[].class);
+			if(cached!=null)return to<=cached.length ? Arrays.copyOfRange(cached, from, to) : defValue;
+
+			ValueDecoder decoder = getDecoder(internal, BinaryCodec.TYPE_LONG, from);
+			if(decoder==null)return defValue;
+
+			long [] value = new long [to - from];
+			for (int i = 0; i < value.length; i++) {
+				if(!decoder.hasNext())return defValue;
+				value[i] = decoder.nextLong();
+			}
 			return value;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LONG + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_LONG + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
-	
 	/**
-	 * Delete preference
-	 * 
-	 * @return Returns true, if preference deleted.
+	 * Observe preference
 	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param defValue	Value to pass to the observer, if this preference is deleted.
+	 * @param observer	Receives the new value after every change.
 	 */
-	public boolean delBytePref(String key) {
-		boolean value = false;
-
-		try {
-			value = delPref(KEY_BYTE + KEY_DELIMITER + key);
-		}
-		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error deleting " + key);
-			if(PRINT_E)Log.e(TAG, "Exception", e);
-		}
-		return value;
+	public void observeLongPref(final String key, final long defValue, PreferenceObserver<Long> observer) {
+		observe(KEY_LONG + KEY_DELIMITER + key, key, observer, new Callable<Long>() {
+			public Long call() {
+				return loadLongPref(key, defValue);
+			}
+		});
 	}
 	/**
-	 * Delete preference
+	 * Observe preference
 	 * 
-	 * @return Returns true, if preference deleted.
+	 * The observer is notified once per change of the array, not once per saved chunk.
 	 * 
-	 */
-	public boolean delByteArrayPref(String key) {
-		boolean value = false;
-
-		try {
-			value = delPref(KEY_BYTE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
-		}
-		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error deleting " + key);
-			if(PRINT_E)Log.e(TAG, "Exception", e);
-		}
-		return value;
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeLongArrayPref(final String key, PreferenceObserver<long []> observer) {
+		observe(KEY_LONG + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, key, observer, new Callable<long []>() {
+			public long [] call() {
+				return loadLongArrayPref(key, null);
+			}
+		});
 	}
 	/**
-	 * Delete preference
-	 * 
-	 * @return Returns true, if preference deleted.
+	 * Observe preference, see observeLongArrayPref
 	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
 	 */
-	public boolean delByteArrayListPref(String key) {
-		boolean value = false;
+	public void observeLongArrayListPref(final String key, PreferenceObserver<ArrayList<Long>> observer) {
+		observe(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, key, observer, new Callable<ArrayList<Long>>() {
+			public ArrayList<Long> call() {
+				return loadLongArrayListPref(key, null);
+			}
+		});
+	}
 
+	// BIGDECIMAL
+	
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean saveBigIntegerPref(String key, BigInteger value) {
+		long start = startTimer();
 		try {
-			value = delPref(KEY_BYTE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
-		}
+			String internal = KEY_BIGINTEGER + KEY_DELIMITER + key;
+
+			// Earlier versions saved a long
+			if(value!=null&&contains(internal))remove(internal);
+
+			savePref(internal, value!=null ? BinaryCodec.encode(new BigInteger [] {value}) : null);
+			commit();
+			return true;
+		} 
 		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error deleting " + key);
+			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BIGINTEGER, PreferenceMetrics.SAVE, e);
 		}
-		return value;
+		finally {
+			finish();
+			operated(KEY_BIGINTEGER, PreferenceMetrics.SAVE, start);
+		}
+		return false;
 	}
-
-	// SHORT
-	
 	/**
 	 * Save/modify preference
 	 * 
@@ -680,14 +5095,24 @@ public class AdvancedSharedPreferences {
 	 * @param value	The new value for the preference.
 	 * @return 		Returns true if preference is saved.
 	 */
-	public boolean saveShortPref(String key, short value) {
+	public boolean saveBigIntegerArrayPref(String key, BigInteger [] value) {		
+		long start = startTimer();
 		try {
-			savePref(KEY_SHORT + KEY_DELIMITER + key, String.valueOf(value));
+			long encoding = startTimer();
+			String stringvalue = BinaryCodec.encode(value);
+			encoded(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAY, encoding, stringvalue.length());
+			savePref(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
@@ -698,48 +5123,87 @@ public class AdvancedSharedPreferences {
 	 * @param value	The new value for the preference.
 	 * @return 		Returns true if preference is saved.
 	 */
-	public boolean saveShortArrayPref(String key, short [] value) {		
-		int length = value.length;				
+	public boolean saveBigIntegerArrayListPref(String key, ArrayList<BigInteger> value) {		
+		long start = startTimer();
 		try {
-			String stringvalue = "";
-			for (int i = 0; i < length; i++) {
-				stringvalue += value[i];
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
+			long encoding = startTimer();
+			String stringvalue = BinaryCodec.encode(value.toArray(new BigInteger [value.size()]));
+			encoded(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAYLIST, encoding, stringvalue.length());
+			savePref(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
+	
 	/**
-	 * Save/modify preference
+	 * Append values to a saved array. BigIntegers saved as text by earlier versions are
+	 * converted and saved again as a whole.
+	 * The array is saved, if it does not exist yet.
 	 * 
 	 * @param key 	The name of the preference to modify.
-	 * @param value	The new value for the preference.
+	 * @param value	The values to append.
 	 * @return 		Returns true if preference is saved.
 	 */
-	public boolean saveShortArrayListPref(String key, ArrayList<Short> value) {		
-		int length = value.size();				
+	public boolean appendBigIntegerArrayPref(String key, BigInteger... value) {
+		return appendBigIntegers(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAY, key, value);
+	}
+	/**
+	 * Append values to a saved arraylist, see appendBigIntegerArrayPref
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendBigIntegerArrayListPref(String key, ArrayList<BigInteger> value) {
+		return appendBigIntegers(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAYLIST, key, value.toArray(new BigInteger [value.size()]));
+	}
+	private boolean appendBigIntegers(String family, String key, BigInteger [] value) {
+		long start = startTimer();
 		try {
-			String stringvalue = "";
-			for (int i = 0; i < length; i++) {
-				stringvalue += value.get(i);
-				if(i<length-1)stringvalue += value_delimiter;
+			String internal = family + KEY_DELIMITER + key;
+			char saved = getAppendEncoding(internal, BinaryCodec.TYPE_BIGINTEGER);
+			if(value.length==0&&saved!=APPEND_MISSING)return true;
+
+			// Earlier versions saved BigIntegers as text
+			if(saved!=BinaryCodec.PACKED&&saved!=APPEND_MISSING) {
+				String stringvalue = loadPref(internal, "");
+				BigInteger [] existing = stringvalue.length()==0 ? new BigInteger [0] : decodeBigIntegers(stringvalue);
+				BigInteger [] array = new BigInteger [existing.length + value.length];
+				System.arraycopy(existing, 0, array, 0, existing.length);
+				System.arraycopy(value, 0, array, existing.length, value.length);
+				value = array;
 			}
-			savePref(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+
+			long encoding = startTimer();
+			String stringvalue = BinaryCodec.encode(value);
+			encoded(family, encoding, stringvalue.length());
+
+			if(saved==BinaryCodec.PACKED)appendPref(internal, stringvalue, saved);
+			else savePref(internal, stringvalue);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(family, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(family, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
-	
 	/**
 	 * Load preference
 	 * 
@@ -747,12 +5211,29 @@ public class AdvancedSharedPreferences {
 	 * @param defValue	Value to return if this preference does not exist.
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
-	public short loadShortPref(String key, short defValue) {
+	public BigInteger loadBigIntegerPref(String key, BigInteger defValue) {
+		long start = startTimer();
 		try {
-			return Short.parseShort(loadPref(KEY_SHORT + KEY_DELIMITER + key, String.valueOf(defValue)));
+			String internal = KEY_BIGINTEGER + KEY_DELIMITER + key;
+
+			String stringvalue = loadPref(internal, null);
+			if(stringvalue==null) {
+				// Earlier versions saved a long
+				if(contains(internal))return BigInteger.valueOf(getLong(internal, 0));
+				return defValue;
+			}
+
+			BigInteger [] value = decodeBigIntegers(stringvalue);
+			if(value.length!=1||value[0]==null)return defValue;
+			return value[0];
 		} catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BIGINTEGER, PreferenceMetrics.LOAD, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BIGINTEGER, PreferenceMetrics.LOAD, start);
 		}
 		return defValue;
 	}
@@ -763,25 +5244,33 @@ public class AdvancedSharedPreferences {
 	 * @param defValue	Value to return if this preference does not exist.
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
-	public short [] loadShortArrayPref(String key, short [] defValue) {
+	public BigInteger [] loadBigIntegerArrayPref(String key, BigInteger [] defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, "");
-			if(stringvalue.length()==0)return defValue;
+			String internal = KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			BigInteger [] cached = getCached(internal, BigInteger[].class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
 
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
+			String stringvalue = loadPref(internal, "");
+			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
 
-			short [] value = new short [length];
-			for (int i = 0; i < length; i++) {
-				value[i] = Short.parseShort(string_array[i]); 
-			}
+			BigInteger [] value = decodeBigIntegers(stringvalue);
 
+			decoded(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
 			return value;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
 	/**
@@ -791,24 +5280,38 @@ public class AdvancedSharedPreferences {
 	 * @param defValue	Value to return if this preference does not exist.
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
-	public ArrayList<Short> loadShortArrayListPref(String key, ArrayList<Short> defValue) {
+	public ArrayList<BigInteger> loadBigIntegerArrayListPref(String key, ArrayList<BigInteger> defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, "");
+			String internal = KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key;
+			ArrayList<BigInteger> cached = getCached(internal, ArrayList.class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
 			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
 
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
+			BigInteger [] array = decodeBigIntegers(stringvalue);
+			int length = array.length;
 
-			ArrayList<Short> value = new ArrayList<Short>();
+			ArrayList<BigInteger> value = new ArrayList<BigInteger>(length);
 			for (int i = 0; i < length; i++) {
-				value.add(Short.parseShort(string_array[i]));
-			}			
+				value.add(array[i]);
+			}
+			decoded(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAYLIST, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
 			return value;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
 	
@@ -818,15 +5321,22 @@ public class AdvancedSharedPreferences {
 	 * @return Returns true, if preference deleted.
 	 * 
 	 */
-	public boolean delShortPref(String key) {
+	public boolean delBigIntegerPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
-			value = delPref(KEY_SHORT + KEY_DELIMITER + key);
+			value = delPref(KEY_BIGINTEGER + KEY_DELIMITER + key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BIGINTEGER, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BIGINTEGER, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
@@ -836,15 +5346,22 @@ public class AdvancedSharedPreferences {
 	 * @return Returns true, if preference deleted.
 	 * 
 	 */
-	public boolean delShortArrayPref(String key) {
+	public boolean delBigIntegerArrayPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
-			value = delPref(KEY_SHORT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			value = delPref(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
@@ -854,20 +5371,69 @@ public class AdvancedSharedPreferences {
 	 * @return Returns true, if preference deleted.
 	 * 
 	 */
-	public boolean delShortArrayListPref(String key) {
+	public boolean delBigIntegerArrayListPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
-			value = delPref(KEY_SHORT + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			value = delPref(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
+	/**
+	 * Observe preference
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param defValue	Value to pass to the observer, if this preference is deleted.
+	 * @param observer	Receives the new value after every change.
+	 */
+	public void observeBigIntegerPref(final String key, final BigInteger defValue, PreferenceObserver<BigInteger> observer) {
+		observe(KEY_BIGINTEGER + KEY_DELIMITER + key, key, observer, new Callable<BigInteger>() {
+			public BigInteger call() {
+				return loadBigIntegerPref(key, defValue);
+			}
+		});
+	}
+	/**
+	 * Observe preference
+	 * 
+	 * The observer is notified once per change of the array, not once per saved chunk.
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeBigIntegerArrayPref(final String key, PreferenceObserver<BigInteger []> observer) {
+		observe(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, key, observer, new Callable<BigInteger []>() {
+			public BigInteger [] call() {
+				return loadBigIntegerArrayPref(key, null);
+			}
+		});
+	}
+	/**
+	 * Observe preference, see observeBigIntegerArrayPref
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeBigIntegerArrayListPref(final String key, PreferenceObserver<ArrayList<BigInteger>> observer) {
+		observe(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, key, observer, new Callable<ArrayList<BigInteger>>() {
+			public ArrayList<BigInteger> call() {
+				return loadBigIntegerArrayListPref(key, null);
+			}
+		});
+	}
 
-	// INTEGER
+	// FLOAT
 	
 	/**
 	 * Save/modify preference
@@ -876,15 +5442,21 @@ public class AdvancedSharedPreferences {
 	 * @param value	The new value for the preference.
 	 * @return 		Returns true if preference is saved.
 	 */
-	public boolean saveIntegerPref(String key, int value) {		
+	public boolean saveFloatPref(String key, float value) {		
+		long start = startTimer();
 		try {
-			sp_save.putInt(KEY_INTEGER + KEY_DELIMITER + key, value);
-			sp_save.commit();
+			putFloat(KEY_FLOAT + KEY_DELIMITER + key, value);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_FLOAT, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_FLOAT, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
@@ -895,20 +5467,24 @@ public class AdvancedSharedPreferences {
 	 * @param value	The new value for the preference.
 	 * @return 		Returns true if preference is saved.
 	 */
-	public boolean saveIntegerArrayPref(String key, int [] value) {		
-		int length = value.length;				
+	public boolean saveFloatArrayPref(String key, float [] value) {		
+		long start = startTimer();
 		try {
-			String stringvalue = "";
-			for (int i = 0; i < length; i++) {
-				stringvalue += value[i];
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
+			long encoding = startTimer();
+			String stringvalue = encode(value);
+			encoded(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY, encoding, stringvalue.length());
+			savePref(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
@@ -919,221 +5495,142 @@ public class AdvancedSharedPreferences {
 	 * @param value	The new value for the preference.
 	 * @return 		Returns true if preference is saved.
 	 */
-	public boolean saveIntegerArrayListPref(String key, ArrayList<Integer> value) {		
-		int length = value.size();				
+	public boolean saveFloatArrayListPref(String key, ArrayList<Float> value) {		
+		long start = startTimer();
 		try {
-			String stringvalue = "";
+			int length = value.size();
+			float [] array = new float [length];
 			for (int i = 0; i < length; i++) {
-				stringvalue += value.get(i);
-				if(i<length-1)stringvalue += value_delimiter;
+				array[i] = value.get(i);
 			}
-			savePref(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			long encoding = startTimer();
+			String stringvalue = encode(array);
+			encoded(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST, encoding, stringvalue.length());
+			savePref(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, e);
 		}
-		return false;
-	}
-	
-	/**
-	 * Load preference
-	 * 
-	 * @param key 	The name of the preference to retrieve.
-	 * @param defValue	Value to return if this preference does not exist.
-	 * @return 		Returns the preference value if it exists, or defValue.
-	 */
-	public int loadIntegerPref(String key, int defValue) {
-		try {
-			return sp_load.getInt(KEY_INTEGER + KEY_DELIMITER + key, defValue);
-		} catch (Exception e) {
-			if(debug)Log.e(TAG, "Error loading " + key);
-			if(PRINT_E)Log.e(TAG, "Exception", e);
+		finally {
+			finish();
+			operated(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, start);
 		}
-		return defValue;
+		return false;
 	}
 	/**
-	 * Load preference
+	 * Save/modify preference
 	 * 
-	 * @param key 	The name of the preference to retrieve.
-	 * @param defValue	Value to return if this preference does not exist.
-	 * @return 		Returns the preference value if it exists, or defValue.
-	 */
-	public int [] loadIntegerArrayPref(String key, int [] defValue) {
-		try {
-			String stringvalue = loadPref(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, "");
-			if(stringvalue.length()==0)return defValue;
-
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
-
-			int [] value = new int [length];
-			for (int i = 0; i < length; i++) {
-				value[i] = Integer.parseInt(string_array[i]); 
-			}
-
-			return value;
-		} 
-		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error loading " + key);
-			if(PRINT_E)Log.e(TAG, "Exception", e);
-		}	
-		return defValue;
-	}
-	/**
-	 * Load preference
+	 * Saved like saveFloatArrayListPref, without boxing.
 	 * 
-	 * @param key 	The name of the preference to retrieve.
-	 * @param defValue	Value to return if this preference does not exist.
-	 * @return 		Returns the preference value if it exists, or defValue.
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns true if preference is saved.
 	 */
-	public ArrayList<Integer> loadIntegerArrayListPref(String key, ArrayList<Integer> defValue) {
+	public boolean saveFloatListPref(String key, FloatList value) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, "");
-			if(stringvalue.length()==0)return defValue;
-
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
-
-			ArrayList<Integer> value = new ArrayList<Integer>();
-			for (int i = 0; i < length; i++) {
-				value.add(Integer.parseInt(string_array[i]));
-			}			
-			return value;
+			long encoding = startTimer();
+			String stringvalue = encode(value.elements, value.size);
+			encoded(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST, encoding, stringvalue.length());
+			savePref(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			commit();
+			return true;
 		} 
 		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error loading " + key);
-			if(PRINT_E)Log.e(TAG, "Exception", e);
-		}	
-		return defValue;
-	}
-	
-	/**
-	 * Delete preference
-	 * 
-	 * @return Returns true, if preference deleted.
-	 * 
-	 */
-	public boolean delIntegerPref(String key) {
-		boolean value = false;
-
-		try {
-			value = delPref(KEY_INTEGER + KEY_DELIMITER + key);
-		}
-		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error deleting " + key);
-			if(PRINT_E)Log.e(TAG, "Exception", e);
-		}
-		return value;
-	}
-	/**
-	 * Delete preference
-	 * 
-	 * @return Returns true, if preference deleted.
-	 * 
-	 */
-	public boolean delIntegerArrayPref(String key) {
-		boolean value = false;
-
-		try {
-			value = delPref(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
-		}
-		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error deleting " + key);
+			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, e);
 		}
-		return value;
-	}
-	/**
-	 * Delete preference
-	 * 
-	 * @return Returns true, if preference deleted.
-	 * 
-	 */
-	public boolean delIntegerArrayListPref(String key) {
-		boolean value = false;
-
-		try {
-			value = delPref(KEY_INTEGER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
-		}
-		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error deleting " + key);
-			if(PRINT_E)Log.e(TAG, "Exception", e);
+		finally {
+			finish();
+			operated(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, start);
 		}
-		return value;
+		return false;
 	}
-
-	// LONG
 	
 	/**
-	 * Save/modify preference
+	 * Append values to a saved array. Only the last chunk is saved again, so the cost
+	 * depends on the number of appended values, not on the length of the array.
+	 * The array is saved, if it does not exist yet.
 	 * 
 	 * @param key 	The name of the preference to modify.
-	 * @param value	The new value for the preference.
+	 * @param value	The values to append.
 	 * @return 		Returns true if preference is saved.
 	 */
-	public boolean saveLongPref(String key, long value) {
-		try {
-			sp_save.putLong(KEY_LONG + KEY_DELIMITER + key, value);
-			sp_save.commit();
-			return true;
-		} 
-		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error saving " + key);
-			if(PRINT_E)Log.e(TAG, "Exception", e);
-		}
-		return false;
+	public boolean appendFloatArrayPref(String key, float... value) {
+		if(value==null)return false;
+		return appendFloats(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY, key, value, value.length);
 	}
 	/**
-	 * Save/modify preference
+	 * Append values to a saved arraylist, see appendFloatArrayPref
 	 * 
 	 * @param key 	The name of the preference to modify.
-	 * @param value	The new value for the preference.
+	 * @param value	The values to append.
 	 * @return 		Returns true if preference is saved.
 	 */
-	public boolean saveLongArrayPref(String key, long [] value) {		
-		int length = value.length;				
-		try {
-			String stringvalue = "";
-			for (int i = 0; i < length; i++) {
-				stringvalue += value[i];
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_LONG + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
-			return true;
-		} 
-		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error saving " + key);
-			if(PRINT_E)Log.e(TAG, "Exception", e);
+	public boolean appendFloatArrayListPref(String key, ArrayList<Float> value) {
+		int length = value.size();
+		float [] array = new float [length];
+		for (int i = 0; i < length; i++) {
+			if(value.get(i)==null)return false;
+			array[i] = value.get(i);
 		}
-		return false;
+		return appendFloats(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST, key, array, length);
 	}
 	/**
-	 * Save/modify preference
+	 * Append values to a saved arraylist, see appendFloatArrayPref
 	 * 
 	 * @param key 	The name of the preference to modify.
-	 * @param value	The new value for the preference.
+	 * @param value	The values to append.
 	 * @return 		Returns true if preference is saved.
 	 */
-	public boolean saveLongArrayListPref(String key, ArrayList<Long> value) {		
-		int length = value.size();				
+	public boolean appendFloatListPref(String key, FloatList value) {
+		return appendFloats(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST, key, value.elements, value.size);
+	}
+	private boolean appendFloats(String family, String key, float [] value, int length) {
+		long start = startTimer();
 		try {
-			String stringvalue = "";
-			for (int i = 0; i < length; i++) {
-				stringvalue += value.get(i);
-				if(i<length-1)stringvalue += value_delimiter;
+			String internal = family + KEY_DELIMITER + key;
+			char saved = getAppendEncoding(internal, BinaryCodec.TYPE_FLOAT);
+			if(length==0&&saved!=APPEND_MISSING)return true;
+
+			long encoding = startTimer();
+			String stringvalue;
+			if(saved==APPEND_TEXT)stringvalue = encoder.get().encode(value, length);
+			else if(saved==BinaryCodec.PACKED||saved==BinaryCodec.VARINT)stringvalue = BinaryCodec.encode(value, length);
+			else {
+				if(saved==APPEND_REWRITE) {
+					float [] existing = decodeFloats(loadPref(internal, ""));
+					float [] array = new float [existing.length + length];
+					System.arraycopy(existing, 0, array, 0, existing.length);
+					System.arraycopy(value, 0, array, existing.length, length);
+					value = array;
+					length = array.length;
+				}
+				stringvalue = encode(value, length);
 			}
-			savePref(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			encoded(family, encoding, stringvalue.length());
+
+			if(saved==APPEND_MISSING||saved==APPEND_REWRITE)savePref(internal, stringvalue);
+			else appendPref(internal, stringvalue, saved);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(family, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(family, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
-	
 	/**
 	 * Load preference
 	 * 
@@ -1141,12 +5638,18 @@ public class AdvancedSharedPreferences {
 	 * @param defValue	Value to return if this preference does not exist.
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
-	public long loadLongPref(String key, long defValue) {
+	public float loadFloatPref(String key, float defValue) {
+		long start = startTimer();
 		try {
-			return sp_load.getLong(KEY_LONG + KEY_DELIMITER + key, defValue);
+			return getFloat(KEY_FLOAT + KEY_DELIMITER + key, defValue);
 		} catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_FLOAT, PreferenceMetrics.LOAD, e);
+		}
+		finally {
+			finish();
+			operated(KEY_FLOAT, PreferenceMetrics.LOAD, start);
 		}
 		return defValue;
 	}
@@ -1157,88 +5660,226 @@ public class AdvancedSharedPreferences {
 	 * @param defValue	Value to return if this preference does not exist.
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
-	public long [] loadLongArrayPref(String key, long [] defValue) {
+	public float [] loadFloatArrayPref(String key, float [] defValue) {
+		long start = startTimer();
+		try {
+			String internal = KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			float [] cached = getCached(internal, float[].class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
+			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
+
+			float [] value = decodeFloats(stringvalue);
+			decoded(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
+			return value;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Load preference
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param defValue	Value to return if this preference does not exist.
+	 * @return 		Returns the preference value if it exists, or defValue.
+	 */
+	public ArrayList<Float> loadFloatArrayListPref(String key, ArrayList<Float> defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_LONG + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, "");
+			String internal = KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key;
+			ArrayList<Float> cached = getCached(internal, ArrayList.class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
 			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
 
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
+			float [] array = decodeFloats(stringvalue);
+			int length = array.length;
 
-			long [] value = new long [length];
+			ArrayList<Float> value = new ArrayList<Float>(length);
 			for (int i = 0; i < length; i++) {
-				value[i] = Long.parseLong(string_array[i]); 
+				value.add(array[i]);
 			}
-
+			decoded(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
 			return value;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
 	/**
 	 * Load preference
 	 * 
+	 * Loads values saved with saveFloatArrayListPref or saveFloatListPref, without boxing.
+	 * 
 	 * @param key 	The name of the preference to retrieve.
 	 * @param defValue	Value to return if this preference does not exist.
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
-	public ArrayList<Long> loadLongArrayListPref(String key, ArrayList<Long> defValue) {
+	public FloatList loadFloatListPref(String key, FloatList defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, "");
+			String internal = KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key;
+			FloatList cached = getCached(internal, FloatList.class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
 			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
 
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
+			float [] array = decodeFloats(stringvalue);
+			FloatList value = new FloatList(array, array.length);
 
-			ArrayList<Long> value = new ArrayList<Long>();
-			for (int i = 0; i < length; i++) {
-				value.add(Long.parseLong(string_array[i]));
-			}			
+			decoded(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
 			return value;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
-	
 	/**
-	 * Delete preference
+	 * Load preference into an array, without allocating one
 	 * 
-	 * @return Returns true, if preference deleted.
+	 * Values, that do not fit into dst, are skipped.
 	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param dst	Array to load the values into.
+	 * @param offset	Index in dst of the first value.
+	 * @return 		Returns the number of saved values, or -1 if this preference does not exist.
 	 */
-	public boolean delLongPref(String key) {
-		boolean value = false;
-
+	public int loadFloatArrayPref(String key, float [] dst, int offset) {
+		long start = startTimer();
 		try {
-			value = delPref(KEY_LONG + KEY_DELIMITER + key);			
+			String internal = KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			float [] cached = peekCached(internal, float[].class);
+			if(cached!=null) {
+				System.arraycopy(cached, 0, dst, offset, Math.min(cached.length, dst.length - offset));
+				return cached.length;
+			}
+
+			CharSequence stringvalue = loadValue(internal);
+			if(stringvalue==null||stringvalue.length()==0)return -1;
+			long decoding = startTimer();
+
+			ValueDecoder decoder = getDecoder(stringvalue, BinaryCodec.TYPE_FLOAT);
+			int length = dst.length - offset;
+			int count = 0;
+			while (count<length&&decoder.hasNext()) {
+				dst[offset + count++] = decoder.nextFloat();
+			}
+			count += decoder.remaining();
+			decoded(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			return count;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
 		}
+		return -1;
+	}
+	/**
+	 * Load preference into a buffer, without allocating an array
+	 * 
+	 * Values are put at the position of dst, values, that do not fit, are skipped.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param dst	Buffer to load the values into.
+	 * @return 		Returns the number of saved values, or -1 if this preference does not exist.
+	 */
+	public int loadFloatBufferPref(String key, FloatBuffer dst) {
+		long start = startTimer();
+		try {
+			String internal = KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			float [] cached = peekCached(internal, float[].class);
+			if(cached!=null) {
+				dst.put(cached, 0, Math.min(cached.length, dst.remaining()));
+				return cached.length;
+			}
+
+			CharSequence stringvalue = loadValue(internal);
+			if(stringvalue==null||stringvalue.length()==0)return -1;
+			long decoding = startTimer();
+
+			ValueDecoder decoder = getDecoder(stringvalue, BinaryCodec.TYPE_FLOAT);
+			int count = 0;
+			while (dst.hasRemaining()&&decoder.hasNext()) {
+				dst.put(decoder.nextFloat());
+				count++;
+			}
+			count += decoder.remaining();
+			decoded(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			return count;
+		} 
 		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error deleting " + key);
+			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
 		}
-		return value;
+		return -1;
 	}
+	
 	/**
 	 * Delete preference
 	 * 
 	 * @return Returns true, if preference deleted.
 	 * 
 	 */
-	public boolean delLongArrayPref(String key) {
+	public boolean delFloatPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
-			value = delPref(KEY_LONG + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			value = delPref(KEY_FLOAT + KEY_DELIMITER + key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_FLOAT, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_FLOAT, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
@@ -1248,218 +5889,280 @@ public class AdvancedSharedPreferences {
 	 * @return Returns true, if preference deleted.
 	 * 
 	 */
-	public boolean delLongArrayListPref(String key) {
+	public boolean delFloatArrayPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
-			value = delPref(KEY_LONG + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			value = delPref(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
-
-	// BIGDECIMAL
-	
 	/**
-	 * Save/modify preference
+	 * Delete preference
+	 * 
+	 * @return Returns true, if preference deleted.
 	 * 
-	 * @param key 	The name of the preference to modify.
-	 * @param value	The new value for the preference.
-	 * @return 		Returns true if preference is saved.
 	 */
-	public boolean saveBigIntegerPref(String key, BigInteger value) {
+	public boolean delFloatArrayListPref(String key) {
+		boolean value = false;
+
+		long start = startTimer();
 		try {
-			sp_save.putLong(KEY_BIGINTEGER + KEY_DELIMITER + key, value.longValue());
-			sp_save.commit();
-			return true;
-		} 
+			value = delPref(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			commit();
+		}
 		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error saving " + key);
+			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, e);
 		}
-		return false;
+		finally {
+			finish();
+			operated(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, start);
+		}
+		return value;
 	}
 	/**
-	 * Save/modify preference
+	 * Iterate over the values of a saved array
 	 * 
-	 * @param key 	The name of the preference to modify.
-	 * @param value	The new value for the preference.
-	 * @return 		Returns true if preference is saved.
+	 * The values are decoded, while the iterator is read, and only one chunk of the saved
+	 * value is kept in memory, e.g. to read the first values of a long array or to read
+	 * it once without loading all of it.
+	 * The iterator fails fast with a ConcurrentModificationException, once the preference
+	 * is saved, appended to or deleted.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @return 		Returns an iterator over the values, or null if this preference does not exist.
 	 */
-	public boolean saveBigIntegerArrayPref(String key, BigInteger [] value) {		
-		int length = value.length;				
+	public FloatIterator iterateFloatArrayPref(String key) {
+		long start = startTimer();
 		try {
-			String stringvalue = "";
-			for (int i = 0; i < length; i++) {
-				stringvalue += value[i];
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
-			return true;
+			CharSequence stringvalue = streamValue(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			if(stringvalue==null||stringvalue.length()==0)return null;
+			return new FloatIterator(getDecoder(stringvalue, BinaryCodec.TYPE_FLOAT));
 		} 
 		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error saving " + key);
+			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
 		}
-		return false;
+		return null;
 	}
 	/**
-	 * Save/modify preference
+	 * Iterate over the values of a saved arraylist
 	 * 
-	 * @param key 	The name of the preference to modify.
-	 * @param value	The new value for the preference.
-	 * @return 		Returns true if preference is saved.
+	 * The values are decoded, while the iterator is read, and only one chunk of the saved
+	 * value is kept in memory, e.g. to read the first values of a long arraylist or to read
+	 * it once without loading all of it.
+	 * The iterator fails fast with a ConcurrentModificationException, once the preference
+	 * is saved, appended to or deleted.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @return 		Returns an iterator over the values, or null if this preference does not exist.
 	 */
-	public boolean saveBigIntegerArrayListPref(String key, ArrayList<BigInteger> value) {		
-		int length = value.size();				
+	public FloatIterator iterateFloatArrayListPref(String key) {
+		long start = startTimer();
 		try {
-			String stringvalue = "";
-			for (int i = 0; i < length; i++) {
-				stringvalue += value.get(i);
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
-			return true;
+			CharSequence stringvalue = streamValue(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			if(stringvalue==null||stringvalue.length()==0)return null;
+			return new FloatIterator(getDecoder(stringvalue, BinaryCodec.TYPE_FLOAT));
 		} 
 		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error saving " + key);
+			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
 		}
-		return false;
+		return null;
 	}
-	
 	/**
-	 * Load preference
+	 * Load one value of a saved array
+	 * 
+	 * Arrays saved with ENCODING_PACKED are read directly from the chunk, that holds the
+	 * value. Other arrays are decoded up to the value, one chunk at a time.
 	 * 
 	 * @param key 	The name of the preference to retrieve.
-	 * @param defValue	Value to return if this preference does not exist.
+	 * @param index	Index of the value in the array.
+	 * @param defValue	Value to return if this preference or index does not exist.
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
-	public BigInteger loadBigIntegerPref(String key, BigInteger defValue) {
+	public float loadFloatArrayElementPref(String key, int index, float defValue) {
+		long start = startTimer();
 		try {
-			return BigInteger.valueOf(Long.parseLong(loadPref(KEY_BIGINTEGER + KEY_DELIMITER + key, String.valueOf(defValue))));
-		} catch (Exception e) {
+			String internal = KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			float [] cached = peekCached(internal, float[].class);
+			if(cached!=null)return index>=0&&index<cached.length ? cached[index] : defValue;
+			if(index<0)return defValue;
+
+			ValueDecoder decoder = getDecoder(internal, BinaryCodec.TYPE_FLOAT, index);
+			if(decoder==null||!decoder.hasNext())return defValue;
+			return decoder.nextFloat();
+		} 
+		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
 		}
 		return defValue;
 	}
 	/**
-	 * Load preference
+	 * Load the values from index from, inclusive, to index to, exclusive, of a saved array
 	 * 
 	 * @param key 	The name of the preference to retrieve.
-	 * @param defValue	Value to return if this preference does not exist.
-	 * @return 		Returns the preference value if it exists, or defValue.
+	 * @param from	Index of the first value.
+	 * @param to	Index after the last value.
+	 * @param defValue	Value to return if this preference or range does not exist.
+	 * @return 		Returns the values if they exist, or defValue.
 	 */
-	public BigInteger [] loadBigIntegerArrayPref(String key, BigInteger [] defValue) {
+	public float [] loadFloatArrayRangePref(String key, int from, int to, float [] defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, "");
-			if(stringvalue.length()==0)return defValue;
-
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
-
-			BigInteger [] value = new BigInteger [length];
-			for (int i = 0; i < length; i++) {
-				value[i] = BigInteger.valueOf(Long.parseLong(string_array[i])); 
+			String internal = KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			if(from<0||from>to)return defValue;
+			float [] cached = peekCached(internal, float[].class);
+			if(cached!=null)return to<=cached.length ? Arrays.copyOfRange(cached, from, to) : defValue;
+
+			ValueDecoder decoder = getDecoder(internal, BinaryCodec.TYPE_FLOAT, from);
+			if(decoder==null)return defValue;
+
+			float [] value = new float [to - from];
+			for (int i = 0; i < value.length; i++) {
+				if(!decoder.hasNext())return defValue;
+				value[i] = decoder.nextFloat();
 			}
-
 			return value;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
 	/**
-	 * Load preference
+	 * Observe preference
 	 * 
-	 * @param key 	The name of the preference to retrieve.
-	 * @param defValue	Value to return if this preference does not exist.
-	 * @return 		Returns the preference value if it exists, or defValue.
+	 * @param key 	The name of the preference to observe.
+	 * @param defValue	Value to pass to the observer, if this preference is deleted.
+	 * @param observer	Receives the new value after every change.
 	 */
-	public ArrayList<BigInteger> loadBigIntegerArrayListPref(String key, ArrayList<BigInteger> defValue) {
-		try {
-			String stringvalue = loadPref(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, "");
-			if(stringvalue.length()==0)return defValue;
-
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
-
-			ArrayList<BigInteger> value = new ArrayList<BigInteger>();
-			for (int i = 0; i < length; i++) {
-				value.add(BigInteger.valueOf(Long.parseLong(string_array[i])));
-			}			
-			return value;
-		} 
-		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error loading " + key);
-			if(PRINT_E)Log.e(TAG, "Exception", e);
-		}	
-		return defValue;
+	public void observeFloatPref(final String key, final float defValue, PreferenceObserver<Float> observer) {
+		observe(KEY_FLOAT + KEY_DELIMITER + key, key, observer, new Callable<Float>() {
+			public Float call() {
+				return loadFloatPref(key, defValue);
+			}
+		});
 	}
-	
 	/**
-	 * Delete preference
+	 * Observe preference
 	 * 
-	 * @return Returns true, if preference deleted.
+	 * The observer is notified once per change of the array, not once per saved chunk.
 	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
 	 */
-	public boolean delBigIntegerPref(String key) {
-		boolean value = false;
-
-		try {
-			value = delPref(KEY_BIGINTEGER + KEY_DELIMITER + key);
-		}
-		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error deleting " + key);
-			if(PRINT_E)Log.e(TAG, "Exception", e);
-		}
-		return value;
+	public void observeFloatArrayPref(final String key, PreferenceObserver<float []> observer) {
+		observe(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, key, observer, new Callable<float []>() {
+			public float [] call() {
+				return loadFloatArrayPref(key, null);
+			}
+		});
 	}
 	/**
-	 * Delete preference
-	 * 
-	 * @return Returns true, if preference deleted.
+	 * Observe preference, see observeFloatArrayPref
 	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
 	 */
-	public boolean delBigIntegerArrayPref(String key) {
-		boolean value = false;
+	public void observeFloatArrayListPref(final String key, PreferenceObserver<ArrayList<Float>> observer) {
+		observe(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, key, observer, new Callable<ArrayList<Float>>() {
+			public ArrayList<Float> call() {
+				return loadFloatArrayListPref(key, null);
+			}
+		});
+	}
 
+	// DOUBLE
+	
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean saveDoublePref(String key, double value) {
+		long start = startTimer();
 		try {
-			value = delPref(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
-		}
+			savePref(KEY_DOUBLE + KEY_DELIMITER + key, String.valueOf(value));
+			commit();
+			return true;
+		} 
 		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error deleting " + key);
+			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DOUBLE, PreferenceMetrics.SAVE, e);
 		}
-		return value;
+		finally {
+			finish();
+			operated(KEY_DOUBLE, PreferenceMetrics.SAVE, start);
+		}
+		return false;
 	}
 	/**
-	 * Delete preference
-	 * 
-	 * @return Returns true, if preference deleted.
+	 * Save/modify preference
 	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns true if preference is saved.
 	 */
-	public boolean delBigIntegerArrayListPref(String key) {
-		boolean value = false;
-
+	public boolean saveDoubleArrayPref(String key, double [] value) {		
+		long start = startTimer();
 		try {
-			value = delPref(KEY_BIGINTEGER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
-		}
+			long encoding = startTimer();
+			String stringvalue = encode(value);
+			encoded(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY, encoding, stringvalue.length());
+			savePref(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
+			commit();
+			return true;
+		} 
 		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error deleting " + key);
+			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, start);
 		}
-		return value;
+		return false;
 	}
-
-	// FLOAT
-	
 	/**
 	 * Save/modify preference
 	 * 
@@ -1467,67 +6170,143 @@ public class AdvancedSharedPreferences {
 	 * @param value	The new value for the preference.
 	 * @return 		Returns true if preference is saved.
 	 */
-	public boolean saveFloatPref(String key, float value) {		
+	public boolean saveDoubleArrayListPref(String key, ArrayList<Double> value) {		
+		long start = startTimer();
 		try {
-			sp_save.putFloat(KEY_FLOAT + KEY_DELIMITER + key, value);
-			sp_save.commit();
+			int length = value.size();
+			double [] array = new double [length];
+			for (int i = 0; i < length; i++) {
+				array[i] = value.get(i);
+			}
+			long encoding = startTimer();
+			String stringvalue = encode(array);
+			encoded(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST, encoding, stringvalue.length());
+			savePref(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
 	/**
 	 * Save/modify preference
 	 * 
+	 * Saved like saveDoubleArrayListPref, without boxing.
+	 * 
 	 * @param key 	The name of the preference to modify.
 	 * @param value	The new value for the preference.
 	 * @return 		Returns true if preference is saved.
 	 */
-	public boolean saveFloatArrayPref(String key, float [] value) {		
-		float length = value.length;				
+	public boolean saveDoubleListPref(String key, DoubleList value) {
+		long start = startTimer();
 		try {
-			String stringvalue = "";
-			for (int i = 0; i < length; i++) {
-				stringvalue += value[i];
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
+			long encoding = startTimer();
+			String stringvalue = encode(value.elements, value.size);
+			encoded(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST, encoding, stringvalue.length());
+			savePref(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
+	
 	/**
-	 * Save/modify preference
+	 * Append values to a saved array. Only the last chunk is saved again, so the cost
+	 * depends on the number of appended values, not on the length of the array,
+	 * unless it was saved with ENCODING_TIMESERIES.
+	 * The array is saved, if it does not exist yet.
 	 * 
 	 * @param key 	The name of the preference to modify.
-	 * @param value	The new value for the preference.
+	 * @param value	The values to append.
 	 * @return 		Returns true if preference is saved.
 	 */
-	public boolean saveFloatArrayListPref(String key, ArrayList<Float> value) {		
-		int length = value.size();				
+	public boolean appendDoubleArrayPref(String key, double... value) {
+		if(value==null)return false;
+		return appendDoubles(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY, key, value, value.length);
+	}
+	/**
+	 * Append values to a saved arraylist, see appendDoubleArrayPref
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendDoubleArrayListPref(String key, ArrayList<Double> value) {
+		int length = value.size();
+		double [] array = new double [length];
+		for (int i = 0; i < length; i++) {
+			if(value.get(i)==null)return false;
+			array[i] = value.get(i);
+		}
+		return appendDoubles(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST, key, array, length);
+	}
+	/**
+	 * Append values to a saved arraylist, see appendDoubleArrayPref
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendDoubleListPref(String key, DoubleList value) {
+		return appendDoubles(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST, key, value.elements, value.size);
+	}
+	private boolean appendDoubles(String family, String key, double [] value, int length) {
+		long start = startTimer();
 		try {
-			String stringvalue = "";
-			for (int i = 0; i < length; i++) {
-				stringvalue += value.get(i);
-				if(i<length-1)stringvalue += value_delimiter;
+			String internal = family + KEY_DELIMITER + key;
+			char saved = getAppendEncoding(internal, BinaryCodec.TYPE_DOUBLE);
+			if(length==0&&saved!=APPEND_MISSING)return true;
+
+			long encoding = startTimer();
+			String stringvalue;
+			if(saved==APPEND_TEXT)stringvalue = encoder.get().encode(value, length);
+			else if(saved==BinaryCodec.PACKED||saved==BinaryCodec.VARINT)stringvalue = BinaryCodec.encode(value, length);
+			else {
+				if(saved==APPEND_REWRITE) {
+					double [] existing = decodeDoubles(loadPref(internal, ""));
+					double [] array = new double [existing.length + length];
+					System.arraycopy(existing, 0, array, 0, existing.length);
+					System.arraycopy(value, 0, array, existing.length, length);
+					value = array;
+					length = array.length;
+				}
+				stringvalue = encode(value, length);
 			}
-			savePref(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			encoded(family, encoding, stringvalue.length());
+
+			if(saved==APPEND_MISSING||saved==APPEND_REWRITE)savePref(internal, stringvalue);
+			else appendPref(internal, stringvalue, saved);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(family, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(family, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
-	
 	/**
 	 * Load preference
 	 * 
@@ -1535,12 +6314,18 @@ public class AdvancedSharedPreferences {
 	 * @param defValue	Value to return if this preference does not exist.
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
-	public float loadFloatPref(String key, float defValue) {
+	public double loadDoublePref(String key, double defValue) {
+		long start = startTimer();
 		try {
-			return sp_load.getFloat(KEY_FLOAT + KEY_DELIMITER + key, defValue);
+			return Double.parseDouble(loadPref(KEY_DOUBLE + KEY_DELIMITER + key, String.valueOf(defValue)));
 		} catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DOUBLE, PreferenceMetrics.LOAD, e);
+		}
+		finally {
+			finish();
+			operated(KEY_DOUBLE, PreferenceMetrics.LOAD, start);
 		}
 		return defValue;
 	}
@@ -1551,88 +6336,226 @@ public class AdvancedSharedPreferences {
 	 * @param defValue	Value to return if this preference does not exist.
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
-	public float [] loadFloatArrayPref(String key, float [] defValue) {
+	public double [] loadDoubleArrayPref(String key, double [] defValue) {
+		long start = startTimer();
+		try {
+			String internal = KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			double [] cached = getCached(internal, double[].class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
+			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
+
+			double [] value = decodeDoubles(stringvalue);
+			decoded(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
+			return value;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return defValue;
+	}
+	/**
+	 * Load preference
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param defValue	Value to return if this preference does not exist.
+	 * @return 		Returns the preference value if it exists, or defValue.
+	 */
+	public ArrayList<Double> loadDoubleArrayListPref(String key, ArrayList<Double> defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, "");
+			String internal = KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key;
+			ArrayList<Double> cached = getCached(internal, ArrayList.class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
 			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
 
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
+			double [] array = decodeDoubles(stringvalue);
+			int length = array.length;
 
-			float [] value = new float [length];
+			ArrayList<Double> value = new ArrayList<Double>(length);
 			for (int i = 0; i < length; i++) {
-				value[i] = Float.parseFloat(string_array[i]); 
+				value.add(array[i]);
 			}
-
+			decoded(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
 			return value;
 		} 
 		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error loading " + key);
+			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
 	/**
 	 * Load preference
 	 * 
+	 * Loads values saved with saveDoubleArrayListPref or saveDoubleListPref, without boxing.
+	 * 
 	 * @param key 	The name of the preference to retrieve.
 	 * @param defValue	Value to return if this preference does not exist.
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
-	public ArrayList<Float> loadFloatArrayListPref(String key, ArrayList<Float> defValue) {
+	public DoubleList loadDoubleListPref(String key, DoubleList defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, "");
+			String internal = KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key;
+			DoubleList cached = getCached(internal, DoubleList.class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
 			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
 
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
+			double [] array = decodeDoubles(stringvalue);
+			DoubleList value = new DoubleList(array, array.length);
 
-			ArrayList<Float> value = new ArrayList<Float>();
-			for (int i = 0; i < length; i++) {
-				value.add(Float.parseFloat(string_array[i]));
-			}			
+			decoded(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
 			return value;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
-	
 	/**
-	 * Delete preference
+	 * Load preference into an array, without allocating one
 	 * 
-	 * @return Returns true, if preference deleted.
+	 * Values, that do not fit into dst, are skipped.
 	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param dst	Array to load the values into.
+	 * @param offset	Index in dst of the first value.
+	 * @return 		Returns the number of saved values, or -1 if this preference does not exist.
 	 */
-	public boolean delFloatPref(String key) {
-		boolean value = false;
-
+	public int loadDoubleArrayPref(String key, double [] dst, int offset) {
+		long start = startTimer();
 		try {
-			value = delPref(KEY_FLOAT + KEY_DELIMITER + key);
+			String internal = KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			double [] cached = peekCached(internal, double[].class);
+			if(cached!=null) {
+				System.arraycopy(cached, 0, dst, offset, Math.min(cached.length, dst.length - offset));
+				return cached.length;
+			}
+
+			CharSequence stringvalue = loadValue(internal);
+			if(stringvalue==null||stringvalue.length()==0)return -1;
+			long decoding = startTimer();
+
+			ValueDecoder decoder = getDecoder(stringvalue, BinaryCodec.TYPE_DOUBLE);
+			int length = dst.length - offset;
+			int count = 0;
+			while (count<length&&decoder.hasNext()) {
+				dst[offset + count++] = decoder.nextDouble();
+			}
+			count += decoder.remaining();
+			decoded(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			return count;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
 		}
+		return -1;
+	}
+	/**
+	 * Load preference into a buffer, without allocating an array
+	 * 
+	 * Values are put at the position of dst, values, that do not fit, are skipped.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @param dst	Buffer to load the values into.
+	 * @return 		Returns the number of saved values, or -1 if this preference does not exist.
+	 */
+	public int loadDoubleBufferPref(String key, DoubleBuffer dst) {
+		long start = startTimer();
+		try {
+			String internal = KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			double [] cached = peekCached(internal, double[].class);
+			if(cached!=null) {
+				dst.put(cached, 0, Math.min(cached.length, dst.remaining()));
+				return cached.length;
+			}
+
+			CharSequence stringvalue = loadValue(internal);
+			if(stringvalue==null||stringvalue.length()==0)return -1;
+			long decoding = startTimer();
+
+			ValueDecoder decoder = getDecoder(stringvalue, BinaryCodec.TYPE_DOUBLE);
+			int count = 0;
+			while (dst.hasRemaining()&&decoder.hasNext()) {
+				dst.put(decoder.nextDouble());
+				count++;
+			}
+			count += decoder.remaining();
+			decoded(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			return count;
+		} 
 		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error deleting " + key);
+			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
 		}
-		return value;
+		return -1;
 	}
+	
 	/**
 	 * Delete preference
 	 * 
 	 * @return Returns true, if preference deleted.
 	 * 
 	 */
-	public boolean delFloatArrayPref(String key) {
+	public boolean delDoublePref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
-			value = delPref(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			value = delPref(KEY_DOUBLE + KEY_DELIMITER + key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DOUBLE, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_DOUBLE, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
@@ -1642,213 +6565,223 @@ public class AdvancedSharedPreferences {
 	 * @return Returns true, if preference deleted.
 	 * 
 	 */
-	public boolean delFloatArrayListPref(String key) {
+	public boolean delDoubleArrayPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
-			value = delPref(KEY_FLOAT + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			value = delPref(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
-
-	// DOUBLE
-	
 	/**
-	 * Save/modify preference
+	 * Delete preference
 	 * 
-	 * @param key 	The name of the preference to modify.
-	 * @param value	The new value for the preference.
-	 * @return 		Returns true if preference is saved.
-	 */
-	public boolean saveDoublePref(String key, double value) {
-		try {
-			savePref(KEY_DOUBLE + KEY_DELIMITER + key, String.valueOf(value));
-			return true;
-		} 
-		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error saving " + key);
-			if(PRINT_E)Log.e(TAG, "Exception", e);
-		}
-		return false;
-	}
-	/**
-	 * Save/modify preference
+	 * @return Returns true, if preference deleted.
 	 * 
-	 * @param key 	The name of the preference to modify.
-	 * @param value	The new value for the preference.
-	 * @return 		Returns true if preference is saved.
 	 */
-	public boolean saveDoubleArrayPref(String key, double [] value) {		
-		double length = value.length;				
+	public boolean delDoubleArrayListPref(String key) {
+		boolean value = false;
+
+		long start = startTimer();
 		try {
-			String stringvalue = "";
-			for (int i = 0; i < length; i++) {
-				stringvalue += value[i];
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
-			return true;
-		} 
+			value = delPref(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			commit();
+		}
 		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error saving " + key);
+			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, e);
 		}
-		return false;
+		finally {
+			finish();
+			operated(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, start);
+		}
+		return value;
 	}
 	/**
-	 * Save/modify preference
+	 * Iterate over the values of a saved array
 	 * 
-	 * @param key 	The name of the preference to modify.
-	 * @param value	The new value for the preference.
-	 * @return 		Returns true if preference is saved.
+	 * The values are decoded, while the iterator is read, and only one chunk of the saved
+	 * value is kept in memory, e.g. to read the first values of a long array or to read
+	 * it once without loading all of it.
+	 * The iterator fails fast with a ConcurrentModificationException, once the preference
+	 * is saved, appended to or deleted.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @return 		Returns an iterator over the values, or null if this preference does not exist.
 	 */
-	public boolean saveDoubleArrayListPref(String key, ArrayList<Double> value) {		
-		int length = value.size();				
+	public DoubleIterator iterateDoubleArrayPref(String key) {
+		long start = startTimer();
 		try {
-			String stringvalue = "";
-			for (int i = 0; i < length; i++) {
-				stringvalue += value.get(i);
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
-			return true;
+			CharSequence stringvalue = streamValue(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			if(stringvalue==null||stringvalue.length()==0)return null;
+			return new DoubleIterator(getDecoder(stringvalue, BinaryCodec.TYPE_DOUBLE));
 		} 
 		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error saving " + key);
+			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
 		}
-		return false;
+		return null;
 	}
-	
 	/**
-	 * Load preference
+	 * Iterate over the values of a saved arraylist
+	 * 
+	 * The values are decoded, while the iterator is read, and only one chunk of the saved
+	 * value is kept in memory, e.g. to read the first values of a long arraylist or to read
+	 * it once without loading all of it.
+	 * The iterator fails fast with a ConcurrentModificationException, once the preference
+	 * is saved, appended to or deleted.
 	 * 
 	 * @param key 	The name of the preference to retrieve.
-	 * @param defValue	Value to return if this preference does not exist.
-	 * @return 		Returns the preference value if it exists, or defValue.
+	 * @return 		Returns an iterator over the values, or null if this preference does not exist.
 	 */
-	public double loadDoublePref(String key, double defValue) {
+	public DoubleIterator iterateDoubleArrayListPref(String key) {
+		long start = startTimer();
 		try {
-			return Double.parseDouble(loadPref(KEY_DOUBLE + KEY_DELIMITER + key, String.valueOf(defValue)));
-		} catch (Exception e) {
+			CharSequence stringvalue = streamValue(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			if(stringvalue==null||stringvalue.length()==0)return null;
+			return new DoubleIterator(getDecoder(stringvalue, BinaryCodec.TYPE_DOUBLE));
+		} 
+		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
 		}
-		return defValue;
+		return null;
 	}
 	/**
-	 * Load preference
+	 * Load one value of a saved array
+	 * 
+	 * Arrays saved with ENCODING_PACKED are read directly from the chunk, that holds the
+	 * value. Other arrays are decoded up to the value, one chunk at a time.
 	 * 
 	 * @param key 	The name of the preference to retrieve.
-	 * @param defValue	Value to return if this preference does not exist.
+	 * @param index	Index of the value in the array.
+	 * @param defValue	Value to return if this preference or index does not exist.
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
-	public double [] loadDoubleArrayPref(String key, double [] defValue) {
+	public double loadDoubleArrayElementPref(String key, int index, double defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, "");
-			if(stringvalue.length()==0)return defValue;
-
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
-
-			double [] value = new double [length];
-			for (int i = 0; i < length; i++) {
-				value[i] = Double.parseDouble(string_array[i]); 
-			}
-
-			return value;
+			String internal = KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			double [] cached = peekCached(internal, double[].class);
+			if(cached!=null)return index>=0&&index<cached.length ? cached[index] : defValue;
+			if(index<0)return defValue;
+
+			ValueDecoder decoder = getDecoder(internal, BinaryCodec.TYPE_DOUBLE, index);
+			if(decoder==null||!decoder.hasNext())return defValue;
+			return decoder.nextDouble();
 		} 
 		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error saving " + key);
+			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
 	/**
-	 * Load preference
+	 * Load the values from index from, inclusive, to index to, exclusive, of a saved array
 	 * 
 	 * @param key 	The name of the preference to retrieve.
-	 * @param defValue	Value to return if this preference does not exist.
-	 * @return 		Returns the preference value if it exists, or defValue.
+	 * @param from	Index of the first value.
+	 * @param to	Index after the last value.
+	 * @param defValue	Value to return if this preference or range does not exist.
+	 * @return 		Returns the values if they exist, or defValue.
 	 */
-	public ArrayList<Double> loadDoubleArrayListPref(String key, ArrayList<Double> defValue) {
+	public double [] loadDoubleArrayRangePref(String key, int from, int to, double [] defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, "");
-			if(stringvalue.length()==0)return defValue;
-
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
-
-			ArrayList<Double> value = new ArrayList<Double>();
-			for (int i = 0; i < length; i++) {
-				value.add(Double.parseDouble(string_array[i]));
-			}			
+			String internal = KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			if(from<0||from>to)return defValue;
+			double [] cached = peekCached(internal, double[].class);
+			if(cached!=null)return to<=cached.length ? Arrays.copyOfRange(cached, from, to) : defValue;
+
+			ValueDecoder decoder = getDecoder(internal, BinaryCodec.TYPE_DOUBLE, from);
+			if(decoder==null)return defValue;
+
+			double [] value = new double [to - from];
+			for (int i = 0; i < value.length; i++) {
+				if(!decoder.hasNext())return defValue;
+				value[i] = decoder.nextDouble();
+			}
 			return value;
 		} 
 		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error saving " + key);
+			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
 		}	
-		return defValue;
-	}
-	
-	/**
-	 * Delete preference
-	 * 
-	 * @return Returns true, if preference deleted.
-	 * 
-	 */
-	public boolean delDoublePref(String key) {
-		boolean value = false;
-
-		try {
-			value = delPref(KEY_DOUBLE + KEY_DELIMITER + key);
-		}
-		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error deleting " + key);
-			if(PRINT_E)Log.e(TAG, "Exception", e);
+		finally {
+			finish();
+			operated(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
 		}
-		return value;
+		return defValue;
 	}
 	/**
-	 * Delete preference
-	 * 
-	 * @return Returns true, if preference deleted.
+	 * Observe preference
 	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param defValue	Value to pass to the observer, if this preference is deleted.
+	 * @param observer	Receives the new value after every change.
 	 */
-	public boolean delDoubleArrayPref(String key) {
-		boolean value = false;
-
-		try {
-			value = delPref(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
-		}
-		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error deleting " + key);
-			if(PRINT_E)Log.e(TAG, "Exception", e);
-		}
-		return value;
+	public void observeDoublePref(final String key, final double defValue, PreferenceObserver<Double> observer) {
+		observe(KEY_DOUBLE + KEY_DELIMITER + key, key, observer, new Callable<Double>() {
+			public Double call() {
+				return loadDoublePref(key, defValue);
+			}
+		});
 	}
 	/**
-	 * Delete preference
+	 * Observe preference
 	 * 
-	 * @return Returns true, if preference deleted.
+	 * The observer is notified once per change of the array, not once per saved chunk.
 	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
 	 */
-	public boolean delDoubleArrayListPref(String key) {
-		boolean value = false;
-
-		try {
-			value = delPref(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
-		}
-		catch (Exception e) {
-			if(debug)Log.e(TAG, "Error deleting " + key);
-			if(PRINT_E)Log.e(TAG, "Exception", e);
-		}
-		return value;
+	public void observeDoubleArrayPref(final String key, PreferenceObserver<double []> observer) {
+		observe(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, key, observer, new Callable<double []>() {
+			public double [] call() {
+				return loadDoubleArrayPref(key, null);
+			}
+		});
+	}
+	/**
+	 * Observe preference, see observeDoubleArrayPref
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeDoubleArrayListPref(final String key, PreferenceObserver<ArrayList<Double>> observer) {
+		observe(KEY_DOUBLE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, key, observer, new Callable<ArrayList<Double>>() {
+			public ArrayList<Double> call() {
+				return loadDoubleArrayListPref(key, null);
+			}
+		});
 	}
 
 	// BIGDECIMAL
@@ -1861,14 +6794,20 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns true if preference is saved.
 	 */
 	public boolean saveBigDecimalPref(String key, BigDecimal value) {
+		long start = startTimer();
 		try {
-			sp_save.putFloat(KEY_BIGDECIMAL + KEY_DELIMITER + key, value.floatValue());
-			sp_save.commit();
+			putFloat(KEY_BIGDECIMAL + KEY_DELIMITER + key, value.floatValue());
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BIGDECIMAL, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BIGDECIMAL, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
@@ -1880,19 +6819,23 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns true if preference is saved.
 	 */
 	public boolean saveBigDecimalArrayPref(String key, BigDecimal [] value) {		
-		int length = value.length;				
+		long start = startTimer();
 		try {
-			String stringvalue = "";
-			for (int i = 0; i < length; i++) {
-				stringvalue += value[i];
-				if(i<length-1)stringvalue += value_delimiter;
-			}
+			long encoding = startTimer();
+			String stringvalue = encoder.get().encode(value);
+			encoded(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAY, encoding, stringvalue.length());
 			savePref(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
@@ -1904,23 +6847,77 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns true if preference is saved.
 	 */
 	public boolean saveBigDecimalArrayListPref(String key, ArrayList<BigDecimal> value) {		
-		int length = value.size();				
+		long start = startTimer();
 		try {
-			String stringvalue = "";
-			for (int i = 0; i < length; i++) {
-				stringvalue += value.get(i);
-				if(i<length-1)stringvalue += value_delimiter;
-			}
+			long encoding = startTimer();
+			String stringvalue = encoder.get().encode(value.toArray());
+			encoded(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAYLIST, encoding, stringvalue.length());
 			savePref(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
 
+	/**
+	 * Append values to a saved array. Only the last chunk is saved again, so the cost
+	 * depends on the number of appended values, not on the length of the array.
+	 * The array is saved, if it does not exist yet.
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendBigDecimalArrayPref(String key, BigDecimal... value) {
+		return appendBigDecimals(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAY, key, value);
+	}
+	/**
+	 * Append values to a saved arraylist, see appendBigDecimalArrayPref
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendBigDecimalArrayListPref(String key, ArrayList<BigDecimal> value) {
+		return appendBigDecimals(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAYLIST, key, value.toArray(new BigDecimal [value.size()]));
+	}
+	private boolean appendBigDecimals(String family, String key, BigDecimal [] value) {
+		long start = startTimer();
+		try {
+			String internal = family + KEY_DELIMITER + key;
+			lock(internal);
+			boolean exists = contains(internal + KEY_DELIMITER + 0);
+			if(value.length==0&&exists)return true;
+
+			long encoding = startTimer();
+			String stringvalue = encoder.get().encode(value);
+			encoded(family, encoding, stringvalue.length());
+
+			if(exists)appendPref(internal, stringvalue, APPEND_TEXT);
+			else savePref(internal, stringvalue);
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(family, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(family, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
 	/**
 	 * Load preference
 	 * 
@@ -1929,11 +6926,17 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
 	public BigDecimal loadBigDecimalPref(String key, BigDecimal defValue) {
+		long start = startTimer();
 		try {
 			return BigDecimal.valueOf(Double.parseDouble(loadPref(KEY_BIGDECIMAL + KEY_DELIMITER + key, String.valueOf(defValue))));
 		} catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BIGDECIMAL, PreferenceMetrics.LOAD, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BIGDECIMAL, PreferenceMetrics.LOAD, start);
 		}
 		return defValue;
 	}
@@ -1945,24 +6948,38 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
 	public BigDecimal [] loadBigDecimalArrayPref(String key, BigDecimal [] defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, "");
+			String internal = KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			BigDecimal [] cached = getCached(internal, BigDecimal[].class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
 			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
 
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
+			TextDecoder decoder = new TextDecoder(stringvalue, value_delimiter);
+			int length = decoder.count();
 
 			BigDecimal [] value = new BigDecimal [length];
 			for (int i = 0; i < length; i++) {
-				value[i] = BigDecimal.valueOf(Double.parseDouble(string_array[i])); 
+				value[i] = BigDecimal.valueOf(decoder.nextDouble()); 
 			}
 
+			decoded(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
 			return value;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
 	/**
@@ -1973,23 +6990,37 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
 	public ArrayList<BigDecimal> loadBigDecimalArrayListPref(String key, ArrayList<BigDecimal> defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, "");
+			String internal = KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key;
+			ArrayList<BigDecimal> cached = getCached(internal, ArrayList.class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
 			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
 
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
+			TextDecoder decoder = new TextDecoder(stringvalue, value_delimiter);
+			int length = decoder.count();
 
-			ArrayList<BigDecimal> value = new ArrayList<BigDecimal>();
+			ArrayList<BigDecimal> value = new ArrayList<BigDecimal>(length);
 			for (int i = 0; i < length; i++) {
-				value.add(BigDecimal.valueOf(Double.parseDouble(string_array[i])));
+				value.add(BigDecimal.valueOf(decoder.nextDouble()));
 			}			
+			decoded(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAYLIST, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
 			return value;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
 	
@@ -2002,12 +7033,19 @@ public class AdvancedSharedPreferences {
 	public boolean delBigDecimalPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
 			value = delPref(KEY_BIGDECIMAL + KEY_DELIMITER + key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BIGDECIMAL, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BIGDECIMAL, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
@@ -2020,12 +7058,19 @@ public class AdvancedSharedPreferences {
 	public boolean delBigDecimalArrayPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
 			value = delPref(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
@@ -2038,15 +7083,64 @@ public class AdvancedSharedPreferences {
 	public boolean delBigDecimalArrayListPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
 			value = delPref(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
+	/**
+	 * Observe preference
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param defValue	Value to pass to the observer, if this preference is deleted.
+	 * @param observer	Receives the new value after every change.
+	 */
+	public void observeBigDecimalPref(final String key, final BigDecimal defValue, PreferenceObserver<BigDecimal> observer) {
+		observe(KEY_BIGDECIMAL + KEY_DELIMITER + key, key, observer, new Callable<BigDecimal>() {
+			public BigDecimal call() {
+				return loadBigDecimalPref(key, defValue);
+			}
+		});
+	}
+	/**
+	 * Observe preference
+	 * 
+	 * The observer is notified once per change of the array, not once per saved chunk.
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeBigDecimalArrayPref(final String key, PreferenceObserver<BigDecimal []> observer) {
+		observe(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, key, observer, new Callable<BigDecimal []>() {
+			public BigDecimal [] call() {
+				return loadBigDecimalArrayPref(key, null);
+			}
+		});
+	}
+	/**
+	 * Observe preference, see observeBigDecimalArrayPref
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeBigDecimalArrayListPref(final String key, PreferenceObserver<ArrayList<BigDecimal>> observer) {
+		observe(KEY_BIGDECIMAL + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, key, observer, new Callable<ArrayList<BigDecimal>>() {
+			public ArrayList<BigDecimal> call() {
+				return loadBigDecimalArrayListPref(key, null);
+			}
+		});
+	}
 
 	// CHAR
 	
@@ -2058,13 +7152,20 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns true if preference is saved.
 	 */
 	public boolean saveCharPref(String key, char value) {
+		long start = startTimer();
 		try {
 			savePref(KEY_CHARACTER + KEY_DELIMITER + key, String.valueOf(value));
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_CHARACTER, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_CHARACTER, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
@@ -2076,23 +7177,30 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns true if preference is saved.
 	 */
 	public boolean saveCharArrayPref(String key, char [] value) {		
-		int length = value.length;				
+		long start = startTimer();
 		try {
-			String stringvalue = "";
+			int length = value.length;
 			for (int i = 0; i < length; i++) {
 				if(value[i]==value_delimiter.charAt(0)) {
 					if(debug)Log.e(TAG, "The value delimiter " + value_delimiter + " is not allowed in value " + i + ": " + value[i] + " in key " + key);
 					return false;
 				}
-				stringvalue += value[i];
-				if(i<length-1)stringvalue += value_delimiter;
 			}
+			long encoding = startTimer();
+			String stringvalue = encoder.get().encode(value);
+			encoded(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAY, encoding, stringvalue.length());
 			savePref(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
@@ -2104,27 +7212,97 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns true if preference is saved.
 	 */
 	public boolean saveCharArrayListPref(String key, ArrayList<Character> value) {		
-		int length = value.size();				
+		long start = startTimer();
 		try {
-			String stringvalue = "";
+			int length = value.size();
+			char [] array = new char [length];
 			for (int i = 0; i < length; i++) {
 				if(value.get(i)==value_delimiter.charAt(0)) {
 					if(debug)Log.e(TAG, "The value delimiter " + value_delimiter + " is not allowed at position " + i + ": " + value.get(i) + " in key " + key);
 					return false;
 				}
-				stringvalue += value.get(i);
-				if(i<length-1)stringvalue += value_delimiter;
+				array[i] = value.get(i);
 			}
+			long encoding = startTimer();
+			String stringvalue = encoder.get().encode(array);
+			encoded(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAYLIST, encoding, stringvalue.length());
 			savePref(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
 	
+	/**
+	 * Append values to a saved array. Only the last chunk is saved again, so the cost
+	 * depends on the number of appended values, not on the length of the array.
+	 * The array is saved, if it does not exist yet.
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendCharArrayPref(String key, char... value) {
+		return appendChars(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAY, key, value);
+	}
+	/**
+	 * Append values to a saved arraylist, see appendCharArrayPref
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendCharArrayListPref(String key, ArrayList<Character> value) {
+		int length = value.size();
+		char [] array = new char [length];
+		for (int i = 0; i < length; i++) {
+			if(value.get(i)==null)return false;
+			array[i] = value.get(i);
+		}
+		return appendChars(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAYLIST, key, array);
+	}
+	private boolean appendChars(String family, String key, char [] value) {
+		long start = startTimer();
+		try {
+			for (int i = 0; i < value.length; i++) {
+				if(value[i]==value_delimiter.charAt(0)) {
+					return false;
+				}
+			}
+			String internal = family + KEY_DELIMITER + key;
+			lock(internal);
+			boolean exists = contains(internal + KEY_DELIMITER + 0);
+			if(value.length==0&&exists)return true;
+
+			long encoding = startTimer();
+			String stringvalue = encoder.get().encode(value);
+			encoded(family, encoding, stringvalue.length());
+
+			if(exists)appendPref(internal, stringvalue, APPEND_TEXT);
+			else savePref(internal, stringvalue);
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(family, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(family, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
 	/**
 	 * Load preference
 	 * 
@@ -2133,11 +7311,17 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
 	public char loadCharPref(String key, char defValue) {
+		long start = startTimer();
 		try {
 			return loadPref(KEY_CHARACTER + KEY_DELIMITER + key, String.valueOf(defValue)).charAt(0);
 		} catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_CHARACTER, PreferenceMetrics.LOAD, e);
+		}
+		finally {
+			finish();
+			operated(KEY_CHARACTER, PreferenceMetrics.LOAD, start);
 		}
 		return defValue;
 	}
@@ -2149,24 +7333,38 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
 	public char [] loadCharArrayPref(String key, char [] defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, "");
+			String internal = KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			char [] cached = getCached(internal, char[].class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
 			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
 
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
+			TextDecoder decoder = new TextDecoder(stringvalue, value_delimiter);
+			int length = decoder.count();
 
 			char [] value = new char [length];
 			for (int i = 0; i < length; i++) {
-				value[i] = string_array[i].charAt(0); 
+				value[i] = decoder.nextChar(); 
 			}
 
+			decoded(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
 			return value;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
 	/**
@@ -2177,23 +7375,37 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
 	public ArrayList<Character> loadCharArrayListPref(String key, ArrayList<Character> defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, "");
+			String internal = KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key;
+			ArrayList<Character> cached = getCached(internal, ArrayList.class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
 			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
 
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
+			TextDecoder decoder = new TextDecoder(stringvalue, value_delimiter);
+			int length = decoder.count();
 
-			ArrayList<Character> value = new ArrayList<Character>();
+			ArrayList<Character> value = new ArrayList<Character>(length);
 			for (int i = 0; i < length; i++) {
-				value.add(string_array[i].charAt(0));
+				value.add(decoder.nextChar());
 			}			
+			decoded(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAYLIST, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
 			return value;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
 	
@@ -2206,12 +7418,19 @@ public class AdvancedSharedPreferences {
 	public boolean delCharPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
 			value = delPref(KEY_CHARACTER + KEY_DELIMITER + key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_CHARACTER, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_CHARACTER, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
@@ -2224,12 +7443,19 @@ public class AdvancedSharedPreferences {
 	public boolean delCharArrayPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
 			value = delPref(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
@@ -2242,15 +7468,64 @@ public class AdvancedSharedPreferences {
 	public boolean delCharArrayListPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
 			value = delPref(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
+	/**
+	 * Observe preference
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param defValue	Value to pass to the observer, if this preference is deleted.
+	 * @param observer	Receives the new value after every change.
+	 */
+	public void observeCharPref(final String key, final char defValue, PreferenceObserver<Character> observer) {
+		observe(KEY_CHARACTER + KEY_DELIMITER + key, key, observer, new Callable<Character>() {
+			public Character call() {
+				return loadCharPref(key, defValue);
+			}
+		});
+	}
+	/**
+	 * Observe preference
+	 * 
+	 * The observer is notified once per change of the array, not once per saved chunk.
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeCharArrayPref(final String key, PreferenceObserver<char []> observer) {
+		observe(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, key, observer, new Callable<char []>() {
+			public char [] call() {
+				return loadCharArrayPref(key, null);
+			}
+		});
+	}
+	/**
+	 * Observe preference, see observeCharArrayPref
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeCharArrayListPref(final String key, PreferenceObserver<ArrayList<Character>> observer) {
+		observe(KEY_CHARACTER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, key, observer, new Callable<ArrayList<Character>>() {
+			public ArrayList<Character> call() {
+				return loadCharArrayListPref(key, null);
+			}
+		});
+	}
 
 	// STRING
 	/**
@@ -2261,13 +7536,20 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns true if preference is saved.
 	 */
 	public boolean saveStringPref(String key, String value) {		
+		long start = startTimer();
 		try {
 			savePref(KEY_STRING + KEY_DELIMITER + key, value);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_STRING, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_STRING, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
@@ -2279,23 +7561,30 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns true if preference is saved.
 	 */
 	public boolean saveStringArrayPref(String key, String [] value) {		
-		int length = value.length;				
+		long start = startTimer();
 		try {
-			String stringvalue = "";
+			int length = value.length;
 			for (int i = 0; i < length; i++) {
 				if(value[i].contains(value_delimiter)) {
 					if(debug)Log.e(TAG, "The value delimiter \"" + value_delimiter + "\" is not allowed at position " + i + ": \"" + value[i] + "\" in key \"" + key + "\"");
 					return false;
 				}
-				stringvalue += value[i];
-				if(i<length-1)stringvalue += value_delimiter;
 			}
+			long encoding = startTimer();
+			String stringvalue = encoder.get().encode(value);
+			encoded(KEY_STRING + KEY_DELIMITER + KEY_ARRAY, encoding, stringvalue.length());
 			savePref(KEY_STRING + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_STRING + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_STRING + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}	
@@ -2307,27 +7596,89 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns true if preference is saved.
 	 */
 	public boolean saveStringArrayListPref(String key, ArrayList<String> value) {		
-		int length = value.size();				
+		long start = startTimer();
 		try {
-			String stringvalue = "";
+			int length = value.size();
 			for (int i = 0; i < length; i++) {
 				if(value.get(i).contains(value_delimiter)) {
 					if(debug)Log.e(TAG, "The value delimiter " + value_delimiter + " is not allowed at position " + i + ": " + value.get(i) + " in key " + key);
 					return false;
 				}
-				stringvalue += value.get(i);
-				if(i<length-1)stringvalue += value_delimiter;
 			}
+			long encoding = startTimer();
+			String stringvalue = encoder.get().encode(value.toArray());
+			encoded(KEY_STRING + KEY_DELIMITER + KEY_ARRAYLIST, encoding, stringvalue.length());
 			savePref(KEY_STRING + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_STRING + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_STRING + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
 	
+	/**
+	 * Append values to a saved array. Only the last chunk is saved again, so the cost
+	 * depends on the number of appended values, not on the length of the array.
+	 * The array is saved, if it does not exist yet.
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendStringArrayPref(String key, String... value) {
+		return appendStrings(KEY_STRING + KEY_DELIMITER + KEY_ARRAY, key, value);
+	}
+	/**
+	 * Append values to a saved arraylist, see appendStringArrayPref
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendStringArrayListPref(String key, ArrayList<String> value) {
+		return appendStrings(KEY_STRING + KEY_DELIMITER + KEY_ARRAYLIST, key, value.toArray(new String [value.size()]));
+	}
+	private boolean appendStrings(String family, String key, String [] value) {
+		long start = startTimer();
+		try {
+			for (int i = 0; i < value.length; i++) {
+				if(value[i].contains(value_delimiter)) {
+					return false;
+				}
+			}
+			String internal = family + KEY_DELIMITER + key;
+			lock(internal);
+			boolean exists = contains(internal + KEY_DELIMITER + 0);
+			if(value.length==0&&exists)return true;
+
+			long encoding = startTimer();
+			String stringvalue = encoder.get().encode(value);
+			encoded(family, encoding, stringvalue.length());
+
+			if(exists)appendPref(internal, stringvalue, APPEND_TEXT);
+			else savePref(internal, stringvalue);
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(family, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(family, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
 	/**
 	 * Load preference
 	 * 
@@ -2336,11 +7687,17 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
 	public String loadStringPref(String key, String defValue) {
+		long start = startTimer();
 		try {
 			return loadPref(KEY_STRING + KEY_DELIMITER + key, defValue);
 		} catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_STRING, PreferenceMetrics.LOAD, e);
+		}
+		finally {
+			finish();
+			operated(KEY_STRING, PreferenceMetrics.LOAD, start);
 		}
 		return defValue;
 	}
@@ -2352,16 +7709,38 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
 	public String [] loadStringArrayPref(String key, String [] defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_STRING + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, "");
+			String internal = KEY_STRING + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			String [] cached = getCached(internal, String[].class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
 			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
+
+			TextDecoder decoder = new TextDecoder(stringvalue, value_delimiter);
+			int length = decoder.count();
+
+			String [] value = new String [length];
+			for (int i = 0; i < length; i++) {
+				value[i] = decoder.nextString();
+			}
 
-			return stringvalue.split(value_delimiter, -1);
+			decoded(KEY_STRING + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
+			return value;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_STRING + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_STRING + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
 	/**
@@ -2372,23 +7751,37 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
 	public ArrayList<String> loadStringArrayListPref(String key, ArrayList<String> defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_STRING + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, "");
+			String internal = KEY_STRING + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key;
+			ArrayList<String> cached = getCached(internal, ArrayList.class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
 			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
 
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
+			TextDecoder decoder = new TextDecoder(stringvalue, value_delimiter);
+			int length = decoder.count();
 
-			ArrayList<String> value = new ArrayList<String>();
+			ArrayList<String> value = new ArrayList<String>(length);
 			for (int i = 0; i < length; i++) {
-				value.add(string_array[i]);
+				value.add(decoder.nextString());
 			}			
+			decoded(KEY_STRING + KEY_DELIMITER + KEY_ARRAYLIST, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
 			return value;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_STRING + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_STRING + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
 	
@@ -2401,12 +7794,19 @@ public class AdvancedSharedPreferences {
 	public boolean delStringPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
 			value = delPref(KEY_STRING + KEY_DELIMITER + key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_STRING, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_STRING, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
@@ -2419,12 +7819,19 @@ public class AdvancedSharedPreferences {
 	public boolean delStringArrayPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
 			value = delPref(KEY_STRING + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_STRING + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_STRING + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
@@ -2437,15 +7844,138 @@ public class AdvancedSharedPreferences {
 	public boolean delStringArrayListPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
 			value = delPref(KEY_STRING + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_STRING + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_STRING + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
+	/**
+	 * Iterate over the values of a saved array
+	 * 
+	 * The values are decoded, while the iterator is read, and only one chunk of the saved
+	 * value is kept in memory, e.g. to read the first values of a long array or to read
+	 * it once without loading all of it.
+	 * The iterator fails fast with a ConcurrentModificationException, once the preference
+	 * is saved, appended to or deleted.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @return 		Returns an iterator over the values, or null if this preference does not exist.
+	 */
+	public Iterator<String> iterateStringArrayPref(String key) {
+		long start = startTimer();
+		try {
+			CharSequence stringvalue = streamValue(KEY_STRING + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			if(stringvalue==null||stringvalue.length()==0)return null;
+			return iterateStrings(new TextDecoder(stringvalue, value_delimiter));
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_STRING + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_STRING + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
+		return null;
+	}
+	/**
+	 * Iterate over the values of a saved arraylist
+	 * 
+	 * The values are decoded, while the iterator is read, and only one chunk of the saved
+	 * value is kept in memory, e.g. to read the first values of a long arraylist or to read
+	 * it once without loading all of it.
+	 * The iterator fails fast with a ConcurrentModificationException, once the preference
+	 * is saved, appended to or deleted.
+	 * 
+	 * @param key 	The name of the preference to retrieve.
+	 * @return 		Returns an iterator over the values, or null if this preference does not exist.
+	 */
+	public Iterator<String> iterateStringArrayListPref(String key) {
+		long start = startTimer();
+		try {
+			CharSequence stringvalue = streamValue(KEY_STRING + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			if(stringvalue==null||stringvalue.length()==0)return null;
+			return iterateStrings(new TextDecoder(stringvalue, value_delimiter));
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error loading " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_STRING + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
+		}	
+		finally {
+			finish();
+			operated(KEY_STRING + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
+		return null;
+	}
+	private Iterator<String> iterateStrings(final TextDecoder decoder) {
+		return new Iterator<String>() {
+			public boolean hasNext() {
+				return decoder.hasNext();
+			}
+			public String next() {
+				if(!decoder.hasNext())throw new NoSuchElementException();
+				return decoder.nextString();
+			}
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+	/**
+	 * Observe preference
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param defValue	Value to pass to the observer, if this preference is deleted.
+	 * @param observer	Receives the new value after every change.
+	 */
+	public void observeStringPref(final String key, final String defValue, PreferenceObserver<String> observer) {
+		observe(KEY_STRING + KEY_DELIMITER + key, key, observer, new Callable<String>() {
+			public String call() {
+				return loadStringPref(key, defValue);
+			}
+		});
+	}
+	/**
+	 * Observe preference
+	 * 
+	 * The observer is notified once per change of the array, not once per saved chunk.
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeStringArrayPref(final String key, PreferenceObserver<String []> observer) {
+		observe(KEY_STRING + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, key, observer, new Callable<String []>() {
+			public String [] call() {
+				return loadStringArrayPref(key, null);
+			}
+		});
+	}
+	/**
+	 * Observe preference, see observeStringArrayPref
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeStringArrayListPref(final String key, PreferenceObserver<ArrayList<String>> observer) {
+		observe(KEY_STRING + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, key, observer, new Callable<ArrayList<String>>() {
+			public ArrayList<String> call() {
+				return loadStringArrayListPref(key, null);
+			}
+		});
+	}
 
 	// DATE
 	
@@ -2457,14 +7987,20 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns true if preference is saved.
 	 */
 	public boolean saveDatePref(String key, Date value) {
+		long start = startTimer();
 		try {
-			sp_save.putLong(KEY_DATE + KEY_DELIMITER + key, value.getTime());
-			sp_save.commit();
+			putLong(KEY_DATE + KEY_DELIMITER + key, value.getTime());
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DATE, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_DATE, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
@@ -2476,19 +8012,28 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns true if preference is saved.
 	 */
 	public boolean saveDateArrayPref(String key, Date [] value) {		
-		int length = value.length;				
+		long start = startTimer();
 		try {
-			String stringvalue = "";
+			int length = value.length;
+			long [] array = new long [length];
 			for (int i = 0; i < length; i++) {
-				stringvalue += value[i].getTime();
-				if(i<length-1)stringvalue += value_delimiter;
+				array[i] = value[i].getTime();
 			}
+			long encoding = startTimer();
+			String stringvalue = encodeTimes(array);
+			encoded(KEY_DATE + KEY_DELIMITER + KEY_ARRAY, encoding, stringvalue.length());
 			savePref(KEY_DATE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DATE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_DATE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
@@ -2500,23 +8045,67 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns true if preference is saved.
 	 */
 	public boolean saveDateArrayListPref(String key, ArrayList<Date> value) {		
-		int length = value.size();				
+		long start = startTimer();
 		try {
-			String stringvalue = "";
+			int length = value.size();
+			long [] array = new long [length];
 			for (int i = 0; i < length; i++) {
-				stringvalue += value.get(i).getTime();
-				if(i<length-1)stringvalue += value_delimiter;
+				array[i] = value.get(i).getTime();
 			}
+			long encoding = startTimer();
+			String stringvalue = encodeTimes(array);
+			encoded(KEY_DATE + KEY_DELIMITER + KEY_ARRAYLIST, encoding, stringvalue.length());
 			savePref(KEY_DATE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DATE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_DATE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
 	
+	/**
+	 * Append values to a saved array. Only the last chunk is saved again, unless the array
+	 * was saved with ENCODING_TIMESERIES.
+	 * The array is saved, if it does not exist yet.
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendDateArrayPref(String key, Date... value) {
+		if(value==null)return false;
+		int length = value.length;
+		long [] array = new long [length];
+		for (int i = 0; i < length; i++) {
+			if(value[i]==null)return false;
+			array[i] = value[i].getTime();
+		}
+		return appendLongs(KEY_DATE + KEY_DELIMITER + KEY_ARRAY, key, array, length, true);
+	}
+	/**
+	 * Append values to a saved arraylist, see appendDateArrayPref
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendDateArrayListPref(String key, ArrayList<Date> value) {
+		int length = value.size();
+		long [] array = new long [length];
+		for (int i = 0; i < length; i++) {
+			if(value.get(i)==null)return false;
+			array[i] = value.get(i).getTime();
+		}
+		return appendLongs(KEY_DATE + KEY_DELIMITER + KEY_ARRAYLIST, key, array, length, true);
+	}
 	/**
 	 * Load preference
 	 * 
@@ -2525,11 +8114,17 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
 	public Date loadDatePref(String key, Date defValue) {
+		long start = startTimer();
 		try {
-			return new Date((sp_load.getLong(KEY_DATE + KEY_DELIMITER + key, defValue.getTime())));
+			return new Date((getLong(KEY_DATE + KEY_DELIMITER + key, defValue.getTime())));
 		} catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DATE, PreferenceMetrics.LOAD, e);
+		}
+		finally {
+			finish();
+			operated(KEY_DATE, PreferenceMetrics.LOAD, start);
 		}
 		return defValue;
 
@@ -2542,24 +8137,38 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
 	public Date [] loadDateArrayPref(String key, Date [] defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_DATE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, "");
+			String internal = KEY_DATE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			Date [] cached = getCached(internal, Date[].class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
 			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
 
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
+			long [] array = decodeLongs(stringvalue);
+			int length = array.length;
 
 			Date [] value = new Date [length];
 			for (int i = 0; i < length; i++) {
-				value[i] = new Date(Long.parseLong(string_array[i]));
+				value[i] = new Date(array[i]);
 			}
 
+			decoded(KEY_DATE + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
 			return value;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DATE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_DATE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
 	/**
@@ -2570,24 +8179,38 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
 	public ArrayList<Date> loadDateArrayListPref(String key, ArrayList<Date> defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_DATE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, "");
+			String internal = KEY_DATE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key;
+			ArrayList<Date> cached = getCached(internal, ArrayList.class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
 			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
 
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
+			long [] array = decodeLongs(stringvalue);
+			int length = array.length;
 
-			ArrayList<Date> value = new ArrayList<Date>();
+			ArrayList<Date> value = new ArrayList<Date>(length);
 			for (int i = 0; i < length; i++) {
-				value.add(new Date(Long.parseLong(string_array[i])));
+				value.add(new Date(array[i]));
 			}			
 
+			decoded(KEY_DATE + KEY_DELIMITER + KEY_ARRAYLIST, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
 			return value;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DATE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_DATE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
 	
@@ -2600,12 +8223,19 @@ public class AdvancedSharedPreferences {
 	public boolean delDatePref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
 			value = delPref(KEY_DATE + KEY_DELIMITER + key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DATE, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_DATE, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
@@ -2618,12 +8248,19 @@ public class AdvancedSharedPreferences {
 	public boolean delDateArrayPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
 			value = delPref(KEY_DATE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DATE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_DATE + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
@@ -2636,15 +8273,64 @@ public class AdvancedSharedPreferences {
 	public boolean delDateArrayListPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
 			value = delPref(KEY_DATE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_DATE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_DATE + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
+	/**
+	 * Observe preference
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param defValue	Value to pass to the observer, if this preference is deleted.
+	 * @param observer	Receives the new value after every change.
+	 */
+	public void observeDatePref(final String key, final Date defValue, PreferenceObserver<Date> observer) {
+		observe(KEY_DATE + KEY_DELIMITER + key, key, observer, new Callable<Date>() {
+			public Date call() {
+				return loadDatePref(key, defValue);
+			}
+		});
+	}
+	/**
+	 * Observe preference
+	 * 
+	 * The observer is notified once per change of the array, not once per saved chunk.
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeDateArrayPref(final String key, PreferenceObserver<Date []> observer) {
+		observe(KEY_DATE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, key, observer, new Callable<Date []>() {
+			public Date [] call() {
+				return loadDateArrayPref(key, null);
+			}
+		});
+	}
+	/**
+	 * Observe preference, see observeDateArrayPref
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeDateArrayListPref(final String key, PreferenceObserver<ArrayList<Date>> observer) {
+		observe(KEY_DATE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, key, observer, new Callable<ArrayList<Date>>() {
+			public ArrayList<Date> call() {
+				return loadDateArrayListPref(key, null);
+			}
+		});
+	}
 
 	// GREGORIANCALENDAR
 	
@@ -2656,14 +8342,20 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns true if preference is saved.
 	 */
 	public boolean saveGregorianCalendarPref(String key, GregorianCalendar value) {
+		long start = startTimer();
 		try {
-			sp_save.putLong(KEY_GREGORIANCALENDAR + KEY_DELIMITER + key, value.getTimeInMillis());
-			sp_save.commit();
+			putLong(KEY_GREGORIANCALENDAR + KEY_DELIMITER + key, value.getTimeInMillis());
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_GREGORIANCALENDAR, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_GREGORIANCALENDAR, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
@@ -2675,19 +8367,28 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns true if preference is saved.
 	 */
 	public boolean saveGregorianCalendarArrayPref(String key, GregorianCalendar [] value) {		
-		int length = value.length;				
+		long start = startTimer();
 		try {
-			String stringvalue = "";
+			int length = value.length;
+			long [] array = new long [length];
 			for (int i = 0; i < length; i++) {
-				stringvalue += value[i].getTime();
-				if(i<length-1)stringvalue += value_delimiter;
+				array[i] = value[i].getTimeInMillis();
 			}
+			long encoding = startTimer();
+			String stringvalue = encodeTimes(array);
+			encoded(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAY, encoding, stringvalue.length());
 			savePref(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
@@ -2699,23 +8400,67 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns true if preference is saved.
 	 */
 	public boolean saveGregorianCalendarArrayListPref(String key, ArrayList<GregorianCalendar> value) {		
-		int length = value.size();				
+		long start = startTimer();
 		try {
-			String stringvalue = "";
+			int length = value.size();
+			long [] array = new long [length];
 			for (int i = 0; i < length; i++) {
-				stringvalue += value.get(i).getTime();
-				if(i<length-1)stringvalue += value_delimiter;
+				array[i] = value.get(i).getTimeInMillis();
 			}
+			long encoding = startTimer();
+			String stringvalue = encodeTimes(array);
+			encoded(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAYLIST, encoding, stringvalue.length());
 			savePref(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
 	
+	/**
+	 * Append values to a saved array. Only the last chunk is saved again, unless the array
+	 * was saved with ENCODING_TIMESERIES.
+	 * The array is saved, if it does not exist yet.
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendGregorianCalendarArrayPref(String key, GregorianCalendar... value) {
+		if(value==null)return false;
+		int length = value.length;
+		long [] array = new long [length];
+		for (int i = 0; i < length; i++) {
+			if(value[i]==null)return false;
+			array[i] = value[i].getTimeInMillis();
+		}
+		return appendLongs(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAY, key, array, length, true);
+	}
+	/**
+	 * Append values to a saved arraylist, see appendGregorianCalendarArrayPref
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendGregorianCalendarArrayListPref(String key, ArrayList<GregorianCalendar> value) {
+		int length = value.size();
+		long [] array = new long [length];
+		for (int i = 0; i < length; i++) {
+			if(value.get(i)==null)return false;
+			array[i] = value.get(i).getTimeInMillis();
+		}
+		return appendLongs(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAYLIST, key, array, length, true);
+	}
 	/**
 	 * Load preference
 	 * 
@@ -2724,13 +8469,19 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
 	public GregorianCalendar loadGregorianCalendarPref(String key, GregorianCalendar defValue) {
+		long start = startTimer();
 		try {
 			GregorianCalendar value = new GregorianCalendar();
-			value.setTimeInMillis((sp_load.getLong(KEY_GREGORIANCALENDAR + KEY_DELIMITER + key, defValue.getTimeInMillis())));
+			value.setTimeInMillis((getLong(KEY_GREGORIANCALENDAR + KEY_DELIMITER + key, defValue.getTimeInMillis())));
 			return value;
 		} catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_GREGORIANCALENDAR, PreferenceMetrics.LOAD, e);
+		}
+		finally {
+			finish();
+			operated(KEY_GREGORIANCALENDAR, PreferenceMetrics.LOAD, start);
 		}
 		return defValue;
 
@@ -2743,26 +8494,40 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
 	public GregorianCalendar [] loadGregorianCalendarArrayPref(String key, GregorianCalendar [] defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, "");
+			String internal = KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key;
+			GregorianCalendar [] cached = getCached(internal, GregorianCalendar[].class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
 			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
 
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
+			long [] array = decodeLongs(stringvalue);
+			int length = array.length;
 
 			GregorianCalendar [] value = new GregorianCalendar [length];
 			for (int i = 0; i < length; i++) {
 				GregorianCalendar v = new GregorianCalendar();
-				v.setTimeInMillis(Long.parseLong(string_array[i]));
+				v.setTimeInMillis(array[i]);
 				value[i] = v;
 			}
 
+			decoded(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAY, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
 			return value;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
 	/**
@@ -2773,26 +8538,40 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
 	public ArrayList<GregorianCalendar> loadGregorianCalendarArrayListPref(String key, ArrayList<GregorianCalendar> defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, "");
+			String internal = KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key;
+			ArrayList<GregorianCalendar> cached = getCached(internal, ArrayList.class);
+			if(cached!=null)return cached;
+			long stamp = getCacheStamp();
+
+			String stringvalue = loadPref(internal, "");
 			if(stringvalue.length()==0)return defValue;
+			long decoding = startTimer();
 
-			String string_array [] = stringvalue.split(value_delimiter, -1);
-			int length = string_array.length;
+			long [] array = decodeLongs(stringvalue);
+			int length = array.length;
 
-			ArrayList<GregorianCalendar> value = new ArrayList<GregorianCalendar>();
+			ArrayList<GregorianCalendar> value = new ArrayList<GregorianCalendar>(length);
 			for (int i = 0; i < length; i++) {
 				GregorianCalendar v = new GregorianCalendar();
-				v.setTimeInMillis(Long.parseLong(string_array[i]));
+				v.setTimeInMillis(array[i]);
 				value.add(v);
 			}			
 
+			decoded(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAYLIST, decoding, stringvalue.length());
+			putCached(internal, value, stamp);
 			return value;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
 	
@@ -2805,13 +8584,20 @@ public class AdvancedSharedPreferences {
 	public boolean delGregorianCalendarPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
 			value = delPref(KEY_GREGORIANCALENDAR + KEY_DELIMITER + key);
+			commit();
 			return true;
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_GREGORIANCALENDAR, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_GREGORIANCALENDAR, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
@@ -2824,12 +8610,19 @@ public class AdvancedSharedPreferences {
 	public boolean delGregorianCalendarArrayPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
 			value = delPref(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, start);
 		}
 
 		return value;
@@ -2843,15 +8636,64 @@ public class AdvancedSharedPreferences {
 	public boolean delGregorianCalendarArrayListPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
 			value = delPref(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
+	/**
+	 * Observe preference
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param defValue	Value to pass to the observer, if this preference is deleted.
+	 * @param observer	Receives the new value after every change.
+	 */
+	public void observeGregorianCalendarPref(final String key, final GregorianCalendar defValue, PreferenceObserver<GregorianCalendar> observer) {
+		observe(KEY_GREGORIANCALENDAR + KEY_DELIMITER + key, key, observer, new Callable<GregorianCalendar>() {
+			public GregorianCalendar call() {
+				return loadGregorianCalendarPref(key, defValue);
+			}
+		});
+	}
+	/**
+	 * Observe preference
+	 * 
+	 * The observer is notified once per change of the array, not once per saved chunk.
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeGregorianCalendarArrayPref(final String key, PreferenceObserver<GregorianCalendar []> observer) {
+		observe(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, key, observer, new Callable<GregorianCalendar []>() {
+			public GregorianCalendar [] call() {
+				return loadGregorianCalendarArrayPref(key, null);
+			}
+		});
+	}
+	/**
+	 * Observe preference, see observeGregorianCalendarArrayPref
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeGregorianCalendarArrayListPref(final String key, PreferenceObserver<ArrayList<GregorianCalendar>> observer) {
+		observe(KEY_GREGORIANCALENDAR + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, key, observer, new Callable<ArrayList<GregorianCalendar>>() {
+			public ArrayList<GregorianCalendar> call() {
+				return loadGregorianCalendarArrayListPref(key, null);
+			}
+		});
+	}
 
 	// LOCATION
 	
@@ -2863,6 +8705,7 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns true if preference is saved.
 	 */
 	public boolean saveLocationPref(String key, Location value) {
+		long start = startTimer();
 		try {
 
 			String provider = null;
@@ -2891,140 +8734,143 @@ public class AdvancedSharedPreferences {
 
 			savePref(KEY_LOCATION_LATITUDE + KEY_DELIMITER + key, String.valueOf(latitude));
 			savePref(KEY_LOCATION_LONGITUDE + KEY_DELIMITER + key, String.valueOf(longitude));
-			sp_save.putLong(KEY_LOCATION_TIMESTAMP + KEY_DELIMITER + key, timestamp);
+			putLong(KEY_LOCATION_TIMESTAMP + KEY_DELIMITER + key, timestamp);
 
-			sp_save.putFloat(KEY_LOCATION_ACCURACY + KEY_DELIMITER + key, accuracy);
-			sp_save.putFloat(KEY_LOCATION_SPEED + KEY_DELIMITER + key, speed);
-			sp_save.putFloat(KEY_LOCATION_BEARING + KEY_DELIMITER + key, bearing);
+			putFloat(KEY_LOCATION_ACCURACY + KEY_DELIMITER + key, accuracy);
+			putFloat(KEY_LOCATION_SPEED + KEY_DELIMITER + key, speed);
+			putFloat(KEY_LOCATION_BEARING + KEY_DELIMITER + key, bearing);
 			savePref(KEY_LOCATION_ALTITUDE + KEY_DELIMITER + key, String.valueOf(altitude));
 
-			sp_save.commit();
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LOCATION, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_LOCATION, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
+	private boolean saveLocations(String type, String key, Location [] value) throws Exception {
+		String internal = KEY_LOCATION + KEY_DELIMITER + type + KEY_DELIMITER + key;
+
+		long encoding = startTimer();
+		String stringvalue = LocationCodec.encode(value);
+		if(encoding!=0)encoded(getFamily(internal), encoding, stringvalue.length());
+
+		savePref(internal, stringvalue);
+		delLocationColumns(type, key);
+		return true;
+	}
+	private Location [] loadLocations(String type, String key) throws Exception {
+		String internal = KEY_LOCATION + KEY_DELIMITER + type + KEY_DELIMITER + key;
+		Location [] cached = getCached(internal, Location[].class);
+		if(cached!=null)return cached;
+		long stamp = getCacheStamp();
+
+		String stringvalue = loadPref(internal, "");
+		if(stringvalue.length()==0)return loadLocationColumns(type, key);
+		long decoding = startTimer();
+
+		Location [] value = LocationCodec.decode(stringvalue);
+		if(decoding!=0)decoded(getFamily(internal), decoding, stringvalue.length());
+		putCached(internal, value, stamp);
+		return value;
+	}
 	/**
-	 * Save/modify preference
-	 * 
-	 * @param key 	The name of the preference to modify.
-	 * @param value	The new value for the preference.
-	 * @return 		Returns true if preference is saved.
+	 * Earlier versions saved every field in a text array of its own
 	 */
-	public boolean saveLocationArrayPref(String key, Location [] value) {		
-		int length = value.length;				
-		try {		
-			String stringvalue = "";			
+	private Location [] loadLocationColumns(String type, String key) throws Exception {
+		String internal = KEY_LOCATION_PROVIDER + KEY_DELIMITER + type + KEY_DELIMITER + key;
+		Location [] cached = getCached(internal, Location[].class);
+		if(cached!=null)return cached;
+		long stamp = getCacheStamp();
 
-			String provider = null;
-			double latitude = 0;
-			double longitude = 0;
-			long timestamp = 0;
+		String stringvalue = loadPref(internal, "");
+		if(stringvalue.length()==0)return null;
 
-			float accuracy = 0.0f;
-			float speed = 0.0f;
-			float bearing = 0.0f;
-			double altitude = 0.0d;
+		TextDecoder provider = new TextDecoder(stringvalue, value_delimiter);
+		int length = provider.count();
 
-			for (int i = 0; i < length; i++) {
-				try {
-					provider = value[i].getProvider();
-					if(provider.contains(value_delimiter)) {
-						if(debug)Log.e(TAG, "The value delimiter \"" + value_delimiter + "\" is not allowed at position " + i + ": \"" + value[i] + "\" in key \"" + key + "\"");
-						return false;
-					}
-				} catch (Exception e) {}
-				stringvalue += provider;
-				provider = null;
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_LOCATION_PROVIDER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
-			stringvalue = "";
+		TextDecoder latitude = new TextDecoder(loadPref(KEY_LOCATION_LATITUDE + KEY_DELIMITER + type + KEY_DELIMITER + key, ""), value_delimiter);
+		TextDecoder longitude = new TextDecoder(loadPref(KEY_LOCATION_LONGITUDE + KEY_DELIMITER + type + KEY_DELIMITER + key, ""), value_delimiter);
+		TextDecoder timestamp = new TextDecoder(loadPref(KEY_LOCATION_TIMESTAMP + KEY_DELIMITER + type + KEY_DELIMITER + key, ""), value_delimiter);
+		TextDecoder accuracy = new TextDecoder(loadPref(KEY_LOCATION_ACCURACY + KEY_DELIMITER + type + KEY_DELIMITER + key, ""), value_delimiter);
+		TextDecoder speed = new TextDecoder(loadPref(KEY_LOCATION_SPEED + KEY_DELIMITER + type + KEY_DELIMITER + key, ""), value_delimiter);
+		TextDecoder bearing = new TextDecoder(loadPref(KEY_LOCATION_BEARING + KEY_DELIMITER + type + KEY_DELIMITER + key, ""), value_delimiter);
+		TextDecoder altitude = new TextDecoder(loadPref(KEY_LOCATION_ALTITUDE + KEY_DELIMITER + type + KEY_DELIMITER + key, ""), value_delimiter);
 
-			for (int i = 0; i < length; i++) {
-				try {
-					latitude = value[i].getLatitude();
-				} catch (Exception e) {}
-				stringvalue += latitude;
-				latitude = 0;
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_LOCATION_LATITUDE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
-			stringvalue = "";
+		long decoding = startTimer();
+		Location [] value = new Location [length];
 
-			for (int i = 0; i < length; i++) {
-				try {
-					longitude = value[i].getLongitude();
-				} catch (Exception e) {}
-				stringvalue += longitude;
-				longitude = 0;
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_LOCATION_LONGITUDE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
-			stringvalue = "";
+		for (int i = 0; i < length; i++) {
+			Location value_entry = new Location(provider.nextString());
 
-			for (int i = 0; i < length; i++) {
-				try {
-					timestamp = value[i].getTime();
-				} catch (Exception e) {}
-				stringvalue += timestamp;
-				timestamp = 0;
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_LOCATION_TIMESTAMP + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
-			stringvalue = "";
+			value_entry.setLatitude(latitude.nextDouble());
+			value_entry.setLongitude(longitude.nextDouble());
+			value_entry.setTime(timestamp.nextLong());
 
-			for (int i = 0; i < length; i++) {
-				try {
-					accuracy = value[i].getAccuracy();
-				} catch (Exception e) {}
-				stringvalue += accuracy;
-				accuracy = 0;
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_LOCATION_ACCURACY + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
-			stringvalue = "";
+			// Missing values were saved as 0
+			float accuracy_value = accuracy.nextFloat();
+			if(accuracy_value!=0)value_entry.setAccuracy(accuracy_value);
 
-			for (int i = 0; i < length; i++) {
-				try {
-					speed = value[i].getSpeed();
-				} catch (Exception e) {}
-				stringvalue += speed;
-				speed = 0;
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_LOCATION_SPEED + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
-			stringvalue = "";
+			float speed_value = speed.nextFloat();
+			if(speed_value!=0)value_entry.setSpeed(speed_value);
 
-			for (int i = 0; i < length; i++) {
-				try {
-					bearing = value[i].getBearing();
-				} catch (Exception e) {}
-				stringvalue += bearing;
-				bearing = 0;
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_LOCATION_BEARING + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
-			stringvalue = "";
+			float bearing_value = bearing.nextFloat();
+			if(bearing_value!=0)value_entry.setBearing(bearing_value);
 
-			for (int i = 0; i < length; i++) {
-				try {
-					altitude = value[i].getAltitude();
-				} catch (Exception e) {}
-				stringvalue += altitude;
-				altitude = 0;
-				if(i<length-1)stringvalue += value_delimiter;
-			}
+			double altitude_value = altitude.nextDouble();
+			if(altitude_value!=0)value_entry.setAltitude(altitude_value);
 
-			savePref(KEY_LOCATION_ALTITUDE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, stringvalue);
+			value[i] = value_entry;
+		}
+
+		if(decoding!=0)decoded(getFamily(internal), decoding, stringvalue.length());
+		putCached(internal, value, stamp);
+		return value;
+	}
+	private boolean delLocations(String type, String key) throws Exception {
+		boolean value = delPref(KEY_LOCATION + KEY_DELIMITER + type + KEY_DELIMITER + key);
+		if(delLocationColumns(type, key))value = true;
+		return value;
+	}
+	private boolean delLocationColumns(String type, String key) throws Exception {
+		String provider = KEY_LOCATION_PROVIDER + KEY_DELIMITER + type + KEY_DELIMITER + key;
+		if(!contains(provider + KEY_DELIMITER + KEY_CHUNKS)&&!contains(provider + KEY_DELIMITER + 0)&&!contains(provider))return false;
+
+		delPref(provider);
+		for (String family : LOCATION_FAMILIES) {
+			delPref(family + KEY_DELIMITER + type + KEY_DELIMITER + key);
+		}
+		return true;
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean saveLocationArrayPref(String key, Location [] value) {		
+		long start = startTimer();
+		try {		
+			if(!saveLocations(KEY_ARRAY, key, value))return false;
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LOCATION + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_LOCATION + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
@@ -3036,120 +8882,86 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns true if preference is saved.
 	 */
 	public boolean saveLocationArrayListPref(String key, ArrayList<Location> value) {		
-		int length = value.size();				
+		long start = startTimer();
 		try {		
-			String stringvalue = "";			
-
-			String provider = null;
-			double latitude = 0;
-			double longitude = 0;
-			long timestamp = 0;
-
-			float accuracy = 0.0f;
-			float speed = 0.0f;
-			float bearing = 0.0f;
-			double altitude = 0.0d;
-
-			for (int i = 0; i < length; i++) {
-				try {
-					provider = value.get(i).getProvider();
-					if(provider.contains(value_delimiter)) {
-						if(debug)Log.e(TAG, "The value delimiter \"" + value_delimiter + "\" is not allowed at position " + i + ": \"" + value.get(i) + "\" in key \"" + key + "\"");
-						return false;
-					}
-				} catch (Exception e) {}
-
-				stringvalue += provider;
-				provider = "";
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_LOCATION_PROVIDER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
-			stringvalue = null;
-
-			for (int i = 0; i < length; i++) {
-				try {
-					latitude = value.get(i).getLatitude();
-				} catch (Exception e) {}
-				stringvalue += latitude;
-				latitude = 0;
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_LOCATION_LATITUDE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
-			stringvalue = "";
-
-			for (int i = 0; i < length; i++) {
-				try {
-					longitude = value.get(i).getLongitude();
-				} catch (Exception e) {}
-				stringvalue += longitude;
-				longitude = 0;
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_LOCATION_LONGITUDE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
-			stringvalue = "";
-
-			for (int i = 0; i < length; i++) {
-				try {
-					timestamp = value.get(i).getTime();
-				} catch (Exception e) {}
-				stringvalue += timestamp;
-				timestamp = 0;
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_LOCATION_TIMESTAMP + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
-			stringvalue = "";
-
-			for (int i = 0; i < length; i++) {
-				try {
-					accuracy = value.get(i).getAccuracy();
-				} catch (Exception e) {}
-				stringvalue += accuracy;
-				accuracy = 0;
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_LOCATION_ACCURACY + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
-			stringvalue = "";
-
-			for (int i = 0; i < length; i++) {
-				try {
-					speed = value.get(i).getSpeed();
-				} catch (Exception e) {}
-				stringvalue += speed;
-				speed = 0;
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_LOCATION_SPEED + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
-			stringvalue = "";
-
-			for (int i = 0; i < length; i++) {
-				try {
-					bearing = value.get(i).getBearing();
-				} catch (Exception e) {}
-				stringvalue += bearing;
-				bearing = 0;
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_LOCATION_BEARING + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
-			stringvalue = "";
-
-			for (int i = 0; i < length; i++) {
-				try {
-					altitude = value.get(i).getAltitude();
-				} catch (Exception e) {}
-				stringvalue += altitude;
-				altitude = 0;
-				if(i<length-1)stringvalue += value_delimiter;
-			}
-			savePref(KEY_LOCATION_ALTITUDE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, stringvalue);
+			if(!saveLocations(KEY_ARRAYLIST, key, value.toArray(new Location [value.size()])))return false;
+			commit();
 			return true;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error saving " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LOCATION + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_LOCATION + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, start);
 		}
 		return false;
 	}
 	
+	/**
+	 * Append values to a saved array. Location arrays are saved as one binary track, which
+	 * is saved again as a whole.
+	 * The array is saved, if it does not exist yet.
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendLocationArrayPref(String key, Location... value) {
+		long start = startTimer();
+		try {
+			if(!appendLocations(KEY_ARRAY, key, value))return false;
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LOCATION + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_LOCATION + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
+	/**
+	 * Append values to a saved arraylist, see appendLocationArrayPref
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns true if preference is saved.
+	 */
+	public boolean appendLocationArrayListPref(String key, ArrayList<Location> value) {
+		long start = startTimer();
+		try {
+			if(!appendLocations(KEY_ARRAYLIST, key, value.toArray(new Location [value.size()])))return false;
+			commit();
+			return true;
+		} 
+		catch (Exception e) {
+			if(debug)Log.e(TAG, "Error saving " + key);
+			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LOCATION + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_LOCATION + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.SAVE, start);
+		}
+		return false;
+	}
+	private boolean appendLocations(String type, String key, Location [] value) throws Exception {
+		lock(KEY_LOCATION + KEY_DELIMITER + type + KEY_DELIMITER + key);
+		Location [] existing = loadLocations(type, key);
+		if(existing==null)return saveLocations(type, key, value);
+
+		Location [] array = new Location [existing.length + value.length];
+		System.arraycopy(existing, 0, array, 0, existing.length);
+		System.arraycopy(value, 0, array, existing.length, value.length);
+		return saveLocations(type, key, array);
+	}
 	/**
 	 * Load preference
 	 * 
@@ -3158,42 +8970,36 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
 	public Location loadLocationPref(String key, Location defValue) {
+		long start = startTimer();
 		try {
 
-			String provider = null;
-			double latitude = 0;
-			double longitude = 0;
-			long timestamp = 0;
-
-			float accuracy = 0.0f;
-			float speed = 0.0f;
-			float bearing = 0.0f;
-			double altitude = 0.0d;
+			// The timestamp is saved for every location, the provider may be null
+			if(!contains(KEY_LOCATION_TIMESTAMP + KEY_DELIMITER + key))return defValue;
 
-			try {
-				provider = defValue.getProvider();
-				latitude = defValue.getLatitude();
-				longitude = defValue.getLongitude();
-				timestamp = defValue.getTime();
-				accuracy = defValue.getAccuracy();
-				speed = defValue.getSpeed();
-				bearing = defValue.getBearing();
-				altitude = defValue.getAltitude();
-			} catch (Exception e) {}
+			Location value = new Location(loadPref(KEY_LOCATION_PROVIDER + KEY_DELIMITER + key, null));
+			value.setLatitude(Double.parseDouble(loadPref(KEY_LOCATION_LATITUDE + KEY_DELIMITER + key, "0")));
+			value.setLongitude(Double.parseDouble(loadPref(KEY_LOCATION_LONGITUDE + KEY_DELIMITER + key, "0")));
+			value.setTime(getLong(KEY_LOCATION_TIMESTAMP + KEY_DELIMITER + key, 0));
 
-			Location value = new Location(loadPref(KEY_LOCATION_PROVIDER + KEY_DELIMITER + key, provider));
-			if(latitude>0)value.setLatitude(latitude);
-			if(longitude>0)value.setLongitude(longitude);
-			if(timestamp>0)value.setTime(timestamp);
-			if(accuracy>0)value.setAccuracy(accuracy);
-			if(speed>0)value.setSpeed(speed);
-			if(bearing>0)value.setBearing(bearing);
-			if(altitude>0)value.setAltitude(altitude);
+			// Missing values are saved as 0
+			float accuracy = getFloat(KEY_LOCATION_ACCURACY + KEY_DELIMITER + key, 0);
+			if(accuracy!=0)value.setAccuracy(accuracy);
+			float speed = getFloat(KEY_LOCATION_SPEED + KEY_DELIMITER + key, 0);
+			if(speed!=0)value.setSpeed(speed);
+			float bearing = getFloat(KEY_LOCATION_BEARING + KEY_DELIMITER + key, 0);
+			if(bearing!=0)value.setBearing(bearing);
+			double altitude = Double.parseDouble(loadPref(KEY_LOCATION_ALTITUDE + KEY_DELIMITER + key, "0"));
+			if(altitude!=0)value.setAltitude(altitude);
 
 			return value;
 		} catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LOCATION, PreferenceMetrics.LOAD, e);
+		}
+		finally {
+			finish();
+			operated(KEY_LOCATION, PreferenceMetrics.LOAD, start);
 		}
 		return defValue;
 
@@ -3206,69 +9012,22 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
 	public Location [] loadLocationArrayPref(String key, Location [] defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_LOCATION_PROVIDER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, "");
-			if(stringvalue.length()==0)return defValue;
-
-			String location_provider_array [] = stringvalue.split(value_delimiter, -1);
-			int length = location_provider_array.length;
-
-			stringvalue = loadPref(KEY_LOCATION_LATITUDE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, "");
-			String location_latitude_array [] = stringvalue.split(value_delimiter, -1);
-
-			stringvalue = loadPref(KEY_LOCATION_LONGITUDE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, "");
-			String location_longitude_array [] = stringvalue.split(value_delimiter, -1);
-
-			stringvalue = loadPref(KEY_LOCATION_TIMESTAMP + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, "");
-			String location_timestamp_array [] = stringvalue.split(value_delimiter, -1);
-
-			stringvalue = loadPref(KEY_LOCATION_ACCURACY + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, "");
-			String location_accuracy_array [] = stringvalue.split(value_delimiter, -1);
-
-			stringvalue = loadPref(KEY_LOCATION_SPEED + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, "");
-			String location_speed_array [] = stringvalue.split(value_delimiter, -1);
-
-			stringvalue = loadPref(KEY_LOCATION_BEARING + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, "");
-			String location_bearing_array [] = stringvalue.split(value_delimiter, -1);
-
-			stringvalue = loadPref(KEY_LOCATION_ALTITUDE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, "");
-			String location_altitude_array [] = stringvalue.split(value_delimiter, -1);
-
-			Location [] value = new Location [length];
-
-			for (int i = 0; i < length; i++) {
-				Location value_entry = new Location(location_provider_array[i]);
-
-				double latitude = Double.parseDouble(location_latitude_array[i]);
-				if(latitude>0)value_entry.setLatitude(latitude);
-
-				double longitude = Double.parseDouble(location_longitude_array[i]);
-				if(longitude>0)value_entry.setLongitude(longitude);
-
-				long timestamp = Long.parseLong(location_timestamp_array[i]);
-				if(timestamp>0)value_entry.setTime(timestamp);
-
-				float accuracy = Float.parseFloat(location_accuracy_array[i]);
-				if(accuracy>0)value_entry.setAccuracy(accuracy);
-
-				float speed = Float.parseFloat(location_speed_array[i]);
-				if(speed>0)value_entry.setSpeed(speed);
-
-				float bearing = Float.parseFloat(location_bearing_array[i]);
-				if(bearing>0)value_entry.setBearing(bearing);
-
-				double altitude = Double.parseDouble(location_altitude_array[i]);
-				if(altitude>0)value_entry.setAltitude(altitude);
-
-				value[i] = value_entry;
-			}
+			Location [] value = loadLocations(KEY_ARRAY, key);
+			if(value==null)return defValue;
 
 			return value;
 		} 
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LOCATION + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_LOCATION + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
 	/**
@@ -3279,61 +9038,15 @@ public class AdvancedSharedPreferences {
 	 * @return 		Returns the preference value if it exists, or defValue.
 	 */
 	public ArrayList<Location> loadLocationArrayPref(String key, ArrayList<Location> defValue) {
+		long start = startTimer();
 		try {
-			String stringvalue = loadPref(KEY_LOCATION_PROVIDER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, "");
-			if(stringvalue.length()==0)return defValue;
-
-			String location_provider_array [] = stringvalue.split(value_delimiter, -1);
-			int length = location_provider_array.length;
-
-			stringvalue = loadPref(KEY_LOCATION_LATITUDE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, "");
-			String location_latitude_array [] = stringvalue.split(value_delimiter, -1);
-
-			stringvalue = loadPref(KEY_LOCATION_LONGITUDE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, "");
-			String location_longitude_array [] = stringvalue.split(value_delimiter, -1);
-
-			stringvalue = loadPref(KEY_LOCATION_TIMESTAMP + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, "");
-			String location_timestamp_array [] = stringvalue.split(value_delimiter, -1);
-
-			stringvalue = loadPref(KEY_LOCATION_ACCURACY + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, "");
-			String location_accuracy_array [] = stringvalue.split(value_delimiter, -1);
-
-			stringvalue = loadPref(KEY_LOCATION_SPEED + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, "");
-			String location_speed_array [] = stringvalue.split(value_delimiter, -1);
-
-			stringvalue = loadPref(KEY_LOCATION_BEARING + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, "");
-			String location_bearing_array [] = stringvalue.split(value_delimiter, -1);
-
-			stringvalue = loadPref(KEY_LOCATION_ALTITUDE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, "");
-			String location_altitude_array [] = stringvalue.split(value_delimiter, -1);
-
-			ArrayList<Location> value = new ArrayList<Location>();
+			Location [] array = loadLocations(KEY_ARRAYLIST, key);
+			if(array==null)return defValue;
 
+			int length = array.length;
+			ArrayList<Location> value = new ArrayList<Location>(length);
 			for (int i = 0; i < length; i++) {
-				Location value_entry = new Location(location_provider_array[i]);
-
-				double latitude = Double.parseDouble(location_latitude_array[i]);
-				if(latitude>0)value_entry.setLatitude(latitude);
-
-				double longitude = Double.parseDouble(location_longitude_array[i]);
-				if(longitude>0)value_entry.setLongitude(longitude);
-
-				long timestamp = Long.parseLong(location_timestamp_array[i]);
-				if(timestamp>0)value_entry.setTime(timestamp);
-
-				float accuracy = Float.parseFloat(location_accuracy_array[i]);
-				if(accuracy>0)value_entry.setAccuracy(accuracy);
-
-				float speed = Float.parseFloat(location_speed_array[i]);
-				if(speed>0)value_entry.setSpeed(speed);
-
-				float bearing = Float.parseFloat(location_bearing_array[i]);
-				if(bearing>0)value_entry.setBearing(bearing);
-
-				double altitude = Double.parseDouble(location_altitude_array[i]);
-				if(altitude>0)value_entry.setAltitude(altitude);
-
-				value.add(value_entry);
+				value.add(array[i]);
 			}
 
 			return value;
@@ -3341,7 +9054,12 @@ public class AdvancedSharedPreferences {
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error loading " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LOCATION + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, e);
 		}	
+		finally {
+			finish();
+			operated(KEY_LOCATION + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.LOAD, start);
+		}
 		return defValue;
 	}
 	
@@ -3354,6 +9072,7 @@ public class AdvancedSharedPreferences {
 	public boolean delLocationPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
 			value = delPref(KEY_LOCATION_PROVIDER + KEY_DELIMITER + key);
 			value = delPref(KEY_LOCATION_LATITUDE + KEY_DELIMITER + key);
@@ -3363,10 +9082,16 @@ public class AdvancedSharedPreferences {
 			value = delPref(KEY_LOCATION_SPEED + KEY_DELIMITER + key);
 			value = delPref(KEY_LOCATION_BEARING + KEY_DELIMITER + key);
 			value = delPref(KEY_LOCATION_ALTITUDE + KEY_DELIMITER + key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LOCATION, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_LOCATION, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
@@ -3379,19 +9104,19 @@ public class AdvancedSharedPreferences {
 	public boolean delLocationArrayPref(String key) {
 		boolean value = false;
 
+		long start = startTimer();
 		try {
-			value = delPref(KEY_LOCATION_PROVIDER + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
-			value = delPref(KEY_LOCATION_LATITUDE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
-			value = delPref(KEY_LOCATION_LONGITUDE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
-			value = delPref(KEY_LOCATION_TIMESTAMP + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
-			value = delPref(KEY_LOCATION_ACCURACY + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
-			value = delPref(KEY_LOCATION_SPEED + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
-			value = delPref(KEY_LOCATION_BEARING + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
-			value = delPref(KEY_LOCATION_ALTITUDE + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key);
+			value = delLocations(KEY_ARRAY, key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LOCATION + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_LOCATION + KEY_DELIMITER + KEY_ARRAY, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
@@ -3404,19 +9129,62 @@ public class AdvancedSharedPreferences {
 	public boolean delLocationArrayListPref(String key) {		
 		boolean value = false;
 
+		long start = startTimer();
 		try {
-			value = delPref(KEY_LOCATION_PROVIDER + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
-			value = delPref(KEY_LOCATION_LATITUDE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
-			value = delPref(KEY_LOCATION_TIMESTAMP + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
-			value = delPref(KEY_LOCATION_ACCURACY + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
-			value = delPref(KEY_LOCATION_SPEED + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
-			value = delPref(KEY_LOCATION_BEARING + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
-			value = delPref(KEY_LOCATION_ALTITUDE + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key);
+			value = delLocations(KEY_ARRAYLIST, key);
+			commit();
 		}
 		catch (Exception e) {
 			if(debug)Log.e(TAG, "Error deleting " + key);
 			if(PRINT_E)Log.e(TAG, "Exception", e);
+			failed(KEY_LOCATION + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, e);
+		}
+		finally {
+			finish();
+			operated(KEY_LOCATION + KEY_DELIMITER + KEY_ARRAYLIST, PreferenceMetrics.DELETE, start);
 		}
 		return value;
 	}
+	/**
+	 * Observe preference
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param defValue	Value to pass to the observer, if this preference is deleted.
+	 * @param observer	Receives the new value after every change.
+	 */
+	public void observeLocationPref(final String key, final Location defValue, PreferenceObserver<Location> observer) {
+		observe(KEY_LOCATION_PROVIDER + KEY_DELIMITER + key, key, observer, new Callable<Location>() {
+			public Location call() {
+				return loadLocationPref(key, defValue);
+			}
+		});
+	}
+	/**
+	 * Observe preference
+	 * 
+	 * The observer is notified once per change of the array, not once per saved chunk.
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeLocationArrayPref(final String key, PreferenceObserver<Location []> observer) {
+		observe(KEY_LOCATION + KEY_DELIMITER + KEY_ARRAY + KEY_DELIMITER + key, key, observer, new Callable<Location []>() {
+			public Location [] call() {
+				return loadLocationArrayPref(key, (Location []) null);
+			}
+		});
+	}
+	/**
+	 * Observe preference, see observeLocationArrayPref
+	 * 
+	 * @param key 	The name of the preference to observe.
+	 * @param observer	Receives the new value after every change, or null if the preference is deleted.
+	 */
+	public void observeLocationArrayListPref(final String key, PreferenceObserver<ArrayList<Location>> observer) {
+		observe(KEY_LOCATION + KEY_DELIMITER + KEY_ARRAYLIST + KEY_DELIMITER + key, key, observer, new Callable<ArrayList<Location>>() {
+			public ArrayList<Location> call() {
+				return loadLocationArrayPref(key, (ArrayList<Location>) null);
+			}
+		});
+	}
 }
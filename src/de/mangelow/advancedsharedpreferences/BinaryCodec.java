@@ -0,0 +1,678 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.math.BigInteger;
+
+/**
+ * Packs primitive and BigInteger arrays into Base64 text.
+ *
+ * A value starts with a four character header: '~', the format version,
+ * the element type and the encoding, e.g. "~1IP" for packed ints. Values
+ * are little-endian with a fixed width, booleans are packed eight per byte
+ * behind a byte holding the number of unused bits, and the varint encoding
+ * stores zigzag varints for short, int and long. A BigInteger is stored as
+ * the varint length of its two's-complement bytes, big-endian like
+ * BigInteger.toByteArray(), followed by the bytes; null has length 0.
+ *
+ * Time series start with the varint number of values followed by a bit
+ * stream, most significant bit first. The delta-of-delta encoding of
+ * longs stores the first value in 64 bits, then the zigzag difference of
+ * each delta to the previous one: '0' for none, otherwise a prefix of
+ * ones selecting the width (see DELTA_OF_DELTA_BITS). The XOR encoding of
+ * doubles (Gorilla) stores the first value in 64 bits, then '0' for an
+ * unchanged value, '10' and the meaningful bits of the XOR to the
+ * previous value if they fit into the previous window, or '11', 5 bits of
+ * leading zeros, 6 bits of length - 1 and the meaningful bits.
+ *
+ * Text encoded arrays never start with '~', so both formats can be told
+ * apart on load.
+ *
+ * The header keeps the value aligned to Base64 quanta, i.e. every four
+ * characters decode to three bytes independent of the chunk they are in.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+final class BinaryCodec {
+
+	static final int HEADER_LENGTH = 4;
+
+	private static final char MARKER = '~';
+	private static final char VERSION = '1';
+
+	static final char TYPE_BOOLEAN = 'Z';
+	static final char TYPE_BYTE = 'B';
+	static final char TYPE_SHORT = 'S';
+	static final char TYPE_INTEGER = 'I';
+	static final char TYPE_LONG = 'J';
+	static final char TYPE_FLOAT = 'F';
+	static final char TYPE_DOUBLE = 'D';
+	static final char TYPE_BIGINTEGER = 'N';
+	static final char TYPE_LOCATION = 'L';
+
+	static final char PACKED = 'P';
+	static final char VARINT = 'V';
+	static final char DELTA_OF_DELTA = 'T';
+	static final char XOR = 'X';
+
+	// Value bits of the delta-of-delta buckets '10', '110', '1110', '11110' and '11111'
+	static final int [] DELTA_OF_DELTA_BITS = {7, 9, 12, 20, 64};
+
+	private static final char [] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+	static final byte [] VALUES = new byte [128];
+	static {
+		for (int i = 0; i < VALUES.length; i++) {
+			VALUES[i] = -1;
+		}
+		for (int i = 0; i < ALPHABET.length; i++) {
+			VALUES[ALPHABET[i]] = (byte) i;
+		}
+	}
+
+	private BinaryCodec() {}
+
+	/**
+	 * @return Returns true, if the value starts with a binary header.
+	 */
+	static boolean isEncoded(CharSequence value) {
+		return value.length()>=HEADER_LENGTH&&value.charAt(0)==MARKER;
+	}
+
+	// ENCODING
+
+	static String encode(boolean [] value) {
+		return encode(value, value.length);
+	}
+	static String encode(boolean [] value, int length) {
+		byte [] bytes = new byte [1 + (length + 7) / 8];
+		bytes[0] = (byte) ((8 - length % 8) % 8);
+		for (int i = 0; i < length; i++) {
+			if(value[i])bytes[1 + (i >> 3)] |= 1 << (i & 7);
+		}
+		return toBase64(TYPE_BOOLEAN, PACKED, bytes, bytes.length);
+	}
+	static String encode(byte [] value) {
+		return encode(value, value.length);
+	}
+	static String encode(byte [] value, int length) {
+		return toBase64(TYPE_BYTE, PACKED, value, length);
+	}
+	static String encode(short [] value, boolean varint) {
+		return encode(value, value.length, varint);
+	}
+	static String encode(short [] value, int length, boolean varint) {
+		if(varint) {
+			byte [] bytes = new byte [length * 3];
+			int position = 0;
+			for (int i = 0; i < length; i++) {
+				position = putVarint(bytes, position, value[i]);
+			}
+			return toBase64(TYPE_SHORT, VARINT, bytes, position);
+		}
+		byte [] bytes = new byte [length * 2];
+		for (int i = 0, j = 0; i < length; i++, j += 2) {
+			putShort(bytes, j, value[i]);
+		}
+		return toBase64(TYPE_SHORT, PACKED, bytes, bytes.length);
+	}
+	static String encode(int [] value, boolean varint) {
+		return encode(value, value.length, varint);
+	}
+	static String encode(int [] value, int length, boolean varint) {
+		if(varint) {
+			byte [] bytes = new byte [length * 5];
+			int position = 0;
+			for (int i = 0; i < length; i++) {
+				position = putVarint(bytes, position, value[i]);
+			}
+			return toBase64(TYPE_INTEGER, VARINT, bytes, position);
+		}
+		byte [] bytes = new byte [length * 4];
+		for (int i = 0, j = 0; i < length; i++, j += 4) {
+			putInt(bytes, j, value[i]);
+		}
+		return toBase64(TYPE_INTEGER, PACKED, bytes, bytes.length);
+	}
+	static String encode(long [] value, boolean varint) {
+		return encode(value, value.length, varint);
+	}
+	static String encode(long [] value, int length, boolean varint) {
+		if(varint) {
+			byte [] bytes = new byte [length * 10];
+			int position = 0;
+			for (int i = 0; i < length; i++) {
+				position = putVarint(bytes, position, value[i]);
+			}
+			return toBase64(TYPE_LONG, VARINT, bytes, position);
+		}
+		byte [] bytes = new byte [length * 8];
+		for (int i = 0, j = 0; i < length; i++, j += 8) {
+			putLong(bytes, j, value[i]);
+		}
+		return toBase64(TYPE_LONG, PACKED, bytes, bytes.length);
+	}
+	static String encode(float [] value) {
+		return encode(value, value.length);
+	}
+	static String encode(float [] value, int length) {
+		byte [] bytes = new byte [length * 4];
+		for (int i = 0, j = 0; i < length; i++, j += 4) {
+			putInt(bytes, j, Float.floatToIntBits(value[i]));
+		}
+		return toBase64(TYPE_FLOAT, PACKED, bytes, bytes.length);
+	}
+	static String encode(double [] value) {
+		return encode(value, value.length);
+	}
+	static String encode(double [] value, int length) {
+		byte [] bytes = new byte [length * 8];
+		for (int i = 0, j = 0; i < length; i++, j += 8) {
+			putLong(bytes, j, Double.doubleToLongBits(value[i]));
+		}
+		return toBase64(TYPE_DOUBLE, PACKED, bytes, bytes.length);
+	}
+	static String encode(BigInteger [] value) {
+		int length = value.length;
+		byte [][] elements = new byte [length][];
+		int size = 0;
+		for (int i = 0; i < length; i++) {
+			if(value[i]==null) {
+				size++;
+				continue;
+			}
+			elements[i] = value[i].toByteArray();
+			size += 5 + elements[i].length;
+		}
+
+		byte [] bytes = new byte [size];
+		int position = 0;
+		for (int i = 0; i < length; i++) {
+			if(elements[i]==null) {
+				position = putVarint(bytes, position, 0);
+				continue;
+			}
+			position = putVarint(bytes, position, elements[i].length);
+			System.arraycopy(elements[i], 0, bytes, position, elements[i].length);
+			position += elements[i].length;
+		}
+		return toBase64(TYPE_BIGINTEGER, PACKED, bytes, position);
+	}
+
+	static String encodeDeltaOfDelta(long [] value, int length) {
+		byte [] bytes = new byte [5 + length * 9];
+		long position = putVarint(bytes, 0, length) * 8L;
+
+		long previous = 0;
+		long delta = 0;
+		for (int i = 0; i < length; i++) {
+			if(i==0) {
+				position = putBits(bytes, position, value[0], 64);
+				previous = value[0];
+				continue;
+			}
+			long current = value[i] - previous;
+			long zigzag = ((current - delta) << 1) ^ ((current - delta) >> 63);
+			if(zigzag==0)position = putBits(bytes, position, 0, 1);
+			else {
+				int bucket = 0;
+				while (bucket<DELTA_OF_DELTA_BITS.length - 1&&zigzag>>>DELTA_OF_DELTA_BITS[bucket]!=0)bucket++;
+				if(bucket<DELTA_OF_DELTA_BITS.length - 1)position = putBits(bytes, position, ((1 << (bucket + 1)) - 1) << 1, bucket + 2);
+				else position = putBits(bytes, position, (1 << DELTA_OF_DELTA_BITS.length) - 1, DELTA_OF_DELTA_BITS.length);
+				position = putBits(bytes, position, zigzag, DELTA_OF_DELTA_BITS[bucket]);
+			}
+			previous = value[i];
+			delta = current;
+		}
+		return toBase64(TYPE_LONG, DELTA_OF_DELTA, bytes, (int) ((position + 7) >>> 3));
+	}
+	static String encodeXor(double [] value, int length) {
+		byte [] bytes = new byte [5 + length * 10];
+		long position = putVarint(bytes, 0, length) * 8L;
+
+		long previous = 0;
+		int leading = -1;
+		int trailing = 0;
+		for (int i = 0; i < length; i++) {
+			long bits = Double.doubleToLongBits(value[i]);
+			if(i==0) {
+				position = putBits(bytes, position, bits, 64);
+				previous = bits;
+				continue;
+			}
+			long xor = bits ^ previous;
+			previous = bits;
+			if(xor==0) {
+				position = putBits(bytes, position, 0, 1);
+				continue;
+			}
+
+			int current_leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+			int current_trailing = Long.numberOfTrailingZeros(xor);
+			if(leading>=0&&current_leading>=leading&&current_trailing>=trailing) {
+				position = putBits(bytes, position, 2, 2);
+				position = putBits(bytes, position, xor >>> trailing, 64 - leading - trailing);
+				continue;
+			}
+			leading = current_leading;
+			trailing = current_trailing;
+			position = putBits(bytes, position, 3, 2);
+			position = putBits(bytes, position, leading, 5);
+			position = putBits(bytes, position, 64 - leading - trailing - 1, 6);
+			position = putBits(bytes, position, xor >>> trailing, 64 - leading - trailing);
+		}
+		return toBase64(TYPE_DOUBLE, XOR, bytes, (int) ((position + 7) >>> 3));
+	}
+
+	// DECODING
+
+	static boolean [] decodeBooleans(CharSequence value) {
+		byte [] bytes = fromBase64(value, TYPE_BOOLEAN);
+		if(bytes.length==0||bytes[0]<0||bytes[0]>7)throw malformed(value);
+
+		int length = (bytes.length - 1) * 8 - bytes[0];
+		if(length<0)throw malformed(value);
+
+		boolean [] result = new boolean [length];
+		for (int i = 0; i < length; i++) {
+			result[i] = (bytes[1 + (i >> 3)] & (1 << (i & 7)))!=0;
+		}
+		return result;
+	}
+	static byte [] decodeBytes(CharSequence value) {
+		return fromBase64(value, TYPE_BYTE);
+	}
+	static short [] decodeShorts(CharSequence value) {
+		byte [] bytes = fromBase64(value, TYPE_SHORT);
+		if(value.charAt(3)==VARINT) {
+			long [] longs = getVarints(bytes, value);
+			short [] result = new short [longs.length];
+			for (int i = 0; i < longs.length; i++) {
+				if(longs[i]<Short.MIN_VALUE||longs[i]>Short.MAX_VALUE)throw malformed(value);
+				result[i] = (short) longs[i];
+			}
+			return result;
+		}
+		if(bytes.length % 2!=0)throw malformed(value);
+
+		short [] result = new short [bytes.length / 2];
+		for (int i = 0, j = 0; i < result.length; i++, j += 2) {
+			result[i] = getShort(bytes, j);
+		}
+		return result;
+	}
+	static int [] decodeIntegers(CharSequence value) {
+		byte [] bytes = fromBase64(value, TYPE_INTEGER);
+		if(value.charAt(3)==VARINT) {
+			long [] longs = getVarints(bytes, value);
+			int [] result = new int [longs.length];
+			for (int i = 0; i < longs.length; i++) {
+				if(longs[i]<Integer.MIN_VALUE||longs[i]>Integer.MAX_VALUE)throw malformed(value);
+				result[i] = (int) longs[i];
+			}
+			return result;
+		}
+		if(bytes.length % 4!=0)throw malformed(value);
+
+		int [] result = new int [bytes.length / 4];
+		for (int i = 0, j = 0; i < result.length; i++, j += 4) {
+			result[i] = getInt(bytes, j);
+		}
+		return result;
+	}
+	static long [] decodeLongs(CharSequence value) {
+		byte [] bytes = fromBase64(value, TYPE_LONG);
+		if(value.charAt(3)==VARINT)return getVarints(bytes, value);
+		if(value.charAt(3)==DELTA_OF_DELTA)return getDeltaOfDeltas(bytes, value);
+		if(bytes.length % 8!=0)throw malformed(value);
+
+		long [] result = new long [bytes.length / 8];
+		for (int i = 0, j = 0; i < result.length; i++, j += 8) {
+			result[i] = getLong(bytes, j);
+		}
+		return result;
+	}
+	static float [] decodeFloats(CharSequence value) {
+		byte [] bytes = fromBase64(value, TYPE_FLOAT);
+		if(bytes.length % 4!=0)throw malformed(value);
+
+		float [] result = new float [bytes.length / 4];
+		for (int i = 0, j = 0; i < result.length; i++, j += 4) {
+			result[i] = Float.intBitsToFloat(getInt(bytes, j));
+		}
+		return result;
+	}
+	static double [] decodeDoubles(CharSequence value) {
+		byte [] bytes = fromBase64(value, TYPE_DOUBLE);
+		if(value.charAt(3)==XOR)return getXors(bytes, value);
+		if(bytes.length % 8!=0)throw malformed(value);
+
+		double [] result = new double [bytes.length / 8];
+		for (int i = 0, j = 0; i < result.length; i++, j += 8) {
+			result[i] = Double.longBitsToDouble(getLong(bytes, j));
+		}
+		return result;
+	}
+
+	static BigInteger [] decodeBigIntegers(CharSequence value) {
+		byte [] bytes = fromBase64(value, TYPE_BIGINTEGER);
+
+		int count = 0;
+		int [] position = {0};
+		while (position[0]<bytes.length) {
+			int length = getLength(bytes, position, value);
+			position[0] += length;
+			count++;
+		}
+		if(position[0]!=bytes.length)throw malformed(value);
+
+		BigInteger [] result = new BigInteger [count];
+		position[0] = 0;
+		for (int i = 0; i < count; i++) {
+			int length = getLength(bytes, position, value);
+			if(length==0)continue;
+
+			byte [] element = new byte [length];
+			System.arraycopy(bytes, position[0], element, 0, length);
+			result[i] = new BigInteger(element);
+			position[0] += length;
+		}
+		return result;
+	}
+
+	// BYTES
+
+	static void putShort(byte [] bytes, int position, short value) {
+		bytes[position] = (byte) value;
+		bytes[position + 1] = (byte) (value >> 8);
+	}
+	static void putInt(byte [] bytes, int position, int value) {
+		bytes[position] = (byte) value;
+		bytes[position + 1] = (byte) (value >> 8);
+		bytes[position + 2] = (byte) (value >> 16);
+		bytes[position + 3] = (byte) (value >> 24);
+	}
+	static void putLong(byte [] bytes, int position, long value) {
+		putInt(bytes, position, (int) value);
+		putInt(bytes, position + 4, (int) (value >> 32));
+	}
+	static int putVarint(byte [] bytes, int position, long value) {
+		long zigzag = (value << 1) ^ (value >> 63);
+		while ((zigzag & ~0x7FL)!=0) {
+			bytes[position++] = (byte) ((zigzag & 0x7F) | 0x80);
+			zigzag >>>= 7;
+		}
+		bytes[position++] = (byte) zigzag;
+		return position;
+	}
+	static short getShort(byte [] bytes, int position) {
+		return (short) ((bytes[position] & 0xFF) | (bytes[position + 1] << 8));
+	}
+	static int getInt(byte [] bytes, int position) {
+		return (bytes[position] & 0xFF)
+				| (bytes[position + 1] & 0xFF) << 8
+				| (bytes[position + 2] & 0xFF) << 16
+				| bytes[position + 3] << 24;
+	}
+	static long getLong(byte [] bytes, int position) {
+		return (getInt(bytes, position) & 0xFFFFFFFFL) | (long) getInt(bytes, position + 4) << 32;
+	}
+	private static long [] getVarints(byte [] bytes, CharSequence value) {
+		int count = 0;
+		for (int i = 0; i < bytes.length; i++) {
+			if(bytes[i]>=0)count++;
+		}
+		if(bytes.length>0&&bytes[bytes.length - 1]<0)throw malformed(value);
+
+		long [] result = new long [count];
+		int position = 0;
+		for (int i = 0; i < count; i++) {
+			long zigzag = 0;
+			int shift = 0;
+			byte b;
+			do {
+				if(shift>63)throw malformed(value);
+				b = bytes[position++];
+				zigzag |= (long) (b & 0x7F) << shift;
+				shift += 7;
+			} while (b<0);
+			result[i] = (zigzag >>> 1) ^ -(zigzag & 1);
+		}
+		return result;
+	}
+
+	private static int getLength(byte [] bytes, int [] position, CharSequence value) {
+		long zigzag = 0;
+		int shift = 0;
+		byte b;
+		do {
+			if(shift>35||position[0]>=bytes.length)throw malformed(value);
+			b = bytes[position[0]++];
+			zigzag |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		} while (b<0);
+
+		long length = (zigzag >>> 1) ^ -(zigzag & 1);
+		if(length<0||length>bytes.length - position[0])throw malformed(value);
+		return (int) length;
+	}
+
+	private static long [] getDeltaOfDeltas(byte [] bytes, CharSequence value) {
+		int [] start = {0};
+		int length = getCount(bytes, start, value);
+		long [] position = {start[0] * 8L};
+		// Every value after the first takes at least one bit
+		if(length>0&&length - 1>bytes.length * 8L - position[0] - 64)throw malformed(value);
+
+		long [] result = new long [length];
+		long previous = 0;
+		long delta = 0;
+		for (int i = 0; i < length; i++) {
+			if(i==0) {
+				previous = getBits(bytes, position, 64, value);
+				result[0] = previous;
+				continue;
+			}
+			delta += getDeltaOfDelta(bytes, position, value);
+			previous += delta;
+			result[i] = previous;
+		}
+		checkEnd(bytes, position, value);
+		return result;
+	}
+	static long getDeltaOfDelta(byte [] bytes, long [] position, CharSequence value) {
+		if(getBits(bytes, position, 1, value)==0)return 0;
+
+		int ones = 1;
+		while (ones<DELTA_OF_DELTA_BITS.length&&getBits(bytes, position, 1, value)==1)ones++;
+		long zigzag = getBits(bytes, position, DELTA_OF_DELTA_BITS[ones - 1], value);
+		return (zigzag >>> 1) ^ -(zigzag & 1);
+	}
+	private static double [] getXors(byte [] bytes, CharSequence value) {
+		int [] start = {0};
+		int length = getCount(bytes, start, value);
+		long [] position = {start[0] * 8L};
+		// Every value after the first takes at least one bit
+		if(length>0&&length - 1>bytes.length * 8L - position[0] - 64)throw malformed(value);
+
+		double [] result = new double [length];
+		long [] window = {0, 0};
+		long previous = 0;
+		for (int i = 0; i < length; i++) {
+			previous = i==0 ? getBits(bytes, position, 64, value) : getXor(bytes, position, previous, window, value);
+			result[i] = Double.longBitsToDouble(previous);
+		}
+		checkEnd(bytes, position, value);
+		return result;
+	}
+	/**
+	 * @param window	Leading and trailing zeros of the previous window, updated in place
+	 */
+	static long getXor(byte [] bytes, long [] position, long previous, long [] window, CharSequence value) {
+		if(getBits(bytes, position, 1, value)==0)return previous;
+		if(getBits(bytes, position, 1, value)==1) {
+			window[0] = getBits(bytes, position, 5, value);
+			window[1] = 64 - window[0] - getBits(bytes, position, 6, value) - 1;
+			if(window[1]<0)throw malformed(value);
+		}
+		int meaningful = (int) (64 - window[0] - window[1]);
+		return previous ^ getBits(bytes, position, meaningful, value) << window[1];
+	}
+	static long putBits(byte [] bytes, long position, long value, int count) {
+		while (count>0) {
+			int free = 8 - (int) (position & 7);
+			int taken = Math.min(free, count);
+			int bits = (int) (value >>> (count - taken)) & ((1 << taken) - 1);
+			bytes[(int) (position >>> 3)] |= bits << (free - taken);
+			count -= taken;
+			position += taken;
+		}
+		return position;
+	}
+	static long getBits(byte [] bytes, long [] position, int count, CharSequence value) {
+		if(position[0] + count>bytes.length * 8L)throw malformed(value);
+
+		long result = 0;
+		while (count>0) {
+			int available = 8 - (int) (position[0] & 7);
+			int taken = Math.min(available, count);
+			int bits = (bytes[(int) (position[0] >>> 3)] >>> (available - taken)) & ((1 << taken) - 1);
+			result = result << taken | bits;
+			count -= taken;
+			position[0] += taken;
+		}
+		return result;
+	}
+	private static void checkEnd(byte [] bytes, long [] position, CharSequence value) {
+		if((position[0] + 7) >>> 3!=bytes.length)throw malformed(value);
+	}
+	static long getVarint(byte [] bytes, int [] position, CharSequence value) {
+		long zigzag = 0;
+		int shift = 0;
+		byte b;
+		do {
+			if(shift>63||position[0]>=bytes.length)throw malformed(value);
+			b = bytes[position[0]++];
+			zigzag |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		} while (b<0);
+		return (zigzag >>> 1) ^ -(zigzag & 1);
+	}
+	static int getCount(byte [] bytes, int [] position, CharSequence value) {
+		long count = getVarint(bytes, position, value);
+		if(count<0||count>Integer.MAX_VALUE)throw malformed(value);
+		return (int) count;
+	}
+
+	// APPENDING
+
+	/**
+	 * Values of the packed and varint encodings, except booleans, are just
+	 * concatenated bytes, so appending only touches the last quantum.
+	 *
+	 * @param quantum	The last quantum of a saved value, or "" if it has no bytes
+	 * @param encoded	The values to append, encoded with the same type and encoding
+	 * @return Returns the characters, that replace quantum.
+	 */
+	static String append(CharSequence quantum, String encoded) {
+		if(quantum.length()==0||quantum.charAt(3)!='=')return quantum + encoded.substring(HEADER_LENGTH);
+
+		int bits = sextet(quantum, 0) << 18 | sextet(quantum, 1) << 12;
+		int length = 1;
+		if(quantum.charAt(2)!='=') {
+			bits |= sextet(quantum, 2) << 6;
+			length = 2;
+		}
+		byte [] appended = fromBase64(encoded, encoded.charAt(2));
+		byte [] bytes = new byte [length + appended.length];
+		bytes[0] = (byte) (bits >> 16);
+		if(length==2)bytes[1] = (byte) (bits >> 8);
+		System.arraycopy(appended, 0, bytes, length, appended.length);
+		return toBase64(encoded.charAt(2), encoded.charAt(3), bytes, bytes.length).substring(HEADER_LENGTH);
+	}
+
+	// BASE64
+
+	static String toBase64(char type, char encoding, byte [] bytes, int length) {
+		char [] chars = new char [HEADER_LENGTH + (length + 2) / 3 * 4];
+		chars[0] = MARKER;
+		chars[1] = VERSION;
+		chars[2] = type;
+		chars[3] = encoding;
+
+		int position = HEADER_LENGTH;
+		int i = 0;
+		for (; i + 2 < length; i += 3) {
+			int bits = (bytes[i] & 0xFF) << 16 | (bytes[i + 1] & 0xFF) << 8 | (bytes[i + 2] & 0xFF);
+			chars[position++] = ALPHABET[bits >>> 18];
+			chars[position++] = ALPHABET[(bits >>> 12) & 0x3F];
+			chars[position++] = ALPHABET[(bits >>> 6) & 0x3F];
+			chars[position++] = ALPHABET[bits & 0x3F];
+		}
+		int remaining = length - i;
+		if(remaining>0) {
+			int bits = (bytes[i] & 0xFF) << 16;
+			if(remaining==2)bits |= (bytes[i + 1] & 0xFF) << 8;
+			chars[position++] = ALPHABET[bits >>> 18];
+			chars[position++] = ALPHABET[(bits >>> 12) & 0x3F];
+			chars[position++] = remaining==2 ? ALPHABET[(bits >>> 6) & 0x3F] : '=';
+			chars[position++] = '=';
+		}
+		return new String(chars);
+	}
+	static byte [] fromBase64(CharSequence value, char type) {
+		byte [] bytes = new byte [getByteLength(value, type)];
+		int position = 0;
+		for (int i = HEADER_LENGTH; i < value.length(); i += 4) {
+			int bits = sextet(value, i) << 18 | sextet(value, i + 1) << 12;
+			bytes[position++] = (byte) (bits >> 16);
+			if(value.charAt(i + 2)=='=')break;
+			bits |= sextet(value, i + 2) << 6;
+			bytes[position++] = (byte) (bits >> 8);
+			if(value.charAt(i + 3)=='=')break;
+			bits |= sextet(value, i + 3);
+			bytes[position++] = (byte) bits;
+		}
+		if(position!=bytes.length)throw malformed(value);
+		return bytes;
+	}
+	/**
+	 * Checks the header of a binary value
+	 *
+	 * @return Returns the number of bytes encoded in the value.
+	 */
+	static int getByteLength(CharSequence value, char type) {
+		if(!isEncoded(value))throw malformed(value);
+		if(value.charAt(1)!=VERSION)throw new IllegalArgumentException("Unsupported binary format version " + value.charAt(1));
+		if(value.charAt(2)!=type)throw new IllegalArgumentException("Binary value of type " + value.charAt(2) + " can not be loaded as " + type);
+		char encoding = value.charAt(3);
+		if(encoding!=PACKED&&(encoding!=VARINT||type==TYPE_BOOLEAN||type==TYPE_BYTE||type==TYPE_FLOAT||type==TYPE_DOUBLE)
+				&&(encoding!=DELTA_OF_DELTA||type!=TYPE_LONG)&&(encoding!=XOR||type!=TYPE_DOUBLE))throw malformed(value);
+
+		int length = value.length() - HEADER_LENGTH;
+		if(length % 4!=0)throw malformed(value);
+
+		int padding = 0;
+		if(length>0&&value.charAt(value.length() - 1)=='=')padding++;
+		if(length>0&&value.charAt(value.length() - 2)=='=')padding++;
+		return length / 4 * 3 - padding;
+	}
+	static int sextet(CharSequence value, int index) {
+		char c = value.charAt(index);
+		if(c>=VALUES.length||VALUES[c]<0)throw malformed(value);
+		return VALUES[c];
+	}
+	static IllegalArgumentException malformed(CharSequence value) {
+		return new IllegalArgumentException("Malformed binary value of length " + value.length());
+	}
+}
@@ -0,0 +1,363 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+/**
+ * Reads the values of a BinaryCodec array straight out of the Base64 text,
+ * without decoding it into a byte array first.
+ *
+ * Malformed values throw an IllegalArgumentException like BinaryCodec does.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+final class BinaryDecoder extends ValueDecoder {
+
+	// Bytes are decoded WINDOW at a time, a multiple of 3
+	private static final int WINDOW = 768;
+
+	private final CharSequence value;
+	private final boolean varint;
+	private final boolean bits_only;
+	private final boolean series;
+	private final char type;
+	private final int length;
+	private final int width;
+
+	private int read = 0;
+	private int index = BinaryCodec.HEADER_LENGTH;
+
+	private final char [] chars;
+	private final byte [] window;
+	private int window_position = 0;
+	private int window_length = 0;
+
+	private int count;
+	private int booleans = 0;
+	private int bit = 8;
+	private int current;
+
+	// Delta-of-delta and XOR state
+	private int values = 0;
+	private long previous;
+	private long delta;
+	private int leading;
+	private int trailing;
+
+	BinaryDecoder(CharSequence value, char type) {
+		this.value = value;
+		this.length = BinaryCodec.getByteLength(value, type);
+		this.varint = value.charAt(3)==BinaryCodec.VARINT;
+		this.window = new byte [Math.min(length, WINDOW)];
+		this.chars = new char [(window.length + 2) / 3 * 4];
+		this.bits_only = type==BinaryCodec.TYPE_BOOLEAN;
+		this.type = type;
+		this.series = value.charAt(3)==BinaryCodec.DELTA_OF_DELTA||value.charAt(3)==BinaryCodec.XOR;
+
+		if(bits_only) {
+			if(length==0)throw BinaryCodec.malformed(value);
+			int unused = readByte();
+			if(unused<0||unused>7)throw BinaryCodec.malformed(value);
+			count = (length - 1) * 8 - unused;
+			if(count<0)throw BinaryCodec.malformed(value);
+		}
+		if(series) {
+			long values = length==0 ? -1 : readVarint();
+			if(values<0||values>Integer.MAX_VALUE)throw BinaryCodec.malformed(value);
+			count = (int) values;
+		}
+		this.width = getWidth(type);
+		if(!varint&&!series&&length % width!=0)throw BinaryCodec.malformed(value);
+	}
+
+	boolean hasNext() {
+		if(bits_only)return booleans<count;
+		if(series)return values<count;
+		return read<length;
+	}
+	int remaining() {
+		if(series) {
+			int remaining = count - values;
+			values = count;
+			return remaining;
+		}
+		if(bits_only) {
+			int remaining = count - booleans;
+			booleans = count;
+			return remaining;
+		}
+		if(!varint) {
+			int remaining = (length - read) / width;
+			read = length;
+			return remaining;
+		}
+
+		int remaining = 0;
+		byte last = 0;
+		while (read<length) {
+			last = readByte();
+			if(last>=0)remaining++;
+		}
+		if(last<0)throw BinaryCodec.malformed(value);
+		return remaining;
+	}
+
+	int skip(int count) {
+		if(bits_only) {
+			int skipped = Math.min(count, this.count - booleans);
+			if(skipped<=0)return 0;
+
+			// The bits of the current byte, that have not been read, come first
+			int target = booleans + skipped;
+			int unread = bit==8 ? 0 : 8 - bit;
+			if(skipped<=unread)bit += skipped;
+			else {
+				seek(1 + target / 8);
+				bit = 8;
+				if(target % 8!=0) {
+					current = readByte();
+					bit = target % 8;
+				}
+			}
+			booleans = target;
+			return skipped;
+		}
+		if(series) {
+			int skipped = Math.min(count, this.count - values);
+			for (int i = 0; i < skipped; i++) {
+				if(type==BinaryCodec.TYPE_DOUBLE)nextDouble();
+				else nextLong();
+			}
+			return skipped;
+		}
+		if(varint) {
+			int skipped = 0;
+			while (skipped<count&&read<length) {
+				if(readByte()>=0)skipped++;
+			}
+			return skipped;
+		}
+
+		int skipped = Math.min(count, (length - read) / width);
+		if(skipped>0)seek(read + skipped * width);
+		return skipped;
+	}
+
+	boolean nextBoolean() {
+		if(booleans>=count)throw BinaryCodec.malformed(value);
+		if(bit==8) {
+			current = readByte();
+			bit = 0;
+		}
+		booleans++;
+		return (current & (1 << bit++))!=0;
+	}
+	byte nextByte() {
+		return readByte();
+	}
+	short nextShort() {
+		if(varint) {
+			long result = readVarint();
+			if(result<Short.MIN_VALUE||result>Short.MAX_VALUE)throw BinaryCodec.malformed(value);
+			return (short) result;
+		}
+		return (short) ((readByte() & 0xFF) | readByte() << 8);
+	}
+	int nextInt() {
+		if(varint) {
+			long result = readVarint();
+			if(result<Integer.MIN_VALUE||result>Integer.MAX_VALUE)throw BinaryCodec.malformed(value);
+			return (int) result;
+		}
+		return readInt();
+	}
+	long nextLong() {
+		if(varint)return readVarint();
+		if(series) {
+			if(values>=count)throw BinaryCodec.malformed(value);
+			if(values++==0)previous = readBits(64);
+			else if(readBits(1)==1) {
+				int ones = 1;
+				while (ones<BinaryCodec.DELTA_OF_DELTA_BITS.length&&readBits(1)==1)ones++;
+				long zigzag = readBits(BinaryCodec.DELTA_OF_DELTA_BITS[ones - 1]);
+				delta += (zigzag >>> 1) ^ -(zigzag & 1);
+				previous += delta;
+			}
+			else previous += delta;
+			return previous;
+		}
+		return readLong();
+	}
+	float nextFloat() {
+		return Float.intBitsToFloat(readInt());
+	}
+	double nextDouble() {
+		if(series) {
+			if(values>=count)throw BinaryCodec.malformed(value);
+			if(values++==0)previous = readBits(64);
+			else if(readBits(1)==1) {
+				if(readBits(1)==1) {
+					leading = (int) readBits(5);
+					trailing = 64 - leading - (int) readBits(6) - 1;
+					if(trailing<0)throw BinaryCodec.malformed(value);
+				}
+				previous ^= readBits(64 - leading - trailing) << trailing;
+			}
+			return Double.longBitsToDouble(previous);
+		}
+		return Double.longBitsToDouble(readLong());
+	}
+
+	private byte readByte() {
+		if(window_position==window_length)fill();
+		read++;
+		return window[window_position++];
+	}
+	/**
+	 * Continue reading at the given byte, decoding only its quantum, if it is not in the window
+	 */
+	private void seek(int position) {
+		int window_start = read - window_position;
+		if(position>=window_start&&position<=window_start + window_length) {
+			window_position = position - window_start;
+			read = position;
+			return;
+		}
+
+		int quantum = position / 3;
+		index = BinaryCodec.HEADER_LENGTH + quantum * 4;
+		read = quantum * 3;
+		window_position = 0;
+		window_length = 0;
+		while (read<position)readByte();
+	}
+	private void fill() {
+		int remaining = length - read;
+		if(remaining<=0)throw BinaryCodec.malformed(value);
+
+		window_length = Math.min(remaining, window.length);
+		window_position = 0;
+
+		int quanta = (window_length + 2) / 3;
+		getChars(index, index + quanta * 4);
+		index += quanta * 4;
+
+		int full = window_length / 3 * 3;
+		int i = 0;
+		int j = 0;
+		for (; i < full; i += 3, j += 4) {
+			int quantum = sextet(chars[j]) << 18 | sextet(chars[j + 1]) << 12 | sextet(chars[j + 2]) << 6 | sextet(chars[j + 3]);
+			window[i] = (byte) (quantum >> 16);
+			window[i + 1] = (byte) (quantum >> 8);
+			window[i + 2] = (byte) quantum;
+		}
+		if(i<window_length) {
+			// The last quantum is padded
+			int quantum = sextet(chars[j]) << 18 | sextet(chars[j + 1]) << 12;
+			if(chars[j + 2]!='=')quantum |= sextet(chars[j + 2]) << 6;
+			window[i] = (byte) (quantum >> 16);
+			if(i + 1<window_length)window[i + 1] = (byte) (quantum >> 8);
+		}
+	}
+	private void getChars(int start, int end) {
+		if(value instanceof String)((String) value).getChars(start, end, chars, 0);
+		else if(value instanceof ChunkedValue)((ChunkedValue) value).getChars(start, end, chars, 0);
+		else {
+			for (int i = start; i < end; i++) {
+				chars[i - start] = value.charAt(i);
+			}
+		}
+	}
+	private int sextet(char c) {
+		if(c>=BinaryCodec.VALUES.length||BinaryCodec.VALUES[c]<0)throw BinaryCodec.malformed(value);
+		return BinaryCodec.VALUES[c];
+	}
+	private int readInt() {
+		int position = window_position;
+		if(window_length - position>=4) {
+			window_position += 4;
+			read += 4;
+			return (window[position] & 0xFF)
+					| (window[position + 1] & 0xFF) << 8
+					| (window[position + 2] & 0xFF) << 16
+					| window[position + 3] << 24;
+		}
+		return (readByte() & 0xFF)
+				| (readByte() & 0xFF) << 8
+				| (readByte() & 0xFF) << 16
+				| readByte() << 24;
+	}
+	private long readLong() {
+		return (readInt() & 0xFFFFFFFFL) | (long) readInt() << 32;
+	}
+	/**
+	 * Read count bits, most significant first
+	 */
+	private long readBits(int count) {
+		long result = 0;
+		while (count>0) {
+			if(bit==8) {
+				current = readByte() & 0xFF;
+				bit = 0;
+			}
+			int taken = Math.min(8 - bit, count);
+			result = result << taken | (current >>> (8 - bit - taken)) & ((1 << taken) - 1);
+			bit += taken;
+			count -= taken;
+		}
+		return result;
+	}
+	private long readVarint() {
+		int position = window_position;
+		if(window_length - position>=10) {
+			long zigzag = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = window[position++];
+				zigzag |= (long) (b & 0x7F) << shift;
+				shift += 7;
+			} while (b<0&&shift<70);
+			if(b<0)throw BinaryCodec.malformed(value);
+			read += position - window_position;
+			window_position = position;
+			return (zigzag >>> 1) ^ -(zigzag & 1);
+		}
+
+		long zigzag = 0;
+		int shift = 0;
+		byte b;
+		do {
+			if(shift>63)throw BinaryCodec.malformed(value);
+			b = readByte();
+			zigzag |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		} while (b<0);
+		return (zigzag >>> 1) ^ -(zigzag & 1);
+	}
+
+	private static int getWidth(char type) {
+		switch (type) {
+		case BinaryCodec.TYPE_SHORT:
+			return 2;
+		case BinaryCodec.TYPE_INTEGER:
+		case BinaryCodec.TYPE_FLOAT:
+			return 4;
+		case BinaryCodec.TYPE_LONG:
+		case BinaryCodec.TYPE_DOUBLE:
+			return 8;
+		default:
+			return 1;
+		}
+	}
+}
@@ -0,0 +1,165 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.util.ConcurrentModificationException;
+
+/**
+ * The chunks of a saved value as one CharSequence, without copying them
+ * into a single String.
+ *
+ * Sequential reads stay in the current chunk, other reads search for
+ * their chunk. Chunks, that are loaded lazily, are all as long as the
+ * first one, except the last one, and only the current one is kept.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+final class ChunkedValue implements CharSequence {
+
+	/**
+	 * Loads a chunk, when it is read.
+	 */
+	interface Chunks {
+		String get(int index);
+	}
+
+	private final String [] chunks;
+	private final Chunks loader;
+	private final int [] offsets;
+
+	private int current = -1;
+	private int current_start = 0;
+	private int current_end = 0;
+	private String chunk;
+
+	ChunkedValue(String [] chunks) {
+		this.chunks = chunks;
+		this.loader = null;
+		this.offsets = new int [chunks.length + 1];
+		for (int i = 0; i < chunks.length; i++) {
+			offsets[i + 1] = offsets[i] + chunks[i].length();
+		}
+	}
+	/**
+	 * @param count	Number of chunks
+	 * @param size	Length of every chunk but the last one
+	 * @param length	Length of the value
+	 */
+	ChunkedValue(Chunks loader, int count, int size, int length) {
+		this.chunks = null;
+		this.loader = loader;
+		this.offsets = new int [count + 1];
+		for (int i = 1; i < count; i++) {
+			offsets[i] = i * size;
+		}
+		offsets[count] = length;
+	}
+
+	public int length() {
+		return offsets[offsets.length - 1];
+	}
+	public char charAt(int index) {
+		if(index<current_start||index>=current_end)seek(index);
+		return chunk.charAt(index - current_start);
+	}
+	public CharSequence subSequence(int start, int end) {
+		if(start<0||end>length()||start>end)throw new StringIndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length());
+
+		StringBuilder builder = new StringBuilder(end - start);
+		for (int i = start; i < end; i++) {
+			builder.append(charAt(i));
+		}
+		return builder.toString();
+	}
+	/**
+	 * Copies the characters from start to end into dst, like String.getChars
+	 */
+	void getChars(int start, int end, char [] dst, int dst_start) {
+		if(start<0||end>length()||start>end)throw new StringIndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length());
+		if(start==end)return;
+
+		seek(start);
+		for (int i = current; start < end; i++) {
+			select(i);
+			int chunk_end = Math.min(end, current_end);
+			chunk.getChars(start - current_start, chunk_end - current_start, dst, dst_start);
+			dst_start += chunk_end - start;
+			start = chunk_end;
+		}
+	}
+	/**
+	 * @return Returns the index of the first occurrence of str at or after from, or -1.
+	 */
+	int indexOf(String str, int from) {
+		if(from<0)from = 0;
+		int length = length();
+		if(from>=length)return -1;
+
+		seek(from);
+		for (int i = current; i < offsets.length - 1; i++) {
+			select(i);
+			int start = Math.max(from - current_start, 0);
+			int index = chunk.indexOf(str, start);
+			if(index>=0)return current_start + index;
+
+			// An occurrence may span the end of this chunk
+			int end = current_end;
+			for (int j = Math.max(end - str.length() + 1, from); j < end&&j + str.length()<=length; j++) {
+				if(matches(str, j))return j;
+			}
+		}
+		return -1;
+	}
+	private boolean matches(String str, int from) {
+		for (int i = 0; i < str.length(); i++) {
+			if(charAt(from + i)!=str.charAt(i))return false;
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(length());
+		for (int i = 0; i < offsets.length - 1; i++) {
+			select(i);
+			builder.append(chunk);
+		}
+		return builder.toString();
+	}
+
+	private void seek(int index) {
+		if(index<0||index>=length())throw new StringIndexOutOfBoundsException(index);
+
+		int low = 0;
+		int high = offsets.length - 2;
+		while (low<high) {
+			int middle = (low + high + 1) >>> 1;
+			if(offsets[middle]<=index)low = middle;
+			else high = middle - 1;
+		}
+		select(low);
+	}
+	private void select(int index) {
+		if(index==current)return;
+
+		if(chunks!=null)chunk = chunks[index];
+		else {
+			chunk = loader.get(index);
+			if(chunk.length()!=offsets[index + 1] - offsets[index])throw new ConcurrentModificationException("Chunk " + index + " has changed");
+		}
+		current = index;
+		current_start = offsets[index];
+		current_end = offsets[index + 1];
+	}
+}
@@ -0,0 +1,133 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of non-negative long values with logarithmic buckets.
+ *
+ * Values below 16 are counted exactly, larger values in 16 buckets per
+ * power of two, so a reported value is at most 1/16 below the recorded
+ * one. Recording takes no lock and allocates nothing.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+public final class Histogram {
+
+	private static final int SUB_BITS = 4;
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+	private static final int BUCKETS = SUB_COUNT + (64 - SUB_BITS) * SUB_COUNT;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong total = new AtomicLong();
+
+	/**
+	 * Record a value. Negative values are recorded as 0.
+	 */
+	public void record(long value) {
+		if(value<0)value = 0;
+		counts.incrementAndGet(getIndex(value));
+		count.incrementAndGet();
+		total.addAndGet(value);
+	}
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts.set(i, 0);
+		}
+		count.set(0);
+		total.set(0);
+	}
+
+	/**
+	 * @return Returns the number of recorded values.
+	 */
+	public long getCount() {
+		return count.get();
+	}
+	/**
+	 * @return Returns the sum of recorded values.
+	 */
+	public long getTotal() {
+		return total.get();
+	}
+	/**
+	 * @return Returns the mean of recorded values, or 0 if there are none.
+	 */
+	public double getMean() {
+		long count = this.count.get();
+		if(count==0)return 0;
+		return (double) total.get() / count;
+	}
+	/**
+	 * @return Returns the lower bound of the bucket of the smallest recorded value, or 0 if there are none.
+	 */
+	public long getMin() {
+		for (int i = 0; i < BUCKETS; i++) {
+			if(counts.get(i)>0)return getValue(i);
+		}
+		return 0;
+	}
+	/**
+	 * @return Returns the lower bound of the bucket of the largest recorded value, or 0 if there are none.
+	 */
+	public long getMax() {
+		for (int i = BUCKETS - 1; i >= 0; i--) {
+			if(counts.get(i)>0)return getValue(i);
+		}
+		return 0;
+	}
+	/**
+	 * @param percentile	Percentile between 0 and 100, e.g. 99.9
+	 * @return Returns the lower bound of the bucket, below which the given percentage of recorded values lies, or 0 if there are none.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			count += counts.get(i);
+		}
+		if(count==0)return 0;
+
+		long rank = (long) Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100 * count);
+		if(rank<1)rank = 1;
+
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if(seen>=rank)return getValue(i);
+		}
+		return getMax();
+	}
+
+	@Override
+	public String toString() {
+		return "count=" + getCount() + " mean=" + Math.round(getMean()) + " p50=" + getValueAtPercentile(50)
+				+ " p99=" + getValueAtPercentile(99) + " max=" + getMax();
+	}
+
+	private static int getIndex(long value) {
+		if(value<SUB_COUNT)return (int) value;
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+		int sub = (int) (value >>> shift) & (SUB_COUNT - 1);
+		return SUB_COUNT + shift * SUB_COUNT + sub;
+	}
+	private static long getValue(int index) {
+		if(index<SUB_COUNT)return index;
+		int shift = (index - SUB_COUNT) / SUB_COUNT;
+		int sub = (index - SUB_COUNT) % SUB_COUNT;
+		return (long) (SUB_COUNT + sub) << shift;
+	}
+}
@@ -0,0 +1,203 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PreferenceMetrics, that keeps a Histogram per family and operation.
+ * The histograms of a family are created with its first record, later
+ * records neither allocate nor build names.
+ *
+ * Latencies, encode and decode times are in nanoseconds, payloads in
+ * characters. A Histogram, that has not been recorded to yet, is empty.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+public class HistogramMetrics implements PreferenceMetrics {
+
+	private static final String [] OPERATIONS = {"save", "load", "delete"};
+
+	/**
+	 * The histograms and failure counters of a family, created once, so recording does not allocate
+	 */
+	private static class Family {
+		final Histogram [] latency = createHistograms();
+		final Histogram [] payload = createHistograms();
+		final Histogram [] chunks = createHistograms();
+		final AtomicLong [] failures = new AtomicLong [OPERATIONS.length];
+		final Histogram encode = new Histogram();
+		final Histogram decode = new Histogram();
+
+		Family() {
+			for (int i = 0; i < failures.length; i++) {
+				failures[i] = new AtomicLong();
+			}
+		}
+		private static Histogram [] createHistograms() {
+			Histogram [] histograms = new Histogram [OPERATIONS.length];
+			for (int i = 0; i < histograms.length; i++) {
+				histograms[i] = new Histogram();
+			}
+			return histograms;
+		}
+	}
+
+	private final ConcurrentHashMap<String, Family> families = new ConcurrentHashMap<String, Family>();
+
+	private final Histogram commit_latency = new Histogram();
+	private final Histogram commit_changes = new Histogram();
+	private final AtomicLong commit_failures = new AtomicLong();
+
+	public void onOperation(String family, int operation, long nanos) {
+		if(isOperation(operation))getFamily(family).latency[operation].record(nanos);
+	}
+	public void onFailure(String family, int operation, Exception e) {
+		if(isOperation(operation))getFamily(family).failures[operation].incrementAndGet();
+	}
+	public void onEncode(String family, long nanos, int length) {
+		getFamily(family).encode.record(nanos);
+	}
+	public void onDecode(String family, long nanos, int length) {
+		getFamily(family).decode.record(nanos);
+	}
+	public void onChunks(String family, int operation, int length, int chunks) {
+		if(!isOperation(operation))return;
+
+		Family histograms = getFamily(family);
+		histograms.payload[operation].record(length);
+		histograms.chunks[operation].record(chunks);
+	}
+	public void onCommit(long nanos, int changes, boolean success) {
+		commit_latency.record(nanos);
+		commit_changes.record(changes);
+		if(!success)commit_failures.incrementAndGet();
+	}
+
+	/**
+	 * @return Returns the latencies of an operation. The count is the number of calls.
+	 */
+	public Histogram getLatency(String family, int operation) {
+		return getFamily(family).latency[getOperation(operation)];
+	}
+	/**
+	 * @return Returns the number of failed calls of an operation.
+	 */
+	public long getFailures(String family, int operation) {
+		return getFamily(family).failures[getOperation(operation)].get();
+	}
+	public Histogram getEncodeTime(String family) {
+		return getFamily(family).encode;
+	}
+	public Histogram getDecodeTime(String family) {
+		return getFamily(family).decode;
+	}
+	/**
+	 * @return Returns the lengths of saved or loaded values.
+	 */
+	public Histogram getPayload(String family, int operation) {
+		return getFamily(family).payload[getOperation(operation)];
+	}
+	/**
+	 * @return Returns the number of chunks of saved or loaded values.
+	 */
+	public Histogram getChunks(String family, int operation) {
+		return getFamily(family).chunks[getOperation(operation)];
+	}
+	public Histogram getCommitLatency() {
+		return commit_latency;
+	}
+	/**
+	 * @return Returns the number of changed keys per commit.
+	 */
+	public Histogram getCommitChanges() {
+		return commit_changes;
+	}
+	public long getCommitFailures() {
+		return commit_failures.get();
+	}
+
+	public void reset() {
+		for (Family family : families.values()) {
+			for (int i = 0; i < OPERATIONS.length; i++) {
+				family.latency[i].reset();
+				family.payload[i].reset();
+				family.chunks[i].reset();
+				family.failures[i].set(0);
+			}
+			family.encode.reset();
+			family.decode.reset();
+		}
+		commit_latency.reset();
+		commit_changes.reset();
+		commit_failures.set(0);
+	}
+
+	/**
+	 * @return Returns one line per recorded histogram and failure counter, sorted by name.
+	 */
+	@Override
+	public String toString() {
+		ArrayList<String> lines = new ArrayList<String>();
+		for (Map.Entry<String, Family> entry : families.entrySet()) {
+			String name = entry.getKey();
+			Family family = entry.getValue();
+			for (int i = 0; i < OPERATIONS.length; i++) {
+				add(lines, name + " " + OPERATIONS[i] + " latency", family.latency[i]);
+				add(lines, name + " " + OPERATIONS[i] + " payload", family.payload[i]);
+				add(lines, name + " " + OPERATIONS[i] + " chunks", family.chunks[i]);
+				add(lines, name + " " + OPERATIONS[i], family.failures[i]);
+			}
+			add(lines, name + " encode", family.encode);
+			add(lines, name + " decode", family.decode);
+		}
+		add(lines, "commit latency", commit_latency);
+		add(lines, "commit changes", commit_changes);
+		add(lines, "commit", commit_failures);
+		Collections.sort(lines);
+
+		StringBuilder report = new StringBuilder();
+		for (String line : lines) {
+			report.append(line).append('\n');
+		}
+		return report.toString();
+	}
+	private static void add(ArrayList<String> lines, String name, Histogram histogram) {
+		if(histogram.getCount()>0)lines.add(name + ": " + histogram);
+	}
+	private static void add(ArrayList<String> lines, String name, AtomicLong failures) {
+		if(failures.get()>0)lines.add(name + " failures: " + failures.get());
+	}
+
+	private Family getFamily(String name) {
+		Family family = families.get(name);
+		if(family==null) {
+			Family created = new Family();
+			family = families.putIfAbsent(name, created);
+			if(family==null)family = created;
+		}
+		return family;
+	}
+	private static boolean isOperation(int operation) {
+		return operation>=0&&operation<OPERATIONS.length;
+	}
+	private static int getOperation(int operation) {
+		if(!isOperation(operation))throw new IllegalArgumentException("Unknown operation " + operation);
+		return operation;
+	}
+}
@@ -0,0 +1,632 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import android.content.Context;
+
+/**
+ * PreferenceStore, that keeps small, frequently written values in a small "hot" store
+ * and everything else, e.g. large arrays, in a "cold" store.
+ *
+ * Writes are counted per value, i.e. per key with all of its chunks or location fields.
+ * A value moves to the hot store after it was written often enough and while it is short,
+ * and back to the cold store when it grows too long or is rarely written any more. The
+ * counts are halved every 64 commits. Saving a hot value rewrites only the hot store,
+ * a few hundred characters instead of every array. The getters count values, characters
+ * and commits per store to measure the placement.
+ *
+ * A commit writes the hot store first and the cold store second, so it is atomic per store
+ * only. If the cold store fails, the previous values of the hot store are written back. A value
+ * is written to its new store before it is removed from the old one. If a move is interrupted,
+ * the copy in the hot store wins and the cold copy is removed with the next commit.
+ * Listeners are not called for keys, that only moved and kept their value, even if the stores
+ * call their listeners later, e.g. SharedPreferences on the main thread.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+public class HotColdPreferenceStore implements PreferenceStore {
+
+	private static final String HOT = PreferenceKeys.DELIMITER + "hot";
+
+	private static final int AGING_PERIOD = 64;
+
+	/**
+	 * Placement of a value and the lengths of its keys
+	 */
+	private static final class Value {
+		private final HashMap<String, Integer> keys = new HashMap<String, Integer>();
+		private final HashMap<String, Class<?>> types = new HashMap<String, Class<?>>();
+		private volatile boolean hot = false;
+		private int writes = 0;
+		private int length = 0;
+	}
+
+	private final String name;
+	private final PreferenceStore hot;
+	private final PreferenceStore cold;
+
+	private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+	private boolean listening = false;
+
+	/**
+	 * A key, that moved between the stores
+	 */
+	private static final class Move {
+		private final long generation;
+		private final Object value;
+		// The store, whose callbacks are hidden, or null for both
+		private final PreferenceStore store;
+
+		Move(long generation, Object value, PreferenceStore store) {
+			this.generation = generation;
+			this.value = value;
+			this.store = store;
+		}
+	}
+
+	// Keys, that only moved since their last change, until they change again
+	private final HashMap<String, Move> moving = new HashMap<String, Move>();
+	private long generation = 0;
+
+	private final Listener forwarder = new Listener() {
+		public void onPreferenceChanged(PreferenceStore store, String key) {
+			if(key!=null&&isMoved(store, key))return;
+			for (Listener listener : listeners) {
+				listener.onPreferenceChanged(HotColdPreferenceStore.this, key);
+			}
+		}
+	};
+
+	// PLACEMENT
+
+	private int hot_writes = 4;
+	private int value_maxlength = 512;
+	private int hot_maxlength = 8192;
+
+	private volatile ConcurrentHashMap<String, Value> values = new ConcurrentHashMap<String, Value>();
+	private volatile boolean indexed = false;
+	private final HashSet<String> stale = new HashSet<String>();
+	private int commits = 0;
+
+	// STATS
+
+	private long hot_length = 0;
+	private long cold_length = 0;
+	private long hot_commits = 0;
+	private long cold_commits = 0;
+	private long hot_written = 0;
+	private long cold_written = 0;
+	private long promotions = 0;
+	private long demotions = 0;
+
+	/**
+	 * @param context  - The context to use.
+	 * @param name  - Desired preferences file. It is the cold file, the hot values are saved in name_hot.
+	 */
+	public HotColdPreferenceStore(Context context, String name) {
+		this(name, new SharedPreferencesStore(context, name + HOT, Context.MODE_PRIVATE), new SharedPreferencesStore(context, name, Context.MODE_PRIVATE));
+	}
+	/**
+	 * @param name  - Name of the store.
+	 * @param hot  - Store of the frequently written short values.
+	 * @param cold  - Store of all other values.
+	 */
+	public HotColdPreferenceStore(String name, PreferenceStore hot, PreferenceStore cold) {
+		if(hot==null||cold==null)throw new IllegalArgumentException("No hot or cold store for " + name);
+
+		this.name = name;
+		this.hot = hot;
+		this.cold = cold;
+	}
+
+	/**
+	 * Set when values move to the hot store
+	 *
+	 * @param hot_writes  - Writes within 64 commits, after which a value moves to the hot store. Default is 4.
+	 * @param value_maxlength  - Maximum characters of a hot value, including its keys. Default is 512.
+	 * @param hot_maxlength  - Maximum characters of all hot values. Default is 8192.
+	 */
+	public synchronized void setPlacement(int hot_writes, int value_maxlength, int hot_maxlength) {
+		if(hot_writes<1||value_maxlength<0||hot_maxlength<0)throw new IllegalArgumentException("Invalid placement for " + name);
+
+		this.hot_writes = hot_writes;
+		this.value_maxlength = value_maxlength;
+		this.hot_maxlength = hot_maxlength;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public synchronized Map<String, ?> getAll() {
+		if(!indexed)index();
+
+		HashMap<String, Object> all = new HashMap<String, Object>(cold.getAll());
+		for (String key : stale) {
+			all.remove(key);
+		}
+		all.putAll(hot.getAll());
+		return all;
+	}
+	public String getString(String key, String defValue) {
+		return getStore(key).getString(key, defValue);
+	}
+	public int getInt(String key, int defValue) {
+		return getStore(key).getInt(key, defValue);
+	}
+	public long getLong(String key, long defValue) {
+		return getStore(key).getLong(key, defValue);
+	}
+	public float getFloat(String key, float defValue) {
+		return getStore(key).getFloat(key, defValue);
+	}
+	public boolean getBoolean(String key, boolean defValue) {
+		return getStore(key).getBoolean(key, defValue);
+	}
+	public boolean contains(String key) {
+		return getStore(key).contains(key);
+	}
+
+	private PreferenceStore getStore(String key) {
+		if(!indexed)index();
+
+		Value value = values.get(PreferenceKeys.getValueKey(key));
+		return value!=null&&value.hot ? hot : cold;
+	}
+
+	/**
+	 * Read the placement of all values from both stores
+	 */
+	private synchronized void index() {
+		ConcurrentHashMap<String, Value> index = new ConcurrentHashMap<String, Value>();
+		stale.clear();
+
+		for (Map.Entry<String, ?> entry : hot.getAll().entrySet()) {
+			Value value = getValue(index, entry.getKey());
+			value.hot = true;
+			update(value, entry.getKey(), entry.getValue());
+		}
+		for (Map.Entry<String, ?> entry : cold.getAll().entrySet()) {
+			Value value = getValue(index, entry.getKey());
+			if(value.hot)stale.add(entry.getKey());
+			else update(value, entry.getKey(), entry.getValue());
+		}
+
+		hot_length = 0;
+		cold_length = 0;
+		for (Value value : index.values()) {
+			if(value.hot)hot_length += value.length;
+			else cold_length += value.length;
+		}
+		values = index;
+		indexed = true;
+	}
+	private static Value getValue(ConcurrentHashMap<String, Value> index, String key) {
+		String value_name = PreferenceKeys.getValueKey(key);
+		Value value = index.get(value_name);
+		if(value==null) {
+			value = new Value();
+			index.put(value_name, value);
+		}
+		return value;
+	}
+	private static void update(Value value, String key, Object object) {
+		Integer previous;
+		if(object!=null) {
+			int length = key.length() + String.valueOf(object).length();
+			previous = value.keys.put(key, length);
+			value.types.put(key, object.getClass());
+			value.length += length;
+		}
+		else {
+			previous = value.keys.remove(key);
+			value.types.remove(key);
+		}
+		if(previous!=null)value.length -= previous;
+	}
+	/**
+	 * @return Returns the value of a key with the getter of its type, or null if it does not exist.
+	 */
+	private static Object get(PreferenceStore store, String key, Class<?> type) {
+		if(!store.contains(key))return null;
+		if(type==Integer.class)return store.getInt(key, 0);
+		if(type==Long.class)return store.getLong(key, 0);
+		if(type==Float.class)return store.getFloat(key, 0);
+		if(type==Boolean.class)return store.getBoolean(key, false);
+		return store.getString(key, null);
+	}
+	/**
+	 * @return Returns true, if the value belongs into the hot store.
+	 */
+	private boolean isHot(Value value) {
+		if(value.keys.isEmpty())return value.hot;
+		if(value.length>value_maxlength)return false;
+		if(value.hot)return true;
+		return value.writes>=hot_writes&&hot_length + value.length<=hot_maxlength;
+	}
+
+	public synchronized boolean commit(Map<String, Object> changes) {
+		if(!indexed)index();
+
+		synchronized (moving) {
+			generation++;
+			// A changed key is reported, even if it moved before
+			for (String key : changes.keySet()) {
+				moving.remove(key);
+			}
+		}
+
+		HashMap<String, HashMap<String, Object>> groups = new HashMap<String, HashMap<String, Object>>();
+		for (Map.Entry<String, Object> entry : changes.entrySet()) {
+			String value_name = PreferenceKeys.getValueKey(entry.getKey());
+			HashMap<String, Object> group = groups.get(value_name);
+			if(group==null) {
+				group = new HashMap<String, Object>();
+				groups.put(value_name, group);
+			}
+			group.put(entry.getKey(), entry.getValue());
+		}
+
+		HashMap<String, Object> hot_changes = new HashMap<String, Object>();
+		HashMap<String, Object> cold_changes = new HashMap<String, Object>();
+		// Demoted values are removed from the hot store after they are written to the cold store
+		HashMap<String, Object> hot_removals = new HashMap<String, Object>();
+		// The values of the hot store before the changes, null for keys, that did not exist
+		HashMap<String, Object> rollback = new HashMap<String, Object>();
+		ArrayList<Value> promoted = new ArrayList<Value>();
+		ArrayList<Value> demoted = new ArrayList<Value>();
+
+		for (String key : stale) {
+			cold_changes.put(key, null);
+			move(key, get(hot, key, getType(key)), cold);
+		}
+
+		for (Map.Entry<String, HashMap<String, Object>> entry : groups.entrySet()) {
+			HashMap<String, Object> group = entry.getValue();
+			Value value = values.get(entry.getKey());
+			if(value==null) {
+				value = new Value();
+				values.put(entry.getKey(), value);
+			}
+
+			HashSet<String> keys = new HashSet<String>(value.keys.keySet());
+			if(value.hot)hot_length -= value.length;
+			else cold_length -= value.length;
+
+			if(value.hot) {
+				for (String key : group.keySet()) {
+					rollback.put(key, get(hot, key, value.types.get(key)));
+				}
+			}
+
+			value.writes++;
+			for (Map.Entry<String, Object> change : group.entrySet()) {
+				update(value, change.getKey(), change.getValue());
+			}
+
+			boolean place = isHot(value);
+			if(place==value.hot) {
+				if(value.hot)hot_changes.putAll(group);
+				else cold_changes.putAll(group);
+			}
+			else {
+				// Move the unchanged keys of the value along with the changes
+				PreferenceStore source = value.hot ? hot : cold;
+				HashMap<String, Object> target = place ? hot_changes : cold_changes;
+				HashMap<String, Object> removals = place ? cold_changes : hot_removals;
+
+				for (String key : keys) {
+					removals.put(key, null);
+					// A changed key is reported once, not again for its removal from the old store
+					if(group.get(key)!=null)move(key, group.get(key), source);
+				}
+				for (String key : value.keys.keySet()) {
+					if(group.containsKey(key)) {
+						target.put(key, group.get(key));
+					}
+					else {
+						Object moved = get(source, key, value.types.get(key));
+						target.put(key, moved);
+						move(key, moved, null);
+					}
+				}
+				if(place) {
+					for (String key : value.keys.keySet()) {
+						rollback.put(key, null);
+					}
+					promoted.add(value);
+				}
+				else {
+					demoted.add(value);
+				}
+			}
+
+			if(place)hot_length += value.length;
+			else cold_length += value.length;
+		}
+
+		if(++commits>=AGING_PERIOD) {
+			commits = 0;
+			expireMoves();
+			for (Map.Entry<String, Value> entry : values.entrySet()) {
+				Value value = entry.getValue();
+				value.writes /= 2;
+
+				if(!value.hot||value.writes>0||groups.containsKey(entry.getKey()))continue;
+
+				// Rarely written any more
+				for (String key : value.keys.keySet()) {
+					Object moved = get(hot, key, value.types.get(key));
+					cold_changes.put(key, moved);
+					hot_removals.put(key, null);
+					move(key, moved, null);
+				}
+				hot_length -= value.length;
+				cold_length += value.length;
+				demoted.add(value);
+			}
+		}
+
+		boolean committed = write(hot, hot_changes, true);
+		if(committed) {
+			for (Value value : promoted) {
+				value.hot = true;
+			}
+			promotions += promoted.size();
+
+			committed = write(cold, cold_changes, false);
+			// Do not keep the changes of the hot store without the ones of the cold store
+			if(!committed&&!rollback.isEmpty())hot.commit(rollback);
+		}
+		if(committed) {
+			stale.clear();
+			for (Value value : demoted) {
+				value.hot = false;
+			}
+			demotions += demoted.size();
+
+			committed = write(hot, hot_removals, true);
+		}
+
+		if(committed) {
+			for (String value_name : groups.keySet()) {
+				Value value = values.get(value_name);
+				if(value!=null&&value.keys.isEmpty())values.remove(value_name);
+			}
+		}
+		else {
+			// Read the placement again from what was actually written
+			index();
+			synchronized (moving) {
+				moving.clear();
+			}
+		}
+		return committed;
+	}
+	/**
+	 * @return Returns the type of a key, or null if it is unknown.
+	 */
+	private Class<?> getType(String key) {
+		Value value = values.get(PreferenceKeys.getValueKey(key));
+		return value!=null ? value.types.get(key) : null;
+	}
+	/**
+	 * Hide the callbacks of a store for a key, that moves with a value, its listeners already know
+	 *
+	 * @param store	The store, whose callbacks are hidden, or null for both stores.
+	 */
+	private void move(String key, Object value, PreferenceStore store) {
+		synchronized (moving) {
+			if(!listening)return;
+			moving.put(key, new Move(generation, value, store));
+		}
+	}
+	/**
+	 * @return Returns true, if the callback of a store is caused by a move and the key still has the value, it moved with.
+	 */
+	private boolean isMoved(PreferenceStore store, String key) {
+		Move move;
+		synchronized (moving) {
+			move = moving.get(key);
+		}
+		if(move==null||move.store!=null&&move.store!=store)return false;
+		return isUnchanged(key, move);
+	}
+	/**
+	 * @return Returns true, if the key still has the value, it moved with. Another writer of a store may have changed it.
+	 */
+	private boolean isUnchanged(String key, Move move) {
+		Object value = get(getStore(key), key, move.value!=null ? move.value.getClass() : null);
+		return move.value==null ? value==null : move.value.equals(value);
+	}
+	/**
+	 * Forget moves of at least AGING_PERIOD commits ago, whose keys were changed by another writer
+	 *
+	 * The callbacks of a store can arrive much later, so moves of unchanged keys are kept
+	 * until the key changes.
+	 */
+	private void expireMoves() {
+		HashMap<String, Move> moves;
+		synchronized (moving) {
+			moves = new HashMap<String, Move>(moving);
+		}
+		for (Map.Entry<String, Move> entry : moves.entrySet()) {
+			Move move = entry.getValue();
+			if(generation - move.generation<AGING_PERIOD||isUnchanged(entry.getKey(), move))continue;
+
+			synchronized (moving) {
+				if(moving.get(entry.getKey())==move)moving.remove(entry.getKey());
+			}
+		}
+	}
+	private boolean write(PreferenceStore store, HashMap<String, Object> changes, boolean is_hot) {
+		if(changes.isEmpty())return true;
+
+		boolean written = store.commit(changes);
+		if(is_hot) {
+			hot_commits++;
+			hot_written += hot_length;
+		}
+		else {
+			cold_commits++;
+			cold_written += cold_length;
+		}
+		return written;
+	}
+
+	public synchronized boolean clear() {
+		boolean cleared = hot.clear();
+		cleared = cold.clear() && cleared;
+		reset();
+		return cleared;
+	}
+	public synchronized boolean delete() {
+		boolean deleted = hot.delete();
+		deleted = cold.delete() && deleted;
+		reset();
+		return deleted;
+	}
+	private void reset() {
+		synchronized (moving) {
+			moving.clear();
+		}
+		values = new ConcurrentHashMap<String, Value>();
+		stale.clear();
+		indexed = false;
+		commits = 0;
+	}
+
+	/**
+	 * @return Returns the number of values in the hot store.
+	 */
+	public synchronized int getHotCount() {
+		return count(true);
+	}
+	/**
+	 * @return Returns the number of values in the cold store.
+	 */
+	public synchronized int getColdCount() {
+		return count(false);
+	}
+	private int count(boolean is_hot) {
+		if(!indexed)index();
+
+		int count = 0;
+		for (Value value : values.values()) {
+			if(value.hot==is_hot)count++;
+		}
+		return count;
+	}
+	/**
+	 * @return Returns the characters of all keys and values in the hot store.
+	 */
+	public synchronized long getHotLength() {
+		if(!indexed)index();
+		return hot_length;
+	}
+	/**
+	 * @return Returns the characters of all keys and values in the cold store.
+	 */
+	public synchronized long getColdLength() {
+		if(!indexed)index();
+		return cold_length;
+	}
+	/**
+	 * @return Returns the number of commits to the hot store.
+	 */
+	public synchronized long getHotCommits() {
+		return hot_commits;
+	}
+	/**
+	 * @return Returns the number of commits to the cold store.
+	 */
+	public synchronized long getColdCommits() {
+		return cold_commits;
+	}
+	/**
+	 * @return Returns the characters of the hot store summed over its commits, i.e. what a SharedPreferences file rewrites.
+	 */
+	public synchronized long getHotWritten() {
+		return hot_written;
+	}
+	/**
+	 * @return Returns the characters of the cold store summed over its commits, i.e. what a SharedPreferences file rewrites.
+	 */
+	public synchronized long getColdWritten() {
+		return cold_written;
+	}
+	/**
+	 * @return Returns the number of values moved to the hot store.
+	 */
+	public synchronized long getPromotions() {
+		return promotions;
+	}
+	/**
+	 * @return Returns the number of values moved to the cold store.
+	 */
+	public synchronized long getDemotions() {
+		return demotions;
+	}
+	/**
+	 * Reset the commit, written and move counters
+	 */
+	public synchronized void resetStats() {
+		hot_commits = 0;
+		cold_commits = 0;
+		hot_written = 0;
+		cold_written = 0;
+		promotions = 0;
+		demotions = 0;
+	}
+
+	/**
+	 * @return Returns values, characters, commits and written characters of both stores.
+	 */
+	@Override
+	public synchronized String toString() {
+		return name
+				+ " hot: " + getHotCount() + " values, " + hot_length + " chars, " + hot_commits + " commits, " + hot_written + " chars written"
+				+ "; cold: " + getColdCount() + " values, " + cold_length + " chars, " + cold_commits + " commits, " + cold_written + " chars written"
+				+ "; " + promotions + " promotions, " + demotions + " demotions";
+	}
+
+	public void registerListener(Listener listener) {
+		if(!listeners.addIfAbsent(listener))return;
+
+		synchronized (moving) {
+			if(listening)return;
+			listening = true;
+		}
+		hot.registerListener(forwarder);
+		cold.registerListener(forwarder);
+	}
+	public void unregisterListener(Listener listener) {
+		if(!listeners.remove(listener)||!listeners.isEmpty())return;
+
+		synchronized (moving) {
+			if(!listening)return;
+			listening = false;
+			moving.clear();
+		}
+		hot.unregisterListener(forwarder);
+		cold.unregisterListener(forwarder);
+	}
+}
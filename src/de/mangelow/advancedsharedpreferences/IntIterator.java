@@ -0,0 +1,53 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator over the int values of a saved array without boxing.
+ *
+ * The values are decoded, when they are read, and only the chunk of the
+ * saved value, that holds the next value, is kept in memory. The iterator
+ * fails fast: once the saved value is saved again, appended to or deleted,
+ * the next read of a chunk throws a ConcurrentModificationException.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+public final class IntIterator {
+
+	private final ValueDecoder decoder;
+
+	IntIterator(ValueDecoder decoder) {
+		this.decoder = decoder;
+	}
+
+	/**
+	 * @return Returns true if there are more values.
+	 */
+	public boolean hasNext() {
+		return decoder.hasNext();
+	}
+	/**
+	 * @return Returns the next value.
+	 * @throws NoSuchElementException if there are no more values.
+	 * @throws IllegalArgumentException if the saved value is malformed.
+	 * @throws ConcurrentModificationException if the saved value has been modified.
+	 */
+	public int nextInt() {
+		if(!decoder.hasNext())throw new NoSuchElementException();
+		return decoder.nextInt();
+	}
+}
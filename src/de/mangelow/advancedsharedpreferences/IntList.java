@@ -0,0 +1,157 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of int values without boxing.
+ *
+ * Like ArrayList, but the values are kept in a int array, so a list of
+ * ints costs one array instead of an object per element.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+public final class IntList {
+
+	private static final int [] EMPTY = {};
+
+	int [] elements;
+	int size;
+
+	public IntList() {
+		this.elements = EMPTY;
+	}
+	/**
+	 * @param capacity	Number of values the list can hold before it grows.
+	 */
+	public IntList(int capacity) {
+		this.elements = capacity>0 ? new int [capacity] : EMPTY;
+	}
+	/**
+	 * @param values	Values to copy into the list.
+	 */
+	public IntList(int [] values) {
+		this.elements = values.clone();
+		this.size = values.length;
+	}
+	/**
+	 * @param list	List to copy.
+	 */
+	public IntList(IntList list) {
+		this.elements = Arrays.copyOf(list.elements, list.size);
+		this.size = list.size;
+	}
+	IntList(int [] elements, int size) {
+		this.elements = elements;
+		this.size = size;
+	}
+
+	public int size() {
+		return size;
+	}
+	public boolean isEmpty() {
+		return size==0;
+	}
+	public int get(int index) {
+		check(index);
+		return elements[index];
+	}
+	/**
+	 * @return Returns the value previously at the index.
+	 */
+	public int set(int index, int value) {
+		check(index);
+		int previous = elements[index];
+		elements[index] = value;
+		return previous;
+	}
+	public void add(int value) {
+		if(size==elements.length)grow(size + 1);
+		elements[size++] = value;
+	}
+	public void addAll(int [] values) {
+		ensureCapacity(size + values.length);
+		System.arraycopy(values, 0, elements, size, values.length);
+		size += values.length;
+	}
+	/**
+	 * @return Returns the removed value.
+	 */
+	public int removeAt(int index) {
+		check(index);
+		int previous = elements[index];
+		System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+		size--;
+		return previous;
+	}
+	public void clear() {
+		size = 0;
+	}
+	public void ensureCapacity(int capacity) {
+		if(capacity>elements.length)grow(capacity);
+	}
+	public void trimToSize() {
+		if(size<elements.length)elements = size>0 ? Arrays.copyOf(elements, size) : EMPTY;
+	}
+	/**
+	 * @return Returns a copy of the values.
+	 */
+	public int [] toArray() {
+		return Arrays.copyOf(elements, size);
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		if(object==this)return true;
+		if(!(object instanceof IntList))return false;
+
+		IntList other = (IntList) object;
+		if(other.size!=size)return false;
+		for (int i = 0; i < size; i++) {
+			if(elements[i]!=other.elements[i])return false;
+		}
+		return true;
+	}
+	@Override
+	public int hashCode() {
+		int hash = 1;
+		for (int i = 0; i < size; i++) {
+			int value = elements[i];
+			hash = 31 * hash + value;
+		}
+		return hash;
+	}
+	@Override
+	public String toString() {
+		if(size==0)return "[]";
+
+		StringBuilder builder = new StringBuilder(size * 4);
+		builder.append('[');
+		for (int i = 0; i < size; i++) {
+			if(i>0)builder.append(", ");
+			builder.append(elements[i]);
+		}
+		return builder.append(']').toString();
+	}
+
+	private void check(int index) {
+		if(index<0||index>=size)throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+	}
+	private void grow(int capacity) {
+		int grown = elements.length + (elements.length >> 1) + 1;
+		if(grown<capacity||grown<0)grown = capacity;
+		elements = Arrays.copyOf(elements, grown);
+	}
+}
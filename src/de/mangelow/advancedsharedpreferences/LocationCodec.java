@@ -0,0 +1,241 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import android.location.Location;
+
+/**
+ * Packs a track of Locations into one BinaryCodec value of type 'L'.
+ *
+ * The bytes are the varint number of fixes, the varint number of
+ * providers and the providers (varint UTF-8 length + 1, 0 for null), then
+ * one column per field: a flag byte per fix, the provider index, the
+ * timestamp, latitude and longitude as varint deltas to the previous fix,
+ * and packed accuracy, speed, bearing and altitude of the fixes, that
+ * have them. Latitude and longitude are stored as fixed-point numbers of
+ * 1e-7 degrees (about 1 cm), coordinates out of range as doubles.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+final class LocationCodec {
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private static final double FIXED_POINT = 1e7;
+
+	private static final int NULL = 1;
+	private static final int ACCURACY = 2;
+	private static final int SPEED = 4;
+	private static final int BEARING = 8;
+	private static final int ALTITUDE = 16;
+	private static final int EXACT = 32;
+
+	// Varint provider index, timestamp, latitude and longitude, two exact doubles, three floats, altitude
+	private static final int FIX_BYTES = 1 + 5 + 3 * 10 + 16 + 12 + 8;
+
+	private LocationCodec() {}
+
+	static String encode(Location [] value) {
+		int length = value.length;
+		int [] flags = new int [length];
+		int [] indices = new int [length];
+
+		ArrayList<byte []> providers = new ArrayList<byte []>();
+		HashMap<String, Integer> known = new HashMap<String, Integer>();
+		int size = 10 + length * FIX_BYTES;
+
+		for (int i = 0; i < length; i++) {
+			Location location = value[i];
+			if(location==null) {
+				flags[i] = NULL;
+				continue;
+			}
+
+			String provider = location.getProvider();
+			Integer index = known.get(provider);
+			if(index==null) {
+				index = providers.size();
+				known.put(provider, index);
+				byte [] bytes = provider==null ? null : provider.getBytes(UTF8);
+				providers.add(bytes);
+				size += 5 + (bytes==null ? 0 : bytes.length);
+			}
+			indices[i] = index;
+
+			if(location.hasAccuracy())flags[i] |= ACCURACY;
+			if(location.hasSpeed())flags[i] |= SPEED;
+			if(location.hasBearing())flags[i] |= BEARING;
+			if(location.hasAltitude())flags[i] |= ALTITUDE;
+			if(!isFixedPoint(location.getLatitude(), 90)||!isFixedPoint(location.getLongitude(), 180))flags[i] |= EXACT;
+		}
+
+		byte [] bytes = new byte [size];
+		int position = BinaryCodec.putVarint(bytes, 0, length);
+		position = BinaryCodec.putVarint(bytes, position, providers.size());
+		for (byte [] provider : providers) {
+			if(provider==null) {
+				position = BinaryCodec.putVarint(bytes, position, 0);
+				continue;
+			}
+			position = BinaryCodec.putVarint(bytes, position, provider.length + 1);
+			System.arraycopy(provider, 0, bytes, position, provider.length);
+			position += provider.length;
+		}
+
+		for (int i = 0; i < length; i++) {
+			bytes[position++] = (byte) flags[i];
+		}
+		for (int i = 0; i < length; i++) {
+			if((flags[i] & NULL)==0)position = BinaryCodec.putVarint(bytes, position, indices[i]);
+		}
+
+		long time = 0;
+		for (int i = 0; i < length; i++) {
+			if((flags[i] & NULL)!=0)continue;
+			position = BinaryCodec.putVarint(bytes, position, value[i].getTime() - time);
+			time = value[i].getTime();
+		}
+
+		long latitude = 0;
+		long longitude = 0;
+		for (int i = 0; i < length; i++) {
+			if((flags[i] & (NULL | EXACT))!=0)continue;
+			long fixed_latitude = Math.round(value[i].getLatitude() * FIXED_POINT);
+			long fixed_longitude = Math.round(value[i].getLongitude() * FIXED_POINT);
+			position = BinaryCodec.putVarint(bytes, position, fixed_latitude - latitude);
+			position = BinaryCodec.putVarint(bytes, position, fixed_longitude - longitude);
+			latitude = fixed_latitude;
+			longitude = fixed_longitude;
+		}
+		for (int i = 0; i < length; i++) {
+			if((flags[i] & EXACT)==0)continue;
+			BinaryCodec.putLong(bytes, position, Double.doubleToLongBits(value[i].getLatitude()));
+			BinaryCodec.putLong(bytes, position + 8, Double.doubleToLongBits(value[i].getLongitude()));
+			position += 16;
+		}
+
+		for (int i = 0; i < length; i++) {
+			if((flags[i] & ACCURACY)==0)continue;
+			BinaryCodec.putInt(bytes, position, Float.floatToIntBits(value[i].getAccuracy()));
+			position += 4;
+		}
+		for (int i = 0; i < length; i++) {
+			if((flags[i] & SPEED)==0)continue;
+			BinaryCodec.putInt(bytes, position, Float.floatToIntBits(value[i].getSpeed()));
+			position += 4;
+		}
+		for (int i = 0; i < length; i++) {
+			if((flags[i] & BEARING)==0)continue;
+			BinaryCodec.putInt(bytes, position, Float.floatToIntBits(value[i].getBearing()));
+			position += 4;
+		}
+		for (int i = 0; i < length; i++) {
+			if((flags[i] & ALTITUDE)==0)continue;
+			BinaryCodec.putLong(bytes, position, Double.doubleToLongBits(value[i].getAltitude()));
+			position += 8;
+		}
+		return BinaryCodec.toBase64(BinaryCodec.TYPE_LOCATION, BinaryCodec.PACKED, bytes, position);
+	}
+
+	static Location [] decode(CharSequence value) {
+		byte [] bytes = BinaryCodec.fromBase64(value, BinaryCodec.TYPE_LOCATION);
+		int [] position = {0};
+
+		int length = BinaryCodec.getCount(bytes, position, value);
+		String [] providers = new String [BinaryCodec.getCount(bytes, position, value)];
+		for (int i = 0; i < providers.length; i++) {
+			int provider = BinaryCodec.getCount(bytes, position, value) - 1;
+			if(provider<0)continue;
+			if(provider>bytes.length - position[0])throw BinaryCodec.malformed(value);
+			providers[i] = new String(bytes, position[0], provider, UTF8);
+			position[0] += provider;
+		}
+
+		if(length>bytes.length - position[0])throw BinaryCodec.malformed(value);
+		int [] flags = new int [length];
+		Location [] result = new Location [length];
+		for (int i = 0; i < length; i++) {
+			flags[i] = bytes[position[0]++];
+			if((flags[i] & ~(NULL | ACCURACY | SPEED | BEARING | ALTITUDE | EXACT))!=0)throw BinaryCodec.malformed(value);
+		}
+		for (int i = 0; i < length; i++) {
+			if((flags[i] & NULL)!=0)continue;
+			int provider = BinaryCodec.getCount(bytes, position, value);
+			if(provider>=providers.length)throw BinaryCodec.malformed(value);
+			result[i] = new Location(providers[provider]);
+		}
+
+		long time = 0;
+		for (int i = 0; i < length; i++) {
+			if(result[i]==null)continue;
+			time += BinaryCodec.getVarint(bytes, position, value);
+			result[i].setTime(time);
+		}
+
+		long latitude = 0;
+		long longitude = 0;
+		for (int i = 0; i < length; i++) {
+			if(result[i]==null||(flags[i] & EXACT)!=0)continue;
+			latitude += BinaryCodec.getVarint(bytes, position, value);
+			longitude += BinaryCodec.getVarint(bytes, position, value);
+			result[i].setLatitude(latitude / FIXED_POINT);
+			result[i].setLongitude(longitude / FIXED_POINT);
+		}
+		for (int i = 0; i < length; i++) {
+			if(result[i]==null||(flags[i] & EXACT)==0)continue;
+			check(bytes, position, 16, value);
+			result[i].setLatitude(Double.longBitsToDouble(BinaryCodec.getLong(bytes, position[0])));
+			result[i].setLongitude(Double.longBitsToDouble(BinaryCodec.getLong(bytes, position[0] + 8)));
+			position[0] += 16;
+		}
+
+		for (int i = 0; i < length; i++) {
+			if(result[i]==null||(flags[i] & ACCURACY)==0)continue;
+			check(bytes, position, 4, value);
+			result[i].setAccuracy(Float.intBitsToFloat(BinaryCodec.getInt(bytes, position[0])));
+			position[0] += 4;
+		}
+		for (int i = 0; i < length; i++) {
+			if(result[i]==null||(flags[i] & SPEED)==0)continue;
+			check(bytes, position, 4, value);
+			result[i].setSpeed(Float.intBitsToFloat(BinaryCodec.getInt(bytes, position[0])));
+			position[0] += 4;
+		}
+		for (int i = 0; i < length; i++) {
+			if(result[i]==null||(flags[i] & BEARING)==0)continue;
+			check(bytes, position, 4, value);
+			result[i].setBearing(Float.intBitsToFloat(BinaryCodec.getInt(bytes, position[0])));
+			position[0] += 4;
+		}
+		for (int i = 0; i < length; i++) {
+			if(result[i]==null||(flags[i] & ALTITUDE)==0)continue;
+			check(bytes, position, 8, value);
+			result[i].setAltitude(Double.longBitsToDouble(BinaryCodec.getLong(bytes, position[0])));
+			position[0] += 8;
+		}
+		if(position[0]!=bytes.length)throw BinaryCodec.malformed(value);
+		return result;
+	}
+
+	private static boolean isFixedPoint(double degrees, double max) {
+		return degrees>=-max&&degrees<=max;
+	}
+	private static void check(byte [] bytes, int [] position, int length, CharSequence value) {
+		if(length>bytes.length - position[0])throw BinaryCodec.malformed(value);
+	}
+}
@@ -0,0 +1,436 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.CRC32;
+
+/**
+ * PreferenceStore in an append-only, memory-mapped log file.
+ *
+ * Every commit appends one record, so its cost depends on the size of the
+ * changes and not on the size of the file. A record is its payload length,
+ * the CRC32 of the payload and the payload, which holds the changed keys
+ * with their type and value. On open the log is replayed into an index in
+ * memory. Replay stops at the first record that is incomplete or does not
+ * match its checksum, e.g. after a crash during a write, and the file is
+ * truncated there.
+ *
+ * Overwritten and removed values stay in the log until it is compacted.
+ * Compaction writes the live values into a new file, which replaces the
+ * log by renaming. It runs when the log holds more garbage than live data.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+public class MappedLogStore implements PreferenceStore, Closeable {
+
+	private static final int MAGIC = 0x4153504C;
+	private static final int VERSION = 1;
+	private static final int HEADER_LENGTH = 8;
+	private static final int RECORD_HEADER_LENGTH = 8;
+
+	private static final int INITIAL_CAPACITY = 64 * 1024;
+	private static final int COMPACT_MINSIZE = 64 * 1024;
+
+	private static final byte TYPE_REMOVED = 0;
+	private static final byte TYPE_STRING = 1;
+	private static final byte TYPE_INTEGER = 2;
+	private static final byte TYPE_LONG = 3;
+	private static final byte TYPE_FLOAT = 4;
+	private static final byte TYPE_BOOLEAN = 5;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private final File file;
+	private final boolean sync;
+
+	private RandomAccessFile access;
+	private FileChannel channel;
+	private MappedByteBuffer buffer;
+	private int position;
+
+	private final HashMap<String, Object> values = new HashMap<String, Object>();
+	private final HashMap<String, Integer> sizes = new HashMap<String, Integer>();
+	private long live = 0;
+
+	private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+
+	/**
+	 * @param file  - The log file. It is created, if it does not exist.
+	 */
+	public MappedLogStore(File file) throws IOException {
+		this(file, true);
+	}
+	/**
+	 * @param file  - The log file. It is created, if it does not exist.
+	 * @param sync  - If true, every commit is forced to the storage device before it returns. (default: true)
+	 */
+	public MappedLogStore(File file, boolean sync) throws IOException {
+		this.file = file;
+		this.sync = sync;
+		open();
+	}
+
+	public String getName() {
+		return file.getName();
+	}
+
+	public synchronized Map<String, ?> getAll() {
+		return new HashMap<String, Object>(values);
+	}
+	public String getString(String key, String defValue) {
+		Object value = get(key);
+		return value!=null ? (String) value : defValue;
+	}
+	public int getInt(String key, int defValue) {
+		Object value = get(key);
+		return value!=null ? (Integer) value : defValue;
+	}
+	public long getLong(String key, long defValue) {
+		Object value = get(key);
+		return value!=null ? (Long) value : defValue;
+	}
+	public float getFloat(String key, float defValue) {
+		Object value = get(key);
+		return value!=null ? (Float) value : defValue;
+	}
+	public boolean getBoolean(String key, boolean defValue) {
+		Object value = get(key);
+		return value!=null ? (Boolean) value : defValue;
+	}
+	public synchronized boolean contains(String key) {
+		return values.containsKey(key);
+	}
+	private synchronized Object get(String key) {
+		return values.get(key);
+	}
+
+	public boolean commit(Map<String, Object> changes) {
+		ArrayList<String> changed = new ArrayList<String>(changes.size());
+		synchronized (this) {
+			if(changes.isEmpty())return true;
+			try {
+				ensureOpen();
+				append(encode(changes));
+				for (Map.Entry<String, Object> entry : changes.entrySet()) {
+					if(apply(entry.getKey(), entry.getValue()))changed.add(entry.getKey());
+				}
+				if(sync)buffer.force();
+
+				long garbage = position - HEADER_LENGTH - live;
+				if(position>COMPACT_MINSIZE&&garbage>live)rewrite();
+			}
+			catch (IOException e) {
+				return false;
+			}
+		}
+		notifyListeners(changed);
+		return true;
+	}
+	public boolean clear() {
+		synchronized (this) {
+			values.clear();
+			sizes.clear();
+			live = 0;
+			try {
+				ensureOpen();
+				rewrite();
+			}
+			catch (IOException e) {
+				return false;
+			}
+		}
+		for (Listener listener : listeners) {
+			listener.onPreferenceChanged(this, null);
+		}
+		return true;
+	}
+	public boolean delete() {
+		synchronized (this) {
+			values.clear();
+			sizes.clear();
+			live = 0;
+			close();
+			if(!file.delete()&&file.exists())return false;
+		}
+		for (Listener listener : listeners) {
+			listener.onPreferenceChanged(this, null);
+		}
+		return true;
+	}
+
+	/**
+	 * Rewrite the log with live values only
+	 *
+	 * @return Returns true, if the log is compacted.
+	 */
+	public synchronized boolean compact() {
+		try {
+			ensureOpen();
+			rewrite();
+			return true;
+		}
+		catch (IOException e) {
+			return false;
+		}
+	}
+	/**
+	 * Release the file. It is opened again by the next commit.
+	 */
+	public synchronized void close() {
+		if(access!=null) {
+			try {
+				if(sync&&buffer!=null)buffer.force();
+				access.close();
+			}
+			catch (IOException e) {}
+		}
+		access = null;
+		channel = null;
+		buffer = null;
+	}
+
+	public void registerListener(Listener listener) {
+		listeners.addIfAbsent(listener);
+	}
+	public void unregisterListener(Listener listener) {
+		listeners.remove(listener);
+	}
+
+	private void notifyListeners(ArrayList<String> changed) {
+		if(listeners.isEmpty())return;
+		for (String key : changed) {
+			for (Listener listener : listeners) {
+				listener.onPreferenceChanged(this, key);
+			}
+		}
+	}
+
+	// LOG
+
+	private void ensureOpen() throws IOException {
+		if(channel==null)open();
+	}
+	private void open() throws IOException {
+		values.clear();
+		sizes.clear();
+		live = 0;
+
+		access = new RandomAccessFile(file, "rw");
+		channel = access.getChannel();
+
+		long length = channel.size();
+		if(length>Integer.MAX_VALUE)throw new IOException("Log too large: " + file);
+
+		if(length<HEADER_LENGTH) {
+			map(INITIAL_CAPACITY);
+			buffer.putInt(0, MAGIC);
+			buffer.putInt(4, VERSION);
+			position = HEADER_LENGTH;
+			return;
+		}
+
+		map(Math.max((int) length, INITIAL_CAPACITY));
+		if(buffer.getInt(0)!=MAGIC)throw new IOException("Not a preference log: " + file);
+		if(buffer.getInt(4)!=VERSION)throw new IOException("Unsupported preference log version " + buffer.getInt(4) + ": " + file);
+
+		position = HEADER_LENGTH;
+		CRC32 crc = new CRC32();
+		while (position + RECORD_HEADER_LENGTH<=length) {
+			int size = buffer.getInt(position);
+			if(size<=0||position + RECORD_HEADER_LENGTH + (long) size>length)break;
+
+			byte [] payload = new byte [size];
+			ByteBuffer record = buffer.duplicate();
+			record.position(position + RECORD_HEADER_LENGTH);
+			record.get(payload);
+
+			crc.reset();
+			crc.update(payload, 0, size);
+			if((int) crc.getValue()!=buffer.getInt(position + 4))break;
+
+			replay(payload);
+			position += RECORD_HEADER_LENGTH + size;
+		}
+
+		// Drop what is left of an incomplete record
+		if(position<length&&(position + 4>length||buffer.getInt(position)!=0)) {
+			buffer = null;
+			channel.truncate(position);
+			map(Math.max(position, INITIAL_CAPACITY));
+		}
+	}
+	private void map(int capacity) throws IOException {
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+	}
+	private void append(byte [] payload) throws IOException {
+		long end = (long) position + RECORD_HEADER_LENGTH + payload.length;
+		if(end>Integer.MAX_VALUE)throw new IOException("Log too large: " + file);
+		if(end>buffer.capacity()) {
+			long capacity = buffer.capacity();
+			while (capacity<end)capacity *= 2;
+			map((int) Math.min(capacity, Integer.MAX_VALUE));
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(payload, 0, payload.length);
+
+		// The length is written last, so a torn record is never complete
+		ByteBuffer record = buffer.duplicate();
+		record.position(position + 4);
+		record.putInt((int) crc.getValue());
+		record.put(payload);
+		buffer.putInt(position, payload.length);
+
+		position = (int) end;
+	}
+	private void rewrite() throws IOException {
+		File temp = new File(file.getPath() + ".tmp");
+
+		HashMap<String, Object> snapshot = new HashMap<String, Object>(values);
+		byte [] payload = snapshot.isEmpty() ? null : encode(snapshot);
+
+		RandomAccessFile out = new RandomAccessFile(temp, "rw");
+		try {
+			out.setLength(0);
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			if(payload!=null) {
+				CRC32 crc = new CRC32();
+				crc.update(payload, 0, payload.length);
+				out.writeInt(payload.length);
+				out.writeInt((int) crc.getValue());
+				out.write(payload);
+			}
+			out.getFD().sync();
+		}
+		finally {
+			out.close();
+		}
+
+		close();
+		if(!temp.renameTo(file)) {
+			temp.delete();
+			open();
+			throw new IOException("Could not replace " + file);
+		}
+		open();
+	}
+
+	// RECORDS
+
+	private byte [] encode(Map<String, Object> changes) {
+		int length = 0;
+		ArrayList<byte []> keys = new ArrayList<byte []>(changes.size());
+		ArrayList<byte []> strings = new ArrayList<byte []>();
+		for (Map.Entry<String, Object> entry : changes.entrySet()) {
+			byte [] key = entry.getKey().getBytes(UTF8);
+			keys.add(key);
+
+			Object value = entry.getValue();
+			length += 1 + 4 + key.length;
+			if(value==null)continue;
+			if(value instanceof String) {
+				byte [] string = ((String) value).getBytes(UTF8);
+				strings.add(string);
+				length += 4 + string.length;
+			}
+			else if(value instanceof Integer||value instanceof Float)length += 4;
+			else if(value instanceof Long)length += 8;
+			else if(value instanceof Boolean)length += 1;
+			else throw new IllegalArgumentException("Unsupported value type " + value.getClass().getName() + " for " + entry.getKey());
+		}
+
+		ByteBuffer payload = ByteBuffer.allocate(length);
+		int k = 0;
+		int s = 0;
+		for (Map.Entry<String, Object> entry : changes.entrySet()) {
+			byte [] key = keys.get(k++);
+			Object value = entry.getValue();
+
+			if(value==null)payload.put(TYPE_REMOVED);
+			else if(value instanceof String)payload.put(TYPE_STRING);
+			else if(value instanceof Integer)payload.put(TYPE_INTEGER);
+			else if(value instanceof Long)payload.put(TYPE_LONG);
+			else if(value instanceof Float)payload.put(TYPE_FLOAT);
+			else payload.put(TYPE_BOOLEAN);
+
+			payload.putInt(key.length);
+			payload.put(key);
+
+			if(value==null)continue;
+			if(value instanceof String) {
+				byte [] string = strings.get(s++);
+				payload.putInt(string.length);
+				payload.put(string);
+			}
+			else if(value instanceof Integer)payload.putInt((Integer) value);
+			else if(value instanceof Long)payload.putLong((Long) value);
+			else if(value instanceof Float)payload.putFloat((Float) value);
+			else payload.put((byte) ((Boolean) value ? 1 : 0));
+		}
+		return payload.array();
+	}
+	private void replay(byte [] payload) throws IOException {
+		ByteBuffer record = ByteBuffer.wrap(payload);
+		while (record.hasRemaining()) {
+			byte type = record.get();
+			String key = getString(record);
+
+			Object value;
+			switch (type) {
+			case TYPE_REMOVED: value = null; break;
+			case TYPE_STRING: value = getString(record); break;
+			case TYPE_INTEGER: value = record.getInt(); break;
+			case TYPE_LONG: value = record.getLong(); break;
+			case TYPE_FLOAT: value = record.getFloat(); break;
+			case TYPE_BOOLEAN: value = record.get()!=0; break;
+			default: throw new IOException("Unknown value type " + type + " in " + file);
+			}
+			apply(key, value);
+		}
+	}
+	private static String getString(ByteBuffer record) {
+		int length = record.getInt();
+		String value = new String(record.array(), record.arrayOffset() + record.position(), length, UTF8);
+		record.position(record.position() + length);
+		return value;
+	}
+	private boolean apply(String key, Object value) {
+		Integer previous = sizes.remove(key);
+		if(previous!=null)live -= previous;
+
+		if(value==null)return values.remove(key)!=null;
+
+		values.put(key, value);
+
+		int size = 1 + 4 + key.length() + 4;
+		if(value instanceof String)size += 4 + ((String) value).length();
+		else if(value instanceof Long)size += 4;
+		sizes.put(key, size);
+		live += size;
+		return true;
+	}
+}
@@ -0,0 +1,135 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * PreferenceStore in memory, e.g. for tests and benchmarks on a plain JVM.
+ *
+ * Nothing is persisted. Listeners are called on the committing thread.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+public class MemoryPreferenceStore implements PreferenceStore {
+
+	private final String name;
+
+	private final HashMap<String, Object> values = new HashMap<String, Object>();
+
+	private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+
+	public MemoryPreferenceStore() {
+		this("Preferences");
+	}
+	/**
+	 * @param name  - Name of the store.
+	 */
+	public MemoryPreferenceStore(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public synchronized Map<String, ?> getAll() {
+		return new HashMap<String, Object>(values);
+	}
+	public String getString(String key, String defValue) {
+		Object value = get(key);
+		return value!=null ? (String) value : defValue;
+	}
+	public int getInt(String key, int defValue) {
+		Object value = get(key);
+		return value!=null ? (Integer) value : defValue;
+	}
+	public long getLong(String key, long defValue) {
+		Object value = get(key);
+		return value!=null ? (Long) value : defValue;
+	}
+	public float getFloat(String key, float defValue) {
+		Object value = get(key);
+		return value!=null ? (Float) value : defValue;
+	}
+	public boolean getBoolean(String key, boolean defValue) {
+		Object value = get(key);
+		return value!=null ? (Boolean) value : defValue;
+	}
+	public synchronized boolean contains(String key) {
+		return values.containsKey(key);
+	}
+	private synchronized Object get(String key) {
+		return values.get(key);
+	}
+
+	public boolean commit(Map<String, Object> changes) {
+		ArrayList<String> changed = new ArrayList<String>(changes.size());
+		synchronized (this) {
+			for (Map.Entry<String, Object> entry : changes.entrySet()) {
+				String key = entry.getKey();
+				Object value = entry.getValue();
+
+				if(value!=null&&!(value instanceof String||value instanceof Integer||value instanceof Long||value instanceof Float||value instanceof Boolean)) {
+					throw new IllegalArgumentException("Unsupported value type " + value.getClass().getName() + " for " + key);
+				}
+			}
+			for (Map.Entry<String, Object> entry : changes.entrySet()) {
+				String key = entry.getKey();
+				Object value = entry.getValue();
+
+				if(value==null) {
+					if(values.remove(key)!=null)changed.add(key);
+				}
+				else {
+					values.put(key, value);
+					changed.add(key);
+				}
+			}
+		}
+		notifyListeners(changed);
+		return true;
+	}
+	public boolean clear() {
+		synchronized (this) {
+			values.clear();
+		}
+		for (Listener listener : listeners) {
+			listener.onPreferenceChanged(this, null);
+		}
+		return true;
+	}
+	public boolean delete() {
+		return clear();
+	}
+
+	public void registerListener(Listener listener) {
+		listeners.addIfAbsent(listener);
+	}
+	public void unregisterListener(Listener listener) {
+		listeners.remove(listener);
+	}
+
+	private void notifyListeners(ArrayList<String> changed) {
+		if(listeners.isEmpty())return;
+		for (String key : changed) {
+			for (Listener listener : listeners) {
+				listener.onPreferenceChanged(this, key);
+			}
+		}
+	}
+}
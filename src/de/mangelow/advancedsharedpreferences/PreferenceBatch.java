@@ -0,0 +1,1922 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+
+import android.location.Location;
+
+/**
+ * A batch of saves, appends and deletes, that is written to the preference file with a single commit.
+ * 
+ * Changes are recorded until {@link #commit()} is called. If one of the saves, appends or
+ * deletes fails, nothing is written. A delete fails, if the preference does not exist.
+ * Only the changes made through the batch are recorded, never saves of other
+ * threads. A batch is not thread-safe and should be committed by the thread, that filled it.
+ * 
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+public class PreferenceBatch {
+
+	private final AdvancedSharedPreferences preferences;
+
+	private final HashMap<String, Object> values = new HashMap<String, Object>();
+
+	private boolean failed = false;
+	private boolean done = false;
+
+	PreferenceBatch(AdvancedSharedPreferences preferences) {
+		this.preferences = preferences;
+	}
+
+	/**
+	 * A save or delete of AdvancedSharedPreferences
+	 */
+	private abstract class Change {
+		/**
+		 * @return Returns false, if the change failed.
+		 */
+		abstract boolean apply();
+	}
+
+	/**
+	 * Apply a change on this thread, while its writes are recorded into the batch
+	 */
+	private PreferenceBatch record(Change change) {
+		if(done)throw new IllegalStateException("Batch has already been committed or discarded");
+
+		HashMap<String, Object> previous = preferences.beginBatch(values);
+		try {
+			if(!change.apply())failed = true;
+		}
+		finally {
+			preferences.endBatch(previous);
+		}
+		return this;
+	}
+
+	/**
+	 * Write all recorded changes with a single commit
+	 * 
+	 * @return Returns true, if all changes are saved. If one of the saves failed, nothing is written.
+	 * 
+	 */
+	public boolean commit() {
+		if(done)return false;
+		done = true;
+
+		if(failed) {
+			values.clear();
+			return false;
+		}
+		boolean committed = preferences.commitBatch(values);
+		values.clear();
+		return committed;
+	}
+	/**
+	 * Drop all recorded changes
+	 * 
+	 */
+	public void discard() {
+		done = true;
+		values.clear();
+	}
+
+	// BOOLEAN
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveBooleanPref(final String key, final boolean value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveBooleanPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveBooleanArrayPref(final String key, final boolean [] value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveBooleanArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveBooleanArrayListPref(final String key, final ArrayList<Boolean> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveBooleanArrayListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveBooleanListPref(final String key, final BooleanList value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveBooleanListPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved array
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendBooleanArrayPref(final String key, final boolean... value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendBooleanArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved arraylist
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendBooleanArrayListPref(final String key, final ArrayList<Boolean> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendBooleanArrayListPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved arraylist
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendBooleanListPref(final String key, final BooleanList value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendBooleanListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delBooleanPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delBooleanPref(key);
+			}
+		});
+	}
+
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delBooleanArrayPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delBooleanArrayPref(key);
+			}
+		});
+	}
+
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delBooleanArrayListPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delBooleanArrayListPref(key);
+			}
+		});
+	}
+
+	// BYTE
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveBytePref(final String key, final byte value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveBytePref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveByteArrayPref(final String key, final byte [] value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveByteArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveByteArrayListPref(final String key, final ArrayList<Byte> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveByteArrayListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveByteListPref(final String key, final ByteList value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveByteListPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved array
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendByteArrayPref(final String key, final byte... value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendByteArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved arraylist
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendByteArrayListPref(final String key, final ArrayList<Byte> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendByteArrayListPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved arraylist
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendByteListPref(final String key, final ByteList value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendByteListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delBytePref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delBytePref(key);
+			}
+		});
+	}
+
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delByteArrayPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delByteArrayPref(key);
+			}
+		});
+	}
+
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delByteArrayListPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delByteArrayListPref(key);
+			}
+		});
+	}
+
+	// SHORT
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveShortPref(final String key, final short value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveShortPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveShortArrayPref(final String key, final short [] value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveShortArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveShortArrayListPref(final String key, final ArrayList<Short> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveShortArrayListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveShortListPref(final String key, final ShortList value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveShortListPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved array
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendShortArrayPref(final String key, final short... value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendShortArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved arraylist
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendShortArrayListPref(final String key, final ArrayList<Short> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendShortArrayListPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved arraylist
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendShortListPref(final String key, final ShortList value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendShortListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delShortPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delShortPref(key);
+			}
+		});
+	}
+
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delShortArrayPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delShortArrayPref(key);
+			}
+		});
+	}
+
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delShortArrayListPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delShortArrayListPref(key);
+			}
+		});
+	}
+
+	// INTEGER
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveIntegerPref(final String key, final int value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveIntegerPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveIntegerArrayPref(final String key, final int [] value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveIntegerArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveIntegerArrayListPref(final String key, final ArrayList<Integer> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveIntegerArrayListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveIntegerListPref(final String key, final IntList value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveIntegerListPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved array
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendIntegerArrayPref(final String key, final int... value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendIntegerArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved arraylist
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendIntegerArrayListPref(final String key, final ArrayList<Integer> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendIntegerArrayListPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved arraylist
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendIntegerListPref(final String key, final IntList value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendIntegerListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delIntegerPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delIntegerPref(key);
+			}
+		});
+	}
+
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delIntegerArrayPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delIntegerArrayPref(key);
+			}
+		});
+	}
+
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delIntegerArrayListPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delIntegerArrayListPref(key);
+			}
+		});
+	}
+
+	// LONG
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveLongPref(final String key, final long value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveLongPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveLongArrayPref(final String key, final long [] value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveLongArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveLongArrayListPref(final String key, final ArrayList<Long> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveLongArrayListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveLongListPref(final String key, final LongList value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveLongListPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved array
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendLongArrayPref(final String key, final long... value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendLongArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved arraylist
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendLongArrayListPref(final String key, final ArrayList<Long> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendLongArrayListPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved arraylist
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendLongListPref(final String key, final LongList value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendLongListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delLongPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delLongPref(key);
+			}
+		});
+	}
+
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delLongArrayPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delLongArrayPref(key);
+			}
+		});
+	}
+
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delLongArrayListPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delLongArrayListPref(key);
+			}
+		});
+	}
+
+	// BIGINTEGER
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveBigIntegerPref(final String key, final BigInteger value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveBigIntegerPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveBigIntegerArrayPref(final String key, final BigInteger [] value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveBigIntegerArrayPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveBigIntegerArrayListPref(final String key, final ArrayList<BigInteger> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveBigIntegerArrayListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Append values to a saved array
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendBigIntegerArrayPref(final String key, final BigInteger... value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendBigIntegerArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved arraylist
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendBigIntegerArrayListPref(final String key, final ArrayList<BigInteger> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendBigIntegerArrayListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delBigIntegerPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delBigIntegerPref(key);
+			}
+		});
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delBigIntegerArrayPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delBigIntegerArrayPref(key);
+			}
+		});
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delBigIntegerArrayListPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delBigIntegerArrayListPref(key);
+			}
+		});
+	}
+
+	// FLOAT
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveFloatPref(final String key, final float value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveFloatPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveFloatArrayPref(final String key, final float [] value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveFloatArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveFloatArrayListPref(final String key, final ArrayList<Float> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveFloatArrayListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveFloatListPref(final String key, final FloatList value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveFloatListPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved array
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendFloatArrayPref(final String key, final float... value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendFloatArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved arraylist
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendFloatArrayListPref(final String key, final ArrayList<Float> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendFloatArrayListPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved arraylist
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendFloatListPref(final String key, final FloatList value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendFloatListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delFloatPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delFloatPref(key);
+			}
+		});
+	}
+
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delFloatArrayPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delFloatArrayPref(key);
+			}
+		});
+	}
+
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delFloatArrayListPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delFloatArrayListPref(key);
+			}
+		});
+	}
+
+	// DOUBLE
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveDoublePref(final String key, final double value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveDoublePref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveDoubleArrayPref(final String key, final double [] value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveDoubleArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveDoubleArrayListPref(final String key, final ArrayList<Double> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveDoubleArrayListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveDoubleListPref(final String key, final DoubleList value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveDoubleListPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved array
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendDoubleArrayPref(final String key, final double... value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendDoubleArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved arraylist
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendDoubleArrayListPref(final String key, final ArrayList<Double> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendDoubleArrayListPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved arraylist
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendDoubleListPref(final String key, final DoubleList value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendDoubleListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delDoublePref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delDoublePref(key);
+			}
+		});
+	}
+
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delDoubleArrayPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delDoubleArrayPref(key);
+			}
+		});
+	}
+
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delDoubleArrayListPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delDoubleArrayListPref(key);
+			}
+		});
+	}
+
+	// BIGDECIMAL
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveBigDecimalPref(final String key, final BigDecimal value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveBigDecimalPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveBigDecimalArrayPref(final String key, final BigDecimal [] value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveBigDecimalArrayPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveBigDecimalArrayListPref(final String key, final ArrayList<BigDecimal> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveBigDecimalArrayListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Append values to a saved array
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendBigDecimalArrayPref(final String key, final BigDecimal... value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendBigDecimalArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved arraylist
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendBigDecimalArrayListPref(final String key, final ArrayList<BigDecimal> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendBigDecimalArrayListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delBigDecimalPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delBigDecimalPref(key);
+			}
+		});
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delBigDecimalArrayPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delBigDecimalArrayPref(key);
+			}
+		});
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delBigDecimalArrayListPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delBigDecimalArrayListPref(key);
+			}
+		});
+	}
+
+	// CHAR
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveCharPref(final String key, final char value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveCharPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveCharArrayPref(final String key, final char [] value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveCharArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveCharArrayListPref(final String key, final ArrayList<Character> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveCharArrayListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Append values to a saved array
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendCharArrayPref(final String key, final char... value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendCharArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved arraylist
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendCharArrayListPref(final String key, final ArrayList<Character> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendCharArrayListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delCharPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delCharPref(key);
+			}
+		});
+	}
+
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delCharArrayPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delCharArrayPref(key);
+			}
+		});
+	}
+
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delCharArrayListPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delCharArrayListPref(key);
+			}
+		});
+	}
+
+	// STRING
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveStringPref(final String key, final String value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveStringPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveStringArrayPref(final String key, final String [] value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveStringArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveStringArrayListPref(final String key, final ArrayList<String> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveStringArrayListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Append values to a saved array
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendStringArrayPref(final String key, final String... value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendStringArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved arraylist
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendStringArrayListPref(final String key, final ArrayList<String> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendStringArrayListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delStringPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delStringPref(key);
+			}
+		});
+	}
+
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delStringArrayPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delStringArrayPref(key);
+			}
+		});
+	}
+
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delStringArrayListPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delStringArrayListPref(key);
+			}
+		});
+	}
+
+	// DATE
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveDatePref(final String key, final Date value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveDatePref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveDateArrayPref(final String key, final Date [] value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveDateArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveDateArrayListPref(final String key, final ArrayList<Date> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveDateArrayListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Append values to a saved array
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendDateArrayPref(final String key, final Date... value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendDateArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved arraylist
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendDateArrayListPref(final String key, final ArrayList<Date> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendDateArrayListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delDatePref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delDatePref(key);
+			}
+		});
+	}
+
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delDateArrayPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delDateArrayPref(key);
+			}
+		});
+	}
+
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delDateArrayListPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delDateArrayListPref(key);
+			}
+		});
+	}
+
+	// GREGORIANCALENDAR
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveGregorianCalendarPref(final String key, final GregorianCalendar value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveGregorianCalendarPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveGregorianCalendarArrayPref(final String key, final GregorianCalendar [] value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveGregorianCalendarArrayPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveGregorianCalendarArrayListPref(final String key, final ArrayList<GregorianCalendar> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveGregorianCalendarArrayListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Append values to a saved array
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendGregorianCalendarArrayPref(final String key, final GregorianCalendar... value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendGregorianCalendarArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved arraylist
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendGregorianCalendarArrayListPref(final String key, final ArrayList<GregorianCalendar> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendGregorianCalendarArrayListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delGregorianCalendarPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delGregorianCalendarPref(key);
+			}
+		});
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delGregorianCalendarArrayPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delGregorianCalendarArrayPref(key);
+			}
+		});
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delGregorianCalendarArrayListPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delGregorianCalendarArrayListPref(key);
+			}
+		});
+	}
+
+	// LOCATION
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveLocationPref(final String key, final Location value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveLocationPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveLocationArrayPref(final String key, final Location [] value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveLocationArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Save/modify preference
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The new value for the preference.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch saveLocationArrayListPref(final String key, final ArrayList<Location> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.saveLocationArrayListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Append values to a saved array
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendLocationArrayPref(final String key, final Location... value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendLocationArrayPref(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Append values to a saved arraylist
+	 * 
+	 * @param key 	The name of the preference to modify.
+	 * @param value	The values to append.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch appendLocationArrayListPref(final String key, final ArrayList<Location> value) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.appendLocationArrayListPref(key, value);
+			}
+		});
+	}
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delLocationPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delLocationPref(key);
+			}
+		});
+	}
+
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delLocationArrayPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delLocationArrayPref(key);
+			}
+		});
+	}
+
+	/**
+	 * Delete preference
+	 * 
+	 * @param key 	The name of the preference to delete.
+	 * @return 		Returns this batch.
+	 */
+	public PreferenceBatch delLocationArrayListPref(final String key) {
+		return record(new Change() {
+			boolean apply() {
+				return preferences.delLocationArrayListPref(key);
+			}
+		});
+	}
+}
@@ -0,0 +1,87 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+/**
+ * The key format of AdvancedSharedPreferences, e.g. integer_a_history_0, and the parsing of it
+ * for stores, that place all keys of a value together.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+final class PreferenceKeys {
+
+	static final String DELIMITER = "_";
+	static final String CHUNKS = "c";
+
+	static final String LOCATION = "location";
+	static final String PROVIDER = "provider";
+	static final String LATITUDE = "latitude";
+	static final String LONGITUDE = "longitude";
+	static final String TIMESTAMP = "timestamp";
+	static final String ACCURACY = "accuracy";
+	static final String ALTITUDE = "altitude";
+	static final String BEARING = "bearing";
+	static final String SPEED = "speed";
+
+	private static final String [] LOCATION_FIELDS = {
+		PROVIDER, LATITUDE, LONGITUDE, TIMESTAMP, ACCURACY, ALTITUDE, BEARING, SPEED
+	};
+
+	private PreferenceKeys() {
+	}
+
+	/**
+	 * @return Returns the key without its family and without the chunk index or chunk count suffix,
+	 * e.g. a_history for integer_a_history_0 and for location_latitude_a_history.
+	 */
+	static String getValueName(String key) {
+		int end = key.length();
+		int last = key.lastIndexOf(DELIMITER);
+		if(last>=0&&isChunkSuffix(key, last + DELIMITER.length()))end = last;
+
+		int start = key.indexOf(DELIMITER) + DELIMITER.length();
+		if(start<DELIMITER.length()||start>end)return key.substring(0, end);
+
+		if(key.startsWith(LOCATION + DELIMITER)) {
+			for (String field : LOCATION_FIELDS) {
+				if(key.startsWith(field + DELIMITER, start)) {
+					start += field.length() + DELIMITER.length();
+					break;
+				}
+			}
+		}
+		if(start>end)return key.substring(0, end);
+		return key.substring(start, end);
+	}
+	/**
+	 * @return Returns the family and the name of the value of a key, e.g. integer_a_history for integer_a_history_0
+	 * and location_a_history for location_latitude_a_history.
+	 */
+	static String getValueKey(String key) {
+		int end = key.indexOf(DELIMITER);
+		if(end<0)return key;
+		return key.substring(0, end + DELIMITER.length()) + getValueName(key);
+	}
+	private static boolean isChunkSuffix(String key, int start) {
+		int length = key.length() - start;
+		if(length==0)return false;
+		if(length==CHUNKS.length()&&key.startsWith(CHUNKS, start))return true;
+
+		for (int i = start; i < key.length(); i++) {
+			char c = key.charAt(i);
+			if(c<'0'||c>'9')return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,56 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+/**
+ * Receives measurements of AdvancedSharedPreferences.
+ *
+ * A family is the type of a preference, e.g. "integer", followed by
+ * "_a" for arrays and "_al" for arraylists, e.g. "integer_a". Times are
+ * in nanoseconds, lengths in characters of the saved text. The methods
+ * are called on the thread of the operation and should return quickly.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+public interface PreferenceMetrics {
+
+	int SAVE = 0;
+	int LOAD = 1;
+	int DELETE = 2;
+
+	/**
+	 * A save, load or delete has finished, successfully or not.
+	 */
+	void onOperation(String family, int operation, long nanos);
+	/**
+	 * A save, load or delete has failed. It is reported to onOperation as well.
+	 */
+	void onFailure(String family, int operation, Exception e);
+	/**
+	 * An array or arraylist has been encoded to text of the given length.
+	 */
+	void onEncode(String family, long nanos, int length);
+	/**
+	 * An array or arraylist has been decoded from text of the given length.
+	 */
+	void onDecode(String family, long nanos, int length);
+	/**
+	 * A value of the given length has been saved or loaded in chunks.
+	 */
+	void onChunks(String family, int operation, int length, int chunks);
+	/**
+	 * Changes have been committed to the PreferenceStore.
+	 */
+	void onCommit(long nanos, int changes, boolean success);
+}
@@ -0,0 +1,31 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+/**
+ * Receives the new value of an observed preference.
+ *
+ * An observer is notified once per change of the value, however many chunks
+ * or location fields were written, see AdvancedSharedPreferences#setObserverDispatch.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+public interface PreferenceObserver<T> {
+
+	/**
+	 * @param key	The name of the changed preference.
+	 * @param value	The loaded value, or the default value if the preference was deleted.
+	 */
+	void onPreferenceChanged(String key, T value);
+}
@@ -0,0 +1,82 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.util.Map;
+
+/**
+ * Key-value storage behind AdvancedSharedPreferences.
+ *
+ * A store holds String, Integer, Long, Float and Boolean values like
+ * SharedPreferences does. Changes are only written with commit, which
+ * applies all of them at once. Implementations must be thread-safe.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+public interface PreferenceStore {
+
+	/**
+	 * Listener for changed keys
+	 */
+	interface Listener {
+		/**
+		 * @param store	The store, that changed.
+		 * @param key	The changed key, or null if the store was cleared.
+		 */
+		void onPreferenceChanged(PreferenceStore store, String key);
+	}
+
+	/**
+	 * @return Returns the name of the store, e.g. the preference file.
+	 */
+	String getName();
+
+	/**
+	 * @return Returns a copy of all keys and values.
+	 */
+	Map<String, ?> getAll();
+
+	String getString(String key, String defValue);
+	int getInt(String key, int defValue);
+	long getLong(String key, long defValue);
+	float getFloat(String key, float defValue);
+	boolean getBoolean(String key, boolean defValue);
+
+	boolean contains(String key);
+
+	/**
+	 * Write changes at once
+	 * 
+	 * @param changes	New values by key. A null value removes the key.
+	 * @return Returns true, if the changes are written.
+	 */
+	boolean commit(Map<String, Object> changes);
+
+	/**
+	 * Remove all keys
+	 * 
+	 * @return Returns true, if all keys are removed.
+	 */
+	boolean clear();
+
+	/**
+	 * Remove the store and its backing file, if there is one
+	 * 
+	 * @return Returns true, if the store is deleted.
+	 */
+	boolean delete();
+
+	void registerListener(Listener listener);
+	void unregisterListener(Listener listener);
+}
@@ -0,0 +1,281 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import android.content.Context;
+
+/**
+ * PreferenceStore, that spreads its keys over several stores, e.g. one preference file per shard.
+ *
+ * A commit only writes the shards of its keys, so saving a boolean does not rewrite
+ * the file with the large arrays. Commits, that touch several shards, write them in
+ * parallel and are atomic per shard only. The default router keeps all chunks of a
+ * value and all fields of a location in one shard, so every value is still written
+ * at once. Keys of an existing single preference file are not moved into the shards.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+public class ShardedPreferenceStore implements PreferenceStore {
+
+	/**
+	 * Chooses the shard of a key
+	 */
+	public interface Router {
+		/**
+		 * @param key	A key of AdvancedSharedPreferences, e.g. integer_a_history_0.
+		 * @param shards	The number of shards.
+		 * @return Returns the shard of the key, from 0 to shards - 1. All keys of a value must be in the same shard.
+		 */
+		int getShard(String key, int shards);
+	}
+
+	/** Hash the name of the value, so that the values of every family are spread over all shards. (default) */
+	public static final Router BY_VALUE = new Router() {
+		public int getShard(String key, int shards) {
+			return hash(PreferenceKeys.getValueName(key), shards);
+		}
+	};
+	/** Hash the family of the value, e.g. all int arrays and all locations share a shard. */
+	public static final Router BY_FAMILY = new Router() {
+		public int getShard(String key, int shards) {
+			int end = key.indexOf(PreferenceKeys.DELIMITER);
+			return hash(end<0 ? key : key.substring(0, end), shards);
+		}
+	};
+
+	private final String name;
+	private final PreferenceStore [] shards;
+	private final Router router;
+
+	private final HashMap<Listener, Listener> listeners = new HashMap<Listener, Listener>();
+
+	private ExecutorService writers;
+
+	private final ThreadFactory writer_factory = new ThreadFactory() {
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, ShardedPreferenceStore.class.getSimpleName() + "-" + name);
+			thread.setDaemon(true);
+			return thread;
+		}
+	};
+
+	/**
+	 * @param context  - The context to use.
+	 * @param name  - Desired preferences file. The shards are saved as name_0 to name_(shards - 1).
+	 * @param shards  - Number of preference files.
+	 */
+	public ShardedPreferenceStore(Context context, String name, int shards) {
+		this(name, createShards(context, name, shards), BY_VALUE);
+	}
+	/**
+	 * @param name  - Name of the store.
+	 * @param shards  - The stores to spread the keys over.
+	 * @param router  - Chooses the store of a key, e.g. BY_VALUE or BY_FAMILY.
+	 */
+	public ShardedPreferenceStore(String name, PreferenceStore [] shards, Router router) {
+		if(shards==null||shards.length==0)throw new IllegalArgumentException("No shards for " + name);
+
+		this.name = name;
+		this.shards = shards.clone();
+		this.router = router!=null ? router : BY_VALUE;
+	}
+
+	private static PreferenceStore [] createShards(Context context, String name, int shards) {
+		if(shards<1)throw new IllegalArgumentException("No shards for " + name);
+
+		PreferenceStore [] stores = new PreferenceStore [shards];
+		for (int i = 0; i < shards; i++) {
+			stores[i] = new SharedPreferencesStore(context, name + PreferenceKeys.DELIMITER + i, Context.MODE_PRIVATE);
+		}
+		return stores;
+	}
+	private static int hash(String name, int shards) {
+		int hash = name.hashCode();
+		hash ^= hash >>> 16;
+		return (hash & Integer.MAX_VALUE) % shards;
+	}
+	private PreferenceStore getStore(String key) {
+		return shards[router.getShard(key, shards.length)];
+	}
+
+	public String getName() {
+		return name;
+	}
+	/**
+	 * @return Returns the number of shards.
+	 */
+	public int getShardCount() {
+		return shards.length;
+	}
+
+	public Map<String, ?> getAll() {
+		HashMap<String, Object> all = new HashMap<String, Object>();
+		for (PreferenceStore shard : shards) {
+			all.putAll(shard.getAll());
+		}
+		return all;
+	}
+	public String getString(String key, String defValue) {
+		return getStore(key).getString(key, defValue);
+	}
+	public int getInt(String key, int defValue) {
+		return getStore(key).getInt(key, defValue);
+	}
+	public long getLong(String key, long defValue) {
+		return getStore(key).getLong(key, defValue);
+	}
+	public float getFloat(String key, float defValue) {
+		return getStore(key).getFloat(key, defValue);
+	}
+	public boolean getBoolean(String key, boolean defValue) {
+		return getStore(key).getBoolean(key, defValue);
+	}
+	public boolean contains(String key) {
+		return getStore(key).contains(key);
+	}
+
+	public boolean commit(Map<String, Object> changes) {
+		ArrayList<HashMap<String, Object>> parts = new ArrayList<HashMap<String, Object>>(shards.length);
+		for (int i = 0; i < shards.length; i++) {
+			parts.add(null);
+		}
+		for (Map.Entry<String, Object> entry : changes.entrySet()) {
+			int shard = router.getShard(entry.getKey(), shards.length);
+			HashMap<String, Object> part = parts.get(shard);
+			if(part==null) {
+				part = new HashMap<String, Object>();
+				parts.set(shard, part);
+			}
+			part.put(entry.getKey(), entry.getValue());
+		}
+
+		ArrayList<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+		for (int i = 0; i < shards.length; i++) {
+			final PreferenceStore shard = shards[i];
+			final HashMap<String, Object> part = parts.get(i);
+			if(part==null)continue;
+
+			tasks.add(new Callable<Boolean>() {
+				public Boolean call() {
+					return shard.commit(part);
+				}
+			});
+		}
+		return run(tasks);
+	}
+	public boolean clear() {
+		ArrayList<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+		for (final PreferenceStore shard : shards) {
+			tasks.add(new Callable<Boolean>() {
+				public Boolean call() {
+					return shard.clear();
+				}
+			});
+		}
+		return run(tasks);
+	}
+	public boolean delete() {
+		boolean deleted = true;
+		for (PreferenceStore shard : shards) {
+			if(!shard.delete())deleted = false;
+		}
+		return deleted;
+	}
+
+	/**
+	 * Run the writes of several shards in parallel, the last one on the calling thread
+	 *
+	 * @return Returns true, if all shards are written.
+	 */
+	private boolean run(ArrayList<Callable<Boolean>> tasks) {
+		if(tasks.isEmpty())return true;
+
+		ArrayList<Future<Boolean>> futures = new ArrayList<Future<Boolean>>(tasks.size() - 1);
+		if(tasks.size()>1) {
+			ExecutorService writers = getWriters();
+			for (int i = 0; i < tasks.size() - 1; i++) {
+				futures.add(writers.submit(tasks.get(i)));
+			}
+		}
+
+		boolean written = call(tasks.get(tasks.size() - 1));
+		for (Future<Boolean> future : futures) {
+			try {
+				if(!future.get())written = false;
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				written = false;
+			}
+			catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if(cause instanceof RuntimeException)throw (RuntimeException) cause;
+				if(cause instanceof Error)throw (Error) cause;
+				throw new IllegalStateException("Error writing shard of " + name, cause);
+			}
+		}
+		return written;
+	}
+	private boolean call(Callable<Boolean> task) {
+		try {
+			return task.call();
+		}
+		catch (RuntimeException e) {
+			throw e;
+		}
+		catch (Exception e) {
+			throw new IllegalStateException("Error writing shard of " + name, e);
+		}
+	}
+	private synchronized ExecutorService getWriters() {
+		// Idle writer threads end after a minute
+		if(writers==null)writers = Executors.newCachedThreadPool(writer_factory);
+		return writers;
+	}
+
+	public void registerListener(final Listener listener) {
+		Listener adapter = new Listener() {
+			public void onPreferenceChanged(PreferenceStore store, String key) {
+				listener.onPreferenceChanged(ShardedPreferenceStore.this, key);
+			}
+		};
+		synchronized (listeners) {
+			if(listeners.containsKey(listener))return;
+			listeners.put(listener, adapter);
+		}
+		for (PreferenceStore shard : shards) {
+			shard.registerListener(adapter);
+		}
+	}
+	public void unregisterListener(Listener listener) {
+		Listener adapter;
+		synchronized (listeners) {
+			adapter = listeners.remove(listener);
+		}
+		if(adapter==null)return;
+		for (PreferenceStore shard : shards) {
+			shard.unregisterListener(adapter);
+		}
+	}
+}
@@ -0,0 +1,118 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+/**
+ * PreferenceStore over an android SharedPreferences file.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+public class SharedPreferencesStore implements PreferenceStore {
+
+	private final Context context;
+	private final String name;
+
+	private final SharedPreferences preferences;
+
+	// SharedPreferences only keeps weak references to its listeners
+	private final HashMap<Listener, SharedPreferences.OnSharedPreferenceChangeListener> listeners = new HashMap<Listener, SharedPreferences.OnSharedPreferenceChangeListener>();
+
+	/**
+	 * @param context  - The context to use. 
+	 * @param name  - Desired preferences file.
+	 * @param mode  - Operating mode, e.g. Context.MODE_PRIVATE.
+	 */
+	public SharedPreferencesStore(Context context, String name, int mode) {
+		this.context = context;
+		this.name = name;
+		this.preferences = context.getSharedPreferences(name, mode);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Map<String, ?> getAll() {
+		return preferences.getAll();
+	}
+	public String getString(String key, String defValue) {
+		return preferences.getString(key, defValue);
+	}
+	public int getInt(String key, int defValue) {
+		return preferences.getInt(key, defValue);
+	}
+	public long getLong(String key, long defValue) {
+		return preferences.getLong(key, defValue);
+	}
+	public float getFloat(String key, float defValue) {
+		return preferences.getFloat(key, defValue);
+	}
+	public boolean getBoolean(String key, boolean defValue) {
+		return preferences.getBoolean(key, defValue);
+	}
+	public boolean contains(String key) {
+		return preferences.contains(key);
+	}
+
+	public boolean commit(Map<String, Object> changes) {
+		SharedPreferences.Editor editor = preferences.edit();
+		for (Map.Entry<String, Object> entry : changes.entrySet()) {
+			String key = entry.getKey();
+			Object value = entry.getValue();
+
+			if(value==null)editor.remove(key);
+			else if(value instanceof String)editor.putString(key, (String) value);
+			else if(value instanceof Integer)editor.putInt(key, (Integer) value);
+			else if(value instanceof Long)editor.putLong(key, (Long) value);
+			else if(value instanceof Float)editor.putFloat(key, (Float) value);
+			else if(value instanceof Boolean)editor.putBoolean(key, (Boolean) value);
+			else throw new IllegalArgumentException("Unsupported value type " + value.getClass().getName() + " for " + key);
+		}
+		return editor.commit();
+	}
+	public boolean clear() {
+		return preferences.edit().clear().commit();
+	}
+	public boolean delete() {
+		File file = new File(context.getApplicationInfo().dataDir + "/shared_prefs/" + name + ".xml");
+		return file.delete()||!file.exists();
+	}
+
+	public void registerListener(final Listener listener) {
+		SharedPreferences.OnSharedPreferenceChangeListener adapter = new SharedPreferences.OnSharedPreferenceChangeListener() {
+			public void onSharedPreferenceChanged(SharedPreferences sharedPreferences, String key) {
+				listener.onPreferenceChanged(SharedPreferencesStore.this, key);
+			}
+		};
+		synchronized (listeners) {
+			if(listeners.containsKey(listener))return;
+			listeners.put(listener, adapter);
+		}
+		preferences.registerOnSharedPreferenceChangeListener(adapter);
+	}
+	public void unregisterListener(Listener listener) {
+		SharedPreferences.OnSharedPreferenceChangeListener adapter;
+		synchronized (listeners) {
+			adapter = listeners.remove(listener);
+		}
+		if(adapter!=null)preferences.unregisterOnSharedPreferenceChangeListener(adapter);
+	}
+}
@@ -0,0 +1,85 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read-only PreferenceStore over a copy of another store, taken at a single commit.
+ *
+ * The values never change after construction, so they are read without locking.
+ * commit, clear and delete throw an UnsupportedOperationException.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+final class SnapshotStore implements PreferenceStore {
+
+	private final String name;
+
+	private final HashMap<String, Object> values;
+
+	/**
+	 * @param name  - Name of the store.
+	 * @param values  - The values of the snapshot. The map is owned by the snapshot afterwards.
+	 */
+	SnapshotStore(String name, HashMap<String, Object> values) {
+		this.name = name;
+		this.values = values;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Map<String, ?> getAll() {
+		return new HashMap<String, Object>(values);
+	}
+	public String getString(String key, String defValue) {
+		Object value = values.get(key);
+		return value!=null ? (String) value : defValue;
+	}
+	public int getInt(String key, int defValue) {
+		Object value = values.get(key);
+		return value!=null ? (Integer) value : defValue;
+	}
+	public long getLong(String key, long defValue) {
+		Object value = values.get(key);
+		return value!=null ? (Long) value : defValue;
+	}
+	public float getFloat(String key, float defValue) {
+		Object value = values.get(key);
+		return value!=null ? (Float) value : defValue;
+	}
+	public boolean getBoolean(String key, boolean defValue) {
+		Object value = values.get(key);
+		return value!=null ? (Boolean) value : defValue;
+	}
+	public boolean contains(String key) {
+		return values.containsKey(key);
+	}
+
+	public boolean commit(Map<String, Object> changes) {
+		throw new UnsupportedOperationException("Snapshot of " + name + " is read-only");
+	}
+	public boolean clear() {
+		throw new UnsupportedOperationException("Snapshot of " + name + " is read-only");
+	}
+	public boolean delete() {
+		throw new UnsupportedOperationException("Snapshot of " + name + " is read-only");
+	}
+
+	public void registerListener(Listener listener) {}
+	public void unregisterListener(Listener listener) {}
+}
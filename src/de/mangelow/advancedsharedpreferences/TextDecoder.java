@@ -0,0 +1,289 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+/**
+ * Reads delimited values in a single pass.
+ *
+ * The delimiter is matched literally, not as a regular expression, and
+ * numbers are parsed straight out of the character sequence. Only values,
+ * that can not be parsed exactly on the fast path (exponents, more than
+ * 15 significant digits), are handed to Float/Double.parse* as a String.
+ * Malformed values throw a NumberFormatException like the parse* methods do.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+final class TextDecoder extends ValueDecoder {
+
+	private static final double [] DOUBLE_POWERS = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+		1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	private static final float [] FLOAT_POWERS = {
+		1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+	};
+
+	private static final long DOUBLE_MANTISSA_MAX = 1L << 53;
+	private static final long FLOAT_MANTISSA_MAX = 1L << 24;
+
+	private final CharSequence value;
+	private final String delimiter;
+	private final char first;
+	private final int length;
+
+	private int position = 0;
+	private int end = -1;
+	private boolean done = false;
+
+	TextDecoder(CharSequence value, String delimiter) {
+		this.value = value;
+		this.delimiter = delimiter;
+		this.first = delimiter.charAt(0);
+		this.length = value.length();
+	}
+
+	/**
+	 * @return Returns the number of values in the sequence.
+	 */
+	int count() {
+		int count = 1;
+		int index = 0;
+		while ((index = find(index))<length) {
+			index += delimiter.length();
+			count++;
+		}
+		return count;
+	}
+	boolean hasNext() {
+		return !done;
+	}
+	int remaining() {
+		if(done)return 0;
+
+		int count = 1;
+		int index = position;
+		while ((index = find(index))<length) {
+			index += delimiter.length();
+			count++;
+		}
+		done = true;
+		return count;
+	}
+	int skip(int count) {
+		int skipped = 0;
+		while (skipped<count&&!done) {
+			next();
+			advance();
+			skipped++;
+		}
+		return skipped;
+	}
+
+	private int find(int from) {
+		if(value instanceof String) {
+			int index = ((String) value).indexOf(delimiter, from);
+			return index<0 ? length : index;
+		}
+		if(value instanceof ChunkedValue) {
+			int index = ((ChunkedValue) value).indexOf(delimiter, from);
+			return index<0 ? length : index;
+		}
+
+		int last = length - delimiter.length();
+		for (int i = from; i <= last; i++) {
+			if(value.charAt(i)!=first)continue;
+
+			int j = 1;
+			while (j<delimiter.length()&&value.charAt(i + j)==delimiter.charAt(j))j++;
+			if(j==delimiter.length())return i;
+		}
+		return length;
+	}
+	private int next() {
+		if(done)throw new IllegalStateException("No more values");
+		end = find(position);
+		return position;
+	}
+	private void advance() {
+		if(end>=length)done = true;
+		else position = end + delimiter.length();
+	}
+	private NumberFormatException malformed(int start) {
+		return new NumberFormatException("For input string: \"" + value.subSequence(start, end) + "\"");
+	}
+
+	boolean nextBoolean() {
+		int start = next();
+		boolean result = end - start==4
+				&& Character.toLowerCase(value.charAt(start))=='t'
+				&& Character.toLowerCase(value.charAt(start + 1))=='r'
+				&& Character.toLowerCase(value.charAt(start + 2))=='u'
+				&& Character.toLowerCase(value.charAt(start + 3))=='e';
+		advance();
+		return result;
+	}
+	byte nextByte() {
+		int start = next();
+		long result = parseLong(start, Byte.MIN_VALUE, Byte.MAX_VALUE);
+		advance();
+		return (byte) result;
+	}
+	short nextShort() {
+		int start = next();
+		long result = parseLong(start, Short.MIN_VALUE, Short.MAX_VALUE);
+		advance();
+		return (short) result;
+	}
+	int nextInt() {
+		int start = next();
+		long result = parseLong(start, Integer.MIN_VALUE, Integer.MAX_VALUE);
+		advance();
+		return (int) result;
+	}
+	long nextLong() {
+		int start = next();
+		long result = parseLong(start, Long.MIN_VALUE, Long.MAX_VALUE);
+		advance();
+		return result;
+	}
+	float nextFloat() {
+		int start = next();
+		float result = parseFloat(start);
+		advance();
+		return result;
+	}
+	double nextDouble() {
+		int start = next();
+		double result = parseDouble(start);
+		advance();
+		return result;
+	}
+	char nextChar() {
+		int start = next();
+		if(start==end)throw new StringIndexOutOfBoundsException("Empty value at " + start);
+		char result = value.charAt(start);
+		advance();
+		return result;
+	}
+	String nextString() {
+		int start = next();
+		String result = value.subSequence(start, end).toString();
+		advance();
+		return result;
+	}
+
+	private long parseLong(int start, long min, long max) {
+		int i = start;
+		boolean negative = false;
+
+		if(i<end) {
+			char sign = value.charAt(i);
+			if(sign=='-'||sign=='+') {
+				negative = sign=='-';
+				i++;
+			}
+		}
+		if(i==end)throw malformed(start);
+
+		// Accumulate negatively, so that MIN_VALUE fits
+		long limit = negative ? min : -max;
+		long multmin = limit / 10;
+		long result = 0;
+		for (; i < end; i++) {
+			int digit = value.charAt(i) - '0';
+			if(digit<0||digit>9)throw malformed(start);
+			if(result<multmin)throw malformed(start);
+			result *= 10;
+			if(result<limit + digit)throw malformed(start);
+			result -= digit;
+		}
+		return negative ? result : -result;
+	}
+
+	private float parseFloat(int start) {
+		int i = start;
+		boolean negative = false;
+		if(i<end&&value.charAt(i)=='-') {
+			negative = true;
+			i++;
+		}
+
+		long mantissa = 0;
+		int digits = 0;
+		int scale = -1;
+		boolean any = false;
+		boolean exact = i<end;
+		for (; exact && i < end; i++) {
+			char c = value.charAt(i);
+			if(c>='0'&&c<='9') {
+				mantissa = mantissa * 10 + (c - '0');
+				if(mantissa>0)digits++;
+				if(scale>=0)scale++;
+				any = true;
+				exact = digits<=9;
+			}
+			else if(c=='.'&&scale<0) {
+				scale = 0;
+			}
+			else {
+				exact = false;
+			}
+		}
+		if(scale<0)scale = 0;
+
+		if(!exact||!any||mantissa>FLOAT_MANTISSA_MAX||scale>=FLOAT_POWERS.length) {
+			return Float.parseFloat(value.subSequence(start, end).toString());
+		}
+		float result = (float) mantissa / FLOAT_POWERS[scale];
+		return negative ? -result : result;
+	}
+
+	private double parseDouble(int start) {
+		int i = start;
+		boolean negative = false;
+		if(i<end&&value.charAt(i)=='-') {
+			negative = true;
+			i++;
+		}
+
+		long mantissa = 0;
+		int digits = 0;
+		int scale = -1;
+		boolean any = false;
+		boolean exact = i<end;
+		for (; exact && i < end; i++) {
+			char c = value.charAt(i);
+			if(c>='0'&&c<='9') {
+				mantissa = mantissa * 10 + (c - '0');
+				if(mantissa>0)digits++;
+				if(scale>=0)scale++;
+				any = true;
+				exact = digits<=15;
+			}
+			else if(c=='.'&&scale<0) {
+				scale = 0;
+			}
+			else {
+				exact = false;
+			}
+		}
+		if(scale<0)scale = 0;
+
+		if(!exact||!any||mantissa>DOUBLE_MANTISSA_MAX||scale>=DOUBLE_POWERS.length) {
+			return Double.parseDouble(value.subSequence(start, end).toString());
+		}
+		double result = mantissa / DOUBLE_POWERS[scale];
+		return negative ? -result : result;
+	}
+}
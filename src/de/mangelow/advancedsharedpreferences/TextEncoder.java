@@ -0,0 +1,160 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+/**
+ * Joins array values with the value delimiter in linear time.
+ *
+ * The builder is presized from the array length and reused between calls,
+ * so encoding an array copies every character once. Builders that grew
+ * beyond RETAINED_CAPACITY are dropped after use.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+final class TextEncoder {
+
+	private static final int INITIAL_CAPACITY = 256;
+	private static final int RETAINED_CAPACITY = 64 * 1024;
+
+	// Estimated characters per value
+
+	private static final int WIDTH_BOOLEAN = 5;
+	private static final int WIDTH_BYTE = 4;
+	private static final int WIDTH_SHORT = 6;
+	private static final int WIDTH_INTEGER = 11;
+	private static final int WIDTH_LONG = 20;
+	private static final int WIDTH_FLOAT = 15;
+	private static final int WIDTH_DOUBLE = 24;
+	private static final int WIDTH_CHARACTER = 1;
+	private static final int WIDTH_OBJECT = 16;
+
+	private final String delimiter;
+
+	private StringBuilder builder = new StringBuilder(INITIAL_CAPACITY);
+
+	TextEncoder(String delimiter) {
+		this.delimiter = delimiter;
+	}
+
+	private StringBuilder begin(int length, int width) {
+		long capacity = (long) length * (width + delimiter.length());
+		if(capacity>Integer.MAX_VALUE)capacity = Integer.MAX_VALUE;
+
+		builder.setLength(0);
+		builder.ensureCapacity((int) capacity);
+		return builder;
+	}
+	private String end() {
+		String value = builder.toString();
+		if(builder.capacity()>RETAINED_CAPACITY)builder = new StringBuilder(INITIAL_CAPACITY);
+		else builder.setLength(0);
+		return value;
+	}
+
+	String encode(boolean [] value) {
+		return encode(value, value.length);
+	}
+	String encode(boolean [] value, int length) {
+		StringBuilder builder = begin(length, WIDTH_BOOLEAN);
+		for (int i = 0; i < length; i++) {
+			if(i>0)builder.append(delimiter);
+			builder.append(value[i]);
+		}
+		return end();
+	}
+	String encode(byte [] value) {
+		return encode(value, value.length);
+	}
+	String encode(byte [] value, int length) {
+		StringBuilder builder = begin(length, WIDTH_BYTE);
+		for (int i = 0; i < length; i++) {
+			if(i>0)builder.append(delimiter);
+			builder.append(value[i]);
+		}
+		return end();
+	}
+	String encode(short [] value) {
+		return encode(value, value.length);
+	}
+	String encode(short [] value, int length) {
+		StringBuilder builder = begin(length, WIDTH_SHORT);
+		for (int i = 0; i < length; i++) {
+			if(i>0)builder.append(delimiter);
+			builder.append(value[i]);
+		}
+		return end();
+	}
+	String encode(int [] value) {
+		return encode(value, value.length);
+	}
+	String encode(int [] value, int length) {
+		StringBuilder builder = begin(length, WIDTH_INTEGER);
+		for (int i = 0; i < length; i++) {
+			if(i>0)builder.append(delimiter);
+			builder.append(value[i]);
+		}
+		return end();
+	}
+	String encode(long [] value) {
+		return encode(value, value.length);
+	}
+	String encode(long [] value, int length) {
+		StringBuilder builder = begin(length, WIDTH_LONG);
+		for (int i = 0; i < length; i++) {
+			if(i>0)builder.append(delimiter);
+			builder.append(value[i]);
+		}
+		return end();
+	}
+	String encode(float [] value) {
+		return encode(value, value.length);
+	}
+	String encode(float [] value, int length) {
+		StringBuilder builder = begin(length, WIDTH_FLOAT);
+		for (int i = 0; i < length; i++) {
+			if(i>0)builder.append(delimiter);
+			builder.append(value[i]);
+		}
+		return end();
+	}
+	String encode(double [] value) {
+		return encode(value, value.length);
+	}
+	String encode(double [] value, int length) {
+		StringBuilder builder = begin(length, WIDTH_DOUBLE);
+		for (int i = 0; i < length; i++) {
+			if(i>0)builder.append(delimiter);
+			builder.append(value[i]);
+		}
+		return end();
+	}
+	String encode(char [] value) {
+		int length = value.length;
+		StringBuilder builder = begin(length, WIDTH_CHARACTER);
+		for (int i = 0; i < length; i++) {
+			if(i>0)builder.append(delimiter);
+			builder.append(value[i]);
+		}
+		return end();
+	}
+	String encode(Object [] value) {
+		int length = value.length;
+		StringBuilder builder = begin(length, WIDTH_OBJECT);
+		for (int i = 0; i < length; i++) {
+			if(i>0)builder.append(delimiter);
+			builder.append(value[i]);
+		}
+		return end();
+	}
+}
@@ -0,0 +1,191 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import android.location.Location;
+
+/**
+ * Least recently used cache of decoded arrays and lists.
+ *
+ * The cache is bounded by the number of entries and by an estimate of the
+ * bytes held. Values are copied when they are put and when they are read,
+ * so callers can modify what they get without affecting the cache.
+ *
+ * Every invalidation advances a stamp. A value read from the preferences
+ * is only cached if no invalidation happened since its stamp was taken,
+ * so a load racing with a save can not cache the old value.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+final class ValueCache {
+
+	private static final int ENTRY_BYTES = 64;
+	private static final int OBJECT_BYTES = 32;
+	private static final int LOCATION_BYTES = 96;
+	private static final int CALENDAR_BYTES = 448;
+
+	private final int max_entries;
+	private final long max_bytes;
+
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+	private long bytes = 0;
+	private long stamp = 0;
+
+	private static final class Entry {
+		final Object value;
+		final long bytes;
+
+		Entry(Object value, long bytes) {
+			this.value = value;
+			this.bytes = bytes;
+		}
+	}
+
+	/**
+	 * @param max_entries	Maximal number of cached values, or 0 for no limit.
+	 * @param max_bytes	Maximal estimated size of cached values in bytes, or 0 for no limit.
+	 */
+	ValueCache(int max_entries, long max_bytes) {
+		this.max_entries = max_entries;
+		this.max_bytes = max_bytes;
+	}
+
+	synchronized long stamp() {
+		return stamp;
+	}
+	synchronized Object get(String key) {
+		Entry entry = entries.get(key);
+		if(entry==null)return null;
+		return copy(entry.value);
+	}
+	/**
+	 * @return Returns the cached value itself instead of a copy. It must not be modified or handed out.
+	 */
+	synchronized Object peek(String key) {
+		Entry entry = entries.get(key);
+		if(entry==null)return null;
+		return entry.value;
+	}
+	synchronized void put(String key, Object value, long stamp) {
+		if(stamp!=this.stamp)return;
+
+		long size = ENTRY_BYTES + key.length() * 2 + estimate(value);
+		if(max_bytes>0&&size>max_bytes)return;
+
+		Entry previous = entries.put(key, new Entry(copy(value), size));
+		if(previous!=null)bytes -= previous.bytes;
+		bytes += size;
+
+		Iterator<Entry> eldest = entries.values().iterator();
+		while (eldest.hasNext()&&((max_entries>0&&entries.size()>max_entries)||(max_bytes>0&&bytes>max_bytes))) {
+			bytes -= eldest.next().bytes;
+			eldest.remove();
+		}
+	}
+	synchronized void invalidate(String key) {
+		stamp++;
+		Entry entry = entries.remove(key);
+		if(entry!=null)bytes -= entry.bytes;
+	}
+	synchronized void clear() {
+		stamp++;
+		entries.clear();
+		bytes = 0;
+	}
+
+	static Object copy(Object value) {
+		if(value instanceof boolean [])return ((boolean []) value).clone();
+		if(value instanceof byte [])return ((byte []) value).clone();
+		if(value instanceof short [])return ((short []) value).clone();
+		if(value instanceof int [])return ((int []) value).clone();
+		if(value instanceof long [])return ((long []) value).clone();
+		if(value instanceof float [])return ((float []) value).clone();
+		if(value instanceof double [])return ((double []) value).clone();
+		if(value instanceof char [])return ((char []) value).clone();
+		if(value instanceof BooleanList)return new BooleanList((BooleanList) value);
+		if(value instanceof ByteList)return new ByteList((ByteList) value);
+		if(value instanceof ShortList)return new ShortList((ShortList) value);
+		if(value instanceof IntList)return new IntList((IntList) value);
+		if(value instanceof LongList)return new LongList((LongList) value);
+		if(value instanceof FloatList)return new FloatList((FloatList) value);
+		if(value instanceof DoubleList)return new DoubleList((DoubleList) value);
+		if(value instanceof Object []) {
+			Object [] array = ((Object []) value).clone();
+			for (int i = 0; i < array.length; i++) {
+				array[i] = copyElement(array[i]);
+			}
+			return array;
+		}
+		if(value instanceof ArrayList) {
+			ArrayList<Object> list = new ArrayList<Object>((ArrayList<?>) value);
+			for (int i = 0; i < list.size(); i++) {
+				list.set(i, copyElement(list.get(i)));
+			}
+			return list;
+		}
+		return value;
+	}
+	private static Object copyElement(Object value) {
+		if(value instanceof Date)return new Date(((Date) value).getTime());
+		if(value instanceof GregorianCalendar)return ((GregorianCalendar) value).clone();
+		if(value instanceof Location)return new Location((Location) value);
+		return value;
+	}
+
+	static long estimate(Object value) {
+		if(value instanceof boolean [])return OBJECT_BYTES + ((boolean []) value).length;
+		if(value instanceof byte [])return OBJECT_BYTES + ((byte []) value).length;
+		if(value instanceof short [])return OBJECT_BYTES + ((short []) value).length * 2L;
+		if(value instanceof int [])return OBJECT_BYTES + ((int []) value).length * 4L;
+		if(value instanceof long [])return OBJECT_BYTES + ((long []) value).length * 8L;
+		if(value instanceof float [])return OBJECT_BYTES + ((float []) value).length * 4L;
+		if(value instanceof double [])return OBJECT_BYTES + ((double []) value).length * 8L;
+		if(value instanceof char [])return OBJECT_BYTES + ((char []) value).length * 2L;
+		if(value instanceof BooleanList)return OBJECT_BYTES * 2 + ((BooleanList) value).size();
+		if(value instanceof ByteList)return OBJECT_BYTES * 2 + ((ByteList) value).size();
+		if(value instanceof ShortList)return OBJECT_BYTES * 2 + ((ShortList) value).size() * 2L;
+		if(value instanceof IntList)return OBJECT_BYTES * 2 + ((IntList) value).size() * 4L;
+		if(value instanceof LongList)return OBJECT_BYTES * 2 + ((LongList) value).size() * 8L;
+		if(value instanceof FloatList)return OBJECT_BYTES * 2 + ((FloatList) value).size() * 4L;
+		if(value instanceof DoubleList)return OBJECT_BYTES * 2 + ((DoubleList) value).size() * 8L;
+		if(value instanceof Object []) {
+			long size = OBJECT_BYTES;
+			for (Object element : (Object []) value) {
+				size += 8 + estimateElement(element);
+			}
+			return size;
+		}
+		if(value instanceof ArrayList) {
+			long size = OBJECT_BYTES * 2;
+			for (Object element : (ArrayList<?>) value) {
+				size += 8 + estimateElement(element);
+			}
+			return size;
+		}
+		return OBJECT_BYTES;
+	}
+	private static long estimateElement(Object value) {
+		if(value==null)return 0;
+		if(value instanceof String)return OBJECT_BYTES + ((String) value).length() * 2L;
+		if(value instanceof Location)return LOCATION_BYTES;
+		if(value instanceof GregorianCalendar)return CALENDAR_BYTES;
+		return OBJECT_BYTES;
+	}
+}
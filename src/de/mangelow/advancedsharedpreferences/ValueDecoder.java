@@ -0,0 +1,44 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+/**
+ * Reads the values of a saved array one after another.
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+abstract class ValueDecoder {
+
+	abstract boolean hasNext();
+	/**
+	 * Skips the values, that have not been read yet
+	 *
+	 * @return Returns the number of skipped values.
+	 */
+	abstract int remaining();
+	/**
+	 * Skips up to count values
+	 *
+	 * @return Returns the number of skipped values, less than count at the end.
+	 */
+	abstract int skip(int count);
+
+	abstract boolean nextBoolean();
+	abstract byte nextByte();
+	abstract short nextShort();
+	abstract int nextInt();
+	abstract long nextLong();
+	abstract float nextFloat();
+	abstract double nextDouble();
+}
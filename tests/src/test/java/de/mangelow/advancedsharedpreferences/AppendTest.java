@@ -0,0 +1,208 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.IntBuffer;
+import java.util.ConcurrentModificationException;
+import java.util.concurrent.CyclicBarrier;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Appends to saved arrays and the reads of parts of them
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+public class AppendTest {
+
+	private static final int [] ENCODINGS = {
+		AdvancedSharedPreferences.ENCODING_TEXT, AdvancedSharedPreferences.ENCODING_PACKED,
+		AdvancedSharedPreferences.ENCODING_VARINT, AdvancedSharedPreferences.ENCODING_TIMESERIES
+	};
+
+	private static final int THREADS = 4;
+	private static final int ROUNDS = 200;
+
+	private MemoryPreferenceStore store;
+	private AdvancedSharedPreferences preferences;
+
+	@Before
+	public void setUp() {
+		store = new MemoryPreferenceStore();
+		preferences = new AdvancedSharedPreferences(store, ",", 16, false);
+	}
+
+	private static int [] createIntegers(int from, int to) {
+		int [] values = new int [to - from];
+		for (int i = from; i < to; i++) {
+			values[i - from] = i * 7 - 100;
+		}
+		return values;
+	}
+
+	@Test
+	public void appendsToArraysWithAllEncodings() {
+		for (int encoding : ENCODINGS) {
+			preferences.setArrayEncoding(encoding);
+			preferences.delIntegerArrayPref("values");
+
+			assertTrue(preferences.appendIntegerArrayPref("values", createIntegers(0, 10)));
+			assertTrue(preferences.appendIntegerArrayPref("values", createIntegers(10, 11)));
+			assertTrue(preferences.appendIntegerArrayPref("values", createIntegers(11, 50)));
+			assertArrayEquals(createIntegers(0, 50), preferences.loadIntegerArrayPref("values", null));
+		}
+	}
+
+	@Test
+	public void appendsToTextArrays() {
+		assertTrue(preferences.appendStringArrayPref("strings", "a", "b"));
+		assertTrue(preferences.appendStringArrayPref("strings", "c"));
+		assertArrayEquals(new String [] {"a", "b", "c"}, preferences.loadStringArrayPref("strings", null));
+
+		assertTrue(preferences.appendCharArrayPref("chars", 'x'));
+		assertTrue(preferences.appendCharArrayPref("chars", 'y', 'z'));
+		assertArrayEquals(new char [] {'x', 'y', 'z'}, preferences.loadCharArrayPref("chars", null));
+	}
+
+	@Test
+	public void iteratesOverChunks() {
+		for (int encoding : ENCODINGS) {
+			preferences.setArrayEncoding(encoding);
+			int [] values = createIntegers(0, 100);
+			preferences.saveIntegerArrayPref("values", values);
+
+			IntIterator iterator = preferences.iterateIntegerArrayPref("values");
+			int count = 0;
+			while (iterator.hasNext()) {
+				assertEquals(values[count++], iterator.nextInt());
+			}
+			assertEquals(values.length, count);
+		}
+		assertNull(preferences.iterateIntegerArrayPref("missing"));
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void iteratorFailsOnAppend() {
+		preferences.saveIntegerArrayPref("values", createIntegers(0, 40));
+		IntIterator iterator = preferences.iterateIntegerArrayPref("values");
+		iterator.nextInt();
+		preferences.appendIntegerArrayPref("values", 1);
+		while (iterator.hasNext()) {
+			iterator.nextInt();
+		}
+	}
+
+	@Test
+	public void iteratorIgnoresOtherValues() {
+		preferences.saveIntegerArrayPref("values", createIntegers(0, 40));
+		IntIterator iterator = preferences.iterateIntegerArrayPref("values");
+		iterator.nextInt();
+		preferences.saveIntegerArrayPref("other", createIntegers(0, 40));
+
+		int count = 1;
+		while (iterator.hasNext()) {
+			iterator.nextInt();
+			count++;
+		}
+		assertEquals(40, count);
+	}
+
+	@Test
+	public void loadsElementsAndRanges() {
+		int [] values = createIntegers(0, 100);
+		for (int encoding : ENCODINGS) {
+			preferences.setArrayEncoding(encoding);
+			preferences.saveIntegerArrayPref("values", values);
+
+			assertEquals(values[0], preferences.loadIntegerArrayElementPref("values", 0, -1));
+			assertEquals(values[57], preferences.loadIntegerArrayElementPref("values", 57, -1));
+			assertEquals(values[99], preferences.loadIntegerArrayElementPref("values", 99, -1));
+			assertEquals(-1, preferences.loadIntegerArrayElementPref("values", 100, -1));
+			assertEquals(-1, preferences.loadIntegerArrayElementPref("missing", 0, -1));
+
+			assertArrayEquals(createIntegers(20, 63), preferences.loadIntegerArrayRangePref("values", 20, 63, null));
+			assertArrayEquals(new int [0], preferences.loadIntegerArrayRangePref("values", 5, 5, null));
+		}
+	}
+
+	@Test
+	public void loadsIntoDestinations() {
+		int [] values = createIntegers(0, 100);
+		for (int encoding : ENCODINGS) {
+			preferences.setArrayEncoding(encoding);
+			preferences.saveIntegerArrayPref("values", values);
+
+			int [] dst = new int [110];
+			assertEquals(values.length, preferences.loadIntegerArrayPref("values", dst, 10));
+			for (int i = 0; i < values.length; i++) {
+				assertEquals(values[i], dst[i + 10]);
+			}
+			assertEquals(-1, preferences.loadIntegerArrayPref("missing", dst, 0));
+
+			IntBuffer buffer = IntBuffer.allocate(values.length);
+			assertEquals(values.length, preferences.loadIntegerBufferPref("values", buffer));
+			assertArrayEquals(values, buffer.array());
+		}
+	}
+
+	@Test
+	public void concurrentFirstAppendsAreKept() throws InterruptedException {
+		for (int round = 0; round < ROUNDS; round++) {
+			final AdvancedSharedPreferences shared = new AdvancedSharedPreferences(new MemoryPreferenceStore());
+			final CyclicBarrier barrier = new CyclicBarrier(THREADS);
+			Thread [] threads = new Thread [THREADS];
+			for (int i = 0; i < THREADS; i++) {
+				final int index = i;
+				threads[i] = new Thread() {
+					@Override
+					public void run() {
+						try {
+							barrier.await();
+						}
+						catch (Exception e) {
+							return;
+						}
+						shared.appendStringArrayPref("strings", "value" + index);
+						shared.appendCharArrayPref("chars", (char) ('a' + index));
+						shared.appendBigDecimalArrayPref("decimals", BigDecimal.valueOf(index));
+						shared.appendIntegerArrayPref("integers", index);
+					}
+				};
+				threads[i].start();
+			}
+			for (Thread thread : threads) {
+				thread.join();
+			}
+			assertEquals(THREADS, shared.loadStringArrayPref("strings", null).length);
+			assertEquals(THREADS, shared.loadCharArrayPref("chars", null).length);
+			assertEquals(THREADS, shared.loadBigDecimalArrayPref("decimals", null).length);
+			assertEquals(THREADS, shared.loadIntegerArrayPref("integers", null).length);
+		}
+	}
+
+	@Test
+	public void appendOfNothingKeepsValue() {
+		preferences.saveIntegerArrayPref("values", createIntegers(0, 3));
+		preferences.appendIntegerArrayPref("values");
+		assertArrayEquals(createIntegers(0, 3), preferences.loadIntegerArrayPref("values", null));
+	}
+}
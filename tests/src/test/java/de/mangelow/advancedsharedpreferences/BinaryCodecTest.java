@@ -0,0 +1,228 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Date;
+import java.util.GregorianCalendar;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Round trips of all array encodings, through BinaryCodec and through AdvancedSharedPreferences
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+public class BinaryCodecTest {
+
+	private static final int [] ENCODINGS = {
+		AdvancedSharedPreferences.ENCODING_TEXT, AdvancedSharedPreferences.ENCODING_PACKED,
+		AdvancedSharedPreferences.ENCODING_VARINT, AdvancedSharedPreferences.ENCODING_TIMESERIES
+	};
+
+	private static final boolean [] BOOLEANS = {true, false, false, true, true, false, true, false, true};
+	private static final byte [] BYTES = {0, 1, -1, Byte.MIN_VALUE, Byte.MAX_VALUE, 42};
+	private static final short [] SHORTS = {0, 1, -1, Short.MIN_VALUE, Short.MAX_VALUE, 300};
+	private static final int [] INTEGERS = {0, 1, -1, Integer.MIN_VALUE, Integer.MAX_VALUE, 70000, -70000};
+	private static final long [] LONGS = {0, 1, -1, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 40, -(1L << 40)};
+	private static final float [] FLOATS = {0f, -0f, 1.5f, -2.25f, Float.MAX_VALUE, Float.MIN_VALUE, Float.NaN, Float.NEGATIVE_INFINITY};
+	private static final double [] DOUBLES = {0d, -0d, 1.5d, -2.25d, Double.MAX_VALUE, Double.MIN_VALUE, Double.NaN, Double.POSITIVE_INFINITY};
+	private static final BigInteger [] BIGINTEGERS = {
+		BigInteger.ZERO, BigInteger.ONE, BigInteger.ONE.negate(), new BigInteger("123456789012345678901234567890"),
+		new BigInteger("-98765432109876543210987654321")
+	};
+
+	private MemoryPreferenceStore store;
+	private AdvancedSharedPreferences preferences;
+
+	@Before
+	public void setUp() {
+		store = new MemoryPreferenceStore();
+		preferences = new AdvancedSharedPreferences(store, ",", 64, false);
+	}
+
+	private static long [] createTimestamps(int length) {
+		long [] values = new long [length];
+		long time = 1500000000000L;
+		for (int i = 0; i < length; i++) {
+			time += 60000 + (i % 7) * 13 - (i % 3) * 1000;
+			values[i] = time;
+		}
+		values[length / 2] += 1L << 35;
+		return values;
+	}
+	private static double [] createSamples(int length) {
+		double [] values = new double [length];
+		for (int i = 0; i < length; i++) {
+			values[i] = 20.5 + (i % 5) * 0.25 - (i % 11) * 0.125;
+		}
+		return values;
+	}
+
+	@Test
+	public void roundTripsPackedValues() {
+		assertArrayEquals(BOOLEANS, BinaryCodec.decodeBooleans(BinaryCodec.encode(BOOLEANS)));
+		assertArrayEquals(BYTES, BinaryCodec.decodeBytes(BinaryCodec.encode(BYTES)));
+		assertArrayEquals(SHORTS, BinaryCodec.decodeShorts(BinaryCodec.encode(SHORTS, false)));
+		assertArrayEquals(INTEGERS, BinaryCodec.decodeIntegers(BinaryCodec.encode(INTEGERS, false)));
+		assertArrayEquals(LONGS, BinaryCodec.decodeLongs(BinaryCodec.encode(LONGS, false)));
+		assertArrayEquals(FLOATS, BinaryCodec.decodeFloats(BinaryCodec.encode(FLOATS)), 0f);
+		assertArrayEquals(DOUBLES, BinaryCodec.decodeDoubles(BinaryCodec.encode(DOUBLES)), 0d);
+		assertArrayEquals(BIGINTEGERS, BinaryCodec.decodeBigIntegers(BinaryCodec.encode(BIGINTEGERS)));
+	}
+
+	@Test
+	public void roundTripsVarintValues() {
+		String shorts = BinaryCodec.encode(SHORTS, true);
+		String integers = BinaryCodec.encode(INTEGERS, true);
+		String longs = BinaryCodec.encode(LONGS, true);
+		assertEquals(BinaryCodec.VARINT, shorts.charAt(3));
+		assertEquals(BinaryCodec.VARINT, integers.charAt(3));
+		assertEquals(BinaryCodec.VARINT, longs.charAt(3));
+
+		assertArrayEquals(SHORTS, BinaryCodec.decodeShorts(shorts));
+		assertArrayEquals(INTEGERS, BinaryCodec.decodeIntegers(integers));
+		assertArrayEquals(LONGS, BinaryCodec.decodeLongs(longs));
+	}
+
+	@Test
+	public void roundTripsTimeseriesValues() {
+		long [] timestamps = createTimestamps(500);
+		String encoded = BinaryCodec.encodeDeltaOfDelta(timestamps, timestamps.length);
+		assertEquals(BinaryCodec.TYPE_LONG, encoded.charAt(2));
+		assertEquals(BinaryCodec.DELTA_OF_DELTA, encoded.charAt(3));
+		assertArrayEquals(timestamps, BinaryCodec.decodeLongs(encoded));
+		assertArrayEquals(LONGS, BinaryCodec.decodeLongs(BinaryCodec.encodeDeltaOfDelta(LONGS, LONGS.length)));
+
+		double [] samples = createSamples(500);
+		encoded = BinaryCodec.encodeXor(samples, samples.length);
+		assertEquals(BinaryCodec.TYPE_DOUBLE, encoded.charAt(2));
+		assertEquals(BinaryCodec.XOR, encoded.charAt(3));
+		assertArrayEquals(samples, BinaryCodec.decodeDoubles(encoded), 0d);
+		assertArrayEquals(DOUBLES, BinaryCodec.decodeDoubles(BinaryCodec.encodeXor(DOUBLES, DOUBLES.length)), 0d);
+	}
+
+	@Test
+	public void roundTripsEmptyValues() {
+		assertEquals(0, BinaryCodec.decodeIntegers(BinaryCodec.encode(new int [0], true)).length);
+		assertEquals(0, BinaryCodec.decodeLongs(BinaryCodec.encodeDeltaOfDelta(new long [0], 0)).length);
+		assertEquals(0, BinaryCodec.decodeDoubles(BinaryCodec.encodeXor(new double [0], 0)).length);
+	}
+
+	@Test
+	public void marksEncodedValues() {
+		assertTrue(BinaryCodec.isEncoded(BinaryCodec.encode(INTEGERS, false)));
+		assertFalse(BinaryCodec.isEncoded("1,2,3"));
+		assertFalse(BinaryCodec.isEncoded(""));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsMalformedValues() {
+		String encoded = BinaryCodec.encode(INTEGERS, false);
+		BinaryCodec.decodeIntegers(encoded.substring(0, encoded.length() - 3));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsOtherTypes() {
+		BinaryCodec.decodeIntegers(BinaryCodec.encode(LONGS, false));
+	}
+
+	@Test
+	public void roundTripsArraysWithAllEncodings() {
+		long [] timestamps = createTimestamps(100);
+		double [] samples = createSamples(100);
+
+		for (int encoding : ENCODINGS) {
+			preferences.setArrayEncoding(encoding);
+
+			assertTrue(preferences.saveBooleanArrayPref("booleans", BOOLEANS));
+			assertTrue(preferences.saveByteArrayPref("bytes", BYTES));
+			assertTrue(preferences.saveShortArrayPref("shorts", SHORTS));
+			assertTrue(preferences.saveIntegerArrayPref("integers", INTEGERS));
+			assertTrue(preferences.saveLongArrayPref("longs", LONGS));
+			assertTrue(preferences.saveLongArrayPref("timestamps", timestamps));
+			assertTrue(preferences.saveFloatArrayPref("floats", FLOATS));
+			assertTrue(preferences.saveDoubleArrayPref("doubles", DOUBLES));
+			assertTrue(preferences.saveDoubleArrayPref("samples", samples));
+			assertTrue(preferences.saveBigIntegerArrayPref("bigintegers", BIGINTEGERS));
+
+			assertArrayEquals(BOOLEANS, preferences.loadBooleanArrayPref("booleans", null));
+			assertArrayEquals(BYTES, preferences.loadByteArrayPref("bytes", null));
+			assertArrayEquals(SHORTS, preferences.loadShortArrayPref("shorts", null));
+			assertArrayEquals(INTEGERS, preferences.loadIntegerArrayPref("integers", null));
+			assertArrayEquals(LONGS, preferences.loadLongArrayPref("longs", null));
+			assertArrayEquals(timestamps, preferences.loadLongArrayPref("timestamps", null));
+			assertArrayEquals(FLOATS, preferences.loadFloatArrayPref("floats", null), 0f);
+			assertArrayEquals(DOUBLES, preferences.loadDoubleArrayPref("doubles", null), 0d);
+			assertArrayEquals(samples, preferences.loadDoubleArrayPref("samples", null), 0d);
+			assertArrayEquals(BIGINTEGERS, preferences.loadBigIntegerArrayPref("bigintegers", null));
+		}
+	}
+
+	@Test
+	public void roundTripsDatesWithAllEncodings() {
+		long [] timestamps = createTimestamps(50);
+		Date [] dates = new Date [timestamps.length];
+		GregorianCalendar [] calendars = new GregorianCalendar [timestamps.length];
+		for (int i = 0; i < timestamps.length; i++) {
+			dates[i] = new Date(timestamps[i]);
+			calendars[i] = new GregorianCalendar();
+			calendars[i].setTimeInMillis(timestamps[i]);
+		}
+
+		for (int encoding : ENCODINGS) {
+			preferences.setArrayEncoding(encoding);
+
+			assertTrue(preferences.saveDateArrayPref("dates", dates));
+			assertTrue(preferences.saveGregorianCalendarArrayPref("calendars", calendars));
+
+			assertArrayEquals(dates, preferences.loadDateArrayPref("dates", null));
+			GregorianCalendar [] loaded = preferences.loadGregorianCalendarArrayPref("calendars", null);
+			assertEquals(calendars.length, loaded.length);
+			for (int i = 0; i < calendars.length; i++) {
+				assertEquals(calendars[i].getTimeInMillis(), loaded[i].getTimeInMillis());
+			}
+		}
+	}
+
+	@Test
+	public void loadsValuesSavedWithOtherEncoding() {
+		preferences.setArrayEncoding(AdvancedSharedPreferences.ENCODING_TEXT);
+		preferences.saveIntegerArrayPref("text", INTEGERS);
+		preferences.setArrayEncoding(AdvancedSharedPreferences.ENCODING_VARINT);
+		preferences.saveIntegerArrayPref("varint", INTEGERS);
+
+		preferences.setArrayEncoding(AdvancedSharedPreferences.ENCODING_PACKED);
+		assertArrayEquals(INTEGERS, preferences.loadIntegerArrayPref("text", null));
+		assertArrayEquals(INTEGERS, preferences.loadIntegerArrayPref("varint", null));
+	}
+
+	@Test
+	public void encodedValuesAreChunked() {
+		preferences.setArrayEncoding(AdvancedSharedPreferences.ENCODING_PACKED);
+		int [] values = new int [200];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = i * 31;
+		}
+		assertTrue(preferences.saveIntegerArrayPref("chunked", values));
+		assertTrue(store.getInt("integer_a_chunked_c", -1)>1);
+		assertArrayEquals(values, preferences.loadIntegerArrayPref("chunked", null));
+	}
+}
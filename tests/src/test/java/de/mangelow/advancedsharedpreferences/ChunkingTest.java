@@ -0,0 +1,141 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Splitting of long values into chunks and the chunk count header
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+public class ChunkingTest {
+
+	private static final int VALUE_MAXSIZE = 16;
+
+	private MemoryPreferenceStore store;
+	private AdvancedSharedPreferences preferences;
+
+	@Before
+	public void setUp() {
+		store = new MemoryPreferenceStore();
+		preferences = new AdvancedSharedPreferences(store, ",", VALUE_MAXSIZE, false);
+	}
+
+	private static String [] createStrings(int length) {
+		String [] values = new String [length];
+		for (int i = 0; i < length; i++) {
+			values[i] = "value" + i;
+		}
+		return values;
+	}
+
+	@Test
+	public void savesChunksAndCount() {
+		String [] values = createStrings(20);
+		assertTrue(preferences.saveStringArrayPref("list", values));
+
+		int count = store.getInt("string_a_list_c", -1);
+		assertTrue(count>1);
+
+		StringBuilder joined = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			String chunk = store.getString("string_a_list_" + i, null);
+			assertTrue(chunk.length()<=VALUE_MAXSIZE);
+			joined.append(chunk);
+		}
+		assertFalse(store.contains("string_a_list_" + count));
+		assertArrayEquals(values, joined.toString().split(","));
+		assertArrayEquals(values, preferences.loadStringArrayPref("list", null));
+	}
+
+	@Test
+	public void shorterValueRemovesStaleChunks() {
+		preferences.saveStringArrayPref("list", createStrings(20));
+		int count = store.getInt("string_a_list_c", -1);
+
+		String [] shorter = createStrings(2);
+		preferences.saveStringArrayPref("list", shorter);
+
+		int shorter_count = store.getInt("string_a_list_c", -1);
+		assertTrue(shorter_count<count);
+		for (int i = shorter_count; i < count; i++) {
+			assertFalse(store.contains("string_a_list_" + i));
+		}
+		assertArrayEquals(shorter, preferences.loadStringArrayPref("list", null));
+	}
+
+	@Test
+	public void loadsValuesWithoutCount() {
+		// Saved by a version without the chunk count header
+		HashMap<String, Object> legacy = new HashMap<String, Object>();
+		legacy.put("string_a_list_0", "a,b,");
+		legacy.put("string_a_list_1", "c,d");
+		store.commit(legacy);
+
+		assertArrayEquals(new String [] {"a", "b", "c", "d"}, preferences.loadStringArrayPref("list", null));
+		assertTrue(preferences.delStringArrayPref("list"));
+		assertTrue(store.getAll().isEmpty());
+	}
+
+	@Test
+	public void deleteRemovesChunksAndCount() {
+		preferences.saveStringArrayPref("list", createStrings(20));
+		assertTrue(preferences.delStringArrayPref("list"));
+		assertTrue(store.getAll().isEmpty());
+		assertNull(preferences.loadStringArrayPref("list", null));
+		assertFalse(preferences.delStringArrayPref("list"));
+	}
+
+	@Test
+	public void deleteOfScalarKeepsOtherScalars() {
+		// Scalars, whose names look like a chunk count and a chunk of another scalar
+		preferences.saveIntegerPref("x", 1);
+		preferences.saveIntegerPref("x_c", 2);
+		preferences.saveIntegerPref("x_0", 3);
+
+		assertTrue(preferences.delIntegerPref("x"));
+		assertEquals(-1, preferences.loadIntegerPref("x", -1));
+		assertEquals(2, preferences.loadIntegerPref("x_c", -1));
+		assertEquals(3, preferences.loadIntegerPref("x_0", -1));
+	}
+
+	@Test
+	public void compactRemovesOrphanedChunks() {
+		preferences.saveStringArrayPref("list", createStrings(4));
+		int count = store.getInt("string_a_list_c", -1);
+
+		HashMap<String, Object> orphans = new HashMap<String, Object>();
+		orphans.put("string_a_list_" + count, "left");
+		orphans.put("string_a_list_" + (count + 1), "behind");
+		store.commit(orphans);
+
+		assertEquals(2, preferences.compact());
+		assertEquals(0, preferences.compact());
+
+		Map<String, ?> all = store.getAll();
+		assertEquals(count + 1, all.size());
+		assertArrayEquals(createStrings(4), preferences.loadStringArrayPref("list", null));
+	}
+}
@@ -0,0 +1,220 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Placement of values in the hot and the cold store
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+public class HotColdPreferenceStoreTest {
+
+	private static final int HOT_WRITES = 4;
+
+	private FailingStore hot;
+	private FailingStore cold;
+	private HotColdPreferenceStore store;
+	private AdvancedSharedPreferences preferences;
+
+	private static class FailingStore extends MemoryPreferenceStore {
+
+		private volatile boolean failing = false;
+
+		FailingStore(String name) {
+			super(name);
+		}
+
+		@Override
+		public boolean commit(Map<String, Object> changes) {
+			if(failing)return false;
+			return super.commit(changes);
+		}
+	}
+
+	@Before
+	public void setUp() {
+		hot = new FailingStore("hot");
+		cold = new FailingStore("cold");
+		store = new HotColdPreferenceStore("values", hot, cold);
+		preferences = new AdvancedSharedPreferences(store, ",", 64, false);
+	}
+
+	private static int [] createIntegers(int length) {
+		int [] values = new int [length];
+		for (int i = 0; i < length; i++) {
+			values[i] = i * 7 - 3;
+		}
+		return values;
+	}
+	private void promote(String key) {
+		for (int i = 0; i < HOT_WRITES; i++) {
+			preferences.saveIntegerPref(key, i);
+		}
+	}
+
+	@Test
+	public void promotesFrequentlyWrittenValues() {
+		for (int i = 0; i < HOT_WRITES - 1; i++) {
+			preferences.saveIntegerPref("counter", i);
+		}
+		assertTrue(hot.getAll().isEmpty());
+		assertEquals(HOT_WRITES - 2, preferences.loadIntegerPref("counter", -1));
+
+		preferences.saveIntegerPref("counter", 10);
+		assertEquals(1, store.getPromotions());
+		assertTrue(hot.contains("integer_counter"));
+		assertFalse(cold.contains("integer_counter"));
+		assertEquals(10, preferences.loadIntegerPref("counter", -1));
+	}
+
+	@Test
+	public void keepsLongValuesCold() {
+		int [] values = createIntegers(3000);
+		for (int i = 0; i < HOT_WRITES + 2; i++) {
+			assertTrue(preferences.saveIntegerArrayPref("history", values));
+		}
+		assertFalse(hot.contains("integer_a_history_0"));
+		assertArrayEquals(values, preferences.loadIntegerArrayPref("history", null));
+	}
+
+	@Test
+	public void demotesValuesThatGrow() {
+		for (int i = 0; i < HOT_WRITES; i++) {
+			preferences.saveIntegerArrayPref("small", new int [] {1, 2, 3});
+		}
+		assertTrue(hot.contains("integer_a_small_0"));
+
+		for (int i = 0; i < 200; i++) {
+			preferences.appendIntegerArrayPref("small", i);
+		}
+		assertTrue(store.getDemotions()>=1);
+		for (String key : hot.getAll().keySet()) {
+			assertFalse(key, key.contains("small"));
+		}
+		assertEquals(203, preferences.loadIntegerArrayPref("small", null).length);
+	}
+
+	@Test
+	public void demotesIdleValues() {
+		promote("counter");
+		assertTrue(hot.contains("integer_counter"));
+
+		for (int i = 0; i < 200; i++) {
+			preferences.saveIntegerPref("other" + (i % 3), i);
+		}
+		assertEquals(1, store.getDemotions());
+		assertFalse(hot.contains("integer_counter"));
+		assertEquals(HOT_WRITES - 1, preferences.loadIntegerPref("counter", -1));
+	}
+
+	@Test
+	public void hidesMovesFromListeners() {
+		final List<String> keys = Collections.synchronizedList(new ArrayList<String>());
+		store.registerListener(new PreferenceStore.Listener() {
+			public void onPreferenceChanged(PreferenceStore changed, String key) {
+				keys.add(key);
+			}
+		});
+
+		for (int i = 0; i < HOT_WRITES - 1; i++) {
+			preferences.saveIntegerPref("counter", i);
+		}
+		keys.clear();
+		preferences.saveIntegerPref("counter", 10);
+		assertEquals(1, store.getPromotions());
+		assertEquals(Collections.singletonList("integer_counter"), keys);
+
+		keys.clear();
+		for (int i = 0; i < 200; i++) {
+			preferences.saveIntegerPref("other" + (i % 3), i);
+		}
+		assertEquals(1, store.getDemotions());
+		assertFalse(keys.contains("integer_counter"));
+
+		keys.clear();
+		preferences.saveIntegerPref("counter", 11);
+		assertEquals(Collections.singletonList("integer_counter"), keys);
+	}
+
+	@Test
+	public void rollsBackHotStoreIfColdStoreFails() {
+		promote("counter");
+		int [] values = createIntegers(100);
+		preferences.saveIntegerArrayPref("history", values);
+
+		cold.failing = true;
+		boolean committed = preferences.edit()
+				.saveIntegerPref("counter", 100)
+				.saveIntegerArrayPref("history", createIntegers(50))
+				.commit();
+		cold.failing = false;
+
+		assertFalse(committed);
+		assertEquals(HOT_WRITES - 1, hot.getInt("integer_counter", -1));
+		assertEquals(HOT_WRITES - 1, store.getInt("integer_counter", -1));
+		assertArrayEquals(values, preferences.loadIntegerArrayPref("history", null));
+	}
+
+	@Test
+	public void reopensWithPlacement() {
+		promote("counter");
+		int [] values = createIntegers(3000);
+		preferences.saveIntegerArrayPref("history", values);
+
+		HotColdPreferenceStore reopened = new HotColdPreferenceStore("values", hot, cold);
+		AdvancedSharedPreferences loaded = new AdvancedSharedPreferences(reopened, ",", 64, false);
+		assertEquals(HOT_WRITES - 1, loaded.loadIntegerPref("counter", -1));
+		assertArrayEquals(values, loaded.loadIntegerArrayPref("history", null));
+		assertEquals(store.getHotCount(), reopened.getHotCount());
+	}
+
+	@Test
+	public void hotCopyWinsOverStaleColdCopy() {
+		promote("counter");
+		HashMap<String, Object> stale = new HashMap<String, Object>();
+		stale.put("integer_counter", -5);
+		cold.commit(stale);
+
+		HotColdPreferenceStore reopened = new HotColdPreferenceStore("values", hot, cold);
+		assertEquals(HOT_WRITES - 1, reopened.getInt("integer_counter", 0));
+
+		new AdvancedSharedPreferences(reopened, ",", 64, false).saveBooleanPref("other", true);
+		assertFalse(cold.contains("integer_counter"));
+	}
+
+	@Test
+	public void clearsBothStores() {
+		promote("counter");
+		preferences.saveIntegerArrayPref("history", createIntegers(3000));
+
+		assertTrue(preferences.clearAllPref());
+		assertTrue(hot.getAll().isEmpty());
+		assertTrue(cold.getAll().isEmpty());
+		assertEquals(0, store.getHotCount());
+	}
+}
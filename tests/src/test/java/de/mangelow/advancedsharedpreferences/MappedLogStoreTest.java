@@ -0,0 +1,216 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Replay, truncation and compaction of the append-only preference log
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+public class MappedLogStoreTest {
+
+	private static final int LOG_HEADER_LENGTH = 8;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File file;
+	private MappedLogStore store;
+
+	@Before
+	public void setUp() throws IOException {
+		file = new File(folder.getRoot(), "preferences.log");
+		store = new MappedLogStore(file, false);
+	}
+
+	@After
+	public void tearDown() {
+		store.close();
+	}
+
+	private static HashMap<String, Object> createChanges(String key, Object value) {
+		HashMap<String, Object> changes = new HashMap<String, Object>();
+		changes.put(key, value);
+		return changes;
+	}
+	private MappedLogStore reopen() throws IOException {
+		store.close();
+		store = new MappedLogStore(file, false);
+		return store;
+	}
+
+	@Test
+	public void replaysAllTypes() throws IOException {
+		HashMap<String, Object> changes = new HashMap<String, Object>();
+		changes.put("string", "value");
+		changes.put("integer", -7);
+		changes.put("long", 1L << 40);
+		changes.put("float", 1.5f);
+		changes.put("boolean", true);
+		assertTrue(store.commit(changes));
+
+		reopen();
+		assertEquals("value", store.getString("string", null));
+		assertEquals(-7, store.getInt("integer", 0));
+		assertEquals(1L << 40, store.getLong("long", 0));
+		assertEquals(1.5f, store.getFloat("float", 0), 0f);
+		assertTrue(store.getBoolean("boolean", false));
+		assertEquals(changes, store.getAll());
+	}
+
+	@Test
+	public void replaysOverwritesAndRemovals() throws IOException {
+		store.commit(createChanges("a", "first"));
+		store.commit(createChanges("b", "kept"));
+		store.commit(createChanges("a", "second"));
+		store.commit(createChanges("b", null));
+
+		reopen();
+		assertEquals("second", store.getString("a", null));
+		assertFalse(store.contains("b"));
+		assertEquals(1, store.getAll().size());
+	}
+
+	@Test
+	public void dropsCorruptTail() throws IOException {
+		store.commit(createChanges("a", "kept"));
+		store.commit(createChanges("b", "torn"));
+		store.close();
+
+		// Find the last record and damage its payload
+		RandomAccessFile access = new RandomAccessFile(file, "rw");
+		try {
+			long position = LOG_HEADER_LENGTH;
+			long last = -1;
+			while (position + 8<=access.length()) {
+				access.seek(position);
+				int size = access.readInt();
+				if(size<=0)break;
+				last = position;
+				position += 8 + size;
+			}
+			access.seek(last + 10);
+			int value = access.read();
+			access.seek(last + 10);
+			access.write(value ^ 0x55);
+		}
+		finally {
+			access.close();
+		}
+
+		reopen();
+		assertEquals("kept", store.getString("a", null));
+		assertFalse(store.contains("b"));
+
+		store.commit(createChanges("c", "after"));
+		reopen();
+		assertEquals("kept", store.getString("a", null));
+		assertEquals("after", store.getString("c", null));
+		assertEquals(2, store.getAll().size());
+	}
+
+	@Test
+	public void compactionKeepsLiveValues() throws IOException {
+		for (int i = 0; i < 100; i++) {
+			store.commit(createChanges("k" + (i % 10), "value" + i));
+		}
+		store.commit(createChanges("k0", null));
+		Map<String, ?> before = new HashMap<String, Object>(store.getAll());
+
+		assertTrue(store.compact());
+		assertEquals(before, store.getAll());
+		assertFalse(new File(file.getPath() + ".tmp").exists());
+
+		reopen();
+		assertEquals(before, store.getAll());
+		assertEquals(9, store.getAll().size());
+		assertEquals("value99", store.getString("k9", null));
+	}
+
+	@Test
+	public void overwritesDoNotGrowLog() throws IOException {
+		StringBuilder value = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			value.append('x');
+		}
+		for (int i = 0; i < 20000; i++) {
+			store.commit(createChanges("k" + (i % 10), value.toString() + i));
+		}
+		assertTrue(file.length()<=256 * 1024);
+
+		reopen();
+		assertEquals(value.toString() + 19999, store.getString("k9", null));
+		assertEquals(10, store.getAll().size());
+	}
+
+	@Test
+	public void commitsAfterClose() throws IOException {
+		store.commit(createChanges("a", 1));
+		store.close();
+		assertTrue(store.commit(createChanges("b", 2)));
+
+		reopen();
+		assertEquals(1, store.getInt("a", 0));
+		assertEquals(2, store.getInt("b", 0));
+	}
+
+	@Test
+	public void clearAndDelete() throws IOException {
+		store.commit(createChanges("a", 1));
+		assertTrue(store.clear());
+		reopen();
+		assertTrue(store.getAll().isEmpty());
+
+		store.commit(createChanges("a", 1));
+		assertTrue(store.delete());
+		assertFalse(file.exists());
+	}
+
+	@Test
+	public void storesPreferences() throws IOException {
+		AdvancedSharedPreferences preferences = new AdvancedSharedPreferences(store, ",", 16, false);
+		int [] values = new int [100];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = i * 3;
+		}
+		assertTrue(preferences.saveIntegerArrayPref("values", values));
+		assertTrue(preferences.saveStringPref("name", "value"));
+
+		preferences = new AdvancedSharedPreferences(reopen(), ",", 16, false);
+		assertArrayEquals(values, preferences.loadIntegerArrayPref("values", null));
+		assertEquals("value", preferences.loadStringPref("name", null));
+		assertTrue(preferences.delIntegerArrayPref("values"));
+
+		preferences = new AdvancedSharedPreferences(reopen(), ",", 16, false);
+		assertNull(preferences.loadIntegerArrayPref("values", null));
+	}
+}
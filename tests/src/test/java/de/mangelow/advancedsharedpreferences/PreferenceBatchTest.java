@@ -0,0 +1,124 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Batches of saves, appends and deletes, that are written together or not at all
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+public class PreferenceBatchTest {
+
+	private MemoryPreferenceStore store;
+	private AdvancedSharedPreferences preferences;
+
+	@Before
+	public void setUp() {
+		store = new MemoryPreferenceStore();
+		preferences = new AdvancedSharedPreferences(store, ",", 16, false);
+	}
+
+	@Test
+	public void commitWritesAllChanges() {
+		preferences.saveIntegerPref("old", 1);
+
+		PreferenceBatch batch = preferences.edit()
+				.saveIntegerPref("a", 2)
+				.saveStringArrayPref("strings", new String [] {"aaaaaaaaaaaa", "bbbbbbbbbbbbbbbbb", "c"})
+				.delIntegerPref("old");
+		assertEquals(-1, preferences.loadIntegerPref("a", -1));
+
+		assertTrue(batch.commit());
+		assertEquals(2, preferences.loadIntegerPref("a", -1));
+		assertArrayEquals(new String [] {"aaaaaaaaaaaa", "bbbbbbbbbbbbbbbbb", "c"}, preferences.loadStringArrayPref("strings", null));
+		assertEquals(-1, preferences.loadIntegerPref("old", -1));
+	}
+
+	@Test
+	public void failedSaveWritesNothing() {
+		Map<String, ?> before = new HashMap<String, Object>(store.getAll());
+		boolean committed = preferences.edit()
+				.saveIntegerPref("a", 1)
+				.saveStringArrayPref("bad", new String [] {"x,y"})
+				.commit();
+
+		assertFalse(committed);
+		assertEquals(before, store.getAll());
+		assertEquals(-1, preferences.loadIntegerPref("a", -1));
+	}
+
+	@Test
+	public void failedDeleteWritesNothing() {
+		boolean committed = preferences.edit()
+				.saveIntegerPref("a", 1)
+				.delIntegerPref("missing")
+				.commit();
+
+		assertFalse(committed);
+		assertTrue(store.getAll().isEmpty());
+	}
+
+	@Test
+	public void discardWritesNothing() {
+		PreferenceBatch batch = preferences.edit().saveIntegerPref("a", 1);
+		batch.discard();
+		assertTrue(store.getAll().isEmpty());
+		assertEquals(-1, preferences.loadIntegerPref("a", -1));
+	}
+
+	@Test
+	public void appendsAndListsInBatch() {
+		IntList list = new IntList();
+		list.add(4);
+		list.add(5);
+
+		assertTrue(preferences.edit()
+				.appendIntegerArrayPref("values", 1, 2)
+				.appendIntegerArrayPref("values", 3)
+				.saveIntegerListPref("list", list)
+				.commit());
+		assertArrayEquals(new int [] {1, 2, 3}, preferences.loadIntegerArrayPref("values", null));
+		IntList loaded = preferences.loadIntegerListPref("list", null);
+		assertEquals(2, loaded.size());
+		assertEquals(4, loaded.get(0));
+		assertEquals(5, loaded.get(1));
+	}
+
+	@Test
+	public void laterChangesOfKeyWin() {
+		assertTrue(preferences.edit()
+				.saveStringArrayPref("strings", new String [] {"aaaaaaaaaaaa", "bbbbbbbbbbbbbbbbb", "c"})
+				.saveStringArrayPref("strings", new String [] {"d"})
+				.commit());
+		assertArrayEquals(new String [] {"d"}, preferences.loadStringArrayPref("strings", null));
+		assertFalse(store.contains("string_a_strings_1"));
+
+		assertTrue(preferences.edit()
+				.saveIntegerPref("a", 1)
+				.delIntegerPref("a")
+				.commit());
+		assertEquals(-1, preferences.loadIntegerPref("a", -1));
+	}
+}
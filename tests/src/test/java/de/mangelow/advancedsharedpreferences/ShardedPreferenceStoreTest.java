@@ -0,0 +1,205 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Routing of the keys of a value into one shard and the writes across shards
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+public class ShardedPreferenceStoreTest {
+
+	private static final int SHARDS = 4;
+
+	private CountingStore [] shards;
+	private ShardedPreferenceStore store;
+	private AdvancedSharedPreferences preferences;
+
+	private static class CountingStore extends MemoryPreferenceStore {
+
+		private final AtomicInteger commits = new AtomicInteger();
+
+		CountingStore(String name) {
+			super(name);
+		}
+
+		@Override
+		public boolean commit(Map<String, Object> changes) {
+			commits.incrementAndGet();
+			return super.commit(changes);
+		}
+	}
+
+	@Before
+	public void setUp() {
+		shards = new CountingStore [SHARDS];
+		for (int i = 0; i < SHARDS; i++) {
+			shards[i] = new CountingStore("shards_" + i);
+		}
+		store = new ShardedPreferenceStore("shards", shards, null);
+		preferences = new AdvancedSharedPreferences(store, ",", 16, false);
+	}
+
+	private int getCommits() {
+		int commits = 0;
+		for (CountingStore shard : shards) {
+			commits += shard.commits.get();
+		}
+		return commits;
+	}
+
+	@Test
+	public void parsesValueNames() {
+		assertEquals("a_history", PreferenceKeys.getValueName("integer_a_history_0"));
+		assertEquals("a_history", PreferenceKeys.getValueName("integer_a_history_12"));
+		assertEquals("a_history", PreferenceKeys.getValueName("integer_a_history_c"));
+		assertEquals("a_history", PreferenceKeys.getValueName("integer_a_history"));
+		assertEquals("al_history", PreferenceKeys.getValueName("integer_al_history_3"));
+		assertEquals("a_track", PreferenceKeys.getValueName("location_latitude_a_track_3"));
+		assertEquals("a_track", PreferenceKeys.getValueName("location_a_track_c"));
+		assertEquals("last", PreferenceKeys.getValueName("location_provider_last"));
+		assertEquals("name", PreferenceKeys.getValueName("string_name"));
+
+		assertEquals("integer_a_history", PreferenceKeys.getValueKey("integer_a_history_0"));
+		assertEquals("location_a_track", PreferenceKeys.getValueKey("location_speed_a_track_c"));
+	}
+
+	@Test
+	public void routesKeysOfValueToOneShard() {
+		String [][] values = {
+			{"integer_a_history_0", "integer_a_history_12", "integer_a_history_c", "integer_a_history"},
+			{"location_a_track_0", "location_provider_a_track_0", "location_latitude_a_track_3", "location_a_track_c", "location_speed_a_track_c"},
+			{"location_provider_last", "location_latitude_last", "location_speed_last"},
+			{"string_name_0", "string_name_c", "string_name"},
+			{"integer_al_list_0", "integer_al_list_c"}
+		};
+		for (int count : new int [] {1, 3, SHARDS, 7}) {
+			for (String [] keys : values) {
+				int shard = ShardedPreferenceStore.BY_VALUE.getShard(keys[0], count);
+				assertTrue(shard>=0&&shard<count);
+				for (String key : keys) {
+					assertEquals(key, shard, ShardedPreferenceStore.BY_VALUE.getShard(key, count));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void routesFamiliesToOneShard() {
+		ShardedPreferenceStore.Router router = ShardedPreferenceStore.BY_FAMILY;
+		assertEquals(router.getShard("integer_a_x_0", SHARDS), router.getShard("integer_y", SHARDS));
+		assertEquals(router.getShard("location_latitude_a_x_0", SHARDS), router.getShard("location_z", SHARDS));
+	}
+
+	@Test
+	public void spreadsValuesOverShards() {
+		HashSet<Integer> used = new HashSet<Integer>();
+		for (int i = 0; i < 20; i++) {
+			used.add(ShardedPreferenceStore.BY_VALUE.getShard("integer_value" + i, SHARDS));
+		}
+		assertTrue(used.size()>1);
+	}
+
+	@Test
+	public void savesChunkedValueInOneShard() {
+		int [] values = new int [500];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = i * 7 - 3;
+		}
+		int commits = getCommits();
+		assertTrue(preferences.saveIntegerArrayPref("history", values));
+		assertEquals(commits + 1, getCommits());
+
+		int shard = ShardedPreferenceStore.BY_VALUE.getShard("integer_a_history_0", SHARDS);
+		int count = shards[shard].getInt("integer_a_history_c", -1);
+		assertTrue(count>1);
+		for (int i = 0; i < count; i++) {
+			assertTrue(shards[shard].contains("integer_a_history_" + i));
+		}
+
+		assertArrayEquals(values, preferences.loadIntegerArrayPref("history", null));
+		assertTrue(preferences.appendIntegerArrayPref("history", 5));
+		assertEquals(values.length + 1, preferences.loadIntegerArrayPref("history", null).length);
+	}
+
+	@Test
+	public void mergesShards() {
+		for (int i = 0; i < 20; i++) {
+			preferences.saveIntegerPref("value" + i, i);
+		}
+		int used = 0;
+		int size = 0;
+		for (CountingStore shard : shards) {
+			if(!shard.getAll().isEmpty())used++;
+			size += shard.getAll().size();
+		}
+		assertTrue(used>1);
+		assertEquals(20, size);
+		assertEquals(20, store.getAll().size());
+		assertEquals(7, store.getInt("integer_value7", -1));
+	}
+
+	@Test
+	public void commitsBatchAcrossShards() {
+		PreferenceBatch batch = preferences.edit();
+		for (int i = 0; i < 20; i++) {
+			batch.saveIntegerPref("value" + i, i + 100);
+		}
+		assertTrue(batch.commit());
+		for (int i = 0; i < 20; i++) {
+			assertEquals(i + 100, preferences.loadIntegerPref("value" + i, -1));
+		}
+
+		assertTrue(preferences.clearAllPref());
+		assertTrue(store.getAll().isEmpty());
+	}
+
+	@Test
+	public void forwardsListenerCalls() {
+		final HashSet<String> keys = new HashSet<String>();
+		final PreferenceStore [] stores = new PreferenceStore [1];
+		PreferenceStore.Listener listener = new PreferenceStore.Listener() {
+			public void onPreferenceChanged(PreferenceStore changed, String key) {
+				synchronized (keys) {
+					keys.add(key);
+					stores[0] = changed;
+				}
+			}
+		};
+		store.registerListener(listener);
+		preferences.saveIntegerPref("value", 1);
+		synchronized (keys) {
+			assertTrue(keys.contains("integer_value"));
+			assertEquals(store, stores[0]);
+			keys.clear();
+		}
+
+		store.unregisterListener(listener);
+		preferences.saveIntegerPref("value", 2);
+		synchronized (keys) {
+			assertTrue(keys.isEmpty());
+		}
+	}
+}
@@ -0,0 +1,149 @@
+/***
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License. You may obtain
+ * a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package de.mangelow.advancedsharedpreferences;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Saves and deletes, that are kept in memory and written later with a single commit
+ *
+ * @author Philipp Mangelow <pmangelow at googlemail com>
+ */
+public class WriteBehindTest {
+
+	private static final long FLUSH_INTERVAL = 60000;
+	private static final long TIMEOUT = 5000;
+
+	private CountingStore store;
+	private AdvancedSharedPreferences preferences;
+
+	private static class CountingStore extends MemoryPreferenceStore {
+
+		private final AtomicInteger commits = new AtomicInteger();
+
+		@Override
+		public boolean commit(Map<String, Object> changes) {
+			commits.incrementAndGet();
+			return super.commit(changes);
+		}
+	}
+
+	@Before
+	public void setUp() {
+		store = new CountingStore();
+		preferences = new AdvancedSharedPreferences(store, ",", 16, false);
+	}
+
+	@After
+	public void tearDown() {
+		preferences.close();
+	}
+
+	@Test
+	public void pendingChangesAreVisibleBeforeFlush() {
+		preferences.saveIntegerPref("old", 1);
+		preferences.setWriteBehind(true, FLUSH_INTERVAL);
+		int commits = store.commits.get();
+
+		assertTrue(preferences.saveIntegerPref("a", 2));
+		assertTrue(preferences.saveStringArrayPref("strings", new String [] {"aaaaaaaaaaaa", "bbbbbbbbbbbbbbbbb"}));
+		assertTrue(preferences.delIntegerPref("old"));
+
+		assertEquals(commits, store.commits.get());
+		assertFalse(store.contains("integer_a"));
+		assertTrue(store.contains("integer_old"));
+
+		assertEquals(2, preferences.loadIntegerPref("a", -1));
+		assertArrayEquals(new String [] {"aaaaaaaaaaaa", "bbbbbbbbbbbbbbbbb"}, preferences.loadStringArrayPref("strings", null));
+		assertEquals(-1, preferences.loadIntegerPref("old", -1));
+	}
+
+	@Test
+	public void flushWritesPendingChangesWithOneCommit() {
+		preferences.saveIntegerPref("old", 1);
+		preferences.setWriteBehind(true, FLUSH_INTERVAL);
+		int commits = store.commits.get();
+
+		for (int i = 0; i < 10; i++) {
+			preferences.saveIntegerPref("a", i);
+		}
+		preferences.saveStringArrayPref("strings", new String [] {"aaaaaaaaaaaa", "bbbbbbbbbbbbbbbbb"});
+		preferences.delIntegerPref("old");
+
+		assertTrue(preferences.flush());
+		assertEquals(commits + 1, store.commits.get());
+		assertEquals(9, store.getInt("integer_a", -1));
+		assertTrue(store.getInt("string_a_strings_c", -1)>1);
+		assertFalse(store.contains("integer_old"));
+
+		assertTrue(preferences.flush());
+		assertEquals(commits + 1, store.commits.get());
+	}
+
+	@Test
+	public void flushesWithinInterval() throws InterruptedException {
+		preferences.setWriteBehind(true, 50);
+		preferences.saveIntegerPref("a", 1);
+
+		long end = System.currentTimeMillis() + TIMEOUT;
+		while (!store.contains("integer_a")&&System.currentTimeMillis()<end) {
+			Thread.sleep(10);
+		}
+		assertEquals(1, store.getInt("integer_a", -1));
+	}
+
+	@Test
+	public void disablingWritesPendingChanges() {
+		preferences.setWriteBehind(true, FLUSH_INTERVAL);
+		preferences.saveIntegerPref("a", 1);
+		assertFalse(store.contains("integer_a"));
+
+		preferences.setWriteBehind(false);
+		assertEquals(1, store.getInt("integer_a", -1));
+
+		preferences.saveIntegerPref("a", 2);
+		assertEquals(2, store.getInt("integer_a", -1));
+	}
+
+	@Test
+	public void closeWritesPendingChanges() {
+		preferences.setWriteBehind(true, FLUSH_INTERVAL);
+		preferences.saveIntegerPref("a", 1);
+
+		preferences.close();
+		assertEquals(1, store.getInt("integer_a", -1));
+	}
+
+	@Test
+	public void batchCommitIsPending() {
+		preferences.setWriteBehind(true, FLUSH_INTERVAL);
+		assertTrue(preferences.edit().saveIntegerPref("a", 1).saveIntegerPref("b", 2).commit());
+		assertFalse(store.contains("integer_a"));
+		assertEquals(1, preferences.loadIntegerPref("a", -1));
+
+		assertTrue(preferences.flush());
+		assertEquals(1, store.getInt("integer_a", -1));
+		assertEquals(2, store.getInt("integer_b", -1));
+	}
+}